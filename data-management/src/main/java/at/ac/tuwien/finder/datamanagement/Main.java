@@ -4,7 +4,9 @@ import at.ac.tuwien.finder.datamanagement.catalog.dataset.EventDataSet;
 import at.ac.tuwien.finder.datamanagement.catalog.dataset.OrganizationalDataSet;
 import at.ac.tuwien.finder.datamanagement.catalog.dataset.SpatialDataSet;
 import at.ac.tuwien.finder.datamanagement.integration.ComplexDataIntegrator;
+import at.ac.tuwien.finder.datamanagement.integration.DeltaDataIntegrator;
 import at.ac.tuwien.finder.datamanagement.integration.SimpleDataIntegrator;
+import at.ac.tuwien.finder.datamanagement.integration.spatial.RoomAddressMaterializer;
 import at.ac.tuwien.finder.datamanagement.integration.spatial.RoomBuildingTractLinker;
 import at.ac.tuwien.finder.datamanagement.integration.spatial.RoomFloorSectionLinker;
 import at.ac.tuwien.finder.datamanagement.integration.spatial.SimpleSpatialIntegrationPlan;
@@ -20,7 +22,9 @@ import at.ac.tuwien.finder.datamanagement.util.TaskManager;
 import org.eclipse.rdf4j.model.IRI;
 import org.openqa.selenium.firefox.FirefoxDriver;
 
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.Map;
@@ -44,7 +48,8 @@ public class Main {
             RestTISSPersonCrawler restTISSPersonCrawler = new RestTISSPersonCrawler();
             SimpleSpatialIntegrationPlan simpleSpatialIntegrationPlan = new SimpleSpatialIntegrationPlan(
                 new SimpleDataIntegrator(SpatialDataSet.NS, dataSetMapping),
-                new RoomBuildingTractLinker(), new RoomFloorSectionLinker());
+                Arrays.asList(new RoomBuildingTractLinker(), new RoomFloorSectionLinker()),
+                Collections.singletonList(new RoomAddressMaterializer()));
             ComplexDataIntegrator complexDataIntegrator = new ComplexDataIntegrator(taskManager,
                 simpleSpatialIntegrationPlan);) {
             //Mediator for spatial data.
@@ -53,7 +58,7 @@ public class Main {
                     new WKTIndoorPlanAcquirer(), seleniumTISSFacilityAcquirer);
             //Mediator for organizational data
             OrganizationalMediator organizationalMediator = new OrganizationalMediator(taskManager,
-                new SimpleDataIntegrator(OrganizationalDataSet.NS, dataSetMapping),
+                new DeltaDataIntegrator(OrganizationalDataSet.NS, dataSetMapping),
                 restTISSPersonCrawler);
             //mediatorManager
             //    .startMediation(new MediationPlan(spatialMediator, organizationalMediator));
@@ -1,31 +1,83 @@
 package at.ac.tuwien.finder.datamanagement;
 
+import at.ac.tuwien.finder.datamanagement.cache.QueryCacheSettings;
+import at.ac.tuwien.finder.datamanagement.cache.QueryResultCache;
 import at.ac.tuwien.finder.datamanagement.catalog.DataCatalog;
 import at.ac.tuwien.finder.datamanagement.catalog.dataset.DataSet;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.EventDataSet;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.OrganizationalDataSet;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.SpatialDataSet;
+import at.ac.tuwien.finder.datamanagement.connection.ConnectionPool;
+import at.ac.tuwien.finder.datamanagement.connection.ConnectionPoolSettings;
+import at.ac.tuwien.finder.datamanagement.integration.bulk.BulkLoadSettings;
 import at.ac.tuwien.finder.datamanagement.integration.exception.TripleStoreManagerException;
+import at.ac.tuwien.finder.datamanagement.replication.ReadOperation;
+import at.ac.tuwien.finder.datamanagement.replication.ReadRouter;
+import at.ac.tuwien.finder.datamanagement.replication.Replica;
+import at.ac.tuwien.finder.datamanagement.replication.ReplicaSettings;
+import at.ac.tuwien.finder.datamanagement.sharding.Shard;
+import at.ac.tuwien.finder.datamanagement.sharding.ShardSettings;
+import at.ac.tuwien.finder.datamanagement.staging.ActiveGraphs;
+import at.ac.tuwien.finder.datamanagement.store.GeoSparqlSupport;
+import at.ac.tuwien.finder.datamanagement.store.StoreSettings;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.config.RepositoryConfig;
 import org.eclipse.rdf4j.repository.config.RepositoryConfigException;
+import org.eclipse.rdf4j.repository.config.RepositoryImplConfig;
 import org.eclipse.rdf4j.repository.manager.RemoteRepositoryManager;
 import org.eclipse.rdf4j.repository.manager.RepositoryManager;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.federation.Federation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
 
 /**
  * This class represents a triple store manager that manages the access to the local triple store.
  * <p>
  * This class represents a triple store manager that manages details about the triple store, the
  * structure of the data (graphs) and access to it.
+ * <p>
+ * The triple store is either a remote repository or a native or memory store that is embedded
+ * into this process (see {@code db.mode} in the data management properties file). The repository
+ * of an embedded triple store is created, if it does not exist yet.
+ * <p>
+ * Reads can be distributed over read replicas of the triple store ({@code db.replicas}), whereas
+ * writes are always sent to the primary triple store (see {@link #getPrimaryConnection()}). The
+ * results of the queries on read connections are cached (see {@link QueryResultCache}).
+ * <p>
+ * Data sets can be moved out of the main repository into shards ({@code db.shards}, see
+ * {@link ShardSettings}). The connections for a resource or named graph are routed to the shard
+ * that holds its data set (see {@link #getConnection(IRI)}), whereas the catalog and the data
+ * sets without shard remain in the main repository. Queries that span several shards are
+ * answered by a federation of the main repository and all the shards (see
+ * {@link #getFederatedConnection()}).
+ * <p>
+ * The data sets are loaded into staging graphs, which replace the active graphs of the data sets
+ * atomically, when the load has been finished (see {@link ActiveGraphs}). Read connections only
+ * observe the active graphs and the catalog, whereas writers shall write into the graph returned
+ * by {@link #getWriteGraph(IRI)}.
  *
  * @author Kevin Haller
  */
@@ -35,11 +87,18 @@ public class TripleStoreManager implements AutoCloseable {
 
     public static final IRI BASE;
     private static final String GRAPH_DB_NAME = "finder-repo";
+    private static final String MAIN_SCOPE = "";
+    private static final String FEDERATION_SCOPE = "federation";
 
     private static TripleStoreManager tripleStoreManager;
     private static Semaphore tripleStoreReference = new Semaphore(-1);
-    private static URL DEFAULT_TRIPLE_STORE_URL;
+    private static StoreSettings defaultStoreSettings;
     private static URL baseURL;
+    private static ConnectionPoolSettings connectionPoolSettings;
+    private static ReplicaSettings replicaSettings;
+    private static QueryCacheSettings queryCacheSettings;
+    private static List<ShardSettings> shardSettings;
+    private static BulkLoadSettings bulkLoadSettings;
 
     static {
         Properties dataManagementProperties = new Properties();
@@ -47,10 +106,40 @@ public class TripleStoreManager implements AutoCloseable {
             .getResourceAsStream("config/datamanagement.properties")) {
             dataManagementProperties.load(propertiesStream);
             try {
-                DEFAULT_TRIPLE_STORE_URL = new URL(dataManagementProperties.getProperty("db.url"));
-            } catch (MalformedURLException e) {
-                logger.error("The default location url {} of the triple store is malformed. {}",
-                    dataManagementProperties.getProperty("db.url"), e);
+                defaultStoreSettings = StoreSettings.fromProperties(dataManagementProperties);
+            } catch (IllegalArgumentException e) {
+                logger.error("The settings of the triple store are malformed. {}", e);
+            }
+            try {
+                connectionPoolSettings =
+                    ConnectionPoolSettings.fromProperties(dataManagementProperties);
+            } catch (NumberFormatException e) {
+                logger.error("The settings of the connection pool are malformed. {}", e);
+                connectionPoolSettings = ConnectionPoolSettings.defaults();
+            }
+            try {
+                replicaSettings = ReplicaSettings.fromProperties(dataManagementProperties);
+            } catch (IllegalArgumentException e) {
+                logger.error("The settings of the read replicas are malformed. {}", e);
+                replicaSettings = ReplicaSettings.defaults();
+            }
+            try {
+                queryCacheSettings = QueryCacheSettings.fromProperties(dataManagementProperties);
+            } catch (NumberFormatException e) {
+                logger.error("The settings of the query result cache are malformed. {}", e);
+                queryCacheSettings = QueryCacheSettings.defaults();
+            }
+            try {
+                shardSettings = ShardSettings.fromProperties(dataManagementProperties);
+            } catch (IllegalArgumentException e) {
+                logger.error("The settings of the shards are malformed. {}", e);
+                shardSettings = Collections.emptyList();
+            }
+            try {
+                bulkLoadSettings = BulkLoadSettings.fromProperties(dataManagementProperties);
+            } catch (NumberFormatException e) {
+                logger.error("The settings of the bulk loader are malformed. {}", e);
+                bulkLoadSettings = BulkLoadSettings.defaults();
             }
         } catch (IOException e) {
             logger.error("The property file for data-manegement cannot be accessed. {}", e);
@@ -62,20 +151,30 @@ public class TripleStoreManager implements AutoCloseable {
 
     private RepositoryManager repositoryManager;
     private Repository repository;
+    private ConnectionPool connectionPool;
+    private List<RepositoryManager> replicaRepositoryManagers = new ArrayList<>();
+    private ReadRouter readRouter;
+    private QueryResultCache queryResultCache;
+    private ActiveGraphs activeGraphs;
+    private boolean geoSparqlDisabled = false;
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+    private Map<URL, RepositoryManager> shardRepositoryManagers = new HashMap<>();
+    private Repository federatedRepository;
+    private ConnectionPool federatedConnectionPool;
     private DataCatalog dataCatalog;
 
     /**
      * Gets an instance of the {@link TripleStoreManager} and increments the reference counter. If
      * the reference counter is 0, a new instance will be created, otherwise the already existing
-     * triple store instance will be returned. The location of the triple store will be the
-     * {@code DEFAULT_TRIPLE_STORE_URL} read in from the data management properties file.
+     * triple store instance will be returned. The triple store will be the one configured in the
+     * data management properties file.
      *
      * @return an instance of the {@link TripleStoreManager}, or null, if the triple store manager
      * cannot be established.
      */
     public synchronized static TripleStoreManager getInstance() {
         try {
-            return getInstance(DEFAULT_TRIPLE_STORE_URL);
+            return getInstance(defaultStoreSettings);
         } catch (TripleStoreManagerException e) {
             return null;
         }
@@ -84,8 +183,8 @@ public class TripleStoreManager implements AutoCloseable {
     /**
      * Gets an instance of the {@link TripleStoreManager} and increments the reference counter. If
      * the reference counter is 0, a new instance will be created, otherwise the already existing
-     * triple store instance will be returned. The location of the triple store will be the
-     * {@code DEFAULT_TRIPLE_STORE_URL} read in from the data management properties file.
+     * triple store instance will be returned. The triple store will be the one configured in the
+     * data management properties file.
      *
      * @return an instance of the {@link TripleStoreManager}.
      * @throws TripleStoreManagerException if no instance can be created.
@@ -93,7 +192,7 @@ public class TripleStoreManager implements AutoCloseable {
     public synchronized static TripleStoreManager getInstanceOrThrowException()
         throws TripleStoreManagerException {
         try {
-            return getInstance(DEFAULT_TRIPLE_STORE_URL);
+            return getInstance(defaultStoreSettings);
         } catch (TripleStoreManagerException e) {
             throw e;
         }
@@ -111,21 +210,45 @@ public class TripleStoreManager implements AutoCloseable {
      */
     public synchronized static TripleStoreManager getInstance(URL dbURL)
         throws TripleStoreManagerException {
+        return getInstance(StoreSettings.remote(dbURL));
+    }
+
+    /**
+     * Gets an instance of the {@link TripleStoreManager} and increments the reference counter. If
+     * the reference counter is 0, a new instance will be created, otherwise the already existing
+     * triple store instance will be returned. The triple store will be the one described by the
+     * given {@link StoreSettings}.
+     *
+     * @param storeSettings {@link StoreSettings} describing the triple store.
+     * @return an instance of the {@link TripleStoreManager}.
+     * @throws TripleStoreManagerException if no instance can be created.
+     */
+    public synchronized static TripleStoreManager getInstance(StoreSettings storeSettings)
+        throws TripleStoreManagerException {
+        if (storeSettings == null) {
+            throw new TripleStoreManagerException("The triple store has not been configured.");
+        }
+        URL dbURL = storeSettings.getLocation();
         if (baseURL == null || dbURL.equals(baseURL)) {
             tripleStoreReference.release();
             logger.debug("New instance of triple store manager requested. Total references: {} ",
                 tripleStoreReference.availablePermits() + 1);
             if (tripleStoreManager == null) {
+                RepositoryManager repositoryManager = storeSettings.createRepositoryManager();
                 try {
-                    RepositoryManager repositoryManager =
-                        new RemoteRepositoryManager(dbURL.toString());
                     repositoryManager.initialize();
-                    tripleStoreManager = new TripleStoreManager(repositoryManager);
+                    try {
+                        tripleStoreManager =
+                            new TripleStoreManager(repositoryManager, storeSettings);
+                    } catch (TripleStoreManagerException | RuntimeException e) {
+                        repositoryManager.shutDown();
+                        throw e;
+                    }
                     baseURL = dbURL;
-                    logger.debug("The triple store manager {} has been initialized.",
-                        tripleStoreManager);
+                    logger.debug("The triple store manager {} has been initialized for {}.",
+                        tripleStoreManager, storeSettings);
                 } catch (TripleStoreManagerException | RepositoryException e) {
-                    logger.debug("The triple store manager cannot be established. {}", e);
+                    logger.error("The triple store manager cannot be established. {}", e);
                 }
             }
             return tripleStoreManager;
@@ -137,29 +260,152 @@ public class TripleStoreManager implements AutoCloseable {
     }
 
     /**
-     * Creates a new instance of {@link TripleStoreManager}. The configuration file for the
-     * {@link Repository} must be stored at {@code STORE_ASSEMBLY_FILE} and must be valid,
-     * otherwise a {@link TripleStoreManagerException} will be thrown.
+     * Creates a new instance of {@link TripleStoreManager} for the repository
+     * {@code GRAPH_DB_NAME} of the given {@link RepositoryManager}. If the triple store is
+     * embedded, a missing repository is created, otherwise a {@link TripleStoreManagerException}
+     * will be thrown. If the construction fails, the resources acquired before are released (see
+     * {@link #releaseResources()}).
+     *
+     * @param repositoryManager the initialized {@link RepositoryManager} of the triple store.
+     * @param storeSettings     {@link StoreSettings} describing the triple store.
+     * @throws TripleStoreManagerException if the repository cannot be located or created.
      */
-    private TripleStoreManager(RepositoryManager repositoryManager)
+    private TripleStoreManager(RepositoryManager repositoryManager, StoreSettings storeSettings)
         throws TripleStoreManagerException {
+        if (storeSettings.getMode().isEmbedded()) {
+            GeoSparqlSupport.configure(storeSettings.isGeoSparqlEnabled());
+            this.geoSparqlDisabled = !storeSettings.isGeoSparqlEnabled();
+        }
+        this.repositoryManager = repositoryManager;
         try {
-            if (repositoryManager.hasRepositoryConfig(GRAPH_DB_NAME)) {
-                repository = repositoryManager.getRepository(GRAPH_DB_NAME);
-            } else {
-                logger.error(String
-                    .format("The repository with the name %s cannot be located at %s",
-                        GRAPH_DB_NAME, baseURL));
-                System.err.println(String
-                    .format("The repository with the name %s cannot be located at %s",
-                        GRAPH_DB_NAME, baseURL));
-                System.exit(1);
+            this.repository = getRepository(repositoryManager, GRAPH_DB_NAME, storeSettings);
+            this.connectionPool = new ConnectionPool(repository, connectionPoolSettings);
+            createShards(storeSettings);
+            this.readRouter =
+                new ReadRouter(new Replica(storeSettings.getLocation().toString(), connectionPool),
+                    createReplicas(), replicaSettings, DataCatalog::getModificationDates);
+            DataCatalog.addModificationListener(readRouter);
+            List<IRI> dataSets =
+                Arrays.asList(SpatialDataSet.NS, OrganizationalDataSet.NS, EventDataSet.NS);
+            if (queryCacheSettings.isEnabled()) {
+                this.queryResultCache = new QueryResultCache(queryCacheSettings, dataSets,
+                    DataCatalog.NS, () -> DataCatalog.getModificationDates(this));
+                DataCatalog.addModificationListener(queryResultCache);
             }
+            this.activeGraphs = new ActiveGraphs(this, dataSets,
+                Collections.singletonList(SpatialDataSet.DERIVED_GRAPH), DataCatalog.NS,
+                queryCacheSettings.getRefreshInterval());
+            this.dataCatalog = new DataCatalog(this);
+        } catch (TripleStoreManagerException | RuntimeException e) {
+            releaseResources();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the repository with the given name of the given {@link RepositoryManager}. If the
+     * triple store is embedded, a missing repository is created, otherwise a
+     * {@link TripleStoreManagerException} will be thrown.
+     *
+     * @param repositoryManager the initialized {@link RepositoryManager} of the triple store.
+     * @param repositoryName    the name of the repository.
+     * @param storeSettings     {@link StoreSettings} describing the triple store.
+     * @return the initialized {@link Repository} with the given name.
+     * @throws TripleStoreManagerException if the repository cannot be located or created.
+     */
+    private static Repository getRepository(RepositoryManager repositoryManager,
+        String repositoryName, StoreSettings storeSettings) throws TripleStoreManagerException {
+        try {
+            if (!repositoryManager.hasRepositoryConfig(repositoryName)) {
+                Optional<RepositoryImplConfig> repositoryImplConfig =
+                    storeSettings.createRepositoryImplConfig();
+                if (!repositoryImplConfig.isPresent()) {
+                    throw new TripleStoreManagerException(String
+                        .format("The repository with the name %s cannot be located at %s",
+                            repositoryName, storeSettings.getLocation()));
+                }
+                logger.info("The repository with the name {} is created at {}.", repositoryName,
+                    storeSettings.getLocation());
+                repositoryManager.addRepositoryConfig(
+                    new RepositoryConfig(repositoryName, "Finder repository",
+                        repositoryImplConfig.get()));
+            }
+            return repositoryManager.getRepository(repositoryName);
         } catch (RepositoryException | RepositoryConfigException e) {
             throw new TripleStoreManagerException(e);
         }
-        this.repositoryManager = repositoryManager;
-        this.dataCatalog = new DataCatalog(this);
+    }
+
+    /**
+     * Creates the shards that are configured in the data management properties file and the
+     * federation of the main repository and the shards. A shard that is located in the same
+     * triple store as the main repository or another shard shares its {@link RepositoryManager}.
+     *
+     * @param storeSettings {@link StoreSettings} describing the main triple store.
+     * @throws TripleStoreManagerException if the repository of a shard cannot be located or
+     *                                     created.
+     */
+    private void createShards(StoreSettings storeSettings) throws TripleStoreManagerException {
+        if (shardSettings.isEmpty()) {
+            return;
+        }
+        Federation federation = new Federation();
+        federation.addMember(repository);
+        for (ShardSettings settings : shardSettings) {
+            URL location = settings.getStoreSettings().getLocation();
+            RepositoryManager shardRepositoryManager =
+                location.equals(storeSettings.getLocation()) ? repositoryManager :
+                    shardRepositoryManagers.get(location);
+            if (shardRepositoryManager == null) {
+                shardRepositoryManager = settings.getStoreSettings().createRepositoryManager();
+                shardRepositoryManager.initialize();
+                shardRepositoryManagers.put(location, shardRepositoryManager);
+            }
+            Repository shardRepository = getRepository(shardRepositoryManager,
+                settings.getRepositoryName(), settings.getStoreSettings());
+            Set<IRI> dataSets = settings.getDataSetNames().stream()
+                .map(name -> SimpleValueFactory.getInstance().createIRI(BASE.stringValue(), name))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+            shards.put(settings.getName(), new Shard(settings.getName(), dataSets, shardRepository,
+                settings.getConnectionPoolSettings()));
+            federation.addMember(shardRepository);
+        }
+        federation.setReadOnly(true);
+        federatedRepository = new SailRepository(federation);
+        federatedRepository.initialize();
+        federatedConnectionPool = new ConnectionPool(federatedRepository, connectionPoolSettings);
+        logger.debug("The data sets are distributed over the shards {}.", shards.values());
+    }
+
+    /**
+     * Creates the read replicas that are configured in the data management properties file.
+     * Replicas that cannot be located are left out.
+     *
+     * @return the list of the read replicas.
+     */
+    private List<Replica> createReplicas() {
+        List<Replica> replicas = new ArrayList<>();
+        for (URL replicaURL : replicaSettings.getReplicaURLs()) {
+            RepositoryManager replicaRepositoryManager =
+                new RemoteRepositoryManager(replicaURL.toString());
+            try {
+                replicaRepositoryManager.initialize();
+                replicaRepositoryManagers.add(replicaRepositoryManager);
+                Repository replicaRepository =
+                    replicaRepositoryManager.getRepository(GRAPH_DB_NAME);
+                if (replicaRepository == null) {
+                    logger.error("The repository with the name {} cannot be located at {}",
+                        GRAPH_DB_NAME, replicaURL);
+                    continue;
+                }
+                replicas.add(new Replica(replicaURL.toString(),
+                    new ConnectionPool(replicaRepository, connectionPoolSettings)));
+            } catch (RepositoryException | RepositoryConfigException e) {
+                logger.error("The replica at {} cannot be established. {}", replicaURL, e);
+            }
+        }
+        logger.debug("Reads are routed to the replicas {} ({}).", replicas, replicaSettings);
+        return replicas;
     }
 
     /**
@@ -172,17 +418,315 @@ public class TripleStoreManager implements AutoCloseable {
     }
 
     /**
-     * Creates a new {@link RepositoryConnection} to the triple store that is managed by this
+     * Borrows a {@link RepositoryConnection} for reading from the triple store that is managed by
+     * this {@link TripleStoreManager}. The connection is routed to a healthy read replica, or to
+     * the primary triple store, if there are no replicas. The results of its SPARQL graph and
+     * tuple queries are cached. The connection must be closed after its usage, which returns it
+     * to the pool. Reads on the connection are not hedged, hence services shall read with
+     * {@link #read(ReadOperation)} instead.
+     *
+     * @return {@link RepositoryConnection} for reading from the triple store managed by this
      * {@link TripleStoreManager}.
+     * @throws RepositoryException if no connection can be acquired within the acquisition timeout
+     *                             of the pool.
+     */
+    public RepositoryConnection getConnection() throws RepositoryException {
+        return readView(readRouter.getConnection(), MAIN_SCOPE);
+    }
+
+    /**
+     * Borrows a {@link RepositoryConnection} to the primary triple store that is managed by this
+     * {@link TripleStoreManager} from its {@link ConnectionPool}. This connection must be used for
+     * writes and for reads that must observe the most recent writes. The connection must be
+     * closed after its usage, which returns it to the pool.
      *
-     * @return new {@link RepositoryConnection} to the triple store managed by this
+     * @return {@link RepositoryConnection} to the primary triple store managed by this
      * {@link TripleStoreManager}.
-     * @throws RepositoryException if no connection cannot created for the managed
-     *                             {@link Repository}.
+     * @throws RepositoryException if no connection can be acquired for the managed
+     *                             {@link Repository} within the acquisition timeout of the pool.
+     */
+    public RepositoryConnection getPrimaryConnection() throws RepositoryException {
+        return connectionPool.getConnection();
+    }
+
+    /**
+     * Gets the {@link Shard} that holds the data set of the given resource or named graph.
+     *
+     * @param resource the {@link IRI} of the resource or named graph.
+     * @return the {@link Shard} that holds the data set of the given resource, or an empty
+     * {@link Optional}, if it is held by the main repository.
+     */
+    public Optional<Shard> getShard(IRI resource) {
+        assert resource != null;
+        for (Shard shard : shards.values()) {
+            if (shard.contains(resource)) {
+                return Optional.of(shard);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Borrows a {@link RepositoryConnection} for reading the given resource or named graph from
+     * the shard that holds its data set, or from the main repository (see
+     * {@link #getConnection()}). The results of its SPARQL graph and tuple queries are cached.
+     * The connection must be closed after its usage, which returns it to the pool.
+     *
+     * @param resource the {@link IRI} of the resource or named graph that shall be read.
+     * @return {@link RepositoryConnection} for reading the given resource.
+     * @throws RepositoryException if no connection can be acquired within the acquisition timeout
+     *                             of the pool.
+     */
+    public RepositoryConnection getConnection(IRI resource) throws RepositoryException {
+        Optional<Shard> shard = getShard(resource);
+        if (!shard.isPresent()) {
+            return getConnection();
+        }
+        return readView(shard.get().getConnection(), shard.get().getName());
+    }
+
+    /**
+     * Borrows a {@link RepositoryConnection} for reading the given resources or named graphs. If
+     * they are all held by the same shard (or the main repository), the connection is routed to
+     * it, otherwise it is a connection to the federation of all shards (see
+     * {@link #getFederatedConnection()}). The connection must be closed after its usage.
+     *
+     * @param resources the {@link IRI}s of the resources or named graphs that shall be read.
+     * @return {@link RepositoryConnection} for reading the given resources.
+     * @throws RepositoryException if no connection can be acquired within the acquisition timeout
+     *                             of the pool.
+     */
+    public RepositoryConnection getConnection(Collection<IRI> resources)
+        throws RepositoryException {
+        assert resources != null && !resources.isEmpty();
+        Set<Optional<Shard>> targetShards =
+            resources.stream().map(this::getShard).collect(Collectors.toSet());
+        return targetShards.size() == 1 ? getConnection(resources.iterator().next()) :
+            getFederatedConnection();
+    }
+
+    /**
+     * Borrows a {@link RepositoryConnection} for reading from the federation of the main
+     * repository and all the shards, which can answer queries that span several data sets. If
+     * there are no shards, this is a connection to the main repository (see
+     * {@link #getConnection()}). The results of its SPARQL graph and tuple queries are cached.
+     * The connection must be closed after its usage, which returns it to the pool.
+     *
+     * @return {@link RepositoryConnection} for reading from all the data sets.
+     * @throws RepositoryException if no connection can be acquired within the acquisition timeout
+     *                             of the pool.
+     */
+    public RepositoryConnection getFederatedConnection() throws RepositoryException {
+        if (federatedConnectionPool == null) {
+            return getConnection();
+        }
+        return readView(federatedConnectionPool.getConnection(), FEDERATION_SCOPE);
+    }
+
+    /**
+     * Borrows a {@link RepositoryConnection} to the primary store of the given data set, which
+     * observes the staging graphs of the data sets that are loaded and the active graphs of the
+     * other data sets (see {@link ActiveGraphs#writeView(RepositoryConnection)}). It shall be used
+     * for linking the data of a load in progress. The connection must be closed after its usage,
+     * which returns it to the pool.
+     *
+     * @param dataSet the namespace of the data set.
+     * @return {@link RepositoryConnection} observing the staging graphs.
+     * @throws RepositoryException if no connection can be acquired within the acquisition timeout
+     *                             of the pool.
      */
-    public synchronized RepositoryConnection getConnection() throws RepositoryException {
-        logger.debug("Connection from {} requested.", this);
-        return repository.getConnection();
+    public RepositoryConnection getStagedConnection(IRI dataSet) throws RepositoryException {
+        return activeGraphs.writeView(getPrimaryConnection(dataSet));
+    }
+
+    /**
+     * Gets the named graph into which data of the given data set shall be written, i.e. its
+     * staging graph, if it is loaded, or otherwise its active graph (see {@link ActiveGraphs}).
+     *
+     * @param dataSet the namespace of the data set.
+     * @return the named graph into which data of the given data set shall be written.
+     */
+    public IRI getWriteGraph(IRI dataSet) {
+        return activeGraphs.getWriteGraph(dataSet);
+    }
+
+    /**
+     * Gets the {@link ActiveGraphs} that manage the active and staging graphs of the data sets.
+     *
+     * @return the {@link ActiveGraphs} of the data sets.
+     */
+    public ActiveGraphs getActiveGraphs() {
+        return activeGraphs;
+    }
+
+    /**
+     * Borrows a {@link RepositoryConnection} for writing the given data set or resource to the
+     * shard that holds the data set, or to the primary triple store (see
+     * {@link #getPrimaryConnection()}). The connection must be closed after its usage, which
+     * returns it to the pool.
+     *
+     * @param resource the {@link IRI} of the data set, named graph or resource.
+     * @return {@link RepositoryConnection} for writing the given data set.
+     * @throws RepositoryException if no connection can be acquired within the acquisition timeout
+     *                             of the pool.
+     */
+    public RepositoryConnection getPrimaryConnection(IRI resource) throws RepositoryException {
+        Optional<Shard> shard = getShard(resource);
+        return shard.isPresent() ? shard.get().getConnection() : getPrimaryConnection();
+    }
+
+    /**
+     * Executes the given {@link ReadOperation} on a read replica of the triple store that is
+     * managed by this {@link TripleStoreManager}. The operation may be sent to a second replica,
+     * if the first one fails or answers slowly (see {@link ReadRouter}). The results of the
+     * SPARQL graph and tuple queries of the operation are cached.
+     *
+     * @param operation {@link ReadOperation} that shall be executed.
+     * @param <T>       the type of the result of the operation.
+     * @return the result of the given operation.
+     * @throws RepositoryException if the operation cannot be executed on any replica.
+     */
+    public <T> T read(ReadOperation<T> operation) throws RepositoryException {
+        return readRouter.read(connection -> operation.read(readView(connection, MAIN_SCOPE)));
+    }
+
+    /**
+     * Wraps the given read connection, such that it only observes the active graphs of the data
+     * sets (see {@link ActiveGraphs#readView(RepositoryConnection)}) and the results of its SPARQL
+     * graph and tuple queries are cached.
+     *
+     * @param connection {@link RepositoryConnection} for reading.
+     * @param scope      the name of the repository to which the given connection belongs.
+     * @return the wrapped {@link RepositoryConnection}.
+     */
+    private RepositoryConnection readView(RepositoryConnection connection, String scope) {
+        RepositoryConnection readView = activeGraphs.readView(connection);
+        return queryResultCache != null ? queryResultCache.wrap(readView, scope) : readView;
+    }
+
+    /**
+     * Executes the given {@link ReadOperation} on the shard that holds the data set of the given
+     * resource or named graph, or on a read replica of the main repository (see
+     * {@link #read(ReadOperation)}). Shards have no read replicas, hence the reads of a shard are
+     * neither routed to replicas nor hedged.
+     *
+     * @param resource  the {@link IRI} of the resource or named graph that shall be read.
+     * @param operation {@link ReadOperation} that shall be executed.
+     * @param <T>       the type of the result of the operation.
+     * @return the result of the given operation.
+     * @throws RepositoryException if the operation cannot be executed.
+     */
+    public <T> T read(IRI resource, ReadOperation<T> operation) throws RepositoryException {
+        if (!getShard(resource).isPresent()) {
+            return read(operation);
+        }
+        try (RepositoryConnection connection = getConnection(resource)) {
+            return operation.read(connection);
+        }
+    }
+
+    /**
+     * Executes the given {@link ReadOperation} for the given resources or named graphs. If they
+     * are all held by the main repository, the operation is executed on a read replica (see
+     * {@link #read(ReadOperation)}), otherwise on a connection to the shard that holds all of
+     * them or to the federation (see {@link #getConnection(Collection)}), which are neither
+     * routed to replicas nor hedged.
+     *
+     * @param resources the {@link IRI}s of the resources or named graphs that shall be read.
+     * @param operation {@link ReadOperation} that shall be executed.
+     * @param <T>       the type of the result of the operation.
+     * @return the result of the given operation.
+     * @throws RepositoryException if the operation cannot be executed.
+     */
+    public <T> T read(Collection<IRI> resources, ReadOperation<T> operation)
+        throws RepositoryException {
+        assert resources != null && !resources.isEmpty();
+        if (resources.stream().noneMatch(resource -> getShard(resource).isPresent())) {
+            return read(operation);
+        }
+        try (RepositoryConnection connection = getConnection(resources)) {
+            return operation.read(connection);
+        }
+    }
+
+    /**
+     * Gets the {@link ConnectionPool} that manages the connections to the primary triple store,
+     * which can be used to inspect its statistics.
+     *
+     * @return the {@link ConnectionPool} that manages the connections to the primary triple store.
+     */
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * Gets the {@link QueryResultCache} that caches the results of the queries on read
+     * connections, which can be used to inspect its statistics.
+     *
+     * @return the {@link QueryResultCache}, or an empty {@link Optional}, if the results of
+     * queries are not cached.
+     */
+    public Optional<QueryResultCache> getQueryResultCache() {
+        return Optional.ofNullable(queryResultCache);
+    }
+
+    /**
+     * Gets the {@link ReadRouter} that routes the reads to the replicas, which can be used to
+     * inspect their health and latency.
+     *
+     * @return the {@link ReadRouter} that routes the reads to the replicas.
+     */
+    public ReadRouter getReadRouter() {
+        return readRouter;
+    }
+
+    /**
+     * Gets the shards that hold data sets apart from the main repository.
+     *
+     * @return the shards that hold data sets apart from the main repository.
+     */
+    public Collection<Shard> getShards() {
+        return Collections.unmodifiableCollection(shards.values());
+    }
+
+    /**
+     * Gets the {@link BulkLoadSettings} with which data shall be integrated into the triple store.
+     *
+     * @return the {@link BulkLoadSettings} read from the data management properties.
+     */
+    public BulkLoadSettings getBulkLoadSettings() {
+        return bulkLoadSettings;
+    }
+
+    /**
+     * Reloads the connections to the shard with the given name (see {@link Shard#reload()})
+     * without affecting the other shards.
+     *
+     * @param name the name of the shard that shall be reloaded.
+     * @throws TripleStoreManagerException if there is no shard with the given name.
+     */
+    public void reloadShard(String name) throws TripleStoreManagerException {
+        Shard shard = shards.get(name);
+        if (shard == null) {
+            throw new TripleStoreManagerException(
+                String.format("There is no shard with the name '%s'.", name));
+        }
+        shard.reload();
+    }
+
+    /**
+     * Closes the connections to the federation and the shards and shuts down the repository
+     * managers of the shards.
+     */
+    private void closeShards() {
+        if (federatedConnectionPool != null) {
+            federatedConnectionPool.close();
+        }
+        shards.values().forEach(Shard::close);
+        if (federatedRepository != null) {
+            federatedRepository.shutDown();
+        }
+        shardRepositoryManagers.values().forEach(RepositoryManager::shutDown);
     }
 
     /**
@@ -216,11 +760,41 @@ public class TripleStoreManager implements AutoCloseable {
         if (tripleStoreReference.tryAcquire() && !force) {
             return;
         }
-        if (repository != null) {
-            repository.shutDown();
-        }
+        releaseResources();
         repositoryManager.shutDown();
         cleanUp();
         logger.debug("The triple store manager {} has been closed.", this);
     }
+
+    /**
+     * Releases the resources that have been acquired by this {@link TripleStoreManager}, i.e. the
+     * registrations of its listeners at the {@link DataCatalog}, the threads of the
+     * {@link ActiveGraphs} and the {@link ReadRouter}, the replicas, the shards, the federation
+     * and the connection pool. Resources that have not been acquired yet are skipped, such that a
+     * constructor that fails halfway releases the ones acquired before. The
+     * {@link RepositoryManager} of the main triple store is not shut down.
+     */
+    private void releaseResources() {
+        if (queryResultCache != null) {
+            DataCatalog.removeModificationListener(queryResultCache);
+        }
+        if (activeGraphs != null) {
+            activeGraphs.close();
+        }
+        if (readRouter != null) {
+            DataCatalog.removeModificationListener(readRouter);
+            readRouter.close();
+        }
+        replicaRepositoryManagers.forEach(RepositoryManager::shutDown);
+        closeShards();
+        if (connectionPool != null) {
+            connectionPool.close();
+        }
+        if (repository != null) {
+            repository.shutDown();
+        }
+        if (geoSparqlDisabled) {
+            GeoSparqlSupport.configure(true);
+        }
+    }
 }
@@ -0,0 +1,140 @@
+package at.ac.tuwien.finder.datamanagement.cache;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.GraphQueryResult;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.impl.IteratingGraphQueryResult;
+import org.eclipse.rdf4j.query.impl.IteratingTupleQueryResult;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is the immutable result of a graph or tuple query, which is held by the
+ * {@link QueryResultCache}. Every access returns a new result that iterates over the same
+ * statements or binding sets.
+ *
+ * @author Kevin Haller
+ */
+final class CachedResult {
+
+    private static final int OBJECT_OVERHEAD = 32;
+
+    private final Map<String, String> namespaces;
+    private final List<Statement> statements;
+    private final List<String> bindingNames;
+    private final List<BindingSet> bindingSets;
+    private final long weight;
+
+    private CachedResult(Map<String, String> namespaces, List<Statement> statements,
+        List<String> bindingNames, List<BindingSet> bindingSets, long weight) {
+        this.namespaces = namespaces;
+        this.statements = statements;
+        this.bindingNames = bindingNames;
+        this.bindingSets = bindingSets;
+        this.weight = weight;
+    }
+
+    /**
+     * Reads the given {@link GraphQueryResult} completely into a {@link CachedResult}. The given
+     * result is closed afterwards.
+     *
+     * @param result {@link GraphQueryResult} that shall be read.
+     * @return {@link CachedResult} holding the statements of the given result.
+     */
+    static CachedResult ofGraph(GraphQueryResult result) {
+        try {
+            Map<String, String> namespaces =
+                Collections.unmodifiableMap(new LinkedHashMap<>(result.getNamespaces()));
+            List<Statement> statements = new ArrayList<>();
+            long weight = OBJECT_OVERHEAD;
+            while (result.hasNext()) {
+                Statement statement = result.next();
+                statements.add(statement);
+                weight += OBJECT_OVERHEAD + weightOf(statement.getSubject()) + weightOf(
+                    statement.getPredicate()) + weightOf(statement.getObject()) + weightOf(
+                    statement.getContext());
+            }
+            return new CachedResult(namespaces, Collections.unmodifiableList(statements), null,
+                null, weight);
+        } finally {
+            result.close();
+        }
+    }
+
+    /**
+     * Reads the given {@link TupleQueryResult} completely into a {@link CachedResult}. The given
+     * result is closed afterwards.
+     *
+     * @param result {@link TupleQueryResult} that shall be read.
+     * @return {@link CachedResult} holding the binding sets of the given result.
+     */
+    static CachedResult ofTuple(TupleQueryResult result) {
+        try {
+            List<String> bindingNames =
+                Collections.unmodifiableList(new ArrayList<>(result.getBindingNames()));
+            List<BindingSet> bindingSets = new ArrayList<>();
+            long weight = OBJECT_OVERHEAD;
+            while (result.hasNext()) {
+                BindingSet bindingSet = result.next();
+                List<Value> values = new ArrayList<>(bindingNames.size());
+                for (String bindingName : bindingNames) {
+                    Binding binding = bindingSet.getBinding(bindingName);
+                    values.add(binding != null ? binding.getValue() : null);
+                    weight += OBJECT_OVERHEAD + weightOf(values.get(values.size() - 1));
+                }
+                bindingSets.add(new ListBindingSet(bindingNames, values));
+            }
+            return new CachedResult(null, null, bindingNames,
+                Collections.unmodifiableList(bindingSets), weight);
+        } finally {
+            result.close();
+        }
+    }
+
+    /**
+     * Estimates the number of bytes occupied by the given value.
+     *
+     * @param value the value of which the size shall be estimated, or null.
+     * @return the estimated number of bytes occupied by the given value.
+     */
+    private static long weightOf(Value value) {
+        return value != null ? OBJECT_OVERHEAD + 2L * value.stringValue().length() : 0;
+    }
+
+    /**
+     * Gets a new {@link GraphQueryResult} over the cached statements.
+     *
+     * @return a new {@link GraphQueryResult} over the cached statements.
+     */
+    GraphQueryResult graphQueryResult() {
+        assert statements != null;
+        return new IteratingGraphQueryResult(namespaces, statements);
+    }
+
+    /**
+     * Gets a new {@link TupleQueryResult} over the cached binding sets.
+     *
+     * @return a new {@link TupleQueryResult} over the cached binding sets.
+     */
+    TupleQueryResult tupleQueryResult() {
+        assert bindingSets != null;
+        return new IteratingTupleQueryResult(bindingNames, bindingSets);
+    }
+
+    /**
+     * Gets the estimated number of bytes occupied by this result.
+     *
+     * @return the estimated number of bytes occupied by this result.
+     */
+    long weight() {
+        return weight;
+    }
+}
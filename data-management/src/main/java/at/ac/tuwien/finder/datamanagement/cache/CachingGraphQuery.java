@@ -0,0 +1,78 @@
+package at.ac.tuwien.finder.datamanagement.cache;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.query.GraphQuery;
+import org.eclipse.rdf4j.query.GraphQueryResult;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+
+import java.util.Map;
+
+/**
+ * This class is a {@link GraphQuery} whose result is taken from the {@link QueryResultCache}, if
+ * it has been cached, and otherwise evaluated by the underlying connection and cached. An
+ * evaluation with a {@link RDFHandler} that misses the cache is streamed from the underlying
+ * connection to the handler without being cached, such that the result is not held in memory.
+ *
+ * @author Kevin Haller
+ */
+final class CachingGraphQuery extends CachingQuery<GraphQuery> implements GraphQuery {
+
+    /**
+     * Creates a new {@link CachingGraphQuery} for the given query of the underlying connection.
+     *
+     * @param delegate the graph query of the underlying connection.
+     * @param cache    {@link QueryResultCache} that shall be consulted.
+     * @param scope    the scope of the result, i.e. the name of the repository.
+     * @param query    the text of the query.
+     * @param baseURI  the base URI of the query, or null.
+     */
+    CachingGraphQuery(GraphQuery delegate, QueryResultCache cache, String scope, String query,
+        String baseURI) {
+        super(delegate, cache, scope, query, baseURI);
+    }
+
+    /**
+     * Gets the cached result of this query, or evaluates and caches it.
+     *
+     * @return the result of this query.
+     * @throws QueryEvaluationException if the query cannot be evaluated.
+     */
+    private CachedResult cachedResult() throws QueryEvaluationException {
+        QueryResultCache.Key key = key();
+        CachedResult result = cache.get(key);
+        if (result == null) {
+            long generation = cache.generation();
+            result = CachedResult.ofGraph(delegate.evaluate());
+            cache.put(key, result, generation);
+        }
+        return result;
+    }
+
+    @Override
+    public GraphQueryResult evaluate() throws QueryEvaluationException {
+        return cachedResult().graphQueryResult();
+    }
+
+    @Override
+    public void evaluate(RDFHandler handler)
+        throws QueryEvaluationException, RDFHandlerException {
+        CachedResult cachedResult = cache.get(key());
+        if (cachedResult == null) {
+            delegate.evaluate(handler);
+            return;
+        }
+        try (GraphQueryResult result = cachedResult.graphQueryResult()) {
+            handler.startRDF();
+            for (Map.Entry<String, String> namespace : result.getNamespaces().entrySet()) {
+                handler.handleNamespace(namespace.getKey(), namespace.getValue());
+            }
+            while (result.hasNext()) {
+                Statement statement = result.next();
+                handler.handleStatement(statement);
+            }
+            handler.endRDF();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package at.ac.tuwien.finder.datamanagement.cache;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.Query;
+
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * This abstract class is a {@link Query} that delegates the preparation of the query (bindings,
+ * dataset, timeouts) to the query of the underlying connection and consults the
+ * {@link QueryResultCache} before the query is evaluated.
+ *
+ * @param <Q> the type of the query of the underlying connection.
+ * @author Kevin Haller
+ */
+abstract class CachingQuery<Q extends Query> implements Query {
+
+    protected final Q delegate;
+    protected final QueryResultCache cache;
+    private final String scope;
+    private final String query;
+    private final String baseURI;
+
+    /**
+     * Creates a new {@link CachingQuery} for the given query of the underlying connection.
+     *
+     * @param delegate the query of the underlying connection.
+     * @param cache    {@link QueryResultCache} that shall be consulted.
+     * @param scope    the scope of the result, i.e. the name of the repository.
+     * @param query    the text of the query.
+     * @param baseURI  the base URI of the query, or null.
+     */
+    CachingQuery(Q delegate, QueryResultCache cache, String scope, String query,
+        String baseURI) {
+        assert delegate != null;
+        assert cache != null;
+        assert scope != null;
+        assert query != null;
+        this.delegate = delegate;
+        this.cache = cache;
+        this.scope = scope;
+        this.query = query;
+        this.baseURI = baseURI;
+    }
+
+    /**
+     * Gets the key under which the result of this query in its current state (bindings, dataset,
+     * inference) for its repository is cached.
+     *
+     * @return the key under which the result of this query is cached.
+     */
+    protected QueryResultCache.Key key() {
+        SortedMap<String, Value> bindings = new TreeMap<>();
+        for (Binding binding : delegate.getBindings()) {
+            bindings.put(binding.getName(), binding.getValue());
+        }
+        return new QueryResultCache.Key(getClass(), scope, query, baseURI, bindings,
+            delegate.getDataset(), delegate.getIncludeInferred());
+    }
+
+    /**
+     * Gets the text of this query.
+     *
+     * @return the text of this query.
+     */
+    protected String query() {
+        return query;
+    }
+
+    @Override
+    public void setBinding(String name, Value value) {
+        delegate.setBinding(name, value);
+    }
+
+    @Override
+    public void removeBinding(String name) {
+        delegate.removeBinding(name);
+    }
+
+    @Override
+    public void clearBindings() {
+        delegate.clearBindings();
+    }
+
+    @Override
+    public BindingSet getBindings() {
+        return delegate.getBindings();
+    }
+
+    @Override
+    public void setDataset(Dataset dataset) {
+        delegate.setDataset(dataset);
+    }
+
+    @Override
+    public Dataset getDataset() {
+        return delegate.getDataset();
+    }
+
+    @Override
+    public void setIncludeInferred(boolean includeInferred) {
+        delegate.setIncludeInferred(includeInferred);
+    }
+
+    @Override
+    public boolean getIncludeInferred() {
+        return delegate.getIncludeInferred();
+    }
+
+    @Override
+    public void setMaxExecutionTime(int maxExecTime) {
+        delegate.setMaxExecutionTime(maxExecTime);
+    }
+
+    @Override
+    public int getMaxExecutionTime() {
+        return delegate.getMaxExecutionTime();
+    }
+
+    @Override
+    @Deprecated
+    public void setMaxQueryTime(int maxQueryTime) {
+        delegate.setMaxQueryTime(maxQueryTime);
+    }
+
+    @Override
+    @Deprecated
+    public int getMaxQueryTime() {
+        return delegate.getMaxQueryTime();
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toString(delegate);
+    }
+}
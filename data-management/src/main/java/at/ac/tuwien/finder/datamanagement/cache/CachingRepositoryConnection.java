@@ -0,0 +1,55 @@
+package at.ac.tuwien.finder.datamanagement.cache;
+
+import org.eclipse.rdf4j.query.GraphQuery;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.base.RepositoryConnectionWrapper;
+
+/**
+ * This class is a {@link RepositoryConnection} that answers SPARQL graph and tuple queries from
+ * the {@link QueryResultCache}. All other operations are delegated to the underlying connection,
+ * which is closed together with this connection.
+ *
+ * @author Kevin Haller
+ */
+final class CachingRepositoryConnection extends RepositoryConnectionWrapper {
+
+    private final QueryResultCache cache;
+    private final String scope;
+
+    /**
+     * Creates a new {@link CachingRepositoryConnection} for the given connection.
+     *
+     * @param delegate the underlying {@link RepositoryConnection}.
+     * @param cache    {@link QueryResultCache} that shall be consulted.
+     * @param scope    the scope of the results, i.e. the name of the repository to which the
+     *                 given connection belongs.
+     */
+    CachingRepositoryConnection(RepositoryConnection delegate, QueryResultCache cache,
+        String scope) {
+        super(delegate.getRepository(), delegate);
+        assert cache != null;
+        assert scope != null;
+        this.cache = cache;
+        this.scope = scope;
+    }
+
+    @Override
+    public GraphQuery prepareGraphQuery(QueryLanguage ql, String query, String baseURI)
+        throws MalformedQueryException, RepositoryException {
+        GraphQuery graphQuery = getDelegate().prepareGraphQuery(ql, query, baseURI);
+        return QueryLanguage.SPARQL.equals(ql) ?
+            new CachingGraphQuery(graphQuery, cache, scope, query, baseURI) : graphQuery;
+    }
+
+    @Override
+    public TupleQuery prepareTupleQuery(QueryLanguage ql, String query, String baseURI)
+        throws MalformedQueryException, RepositoryException {
+        TupleQuery tupleQuery = getDelegate().prepareTupleQuery(ql, query, baseURI);
+        return QueryLanguage.SPARQL.equals(ql) ?
+            new CachingTupleQuery(tupleQuery, cache, scope, query, baseURI) : tupleQuery;
+    }
+}
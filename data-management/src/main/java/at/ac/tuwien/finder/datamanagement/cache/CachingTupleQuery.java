@@ -0,0 +1,61 @@
+package at.ac.tuwien.finder.datamanagement.cache;
+
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.TupleQueryResultHandler;
+import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
+
+/**
+ * This class is a {@link TupleQuery} whose result is taken from the {@link QueryResultCache}, if
+ * it has been cached, and otherwise evaluated by the underlying connection and cached. An
+ * evaluation with a {@link TupleQueryResultHandler} that misses the cache is streamed from the
+ * underlying connection to the handler without being cached.
+ *
+ * @author Kevin Haller
+ */
+final class CachingTupleQuery extends CachingQuery<TupleQuery> implements TupleQuery {
+
+    /**
+     * Creates a new {@link CachingTupleQuery} for the given query of the underlying connection.
+     *
+     * @param delegate the tuple query of the underlying connection.
+     * @param cache    {@link QueryResultCache} that shall be consulted.
+     * @param scope    the scope of the result, i.e. the name of the repository.
+     * @param query    the text of the query.
+     * @param baseURI  the base URI of the query, or null.
+     */
+    CachingTupleQuery(TupleQuery delegate, QueryResultCache cache, String scope, String query,
+        String baseURI) {
+        super(delegate, cache, scope, query, baseURI);
+    }
+
+    @Override
+    public TupleQueryResult evaluate() throws QueryEvaluationException {
+        QueryResultCache.Key key = key();
+        CachedResult result = cache.get(key);
+        if (result == null) {
+            long generation = cache.generation();
+            result = CachedResult.ofTuple(delegate.evaluate());
+            cache.put(key, result, generation);
+        }
+        return result.tupleQueryResult();
+    }
+
+    @Override
+    public void evaluate(TupleQueryResultHandler handler)
+        throws QueryEvaluationException, TupleQueryResultHandlerException {
+        CachedResult cachedResult = cache.get(key());
+        if (cachedResult == null) {
+            delegate.evaluate(handler);
+            return;
+        }
+        try (TupleQueryResult result = cachedResult.tupleQueryResult()) {
+            handler.startQueryResult(result.getBindingNames());
+            while (result.hasNext()) {
+                handler.handleSolution(result.next());
+            }
+            handler.endQueryResult();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package at.ac.tuwien.finder.datamanagement.cache;
+
+import java.util.Properties;
+
+/**
+ * This class holds the settings of a {@link QueryResultCache}. The settings can be read from the
+ * data-management properties ({@code db.cache.*}), whereby missing properties fall back to the
+ * default values.
+ *
+ * @author Kevin Haller
+ */
+public final class QueryCacheSettings {
+
+    public static final boolean DEFAULT_ENABLED = true;
+    public static final long DEFAULT_MAXIMUM_WEIGHT = 64L * 1024 * 1024;
+    public static final long DEFAULT_REFRESH_INTERVAL = 5000L;
+
+    private final boolean enabled;
+    private final long maximumWeight;
+    private final long refreshInterval;
+
+    /**
+     * Creates new {@link QueryCacheSettings}.
+     *
+     * @param enabled         true, if the results of queries shall be cached.
+     * @param maximumWeight   the maximal estimated number of bytes of all cached results.
+     * @param refreshInterval the interval in milliseconds after which the modification stamps of
+     *                        the data sets are checked for modifications in other processes.
+     */
+    public QueryCacheSettings(boolean enabled, long maximumWeight, long refreshInterval) {
+        assert maximumWeight > 0;
+        assert refreshInterval >= 0;
+        this.enabled = enabled;
+        this.maximumWeight = maximumWeight;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Creates {@link QueryCacheSettings} with the default values.
+     *
+     * @return {@link QueryCacheSettings} with the default values.
+     */
+    public static QueryCacheSettings defaults() {
+        return fromProperties(new Properties());
+    }
+
+    /**
+     * Reads the {@link QueryCacheSettings} from the given {@link Properties}
+     * ({@code db.cache.enabled}, {@code db.cache.max-weight} and
+     * {@code db.cache.refresh-interval}).
+     *
+     * @param properties {@link Properties} from which the settings shall be read.
+     * @return {@link QueryCacheSettings} read from the given {@link Properties}.
+     * @throws NumberFormatException if the value of a property is not a valid number.
+     */
+    public static QueryCacheSettings fromProperties(Properties properties) {
+        assert properties != null;
+        return new QueryCacheSettings(Boolean.parseBoolean(
+            properties.getProperty("db.cache.enabled", String.valueOf(DEFAULT_ENABLED)).trim()),
+            Long.parseLong(properties.getProperty("db.cache.max-weight",
+                String.valueOf(DEFAULT_MAXIMUM_WEIGHT)).trim()),
+            Long.parseLong(properties.getProperty("db.cache.refresh-interval",
+                String.valueOf(DEFAULT_REFRESH_INTERVAL)).trim()));
+    }
+
+    /**
+     * Checks whether the results of queries shall be cached.
+     *
+     * @return true, if the results of queries shall be cached, otherwise false.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the maximal estimated number of bytes of all cached results.
+     *
+     * @return the maximal estimated number of bytes of all cached results.
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Gets the interval in milliseconds after which the modification stamps of the data sets are
+     * checked for modifications in other processes.
+     *
+     * @return the interval in milliseconds after which the modification stamps are checked.
+     */
+    public long getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{enabled=%s, maximumWeight=%d, refreshInterval=%d}", enabled,
+            maximumWeight, refreshInterval);
+    }
+}
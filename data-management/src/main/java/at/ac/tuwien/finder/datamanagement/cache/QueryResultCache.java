@@ -0,0 +1,549 @@
+package at.ac.tuwien.finder.datamanagement.cache;
+
+import at.ac.tuwien.finder.datamanagement.catalog.DataSetModificationListener;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class is a cache for the results of SPARQL graph and tuple queries. A result is identified
+ * by the normalised text of the query, its bindings, dataset and inference flag, and is stored as
+ * immutable list of statements or binding sets. The cache is bounded by the estimated number of
+ * bytes of the cached results and evicts the least recently used results first. Results that
+ * would occupy more than an eighth of the cache are not cached at all.
+ * <p>
+ * Every result depends on the named graphs of the data sets that it has been computed from. The
+ * dependencies are derived from the query: a query restricted by {@code FROM} depends on the given
+ * graphs, a {@code DESCRIBE} of resources (given as IRIs or as variables bound to IRIs) on the
+ * graphs of the data sets whose namespace contains the resources (like the integration
+ * partitions the statements), and every other query on all
+ * graphs. Modifications in this process are announced as {@link DataSetModificationListener} and
+ * invalidate the affected results immediately; modifications in another process are detected by
+ * checking the modification stamps of the data sets at most once per refresh interval.
+ * <p>
+ * The cache is transparent to the users of the connections, which are wrapped by
+ * {@link #wrap(RepositoryConnection)}. The results of connections to different repositories
+ * (e.g. shards) are kept apart by the scope of the wrapped connection (see
+ * {@link #wrap(RepositoryConnection, String)}).
+ * <p>
+ * Lookups take no lock. Every result records the time of its last lookup, and the writer that
+ * exceeds the bound evicts the results with the oldest times. Since these times are recorded
+ * without synchronization, the eviction order is only approximately the order of use.
+ *
+ * @author Kevin Haller
+ */
+public class QueryResultCache implements DataSetModificationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryResultCache.class);
+
+    private static final Pattern FROM_PATTERN =
+        Pattern.compile("\\bFROM\\s+(?:NAMED\\s+)?<([^>]*)>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DESCRIBE_PATTERN =
+        Pattern.compile("^DESCRIBE((?:\\s*(?:<[^>]*>|[?$]\\w+))+)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TERM_PATTERN = Pattern.compile("<([^>]*)>|[?$](\\w+)");
+
+    private final long maximumWeight;
+    private final long maximumEntryWeight;
+    private final long refreshInterval;
+    private final List<IRI> dataSetNamespaces;
+    private final IRI catalogGraph;
+    private final Supplier<Map<IRI, Date>> modificationDatesSupplier;
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>(256);
+    private final AtomicLong weight = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile Map<IRI, Date> modificationDates;
+    private volatile long lastRefresh;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Creates a new {@link QueryResultCache}.
+     *
+     * @param settings                  {@link QueryCacheSettings} of the cache.
+     * @param dataSetNamespaces         the namespaces of the data sets, which are also the names
+     *                                  of their graphs.
+     * @param catalogGraph              the graph of the data catalog, which describes the data
+     *                                  sets and is therefore affected by every modification.
+     * @param modificationDatesSupplier supplier of the modification stamps of the data sets in
+     *                                  the data catalog.
+     */
+    public QueryResultCache(QueryCacheSettings settings, Collection<IRI> dataSetNamespaces,
+        IRI catalogGraph, Supplier<Map<IRI, Date>> modificationDatesSupplier) {
+        assert settings != null;
+        assert dataSetNamespaces != null;
+        assert catalogGraph != null;
+        assert modificationDatesSupplier != null;
+        this.maximumWeight = settings.getMaximumWeight();
+        this.maximumEntryWeight = maximumWeight / 8;
+        this.refreshInterval = settings.getRefreshInterval();
+        this.dataSetNamespaces = new ArrayList<>(dataSetNamespaces);
+        this.catalogGraph = catalogGraph;
+        this.modificationDatesSupplier = modificationDatesSupplier;
+    }
+
+    /**
+     * Wraps the given {@link RepositoryConnection}, such that its SPARQL graph and tuple queries
+     * are answered from this cache. Closing the returned connection closes the given one.
+     *
+     * @param connection {@link RepositoryConnection} that shall be wrapped.
+     * @return {@link RepositoryConnection} whose queries are answered from this cache.
+     */
+    public RepositoryConnection wrap(RepositoryConnection connection) {
+        return wrap(connection, "");
+    }
+
+    /**
+     * Wraps the given {@link RepositoryConnection} to the repository with the given name, such
+     * that its SPARQL graph and tuple queries are answered from this cache. Closing the returned
+     * connection closes the given one.
+     *
+     * @param connection {@link RepositoryConnection} that shall be wrapped.
+     * @param scope      the name of the repository to which the given connection belongs.
+     * @return {@link RepositoryConnection} whose queries are answered from this cache.
+     */
+    public RepositoryConnection wrap(RepositoryConnection connection, String scope) {
+        assert connection != null;
+        return new CachingRepositoryConnection(connection, this, scope);
+    }
+
+    /**
+     * Gets the cached result for the given key.
+     *
+     * @param key the key of the result.
+     * @return the cached result, or null, if there is none.
+     */
+    CachedResult get(Key key) {
+        refreshIfNecessary();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.lastAccess = System.nanoTime();
+            hits.increment();
+            return entry.result;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Gets the current generation of this cache, which is increased by every invalidation. A
+     * result must be computed after the generation has been taken, such that a result that is
+     * computed concurrently to an invalidation is not cached (see
+     * {@link #put(Key, CachedResult, long)}).
+     *
+     * @return the current generation of this cache.
+     */
+    long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches the given result for the given key, if no invalidation happened since the given
+     * generation. The generation is checked again after the result has been cached, such that a
+     * result is removed again, if an invalidation has missed it.
+     *
+     * @param key        the key of the result.
+     * @param result     the result that shall be cached.
+     * @param generation the generation of this cache before the result has been computed.
+     */
+    void put(Key key, CachedResult result, long generation) {
+        if (result.weight() > maximumEntryWeight) {
+            return;
+        }
+        Entry entry = new Entry(result, dependencies(key.query, key.bindings));
+        if (this.generation.get() != generation) {
+            return;
+        }
+        Entry formerEntry = entries.put(key, entry);
+        weight.addAndGet(result.weight() - (formerEntry != null ? formerEntry.result.weight() : 0));
+        if (this.generation.get() != generation) {
+            remove(key, entry);
+            return;
+        }
+        if (weight.get() > maximumWeight) {
+            evict();
+        }
+    }
+
+    /**
+     * Evicts the results with the oldest lookup times, until the cached results respect the bound
+     * of this cache. Only one writer evicts at a time.
+     */
+    private void evict() {
+        synchronized (evictionLock) {
+            while (weight.get() > maximumWeight) {
+                Map.Entry<Key, Entry> eldest = null;
+                for (Map.Entry<Key, Entry> candidate : entries.entrySet()) {
+                    if (eldest == null || candidate.getValue().lastAccess - eldest.getValue()
+                        .lastAccess < 0) {
+                        eldest = candidate;
+                    }
+                }
+                if (eldest == null) {
+                    return;
+                }
+                if (remove(eldest.getKey(), eldest.getValue())) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the graphs on which the result of the given normalised query with the given bindings
+     * depends.
+     *
+     * @param query    the normalised text of the query.
+     * @param bindings the bindings of the variables of the query.
+     * @return the graphs on which the result of the given query depends, or an empty set, if it
+     * depends on all graphs.
+     */
+    Set<IRI> dependencies(String query, Map<String, Value> bindings) {
+        String body = stripPrologue(query);
+        Set<IRI> graphs = new HashSet<>();
+        Matcher fromMatcher = FROM_PATTERN.matcher(body);
+        while (fromMatcher.find()) {
+            graphs.add(SimpleValueFactory.getInstance().createIRI(fromMatcher.group(1)));
+        }
+        if (!graphs.isEmpty()) {
+            return graphs;
+        }
+        Matcher describeMatcher = DESCRIBE_PATTERN.matcher(body);
+        if (describeMatcher.matches()) {
+            Matcher termMatcher = TERM_PATTERN.matcher(describeMatcher.group(1));
+            while (termMatcher.find()) {
+                String resource = termMatcher.group(1);
+                if (resource == null) {
+                    Value value = bindings.get(termMatcher.group(2));
+                    resource = value instanceof IRI ? value.stringValue() : null;
+                }
+                IRI dataSet = resource != null ? dataSetOf(resource) : null;
+                if (dataSet == null) {
+                    return Collections.emptySet();
+                }
+                graphs.add(dataSet);
+            }
+        }
+        return graphs;
+    }
+
+    /**
+     * Gets the data set whose namespace contains the given resource.
+     *
+     * @param resource the resource for which the data set shall be returned.
+     * @return the namespace of the data set that contains the given resource, or null, if there
+     * is no such data set.
+     */
+    private IRI dataSetOf(String resource) {
+        for (IRI dataSetNamespace : dataSetNamespaces) {
+            if (resource.startsWith(dataSetNamespace.stringValue())) {
+                return dataSetNamespace;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the {@code BASE} and {@code PREFIX} declarations at the beginning of the given
+     * normalised query.
+     *
+     * @param query the normalised text of the query.
+     * @return the given query without its prologue.
+     */
+    private static String stripPrologue(String query) {
+        String body = query;
+        while (true) {
+            String upperBody = body.toUpperCase();
+            if (upperBody.startsWith("PREFIX ") || upperBody.startsWith("BASE ")) {
+                int end = body.indexOf('>');
+                if (end < 0) {
+                    return body;
+                }
+                body = body.substring(end + 1).trim();
+            } else {
+                return body;
+            }
+        }
+    }
+
+    /**
+     * Invalidates all cached results that depend on the graph with the given name. Results that
+     * depend on all graphs and results about the data catalog are invalidated as well.
+     *
+     * @param graph the name of the modified graph.
+     */
+    public void invalidate(IRI graph) {
+        generation.incrementAndGet();
+        int count = 0;
+        for (Map.Entry<Key, Entry> entry : entries.entrySet()) {
+            Set<IRI> graphs = entry.getValue().graphs;
+            if ((graphs.isEmpty() || graphs.contains(graph) || graphs.contains(catalogGraph))
+                && remove(entry.getKey(), entry.getValue())) {
+                count++;
+            }
+        }
+        invalidations.add(count);
+        logger.debug("{} cached query results invalidated for the graph {}.", count, graph);
+    }
+
+    /**
+     * Invalidates all cached results.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        for (Map.Entry<Key, Entry> entry : entries.entrySet()) {
+            if (remove(entry.getKey(), entry.getValue())) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    @Override
+    public void dataSetModified(IRI namespace, Date modificationDate) {
+        invalidate(namespace);
+    }
+
+    /**
+     * Checks the modification stamps of the data sets, if the refresh interval has elapsed, and
+     * invalidates the results that depend on data sets that have been modified since the last
+     * check. Only one thread checks the stamps at a time, the others go on without waiting. The
+     * time of the attempt is recorded before the check, such that a failed check is not repeated
+     * before the refresh interval has elapsed again.
+     */
+    private void refreshIfNecessary() {
+        if (System.currentTimeMillis() - lastRefresh < refreshInterval || !refreshLock
+            .tryLock()) {
+            return;
+        }
+        try {
+            if (System.currentTimeMillis() - lastRefresh < refreshInterval) {
+                return;
+            }
+            lastRefresh = System.currentTimeMillis();
+            Map<IRI, Date> currentModificationDates = modificationDatesSupplier.get();
+            Map<IRI, Date> previousModificationDates = modificationDates;
+            if (previousModificationDates != null) {
+                for (Map.Entry<IRI, Date> dataSetEntry : currentModificationDates.entrySet()) {
+                    if (!Objects.equals(previousModificationDates.get(dataSetEntry.getKey()),
+                        dataSetEntry.getValue())) {
+                        invalidate(dataSetEntry.getKey());
+                    }
+                }
+            }
+            modificationDates = currentModificationDates;
+        } catch (RuntimeException e) {
+            logger.warn("The modification stamps of the data sets cannot be checked. {}",
+                e.getMessage());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the given entry with the given key, if it has not been replaced or removed by
+     * another thread.
+     *
+     * @param key   the key of the entry that shall be removed.
+     * @param entry the entry that shall be removed.
+     * @return true, if the entry has been removed by this call, otherwise false.
+     */
+    private boolean remove(Key key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            weight.addAndGet(-entry.result.weight());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Normalises the given query text by trimming it and collapsing runs of whitespace outside of
+     * string literals into a single space.
+     *
+     * @param query the text of the query.
+     * @return the normalised text of the query.
+     */
+    static String normalise(String query) {
+        StringBuilder normalisedQuery = new StringBuilder(query.length());
+        char quote = 0;
+        boolean whitespace = false;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (quote != 0) {
+                normalisedQuery.append(c);
+                if (c == '\\' && i + 1 < query.length()) {
+                    normalisedQuery.append(query.charAt(++i));
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (Character.isWhitespace(c)) {
+                whitespace = true;
+            } else {
+                if (whitespace && normalisedQuery.length() > 0) {
+                    normalisedQuery.append(' ');
+                }
+                whitespace = false;
+                if (c == '"' || c == '\'') {
+                    quote = c;
+                }
+                normalisedQuery.append(c);
+            }
+        }
+        return normalisedQuery.toString();
+    }
+
+    /**
+     * Gets the number of queries that could be answered by a cached result.
+     *
+     * @return the number of queries that could be answered by a cached result.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of queries that could not be answered by a cached result.
+     *
+     * @return the number of queries that could not be answered by a cached result.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of results that have been evicted to respect the size bound.
+     *
+     * @return the number of results that have been evicted.
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the number of results that have been invalidated, because the graphs on which they
+     * depend have been modified.
+     *
+     * @return the number of results that have been invalidated.
+     */
+    public long invalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Gets the number of cached results.
+     *
+     * @return the number of cached results.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the estimated number of bytes of all cached results.
+     *
+     * @return the estimated number of bytes of all cached results.
+     */
+    public long weight() {
+        return weight.get();
+    }
+
+    /**
+     * Gets the maximal estimated number of bytes of all cached results.
+     *
+     * @return the maximal estimated number of bytes of all cached results.
+     */
+    public long maximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * This class represents the key of a cached result.
+     */
+    static final class Key {
+
+        private final Class<?> queryType;
+        private final String scope;
+        private final String query;
+        private final String baseURI;
+        private final SortedMap<String, Value> bindings;
+        private final Dataset dataset;
+        private final boolean includeInferred;
+
+        Key(Class<?> queryType, String scope, String query, String baseURI,
+            SortedMap<String, Value> bindings, Dataset dataset, boolean includeInferred) {
+            assert queryType != null;
+            assert scope != null;
+            assert query != null;
+            assert bindings != null;
+            this.queryType = queryType;
+            this.scope = scope;
+            this.query = normalise(query);
+            this.baseURI = baseURI;
+            this.bindings = bindings;
+            this.dataset = dataset;
+            this.includeInferred = includeInferred;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return includeInferred == key.includeInferred && queryType.equals(key.queryType)
+                && scope.equals(key.scope) && query.equals(key.query) && Objects
+                .equals(baseURI, key.baseURI) && bindings.equals(key.bindings) && Objects
+                .equals(dataset, key.dataset);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects
+                .hash(queryType, scope, query, baseURI, bindings, dataset, includeInferred);
+        }
+    }
+
+    /**
+     * This class represents a cached result together with the graphs on which it depends.
+     */
+    private static final class Entry {
+
+        private final CachedResult result;
+        private final Set<IRI> graphs;
+        private volatile long lastAccess = System.nanoTime();
+
+        private Entry(CachedResult result, Set<IRI> graphs) {
+            this.result = result;
+            this.graphs = graphs;
+        }
+    }
+}
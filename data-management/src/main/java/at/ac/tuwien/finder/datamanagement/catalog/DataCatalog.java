@@ -13,14 +13,22 @@ import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
@@ -38,6 +46,9 @@ public class DataCatalog {
 
     public static final String TITLE = "Catalog of Finder app (TU Vienna)";
 
+    private static final String MODIFICATION_DATES_QUERY =
+        "SELECT ?dataSet (MAX(?modified) AS ?lastModified) WHERE { GRAPH <%s> { ?dataSet <%s> ?modified . } } GROUP BY ?dataSet";
+
     static {
         Properties dataCatalogProperties = new Properties();
         try (InputStream propertiesStream = TripleStoreManager.class.getClassLoader()
@@ -55,6 +66,9 @@ public class DataCatalog {
     }
 
 
+    private static final CopyOnWriteArrayList<DataSetModificationListener> modificationListeners =
+        new CopyOnWriteArrayList<>();
+
     private TripleStoreManager tripleStoreManager;
     private ConcurrentHashMap<IRI, DataSet> dataSetMap = new ConcurrentHashMap<>();
 
@@ -66,7 +80,7 @@ public class DataCatalog {
      */
     public DataCatalog(TripleStoreManager tripleStoreManager) {
         this.tripleStoreManager = tripleStoreManager;
-        try (RepositoryConnection connection = tripleStoreManager.getConnection()) {
+        try (RepositoryConnection connection = tripleStoreManager.getPrimaryConnection()) {
             if (!connection.hasStatement(NS, RDF.TYPE, DCAT.Catalog, true)) {
                 connection.add(initializeDataCatalogStatements(), NS);
             } else {
@@ -116,14 +130,99 @@ public class DataCatalog {
         try {
             DataSet dataSet = DataSetFactory.createDataSet(namespace, tripleStoreManager);
             if (dataSet != null) {
-                try (RepositoryConnection connection = tripleStoreManager.getConnection()) {
+                try (RepositoryConnection connection = tripleStoreManager.getPrimaryConnection()) {
                     connection.add(NS, DCAT.dataset, namespace, NS);
                 }
             }
+            dataSetMap.put(namespace, dataSet);
             return dataSet;
         } catch (DataSetFactoryException f) {
             throw new DataCatalogException(f);
         }
     }
 
+    /**
+     * Gets the most recent modification {@link Date} of each {@link DataSet} of the catalog
+     * managed by the given {@link TripleStoreManager}. {@link DataSet}s that have never been
+     * modified are not contained in the returned map. The stamps are read from the primary triple
+     * store without caching together with the pointers to the active graphs, which are used by
+     * the readers afterwards (see
+     * {@link at.ac.tuwien.finder.datamanagement.staging.ActiveGraphs#getModificationDates()}),
+     * such that a stamp never announces a modification whose graph is not observed yet.
+     *
+     * @param tripleStoreManager {@link TripleStoreManager} that manages the store of the catalog.
+     * @return the map of the namespaces of the {@link DataSet}s to their most recent modification
+     * {@link Date}.
+     */
+    public static Map<IRI, Date> getModificationDates(TripleStoreManager tripleStoreManager) {
+        return tripleStoreManager.getActiveGraphs().getModificationDates();
+    }
+
+    /**
+     * Gets the most recent modification {@link Date} of each {@link DataSet} of the catalog that
+     * is stored in the repository of the given {@link RepositoryConnection}, which may be a read
+     * replica of the triple store.
+     *
+     * @param connection {@link RepositoryConnection} to the store of the catalog.
+     * @return the map of the namespaces of the {@link DataSet}s to their most recent modification
+     * {@link Date}.
+     */
+    public static Map<IRI, Date> getModificationDates(RepositoryConnection connection) {
+        Map<IRI, Date> modificationDates = new HashMap<>();
+        try (TupleQueryResult result = connection.prepareTupleQuery(QueryLanguage.SPARQL,
+            String.format(MODIFICATION_DATES_QUERY, NS, DCTERMS.MODIFIED)).evaluate()) {
+            while (result.hasNext()) {
+                BindingSet bindingSet = result.next();
+                Value dataSet = bindingSet.getValue("dataSet");
+                Value lastModified = bindingSet.getValue("lastModified");
+                if (dataSet instanceof IRI && lastModified instanceof Literal && XMLSchema.DATETIME
+                    .equals(((Literal) lastModified).getDatatype())) {
+                    modificationDates.put((IRI) dataSet,
+                        ((Literal) lastModified).calendarValue().toGregorianCalendar().getTime());
+                }
+            }
+        }
+        return modificationDates;
+    }
+
+    /**
+     * Registers the given {@link DataSetModificationListener}, which will be informed about every
+     * modification of a {@link DataSet} that is announced by
+     * {@link #notifyModification(IRI, Date)} in this process.
+     *
+     * @param listener {@link DataSetModificationListener} that shall be registered.
+     */
+    public static void addModificationListener(DataSetModificationListener listener) {
+        assert listener != null;
+        modificationListeners.addIfAbsent(listener);
+    }
+
+    /**
+     * Removes the given {@link DataSetModificationListener}.
+     *
+     * @param listener {@link DataSetModificationListener} that shall be removed.
+     */
+    public static void removeModificationListener(DataSetModificationListener listener) {
+        modificationListeners.remove(listener);
+    }
+
+    /**
+     * Informs all registered {@link DataSetModificationListener}s that the {@link DataSet} with the
+     * given namespace has been modified at the given {@link Date}. A failing listener does not
+     * prevent the others from being informed.
+     *
+     * @param namespace        the namespace {@link IRI} of the modified {@link DataSet}.
+     * @param modificationDate {@link Date} at which the {@link DataSet} was modified.
+     */
+    public static void notifyModification(IRI namespace, Date modificationDate) {
+        for (DataSetModificationListener listener : modificationListeners) {
+            try {
+                listener.dataSetModified(namespace, modificationDate);
+            } catch (RuntimeException e) {
+                logger.error("Listener {} failed to handle the modification of {}. {}", listener,
+                    namespace, e);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,27 @@
+package at.ac.tuwien.finder.datamanagement.catalog;
+
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.DataSet;
+import org.eclipse.rdf4j.model.IRI;
+
+import java.util.Date;
+
+/**
+ * Instances of this interface are informed about the modification of {@link DataSet}s in the
+ * {@link DataCatalog}, e.g. to invalidate data that has been derived from the modified
+ * {@link DataSet}. Only the modifications carried out in the same process are announced, other
+ * processes have to observe the modification stamps in the {@link DataCatalog}.
+ *
+ * @author Kevin Haller
+ */
+@FunctionalInterface
+public interface DataSetModificationListener {
+
+    /**
+     * Informs this listener that the {@link DataSet} with the given namespace has been modified.
+     *
+     * @param namespace        the namespace {@link IRI} of the modified {@link DataSet}.
+     * @param modificationDate {@link Date} at which the {@link DataSet} was modified.
+     */
+    void dataSetModified(IRI namespace, Date modificationDate);
+
+}
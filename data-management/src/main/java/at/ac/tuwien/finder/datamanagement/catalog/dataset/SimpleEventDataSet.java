@@ -42,7 +42,7 @@ public class SimpleEventDataSet implements EventDataSet {
      */
     public SimpleEventDataSet(TripleStoreManager tripleStoreManager) {
         this.tripleStoreManager = tripleStoreManager;
-        try (RepositoryConnection connection = tripleStoreManager.getConnection()) {
+        try (RepositoryConnection connection = tripleStoreManager.getPrimaryConnection()) {
             if (!connection.hasStatement(NS, RDF.TYPE, DCAT.Dataset, true)) {
                 connection.add(initSpatialDataSetDescription(new Date()), DataCatalog.NS, NS);
             }
@@ -79,7 +79,7 @@ public class SimpleEventDataSet implements EventDataSet {
     @Override
     public synchronized void modifiedAt(Date modificationDate) {
         logger.debug("Modification update ({}) for {}.", modificationDate, this);
-        try (RepositoryConnection connection = tripleStoreManager.getConnection()) {
+        try (RepositoryConnection connection = tripleStoreManager.getPrimaryConnection()) {
             connection.add(NS, DCTERMS.MODIFIED,
                 connection.getValueFactory().createLiteral(modificationDate), DataCatalog.NS, NS);
         }
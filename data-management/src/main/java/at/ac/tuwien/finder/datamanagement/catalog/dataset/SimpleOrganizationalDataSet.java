@@ -43,7 +43,7 @@ public class SimpleOrganizationalDataSet implements OrganizationalDataSet {
      */
     public SimpleOrganizationalDataSet(TripleStoreManager tripleStoreManager) {
         this.tripleStoreManager = tripleStoreManager;
-        try (RepositoryConnection connection = tripleStoreManager.getConnection()) {
+        try (RepositoryConnection connection = tripleStoreManager.getPrimaryConnection()) {
             if (!connection.hasStatement(NS, RDF.TYPE, DCAT.Dataset, true)) {
                 connection.add(initSpatialDataSetDescription(new Date()), DataCatalog.NS, NS);
             }
@@ -80,7 +80,7 @@ public class SimpleOrganizationalDataSet implements OrganizationalDataSet {
     @Override
     public synchronized void modifiedAt(Date modificationDate) {
         logger.debug("Modification update ({}) for {}.", modificationDate, this);
-        try (RepositoryConnection connection = tripleStoreManager.getConnection()) {
+        try (RepositoryConnection connection = tripleStoreManager.getPrimaryConnection()) {
             connection.add(NS, DCTERMS.MODIFIED,
                 connection.getValueFactory().createLiteral(modificationDate), DataCatalog.NS, NS);
         }
@@ -15,4 +15,11 @@ public interface SpatialDataSet extends DataSet {
     IRI NS = SimpleValueFactory.getInstance()
         .createIRI(TripleStoreManager.BASE.stringValue(), "spatial");
 
+    /**
+     * The named graph of the statements that are derived from the spatial data at its
+     * integration, e.g. the addresses of the rooms.
+     */
+    IRI DERIVED_GRAPH = SimpleValueFactory.getInstance()
+        .createIRI(TripleStoreManager.BASE.stringValue(), "spatial/derived");
+
 }
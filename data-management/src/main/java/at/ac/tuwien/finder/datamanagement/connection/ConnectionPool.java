@@ -0,0 +1,370 @@
+package at.ac.tuwien.finder.datamanagement.connection;
+
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is a bounded pool of {@link RepositoryConnection}s to a {@link Repository}. The
+ * number of borrowed connections is limited by the maximal size of the pool; callers wait up to
+ * the acquisition timeout for a connection to be returned. Idle connections are reused in LIFO
+ * order, validated before they are borrowed and closed after the idle timeout, whereby the
+ * minimal number of connections is kept open.
+ * <p>
+ * Borrowing and returning a connection does not lock, as long as the pool is not exhausted. The
+ * borrowed connections are returned to the pool by closing them, such that the users of
+ * {@link #getConnection()} do not have to be aware of the pool.
+ *
+ * @author Kevin Haller
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    private static final String VALIDATION_QUERY = "ASK {}";
+
+    private final Repository repository;
+    private final ConnectionPoolSettings settings;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<IdleConnection> idleConnections =
+        new ConcurrentLinkedDeque<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final ScheduledExecutorService evictionExecutor;
+    private volatile boolean closed = false;
+
+    private final LongAdder createdConnections = new LongAdder();
+    private final LongAdder destroyedConnections = new LongAdder();
+    private final LongAdder borrowedConnections = new LongAdder();
+    private final LongAdder acquisitionTimeouts = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder waitTimeNanos = new LongAdder();
+
+    /**
+     * Creates a new {@link ConnectionPool} for the given {@link Repository}. The minimal number of
+     * connections is opened immediately.
+     *
+     * @param repository {@link Repository} to which the connections shall be established.
+     * @param settings   {@link ConnectionPoolSettings} of the pool.
+     */
+    public ConnectionPool(Repository repository, ConnectionPoolSettings settings) {
+        assert repository != null;
+        assert settings != null;
+        this.repository = repository;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.getMaxSize());
+        for (int i = 0; i < settings.getMinSize(); i++) {
+            try {
+                idleConnections.offerFirst(new IdleConnection(createConnection()));
+            } catch (RepositoryException e) {
+                logger.warn("The connection pool could not be filled up to {} connections. {}",
+                    settings.getMinSize(), e);
+                break;
+            }
+        }
+        this.evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evictionExecutor
+            .scheduleWithFixedDelay(this::evictIdleConnections, settings.getEvictionInterval(),
+                settings.getEvictionInterval(), TimeUnit.MILLISECONDS);
+        logger.debug("Connection pool {} has been established with {} connections.", settings,
+            openConnections.get());
+    }
+
+    /**
+     * Borrows a {@link RepositoryConnection} from this pool. The connection must be closed after
+     * its usage, which returns it to this pool.
+     *
+     * @return a {@link RepositoryConnection} borrowed from this pool.
+     * @throws RepositoryException if no connection is returned to the exhausted pool within the
+     *                             acquisition timeout, or if a new connection cannot be created.
+     */
+    public RepositoryConnection getConnection() throws RepositoryException {
+        if (closed) {
+            throw new RepositoryException("The connection pool has been closed.");
+        }
+        if (!permits.tryAcquire()) {
+            long waitStartTime = System.nanoTime();
+            try {
+                if (!permits.tryAcquire(settings.getAcquireTimeout(), TimeUnit.MILLISECONDS)) {
+                    acquisitionTimeouts.increment();
+                    throw new RepositoryException(String.format(
+                        "No connection could be acquired within %d ms (%d connections borrowed).",
+                        settings.getAcquireTimeout(), getBorrowedConnectionCount()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RepositoryException("The acquisition of a connection was interrupted.",
+                    e);
+            } finally {
+                waitTimeNanos.add(System.nanoTime() - waitStartTime);
+            }
+        }
+        try {
+            RepositoryConnection connection = pollValidConnection();
+            if (connection == null) {
+                connection = createConnection();
+            }
+            borrowedConnections.increment();
+            return new PooledRepositoryConnection(this, repository, connection);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the most recently used idle connection that is valid out of this pool. Invalid idle
+     * connections are closed.
+     *
+     * @return the most recently used idle connection that is valid, or null, if there is no such
+     * connection.
+     */
+    private RepositoryConnection pollValidConnection() {
+        IdleConnection idleConnection;
+        while ((idleConnection = idleConnections.pollFirst()) != null) {
+            if (!settings.isValidateOnBorrow() || isValid(idleConnection)) {
+                return idleConnection.connection;
+            }
+            validationFailures.increment();
+            destroy(idleConnection.connection);
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the given idle connection is valid. A connection that has been idle for
+     * longer than the validation interval is validated by a query.
+     *
+     * @param idleConnection the idle connection that shall be validated.
+     * @return true, if the given idle connection is valid, otherwise false.
+     */
+    private boolean isValid(IdleConnection idleConnection) {
+        try {
+            if (!idleConnection.connection.isOpen()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - idleConnection.idleSince < settings
+                .getValidationInterval()) {
+                return true;
+            }
+            idleConnection.connection.prepareBooleanQuery(QueryLanguage.SPARQL, VALIDATION_QUERY)
+                .evaluate();
+            return true;
+        } catch (RepositoryException | QueryEvaluationException e) {
+            logger.debug("Idle connection failed the validation. {}", e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the given connection to this pool.
+     *
+     * @param connection the connection that shall be returned.
+     * @param reusable   true, if the given connection can be reused, otherwise false.
+     */
+    void release(RepositoryConnection connection, boolean reusable) {
+        if (reusable && !closed) {
+            IdleConnection idleConnection = new IdleConnection(connection);
+            idleConnections.offerFirst(idleConnection);
+            // The pool might have been closed concurrently.
+            if (closed && idleConnections.removeFirstOccurrence(idleConnection)) {
+                destroy(connection);
+            }
+        } else {
+            destroy(connection);
+        }
+        permits.release();
+    }
+
+    /**
+     * Closes the idle connections that exceed the idle timeout, as long as more than the minimal
+     * number of connections are open.
+     */
+    private void evictIdleConnections() {
+        long evictionThreshold = System.currentTimeMillis() - settings.getIdleTimeout();
+        for (IdleConnection idleConnection : idleConnections) {
+            if (openConnections.get() <= settings.getMinSize()) {
+                return;
+            }
+            if (idleConnection.idleSince < evictionThreshold && idleConnections
+                .removeFirstOccurrence(idleConnection)) {
+                destroy(idleConnection.connection);
+            }
+        }
+    }
+
+    /**
+     * Creates a new connection to the {@link Repository}.
+     *
+     * @return a new connection to the {@link Repository}.
+     * @throws RepositoryException if the connection cannot be created.
+     */
+    private RepositoryConnection createConnection() throws RepositoryException {
+        RepositoryConnection connection = repository.getConnection();
+        openConnections.incrementAndGet();
+        createdConnections.increment();
+        return connection;
+    }
+
+    /**
+     * Closes the given connection.
+     *
+     * @param connection the connection that shall be closed.
+     */
+    private void destroy(RepositoryConnection connection) {
+        openConnections.decrementAndGet();
+        destroyedConnections.increment();
+        try {
+            connection.close();
+        } catch (RepositoryException e) {
+            logger.debug("A pooled connection could not be closed. {}", e);
+        }
+    }
+
+    /**
+     * Gets the {@link ConnectionPoolSettings} of this pool.
+     *
+     * @return the {@link ConnectionPoolSettings} of this pool.
+     */
+    public ConnectionPoolSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Gets the number of connections that are currently borrowed.
+     *
+     * @return the number of connections that are currently borrowed.
+     */
+    public int getBorrowedConnectionCount() {
+        return settings.getMaxSize() - permits.availablePermits();
+    }
+
+    /**
+     * Gets the number of connections that are currently idle.
+     *
+     * @return the number of connections that are currently idle.
+     */
+    public int getIdleConnectionCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * Gets the number of connections that are currently open (borrowed and idle).
+     *
+     * @return the number of connections that are currently open.
+     */
+    public int getOpenConnectionCount() {
+        return openConnections.get();
+    }
+
+    /**
+     * Gets the number of callers that are waiting for a connection.
+     *
+     * @return the number of callers that are waiting for a connection.
+     */
+    public int getWaitingCallerCount() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Gets the total number of connections that have been created by this pool.
+     *
+     * @return the total number of connections that have been created.
+     */
+    public long getCreatedConnectionCount() {
+        return createdConnections.sum();
+    }
+
+    /**
+     * Gets the total number of connections that have been closed by this pool.
+     *
+     * @return the total number of connections that have been closed.
+     */
+    public long getDestroyedConnectionCount() {
+        return destroyedConnections.sum();
+    }
+
+    /**
+     * Gets the total number of times a connection has been borrowed.
+     *
+     * @return the total number of times a connection has been borrowed.
+     */
+    public long getBorrowCount() {
+        return borrowedConnections.sum();
+    }
+
+    /**
+     * Gets the total number of acquisitions that have timed out.
+     *
+     * @return the total number of acquisitions that have timed out.
+     */
+    public long getAcquisitionTimeoutCount() {
+        return acquisitionTimeouts.sum();
+    }
+
+    /**
+     * Gets the total number of idle connections that failed the validation.
+     *
+     * @return the total number of idle connections that failed the validation.
+     */
+    public long getValidationFailureCount() {
+        return validationFailures.sum();
+    }
+
+    /**
+     * Gets the total time in milliseconds that callers have waited for a connection of the
+     * exhausted pool.
+     *
+     * @return the total time in milliseconds that callers have waited for a connection.
+     */
+    public long getTotalWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(waitTimeNanos.sum());
+    }
+
+    /**
+     * Closes this pool and all its idle connections. Borrowed connections are closed, when they
+     * are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        evictionExecutor.shutdownNow();
+        IdleConnection idleConnection;
+        while ((idleConnection = idleConnections.pollFirst()) != null) {
+            destroy(idleConnection.connection);
+        }
+        logger.debug(
+            "Connection pool has been closed (created: {}, borrowed: {}, timeouts: {}, validation failures: {}).",
+            getCreatedConnectionCount(), getBorrowCount(), getAcquisitionTimeoutCount(),
+            getValidationFailureCount());
+    }
+
+    /**
+     * This class represents an idle connection of the pool.
+     */
+    private static final class IdleConnection {
+
+        private final RepositoryConnection connection;
+        private final long idleSince;
+
+        private IdleConnection(RepositoryConnection connection) {
+            this.connection = connection;
+            this.idleSince = System.currentTimeMillis();
+        }
+    }
+}
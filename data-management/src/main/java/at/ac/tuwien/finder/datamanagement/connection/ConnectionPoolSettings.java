@@ -0,0 +1,175 @@
+package at.ac.tuwien.finder.datamanagement.connection;
+
+import java.util.Properties;
+
+/**
+ * This class holds the settings of a {@link ConnectionPool}. The settings can be read from the
+ * data-management properties ({@code db.pool.*}), whereby missing properties fall back to the
+ * default values.
+ *
+ * @author Kevin Haller
+ */
+public final class ConnectionPoolSettings {
+
+    public static final int DEFAULT_MIN_SIZE = 2;
+    public static final int DEFAULT_MAX_SIZE = 16;
+    public static final long DEFAULT_ACQUIRE_TIMEOUT = 5000L;
+    public static final boolean DEFAULT_VALIDATE_ON_BORROW = true;
+    public static final long DEFAULT_VALIDATION_INTERVAL = 5000L;
+    public static final long DEFAULT_IDLE_TIMEOUT = 60000L;
+    public static final long DEFAULT_EVICTION_INTERVAL = 30000L;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeout;
+    private final boolean validateOnBorrow;
+    private final long validationInterval;
+    private final long idleTimeout;
+    private final long evictionInterval;
+
+    /**
+     * Creates new {@link ConnectionPoolSettings}.
+     *
+     * @param minSize            the number of connections that shall be kept open, even if they
+     *                           are idle.
+     * @param maxSize            the maximal number of connections that can be borrowed at the
+     *                           same time.
+     * @param acquireTimeout     the time in milliseconds that a caller waits for a connection, if
+     *                           all connections are borrowed.
+     * @param validateOnBorrow   true, if a connection shall be validated before it is borrowed.
+     * @param validationInterval the time in milliseconds that a connection must have been idle,
+     *                           before it is validated by a query.
+     * @param idleTimeout        the time in milliseconds after which an idle connection is closed.
+     * @param evictionInterval   the interval in milliseconds in which idle connections are
+     *                           evicted.
+     */
+    public ConnectionPoolSettings(int minSize, int maxSize, long acquireTimeout,
+        boolean validateOnBorrow, long validationInterval, long idleTimeout,
+        long evictionInterval) {
+        assert minSize >= 0;
+        assert maxSize > 0 && maxSize >= minSize;
+        assert acquireTimeout >= 0;
+        assert validationInterval >= 0;
+        assert idleTimeout > 0;
+        assert evictionInterval > 0;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeout = acquireTimeout;
+        this.validateOnBorrow = validateOnBorrow;
+        this.validationInterval = validationInterval;
+        this.idleTimeout = idleTimeout;
+        this.evictionInterval = evictionInterval;
+    }
+
+    /**
+     * Creates {@link ConnectionPoolSettings} with the default values.
+     *
+     * @return {@link ConnectionPoolSettings} with the default values.
+     */
+    public static ConnectionPoolSettings defaults() {
+        return fromProperties(new Properties());
+    }
+
+    /**
+     * Reads the {@link ConnectionPoolSettings} from the given {@link Properties}
+     * ({@code db.pool.min-size}, {@code db.pool.max-size}, {@code db.pool.acquire-timeout},
+     * {@code db.pool.validate-on-borrow}, {@code db.pool.validation-interval},
+     * {@code db.pool.idle-timeout} and {@code db.pool.eviction-interval}).
+     *
+     * @param properties {@link Properties} from which the settings shall be read.
+     * @return {@link ConnectionPoolSettings} read from the given {@link Properties}.
+     * @throws NumberFormatException if the value of a property is not a valid number.
+     */
+    public static ConnectionPoolSettings fromProperties(Properties properties) {
+        assert properties != null;
+        return new ConnectionPoolSettings(
+            Integer.parseInt(properties.getProperty("db.pool.min-size",
+                String.valueOf(DEFAULT_MIN_SIZE)).trim()),
+            Integer.parseInt(properties.getProperty("db.pool.max-size",
+                String.valueOf(DEFAULT_MAX_SIZE)).trim()),
+            Long.parseLong(properties.getProperty("db.pool.acquire-timeout",
+                String.valueOf(DEFAULT_ACQUIRE_TIMEOUT)).trim()),
+            Boolean.parseBoolean(properties.getProperty("db.pool.validate-on-borrow",
+                String.valueOf(DEFAULT_VALIDATE_ON_BORROW)).trim()),
+            Long.parseLong(properties.getProperty("db.pool.validation-interval",
+                String.valueOf(DEFAULT_VALIDATION_INTERVAL)).trim()),
+            Long.parseLong(properties.getProperty("db.pool.idle-timeout",
+                String.valueOf(DEFAULT_IDLE_TIMEOUT)).trim()),
+            Long.parseLong(properties.getProperty("db.pool.eviction-interval",
+                String.valueOf(DEFAULT_EVICTION_INTERVAL)).trim()));
+    }
+
+    /**
+     * Gets the number of connections that shall be kept open, even if they are idle.
+     *
+     * @return the number of connections that shall be kept open.
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Gets the maximal number of connections that can be borrowed at the same time.
+     *
+     * @return the maximal number of connections that can be borrowed at the same time.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the time in milliseconds that a caller waits for a connection, if all connections are
+     * borrowed.
+     *
+     * @return the time in milliseconds that a caller waits for a connection.
+     */
+    public long getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    /**
+     * Checks whether a connection shall be validated before it is borrowed.
+     *
+     * @return true, if a connection shall be validated before it is borrowed, otherwise false.
+     */
+    public boolean isValidateOnBorrow() {
+        return validateOnBorrow;
+    }
+
+    /**
+     * Gets the time in milliseconds that a connection must have been idle, before it is validated
+     * by a query. Connections that have been idle for a shorter time are only checked for being
+     * open.
+     *
+     * @return the time in milliseconds that a connection must have been idle, before it is
+     * validated by a query.
+     */
+    public long getValidationInterval() {
+        return validationInterval;
+    }
+
+    /**
+     * Gets the time in milliseconds after which an idle connection is closed.
+     *
+     * @return the time in milliseconds after which an idle connection is closed.
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Gets the interval in milliseconds in which idle connections are evicted.
+     *
+     * @return the interval in milliseconds in which idle connections are evicted.
+     */
+    public long getEvictionInterval() {
+        return evictionInterval;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "{minSize=%d, maxSize=%d, acquireTimeout=%d, validateOnBorrow=%s, idleTimeout=%d}",
+            minSize, maxSize, acquireTimeout, validateOnBorrow, idleTimeout);
+    }
+}
@@ -0,0 +1,57 @@
+package at.ac.tuwien.finder.datamanagement.connection;
+
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.base.RepositoryConnectionWrapper;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class is a {@link RepositoryConnection} that has been borrowed from a
+ * {@link ConnectionPool}. Closing it does not close the underlying connection, but returns it to
+ * the pool. An active transaction that has neither been committed nor rolled back is rolled back
+ * before the connection is returned.
+ *
+ * @author Kevin Haller
+ */
+class PooledRepositoryConnection extends RepositoryConnectionWrapper {
+
+    private final ConnectionPool connectionPool;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    /**
+     * Creates a new {@link PooledRepositoryConnection}.
+     *
+     * @param connectionPool {@link ConnectionPool} to which the given connection shall be
+     *                       returned.
+     * @param repository     {@link Repository} of the given connection.
+     * @param delegate       the underlying {@link RepositoryConnection}.
+     */
+    PooledRepositoryConnection(ConnectionPool connectionPool, Repository repository,
+        RepositoryConnection delegate) {
+        super(repository, delegate);
+        assert connectionPool != null;
+        this.connectionPool = connectionPool;
+    }
+
+    @Override
+    public boolean isOpen() throws RepositoryException {
+        return !released.get() && getDelegate().isOpen();
+    }
+
+    @Override
+    public void close() throws RepositoryException {
+        if (released.compareAndSet(false, true)) {
+            boolean reusable = true;
+            try {
+                if (getDelegate().isActive()) {
+                    getDelegate().rollback();
+                }
+            } catch (RepositoryException e) {
+                reusable = false;
+            }
+            connectionPool.release(getDelegate(), reusable);
+        }
+    }
+}
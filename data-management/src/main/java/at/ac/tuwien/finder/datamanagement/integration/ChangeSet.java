@@ -0,0 +1,107 @@
+package at.ac.tuwien.finder.datamanagement.integration;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class represents the changes of the named graphs that are applied by a
+ * {@link DeltaDataIntegrator}, i.e. the statements that are added to and removed from each graph.
+ *
+ * @author Kevin Haller
+ */
+public final class ChangeSet {
+
+    private final Map<IRI, List<Statement>> additions = new LinkedHashMap<>();
+    private final Map<IRI, List<Statement>> removals = new LinkedHashMap<>();
+
+    /**
+     * Records the given additions to and removals from the given named graph.
+     *
+     * @param graph     the named graph that is changed.
+     * @param additions the statements that are added to the graph.
+     * @param removals  the statements that are removed from the graph.
+     */
+    void put(IRI graph, List<Statement> additions, List<Statement> removals) {
+        assert graph != null;
+        this.additions.put(graph, Collections.unmodifiableList(additions));
+        this.removals.put(graph, Collections.unmodifiableList(removals));
+    }
+
+    /**
+     * Gets the named graphs that have been compared.
+     *
+     * @return the named graphs that have been compared.
+     */
+    public Set<IRI> getGraphs() {
+        return Collections.unmodifiableSet(additions.keySet());
+    }
+
+    /**
+     * Gets the statements that are added to the given named graph.
+     *
+     * @param graph the named graph.
+     * @return the statements that are added to the given named graph.
+     */
+    public Collection<Statement> getAdditions(IRI graph) {
+        return additions.getOrDefault(graph, Collections.emptyList());
+    }
+
+    /**
+     * Gets the statements that are removed from the given named graph.
+     *
+     * @param graph the named graph.
+     * @return the statements that are removed from the given named graph.
+     */
+    public Collection<Statement> getRemovals(IRI graph) {
+        return removals.getOrDefault(graph, Collections.emptyList());
+    }
+
+    /**
+     * Checks whether the given named graph is changed.
+     *
+     * @param graph the named graph.
+     * @return true, if statements are added to or removed from the given graph, otherwise false.
+     */
+    public boolean isChanged(IRI graph) {
+        return !getAdditions(graph).isEmpty() || !getRemovals(graph).isEmpty();
+    }
+
+    /**
+     * Checks whether any named graph is changed.
+     *
+     * @return true, if no statement is added or removed, otherwise false.
+     */
+    public boolean isEmpty() {
+        return additions.keySet().stream().noneMatch(this::isChanged);
+    }
+
+    /**
+     * Gets a summary of this change set, i.e. the number of added and removed statements per
+     * named graph.
+     *
+     * @return a summary of this change set.
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        for (IRI graph : additions.keySet()) {
+            if (summary.length() > 0) {
+                summary.append(", ");
+            }
+            summary.append(String.format("<%s>: +%d/-%d", graph, getAdditions(graph).size(),
+                getRemovals(graph).size()));
+        }
+        return summary.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ChangeSet{%s}", summary());
+    }
+}
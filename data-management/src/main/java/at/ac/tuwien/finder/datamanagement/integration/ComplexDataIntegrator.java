@@ -1,17 +1,32 @@
 package at.ac.tuwien.finder.datamanagement.integration;
 
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.staging.StagingSession;
 import at.ac.tuwien.finder.datamanagement.util.TaskManager;
+import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 
 /**
  * This class represent an integrator with a specific {@link IntegrationPlan} that
- * integrate a given model into the specified graph.
+ * integrate a given model into the specified graph. The data set of the data integrator is loaded
+ * into a staging graph, which becomes the active graph after the linking and cleansing, such that
+ * readers never observe a load in progress (see
+ * {@link at.ac.tuwien.finder.datamanagement.staging.ActiveGraphs}). The derived graphs of the
+ * materializers are loaded into staging graphs alongside, which become active right before the
+ * staging graph of the data set. If the data integrator fails, e.g. because some statements could
+ * not be loaded, the load is aborted and the active graphs are kept.
  *
  * @author Kevin Haller
  */
@@ -19,6 +34,7 @@ public class ComplexDataIntegrator implements DataIntegrator {
 
     private static final Logger logger = LoggerFactory.getLogger(ComplexDataIntegrator.class);
 
+    private TripleStoreManager tripleStoreManager = TripleStoreManager.getInstance();
     private TaskManager taskManager;
     private IntegrationPlan integrationPlan;
 
@@ -40,8 +56,65 @@ public class ComplexDataIntegrator implements DataIntegrator {
     @Override
     public void integrate(Model model) {
         logger.debug("integrate({})", model);
-        /* Starts data updating */
         DataIntegrator dataIntegrator = integrationPlan.getDataIntegrator();
+        if (dataIntegrator == null) {
+            integrate(model, null);
+            return;
+        }
+        try (StagingSession session = tripleStoreManager.getActiveGraphs()
+            .stage(dataIntegrator.getDataSet())) {
+            List<StagingSession> derivedSessions = stageDerivedGraphs();
+            try {
+                integrate(model, dataIntegrator);
+                for (StagingSession derivedSession : derivedSessions) {
+                    derivedSession.commit();
+                }
+                session.commit();
+            } finally {
+                derivedSessions.forEach(StagingSession::close);
+            }
+        } catch (RepositoryException | IllegalStateException e) {
+            logger.error("integrate({}) throws {}, the load of {} is aborted.", model, e,
+                dataIntegrator.getDataSet());
+        }
+    }
+
+    /**
+     * Starts to load the derived graphs of the materializers into new staging graphs. If a derived
+     * graph cannot be staged, the loads of the derived graphs staged before are aborted.
+     *
+     * @return the {@link StagingSession}s of the derived graphs.
+     * @throws RepositoryException   if a derived graph cannot be staged.
+     * @throws IllegalStateException if a derived graph is already loaded.
+     */
+    private List<StagingSession> stageDerivedGraphs() throws RepositoryException {
+        Set<IRI> derivedGraphs = new LinkedHashSet<>();
+        for (DataMaterializer dataMaterializer : integrationPlan.getDataMaterializers()) {
+            derivedGraphs.add(dataMaterializer.getDerivedGraph());
+        }
+        List<StagingSession> derivedSessions = new ArrayList<>();
+        try {
+            for (IRI derivedGraph : derivedGraphs) {
+                derivedSessions.add(tripleStoreManager.getActiveGraphs().stage(derivedGraph));
+            }
+        } catch (RepositoryException | IllegalStateException e) {
+            derivedSessions.forEach(StagingSession::close);
+            throw e;
+        }
+        return derivedSessions;
+    }
+
+    /**
+     * Integrates the given model with the given data integrator, links it, materializes the
+     * derived statements into the derived graphs and cleanses it. The materializers run one after
+     * another, because they might depend on the links and on the statements derived before.
+     *
+     * @param model          the model, which shall be integrated.
+     * @param dataIntegrator the {@link DataIntegrator} of the integration plan, or null, if it
+     *                       has none.
+     */
+    private void integrate(Model model, DataIntegrator dataIntegrator) throws RepositoryException {
+        /* Starts data updating */
         if (dataIntegrator != null) {
             dataIntegrator.integrate(model);
         }
@@ -61,6 +134,15 @@ public class ComplexDataIntegrator implements DataIntegrator {
                 }
             }
         }
+        /* Starts materialization */
+        for (DataMaterializer dataMaterializer : integrationPlan.getDataMaterializers()) {
+            IRI derivedGraph = dataMaterializer.getDerivedGraph();
+            try (RepositoryConnection connection = tripleStoreManager
+                .getPrimaryConnection(derivedGraph)) {
+                connection.add(dataMaterializer.materialize(),
+                    tripleStoreManager.getWriteGraph(derivedGraph));
+            }
+        }
         /* Starts cleansing */
         DataCleanser dataCleanser = integrationPlan.getDataCleanser();
         if (dataCleanser != null) {
@@ -68,11 +150,20 @@ public class ComplexDataIntegrator implements DataIntegrator {
         }
     }
 
+    @Override
+    public IRI getDataSet() {
+        DataIntegrator dataIntegrator = integrationPlan.getDataIntegrator();
+        return dataIntegrator != null ? dataIntegrator.getDataSet() : null;
+    }
+
     @Override
     public void close() throws Exception {
         taskManager.close();
         if (integrationPlan != null) {
             integrationPlan.close();
         }
+        if (tripleStoreManager != null) {
+            tripleStoreManager.close();
+        }
     }
 }
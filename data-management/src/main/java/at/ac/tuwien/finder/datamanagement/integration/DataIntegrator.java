@@ -1,6 +1,7 @@
 package at.ac.tuwien.finder.datamanagement.integration;
 
 import at.ac.tuwien.finder.datamanagement.catalog.dataset.DataSet;
+import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
 
 /**
@@ -19,4 +20,11 @@ public interface DataIntegrator extends AutoCloseable {
      */
     void integrate(Model model);
 
+    /**
+     * Gets the namespace of the data set, which is managed by this data integrator.
+     *
+     * @return the namespace {@link IRI} of the data set, which is managed by this data integrator.
+     */
+    IRI getDataSet();
+
 }
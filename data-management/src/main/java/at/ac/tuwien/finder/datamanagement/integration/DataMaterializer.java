@@ -0,0 +1,33 @@
+package at.ac.tuwien.finder.datamanagement.integration;
+
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.DataSet;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+
+/**
+ * Instances of this interface represent materializers that derive statements from the linked data
+ * of a {@link DataSet}, which would otherwise be computed by expensive queries for each request.
+ * The derived statements are written into a derived graph after the linking and before the
+ * cleansing. The derived graph is staged together with the {@link DataSet} and computed again
+ * with each load, such that the derived statements never mix with the statements of the
+ * {@link DataSet} (see {@link at.ac.tuwien.finder.datamanagement.staging.ActiveGraphs}).
+ *
+ * @author Kevin Haller
+ */
+public interface DataMaterializer extends AutoCloseable {
+
+    /**
+     * Starts the materialization on the linked graph, for which this materializer is responsible.
+     *
+     * @return the model of the derived statements.
+     */
+    Model materialize();
+
+    /**
+     * Gets the derived graph into which the statements of this materializer shall be written.
+     *
+     * @return the derived graph of this materializer.
+     */
+    IRI getDerivedGraph();
+
+}
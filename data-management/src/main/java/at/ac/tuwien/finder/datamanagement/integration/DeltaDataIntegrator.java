@@ -0,0 +1,344 @@
+package at.ac.tuwien.finder.datamanagement.integration;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.catalog.DataCatalog;
+import at.ac.tuwien.finder.datamanagement.catalog.exception.DataCatalogException;
+import at.ac.tuwien.finder.datamanagement.integration.bulk.NamespacePartitioner;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * This class is an implementation of {@link DataIntegrator}, that applies only the changes
+ * between the acquired data and the stored named graphs. The acquired statements are assigned to
+ * the data sets by the namespace of their subject. For each named graph, the acquired and the
+ * stored statements are brought into a canonical form, sorted and merged, such that the
+ * statements that are missing in the store are added and the statements that disappeared from
+ * the acquired data are removed. Blank nodes are compared by a hash of their description, since
+ * their identifiers differ between two acquisitions. The changes of a graph are applied in one
+ * transaction and reported as {@link ChangeSet}.
+ * <p>
+ * The acquired data must be the complete content of the named graphs into which it is
+ * integrated. Since a failed or partial acquisition cannot be told apart from data that
+ * disappeared upstream, the changes of a named graph are refused, if they would remove more than
+ * the maximal ratio of its stored statements. Named graphs without any acquired statement are
+ * left untouched. A large removal that is intended has to be applied by an integrator with a
+ * maximal removal ratio of 1, which disables this check. This integrator shall not be used for
+ * the results of a {@link DataLinker}. The changes are compared against and applied to the write
+ * graph of a data set (see {@link TripleStoreManager#getWriteGraph(IRI)}).
+ *
+ * @author Kevin Haller
+ */
+public class DeltaDataIntegrator implements DataIntegrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeltaDataIntegrator.class);
+
+    public static final double DEFAULT_MAX_REMOVAL_RATIO = 0.2;
+
+    private static final Comparator<CanonicalStatement> CANONICAL_ORDER =
+        Comparator.comparing(canonicalStatement -> canonicalStatement.key);
+
+    private TripleStoreManager tripleStoreManager;
+    private NamespacePartitioner partitioner;
+    private double maxRemovalRatio;
+
+    /**
+     * Creates a new instance of {@link DeltaDataIntegrator} for the given data set.
+     *
+     * @param dataSetNameSpace the namespace {@link IRI} of the data set into which the data shall
+     *                         be integrated.
+     * @param dataSetMapping   specifies which resources shall be integrated into which data set.
+     */
+    public DeltaDataIntegrator(IRI dataSetNameSpace, Map<IRI, IRI> dataSetMapping) {
+        this(TripleStoreManager.getInstance(), dataSetNameSpace, dataSetMapping);
+    }
+
+    /**
+     * Creates a new instance of {@link DeltaDataIntegrator} for the given data set.
+     *
+     * @param tripleStoreManager {@link TripleStoreManager} that manages the triple store into
+     *                           which the data shall be integrated.
+     * @param dataSetNameSpace   the namespace {@link IRI} of the data set into which the data
+     *                           shall be integrated.
+     * @param dataSetMapping     specifies which resources shall be integrated into which data
+     *                           set.
+     */
+    public DeltaDataIntegrator(TripleStoreManager tripleStoreManager, IRI dataSetNameSpace,
+        Map<IRI, IRI> dataSetMapping) {
+        this(tripleStoreManager, dataSetNameSpace, dataSetMapping, DEFAULT_MAX_REMOVAL_RATIO);
+    }
+
+    /**
+     * Creates a new instance of {@link DeltaDataIntegrator} for the given data set.
+     *
+     * @param tripleStoreManager {@link TripleStoreManager} that manages the triple store into
+     *                           which the data shall be integrated.
+     * @param dataSetNameSpace   the namespace {@link IRI} of the data set into which the data
+     *                           shall be integrated.
+     * @param dataSetMapping     specifies which resources shall be integrated into which data
+     *                           set.
+     * @param maxRemovalRatio    the maximal ratio of the stored statements of a named graph that
+     *                           may be removed by one integration, which must be in (0,1]. A
+     *                           ratio of 1 allows to remove all statements.
+     */
+    public DeltaDataIntegrator(TripleStoreManager tripleStoreManager, IRI dataSetNameSpace,
+        Map<IRI, IRI> dataSetMapping, double maxRemovalRatio) {
+        assert tripleStoreManager != null;
+        assert dataSetNameSpace != null;
+        assert maxRemovalRatio > 0 && maxRemovalRatio <= 1;
+        this.tripleStoreManager = tripleStoreManager;
+        this.partitioner = new NamespacePartitioner(
+            dataSetMapping == null ? Collections.emptyMap() : dataSetMapping, dataSetNameSpace);
+        this.maxRemovalRatio = maxRemovalRatio;
+    }
+
+    @Override
+    public void integrate(Model model) {
+        logger.debug("integrate({})", model);
+        if (model == null) {
+            throw new IllegalArgumentException("The given model must not be null.");
+        }
+        ChangeSet changeSet = apply(model);
+        logger.info("Integrated the changes {}.", changeSet.summary());
+    }
+
+    /**
+     * Computes the changes between the given acquired model and the stored named graphs without
+     * applying them.
+     *
+     * @param model the acquired {@link Model}.
+     * @return the {@link ChangeSet} that would be applied.
+     * @throws RepositoryException if the stored named graphs cannot be read.
+     */
+    public ChangeSet diff(Model model) throws RepositoryException {
+        ChangeSet changeSet = new ChangeSet();
+        for (Map.Entry<IRI, Model> graph : partition(model).entrySet()) {
+            diff(graph.getKey(), graph.getValue(), changeSet);
+        }
+        return changeSet;
+    }
+
+    /**
+     * Computes the changes between the given acquired model and the stored named graphs and
+     * applies them. A named graph is only marked as modified in the data catalog, if it changed.
+     * The changes of a named graph that would remove more than the maximal ratio of its stored
+     * statements are refused and recorded as no change.
+     *
+     * @param model the acquired {@link Model}.
+     * @return the {@link ChangeSet} that has been applied.
+     */
+    public ChangeSet apply(Model model) {
+        ChangeSet changeSet = new ChangeSet();
+        for (Map.Entry<IRI, Model> graphModel : partition(model).entrySet()) {
+            IRI graph = graphModel.getKey();
+            try {
+                int storedSize = diff(graph, graphModel.getValue(), changeSet);
+                if (!changeSet.isChanged(graph)) {
+                    continue;
+                }
+                int removalCount = changeSet.getRemovals(graph).size();
+                if (removalCount > maxRemovalRatio * storedSize) {
+                    logger.error("The changes of <{}> are refused, since {} of its {} statements "
+                            + "would be removed. The acquisition might be incomplete.", graph,
+                        removalCount, storedSize);
+                    changeSet.put(graph, Collections.emptyList(), Collections.emptyList());
+                    continue;
+                }
+                IRI writeGraph = tripleStoreManager.getWriteGraph(graph);
+                try (RepositoryConnection connection = tripleStoreManager
+                    .getPrimaryConnection(graph)) {
+                    connection.begin();
+                    try {
+                        connection.remove(changeSet.getRemovals(graph), writeGraph);
+                        connection.add(changeSet.getAdditions(graph), writeGraph);
+                        connection.commit();
+                    } catch (RepositoryException e) {
+                        if (connection.isActive()) {
+                            connection.rollback();
+                        }
+                        throw e;
+                    }
+                }
+                Date modificationDate = new Date();
+                tripleStoreManager.getDataCatalog().get(graph).modifiedAt(modificationDate);
+                DataCatalog.notifyModification(graph, modificationDate);
+            } catch (DataCatalogException d) {
+                logger.error("{}", d);
+            } catch (RepositoryException e) {
+                logger.error("The changes of <{}> cannot be applied. {}", graph, e);
+            }
+        }
+        return changeSet;
+    }
+
+    /**
+     * Partitions the given model into the named graphs of the data sets.
+     *
+     * @param model the acquired {@link Model}.
+     * @return the statements of the given model per named graph.
+     */
+    private Map<IRI, Model> partition(Model model) {
+        return model.stream().collect(Collectors
+            .groupingBy(statement -> partitioner.partition(statement.getSubject()),
+                Collectors.toCollection(LinkedHashModel::new)));
+    }
+
+    /**
+     * Compares the given acquired statements with the stored statements of the given named graph
+     * and records the differences in the given {@link ChangeSet}.
+     *
+     * @param graph     the named graph.
+     * @param acquired  the acquired statements of the named graph.
+     * @param changeSet {@link ChangeSet} in which the differences shall be recorded.
+     * @return the number of stored statements of the named graph.
+     * @throws RepositoryException if the stored named graph cannot be read.
+     */
+    private int diff(IRI graph, Model acquired, ChangeSet changeSet)
+        throws RepositoryException {
+        Model stored;
+        IRI writeGraph = tripleStoreManager.getWriteGraph(graph);
+        try (RepositoryConnection connection = tripleStoreManager.getPrimaryConnection(graph)) {
+            stored = new LinkedHashModel(
+                Iterations.asList(connection.getStatements(null, null, null, false, writeGraph)));
+        }
+        List<CanonicalStatement> storedStatements = canonicalize(stored);
+        List<CanonicalStatement> acquiredStatements = canonicalize(acquired);
+        List<Statement> additions = new ArrayList<>();
+        List<Statement> removals = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < storedStatements.size() && j < acquiredStatements.size()) {
+            int comparison =
+                storedStatements.get(i).key.compareTo(acquiredStatements.get(j).key);
+            if (comparison == 0) {
+                i++;
+                j++;
+            } else if (comparison < 0) {
+                removals.add(storedStatements.get(i++).statement);
+            } else {
+                additions.add(acquiredStatements.get(j++).statement);
+            }
+        }
+        for (; i < storedStatements.size(); i++) {
+            removals.add(storedStatements.get(i).statement);
+        }
+        for (; j < acquiredStatements.size(); j++) {
+            additions.add(acquiredStatements.get(j).statement);
+        }
+        changeSet.put(graph, additions, removals);
+        return storedStatements.size();
+    }
+
+    /**
+     * Brings the statements of the given model into their canonical form and sorts them by it.
+     *
+     * @param model the {@link Model} of which the statements shall be canonicalized.
+     * @return the sorted list of the canonical statements of the given model.
+     */
+    private static List<CanonicalStatement> canonicalize(Model model) {
+        Map<BNode, String> blankNodeLabels = new HashMap<>();
+        List<CanonicalStatement> canonicalStatements = new ArrayList<>(model.size());
+        for (Statement statement : model) {
+            canonicalStatements.add(new CanonicalStatement(statement,
+                String.join(" ", canonicalForm(statement.getSubject(), model, blankNodeLabels),
+                    canonicalForm(statement.getPredicate(), model, blankNodeLabels),
+                    canonicalForm(statement.getObject(), model, blankNodeLabels))));
+        }
+        canonicalStatements.sort(CANONICAL_ORDER);
+        return canonicalStatements;
+    }
+
+    /**
+     * Gets the canonical form of the given value. IRIs and literals are written in N-Triples
+     * syntax, a blank node is labelled by the hash of its description in the given model.
+     *
+     * @param value           the {@link Value} of which the canonical form shall be returned.
+     * @param model           the {@link Model} in which the blank nodes are described.
+     * @param blankNodeLabels the already computed labels of the blank nodes.
+     * @return the canonical form of the given value.
+     */
+    private static String canonicalForm(Value value, Model model,
+        Map<BNode, String> blankNodeLabels) {
+        if (value instanceof BNode) {
+            return blankNodeLabels
+                .computeIfAbsent((BNode) value, blankNode -> "_:" + hash(model, blankNode));
+        } else if (value instanceof Literal) {
+            Literal literal = (Literal) value;
+            String label = '"' + literal.getLabel().replace("\\", "\\\\").replace("\"", "\\\"")
+                + '"';
+            return literal.getLanguage().isPresent() ? label + "@" + literal.getLanguage().get() :
+                label + "^^<" + literal.getDatatype() + ">";
+        }
+        return "<" + value.stringValue() + ">";
+    }
+
+    /**
+     * Computes the hash of the description of the given blank node, i.e. of its sorted outgoing
+     * statements, whereby nested blank nodes are not distinguished.
+     *
+     * @param model     the {@link Model} in which the blank node is described.
+     * @param blankNode the {@link BNode} of which the hash shall be computed.
+     * @return the hash of the description of the given blank node.
+     */
+    private static String hash(Model model, BNode blankNode) {
+        String description = model.filter(blankNode, null, null).stream().map(statement -> String
+            .join(" ", canonicalForm(statement.getPredicate(), model, Collections.emptyMap()),
+                statement.getObject() instanceof BNode ? "_:" :
+                    canonicalForm(statement.getObject(), model, Collections.emptyMap())))
+            .sorted().collect(Collectors.joining(" ; "));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MessageDigest
+                .getInstance("SHA-256").digest(description.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public IRI getDataSet() {
+        return partitioner.getDefaultDataSet();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (tripleStoreManager != null) {
+            tripleStoreManager.close();
+        }
+    }
+
+    /**
+     * A statement together with its canonical form.
+     */
+    private static final class CanonicalStatement {
+
+        private final Statement statement;
+        private final String key;
+
+        private CanonicalStatement(Statement statement, String key) {
+            this.statement = statement;
+            this.key = key;
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package at.ac.tuwien.finder.datamanagement.integration;
 
 import java.util.Collection;
+import java.util.Collections;
 
 /**
  * This class represents an integration plan that specifies which {@link DataIntegrator},
- * {@link DataLinker}s and {@link DataCleanser}s to use for the integration.
+ * {@link DataLinker}s, {@link DataMaterializer}s and {@link DataCleanser}s to use for the
+ * integration.
  *
  * @author Kevin Haller
  */
@@ -12,6 +14,7 @@ public class IntegrationPlan implements AutoCloseable {
 
     private DataIntegrator dataIntegrator;
     private Collection<DataLinker> dataLinkers;
+    private Collection<DataMaterializer> dataMaterializers;
     private DataCleanser dataCleanser;
 
     /**
@@ -24,8 +27,26 @@ public class IntegrationPlan implements AutoCloseable {
      */
     public IntegrationPlan(DataIntegrator dataIntegrator, Collection<DataLinker> dataLinkers,
         DataCleanser dataCleanser) {
+        this(dataIntegrator, dataLinkers, Collections.emptyList(), dataCleanser);
+    }
+
+    /**
+     * Creates a new integration plan that uses the given {@link DataIntegrator},
+     * {@link DataLinker}s, {@link DataMaterializer}s and {@link DataCleanser}s.
+     *
+     * @param dataIntegrator    the data updater, which shall be used in this integration plan.
+     * @param dataLinkers       the list of data linkers, which shall be used in this integration
+     *                          plan.
+     * @param dataMaterializers the list of data materializers, which shall be used in this
+     *                          integration plan in the given order.
+     * @param dataCleanser      the data cleanser, which shall be used int this integration plan.
+     */
+    public IntegrationPlan(DataIntegrator dataIntegrator, Collection<DataLinker> dataLinkers,
+        Collection<DataMaterializer> dataMaterializers, DataCleanser dataCleanser) {
+        assert dataMaterializers != null;
         this.dataIntegrator = dataIntegrator;
         this.dataLinkers = dataLinkers;
+        this.dataMaterializers = dataMaterializers;
         this.dataCleanser = dataCleanser;
     }
 
@@ -47,6 +68,16 @@ public class IntegrationPlan implements AutoCloseable {
         return dataLinkers;
     }
 
+    /**
+     * Gets the list of data materializers of this integration plan, which shall be run in the
+     * given order after the linking.
+     *
+     * @return the list of data materializers of this integration plan.
+     */
+    public Collection<DataMaterializer> getDataMaterializers() {
+        return dataMaterializers;
+    }
+
     /**
      * Gets the data cleanser of the integration plan.
      *
@@ -69,5 +100,8 @@ public class IntegrationPlan implements AutoCloseable {
                 dataLinker.close();
             }
         }
+        for (DataMaterializer dataMaterializer : dataMaterializers) {
+            dataMaterializer.close();
+        }
     }
 }
@@ -1,25 +1,27 @@
 package at.ac.tuwien.finder.datamanagement.integration;
 
 import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.catalog.DataCatalog;
 import at.ac.tuwien.finder.datamanagement.catalog.dataset.DataSet;
 import at.ac.tuwien.finder.datamanagement.catalog.exception.DataCatalogException;
+import at.ac.tuwien.finder.datamanagement.integration.bulk.BulkLoadReport;
+import at.ac.tuwien.finder.datamanagement.integration.bulk.BulkLoader;
+import at.ac.tuwien.finder.datamanagement.integration.bulk.NamespacePartitioner;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
-import org.eclipse.rdf4j.model.Statement;
-import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
 import java.util.Date;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * This class is an implementation of {@link DataIntegrator}, that uses no {@link DataLinker} or
- * {@link DataCleanser}.
+ * {@link DataCleanser}. The statements are assigned to the data sets by the namespace of their
+ * subject and loaded in batches by a {@link BulkLoader}, which is shared by all integrations of
+ * this integrator.
  *
  * @author Kevin Haller
  */
@@ -29,7 +31,9 @@ public class SimpleDataIntegrator implements DataIntegrator {
 
     private IRI dataSetNameSpace;
     private Map<IRI, IRI> dataSetMapping;
+    private NamespacePartitioner partitioner;
     private TripleStoreManager tripleStoreManager = TripleStoreManager.getInstance();
+    private BulkLoader bulkLoader;
 
     /**
      * Creates a new instance of {@link SimpleDataIntegrator} for the given {@link DataSet}.
@@ -54,41 +58,52 @@ public class SimpleDataIntegrator implements DataIntegrator {
         assert dataSetNameSpace != null;
         this.dataSetNameSpace = dataSetNameSpace;
         this.dataSetMapping = dataSetMapping == null ? Collections.EMPTY_MAP : dataSetMapping;
+        this.partitioner = new NamespacePartitioner(this.dataSetMapping, dataSetNameSpace);
+        this.bulkLoader =
+            new BulkLoader(tripleStoreManager, tripleStoreManager.getBulkLoadSettings());
     }
 
+    /**
+     * Integrates the given model into the data sets of its resources. The data sets are only
+     * marked as modified, if all the statements have been loaded.
+     *
+     * @param model the model, which shall be integrated.
+     * @throws RepositoryException if some statements of the model could not be loaded, whereby
+     *                             the statements of the other batches remain in the data sets.
+     */
     @Override
     public void integrate(Model model) {
         logger.debug("integrate({})", model);
         if (model == null) {
             throw new IllegalArgumentException("The given model must not be null.");
         }
-        Map<IRI, List<Statement>> partitionedModel =
-            model.stream().collect(Collectors.groupingBy(statement -> {
-                for (IRI subjectNs : dataSetMapping.keySet()) {
-                    if (statement.getSubject().stringValue().startsWith(subjectNs.stringValue())) {
-                        return subjectNs;
-                    }
-                }
-                return dataSetNameSpace;
-            }));
-        logger.debug("Partition-Model: {}", partitionedModel);
-        try (RepositoryConnection connection = tripleStoreManager.getConnection()) {
-            for (IRI dataSetIRI : partitionedModel.keySet()) {
-                try {
-                    connection.add(partitionedModel.get(dataSetIRI), dataSetIRI);
-                    tripleStoreManager.getDataCatalog().get(dataSetIRI)
-                        .modifiedAt(new Date());
-                } catch (DataCatalogException d) {
-                    logger.error("{}", d);
-                }
+        BulkLoadReport report = bulkLoader.load(model.stream(), partitioner);
+        if (!report.isComplete()) {
+            throw new RepositoryException(String
+                .format("%d statements could not be integrated into %s (%s).",
+                    report.getFailedStatements(), dataSetNameSpace, report));
+        }
+        for (IRI dataSetIRI : report.getLoadedGraphs()) {
+            try {
+                Date modificationDate = new Date();
+                tripleStoreManager.getDataCatalog().get(dataSetIRI).modifiedAt(modificationDate);
+                DataCatalog.notifyModification(dataSetIRI, modificationDate);
+            } catch (DataCatalogException d) {
+                logger.error("{}", d);
+            } catch (RepositoryException e) {
+                logger.error("{}", e);
             }
-        } catch (RepositoryException e) {
-            logger.error("{}", e);
         }
     }
 
+    @Override
+    public IRI getDataSet() {
+        return dataSetNameSpace;
+    }
+
     @Override
     public void close() throws Exception {
+        bulkLoader.close();
         if (tripleStoreManager != null) {
             tripleStoreManager.close();
         }
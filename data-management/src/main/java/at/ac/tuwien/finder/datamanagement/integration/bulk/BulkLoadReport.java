@@ -0,0 +1,166 @@
+package at.ac.tuwien.finder.datamanagement.integration.bulk;
+
+import org.eclipse.rdf4j.model.IRI;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class reports the progress and the result of a bulk load (see {@link BulkLoader}), i.e. the
+ * number of statements that have been loaded into each named graph, the batches that failed
+ * despite the retries and the throughput of the load.
+ *
+ * @author Kevin Haller
+ */
+public final class BulkLoadReport {
+
+    private final Map<IRI, LongAdder> loadedStatements = new ConcurrentHashMap<>();
+    private final LongAdder loadedTotal = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder failedStatements = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private volatile boolean aborted = false;
+    private final long startTime = System.nanoTime();
+    private volatile long endTime = -1;
+
+    /**
+     * Records that the given number of statements have been loaded into the given named graph.
+     *
+     * @param graph      the named graph into which the statements have been loaded.
+     * @param statements the number of loaded statements.
+     */
+    void loaded(IRI graph, int statements) {
+        loadedStatements.computeIfAbsent(graph, g -> new LongAdder()).add(statements);
+        loadedTotal.add(statements);
+    }
+
+    /**
+     * Records that a batch with the given number of statements has been given up.
+     *
+     * @param statements the number of statements of the failed batch.
+     */
+    void failed(int statements) {
+        failedBatches.increment();
+        failedStatements.add(statements);
+    }
+
+    /**
+     * Records that a failed batch is loaded again.
+     */
+    void retried() {
+        retries.increment();
+    }
+
+    /**
+     * Records that the bulk load has been aborted before all the statements have been submitted.
+     */
+    void abort() {
+        aborted = true;
+    }
+
+    /**
+     * Records that the bulk load has been finished.
+     */
+    void finish() {
+        endTime = System.nanoTime();
+    }
+
+    /**
+     * Gets the named graphs into which statements have been loaded.
+     *
+     * @return the named graphs into which statements have been loaded.
+     */
+    public Set<IRI> getLoadedGraphs() {
+        return Collections.unmodifiableSet(loadedStatements.keySet());
+    }
+
+    /**
+     * Gets the number of statements that have been loaded into the given named graph.
+     *
+     * @param graph the named graph.
+     * @return the number of statements that have been loaded into the given named graph.
+     */
+    public long getLoadedStatements(IRI graph) {
+        LongAdder statements = loadedStatements.get(graph);
+        return statements != null ? statements.sum() : 0;
+    }
+
+    /**
+     * Gets the number of statements that have been loaded into all the named graphs.
+     *
+     * @return the number of statements that have been loaded.
+     */
+    public long getLoadedStatements() {
+        return loadedTotal.sum();
+    }
+
+    /**
+     * Gets the number of batches that have been given up after all retries failed.
+     *
+     * @return the number of batches that have been given up.
+     */
+    public long getFailedBatches() {
+        return failedBatches.sum();
+    }
+
+    /**
+     * Gets the number of statements of the batches that have been given up.
+     *
+     * @return the number of statements that have not been loaded.
+     */
+    public long getFailedStatements() {
+        return failedStatements.sum();
+    }
+
+    /**
+     * Gets the number of times a failed batch has been loaded again.
+     *
+     * @return the number of retries.
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Checks whether all the statements have been loaded.
+     *
+     * @return true, if no batch has been given up and the bulk load has not been aborted,
+     * otherwise false.
+     */
+    public boolean isComplete() {
+        return failedBatches.sum() == 0 && !aborted;
+    }
+
+    /**
+     * Gets the duration of the bulk load in milliseconds, or the time since its start, if it is
+     * still running.
+     *
+     * @return the duration of the bulk load in milliseconds.
+     */
+    public long getDuration() {
+        long end = endTime >= 0 ? endTime : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startTime);
+    }
+
+    /**
+     * Gets the number of statements that have been loaded per second.
+     *
+     * @return the number of statements that have been loaded per second.
+     */
+    public double getStatementsPerSecond() {
+        long duration = getDuration();
+        return duration > 0 ? loadedTotal.sum() * 1000.0 / duration : loadedTotal.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "BulkLoadReport{loaded=%d, failedBatches=%d, retries=%d, duration=%dms, rate=%.1f/s}",
+            getLoadedStatements(), getFailedBatches(), getRetries(), getDuration(),
+            getStatementsPerSecond());
+    }
+}
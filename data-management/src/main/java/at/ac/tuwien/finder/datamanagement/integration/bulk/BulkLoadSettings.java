@@ -0,0 +1,136 @@
+package at.ac.tuwien.finder.datamanagement.integration.bulk;
+
+import java.util.Properties;
+
+/**
+ * This class holds the settings of a {@link BulkLoader}. The settings can be read from the
+ * data-management properties ({@code integration.bulk.*}), whereby missing properties fall back
+ * to the default values.
+ *
+ * @author Kevin Haller
+ */
+public final class BulkLoadSettings {
+
+    public static final int DEFAULT_BATCH_SIZE = 10000;
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    public static final long DEFAULT_RETRY_DELAY = 1000L;
+    public static final long DEFAULT_PROGRESS_INTERVAL = 5000L;
+
+    private final int batchSize;
+    private final int parallelism;
+    private final int maxRetries;
+    private final long retryDelay;
+    private final long progressInterval;
+
+    /**
+     * Creates new {@link BulkLoadSettings}.
+     *
+     * @param batchSize        the maximal number of statements that are added in one transaction.
+     * @param parallelism      the maximal number of batches that are loaded at the same time.
+     * @param maxRetries       the number of times a failed batch is loaded again, before it is
+     *                         given up.
+     * @param retryDelay       the time in milliseconds to wait before a failed batch is loaded
+     *                         again. The delay is doubled for each further retry.
+     * @param progressInterval the interval in milliseconds in which the progress is reported.
+     */
+    public BulkLoadSettings(int batchSize, int parallelism, int maxRetries, long retryDelay,
+        long progressInterval) {
+        assert batchSize > 0;
+        assert parallelism > 0;
+        assert maxRetries >= 0;
+        assert retryDelay >= 0;
+        assert progressInterval > 0;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.maxRetries = maxRetries;
+        this.retryDelay = retryDelay;
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * Creates {@link BulkLoadSettings} with the default values.
+     *
+     * @return {@link BulkLoadSettings} with the default values.
+     */
+    public static BulkLoadSettings defaults() {
+        return fromProperties(new Properties());
+    }
+
+    /**
+     * Reads the {@link BulkLoadSettings} from the given {@link Properties}
+     * ({@code integration.bulk.batch-size}, {@code integration.bulk.parallelism},
+     * {@code integration.bulk.max-retries}, {@code integration.bulk.retry-delay} and
+     * {@code integration.bulk.progress-interval}).
+     *
+     * @param properties {@link Properties} from which the settings shall be read.
+     * @return {@link BulkLoadSettings} read from the given {@link Properties}.
+     * @throws NumberFormatException if the value of a property is not a valid number.
+     */
+    public static BulkLoadSettings fromProperties(Properties properties) {
+        assert properties != null;
+        return new BulkLoadSettings(Integer.parseInt(properties
+            .getProperty("integration.bulk.batch-size", String.valueOf(DEFAULT_BATCH_SIZE))
+            .trim()), Integer.parseInt(properties
+            .getProperty("integration.bulk.parallelism", String.valueOf(DEFAULT_PARALLELISM))
+            .trim()), Integer.parseInt(properties
+            .getProperty("integration.bulk.max-retries", String.valueOf(DEFAULT_MAX_RETRIES))
+            .trim()), Long.parseLong(properties
+            .getProperty("integration.bulk.retry-delay", String.valueOf(DEFAULT_RETRY_DELAY))
+            .trim()), Long.parseLong(properties.getProperty("integration.bulk.progress-interval",
+            String.valueOf(DEFAULT_PROGRESS_INTERVAL)).trim()));
+    }
+
+    /**
+     * Gets the maximal number of statements that are added in one transaction.
+     *
+     * @return the maximal number of statements that are added in one transaction.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Gets the maximal number of batches that are loaded at the same time.
+     *
+     * @return the maximal number of batches that are loaded at the same time.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Gets the number of times a failed batch is loaded again, before it is given up.
+     *
+     * @return the number of times a failed batch is loaded again.
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Gets the time in milliseconds to wait before a failed batch is loaded again for the first
+     * time.
+     *
+     * @return the time in milliseconds to wait before a failed batch is loaded again.
+     */
+    public long getRetryDelay() {
+        return retryDelay;
+    }
+
+    /**
+     * Gets the interval in milliseconds in which the progress is reported.
+     *
+     * @return the interval in milliseconds in which the progress is reported.
+     */
+    public long getProgressInterval() {
+        return progressInterval;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "BulkLoadSettings{batchSize=%d, parallelism=%d, maxRetries=%d, retryDelay=%d}",
+            batchSize, parallelism, maxRetries, retryDelay);
+    }
+}
@@ -0,0 +1,235 @@
+package at.ac.tuwien.finder.datamanagement.integration.bulk;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * This class loads a stream of statements into the named graphs of their data sets. The
+ * statements are assigned to a data set by a {@link NamespacePartitioner} and collected in
+ * batches of the configured size. Each batch is added in an explicit transaction on a connection
+ * to the primary store (or shard) of its data set, whereby several batches, also of different
+ * named graphs, are loaded in parallel. The number of batches that wait to be loaded is bounded,
+ * such that the stream is not buffered completely. A failed batch is rolled back and loaded again
+ * after an increasing delay, and given up after the configured number of retries. A batch that
+ * fails unexpectedly is given up at once, and an interrupted load is reported as incomplete, such
+ * that the caller can discard the partially loaded statements. The progress is logged in the
+ * configured interval and reported by the returned {@link BulkLoadReport}.
+ * <p>
+ * The batches of all loads are loaded by the daemon threads of one pool that is owned by the
+ * loader. Idle threads are terminated after a while, and the pool is shut down, when the loader
+ * is closed.
+ *
+ * @author Kevin Haller
+ */
+public class BulkLoader implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkLoader.class);
+
+    private final TripleStoreManager tripleStoreManager;
+    private final BulkLoadSettings settings;
+    private final ExecutorService batchExecutor;
+
+    /**
+     * Creates a new {@link BulkLoader}.
+     *
+     * @param tripleStoreManager {@link TripleStoreManager} that manages the triple store into
+     *                           which the statements shall be loaded.
+     * @param settings           {@link BulkLoadSettings} of the loader.
+     */
+    public BulkLoader(TripleStoreManager tripleStoreManager, BulkLoadSettings settings) {
+        assert tripleStoreManager != null;
+        assert settings != null;
+        this.tripleStoreManager = tripleStoreManager;
+        this.settings = settings;
+        ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(settings.getParallelism(), settings.getParallelism(), 60L,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        this.batchExecutor = executor;
+    }
+
+    /**
+     * Loads the given statements into the named graphs of their data sets. This method returns,
+     * when all the batches have been loaded or given up.
+     *
+     * @param statements  the {@link Stream} of statements that shall be loaded.
+     * @param partitioner {@link NamespacePartitioner} that assigns the subject of a statement to
+     *                    its data set, whose IRI is the name of the graph.
+     * @return {@link BulkLoadReport} about the loaded and failed statements.
+     */
+    public BulkLoadReport load(Stream<Statement> statements, NamespacePartitioner partitioner) {
+        assert statements != null;
+        assert partitioner != null;
+        BulkLoadReport report = new BulkLoadReport();
+        AtomicLong lastProgress = new AtomicLong(System.nanoTime());
+        Semaphore pendingBatches = new Semaphore(2 * settings.getParallelism());
+        List<Future<?>> batchFutures = new ArrayList<>();
+        Map<IRI, List<Statement>> batches = new HashMap<>();
+        try {
+            Iterator<Statement> statementIterator = statements.iterator();
+            while (statementIterator.hasNext()) {
+                Statement statement = statementIterator.next();
+                IRI graph = partitioner.partition(statement.getSubject());
+                List<Statement> batch =
+                    batches.computeIfAbsent(graph, g -> new ArrayList<>(settings.getBatchSize()));
+                batch.add(statement);
+                if (batch.size() >= settings.getBatchSize()) {
+                    batches.remove(graph);
+                    batchFutures
+                        .add(submit(pendingBatches, graph, batch, report, lastProgress));
+                }
+            }
+            for (Map.Entry<IRI, List<Statement>> batch : batches.entrySet()) {
+                batchFutures.add(submit(pendingBatches, batch.getKey(), batch.getValue(),
+                    report, lastProgress));
+            }
+            for (Future<?> batchFuture : batchFutures) {
+                batchFuture.get();
+            }
+        } catch (InterruptedException e) {
+            logger.error("The bulk load was interrupted. {}", report);
+            report.abort();
+            for (Future<?> batchFuture : batchFutures) {
+                batchFuture.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("A batch of the bulk load failed unexpectedly. {}", e);
+            report.abort();
+        } finally {
+            report.finish();
+        }
+        logger.info("The bulk load has been finished. {}", report);
+        return report;
+    }
+
+    /**
+     * Submits the given batch to the pool of this loader, as soon as the number of pending batches
+     * allows it.
+     *
+     * @param pendingBatches {@link Semaphore} that bounds the number of pending batches.
+     * @param graph          the named graph into which the batch shall be loaded.
+     * @param batch          the statements of the batch.
+     * @param report         {@link BulkLoadReport} of the bulk load.
+     * @param lastProgress   the time at which the progress has been logged the last time.
+     * @return {@link Future} of the load of the batch.
+     * @throws InterruptedException if the thread was interrupted while waiting.
+     */
+    private Future<?> submit(Semaphore pendingBatches, IRI graph, List<Statement> batch,
+        BulkLoadReport report, AtomicLong lastProgress) throws InterruptedException {
+        pendingBatches.acquire();
+        return batchExecutor.submit(() -> {
+            try {
+                loadBatch(graph, batch, report);
+                logProgress(report, lastProgress);
+            } catch (RuntimeException e) {
+                logger.error("A batch of {} statements for <{}> failed unexpectedly. {}",
+                    batch.size(), graph, e);
+                report.failed(batch.size());
+            } finally {
+                pendingBatches.release();
+            }
+        });
+    }
+
+    /**
+     * Loads the given batch into the given named graph in one transaction. A failed batch is
+     * loaded again after the retry delay, which is doubled for each retry, until the maximal
+     * number of retries is reached.
+     *
+     * @param graph  the named graph of the data set into which the batch shall be loaded, whereby
+     *               the batch is written to its write graph (see
+     *               {@link TripleStoreManager#getWriteGraph(IRI)}).
+     * @param batch  the statements of the batch.
+     * @param report {@link BulkLoadReport} to which the result shall be reported.
+     */
+    private void loadBatch(IRI graph, List<Statement> batch, BulkLoadReport report) {
+        IRI writeGraph = tripleStoreManager.getWriteGraph(graph);
+        long retryDelay = settings.getRetryDelay();
+        for (int attempt = 0; ; attempt++) {
+            try (RepositoryConnection connection = tripleStoreManager
+                .getPrimaryConnection(graph)) {
+                connection.begin();
+                try {
+                    connection.add(batch, writeGraph);
+                    connection.commit();
+                } catch (RepositoryException e) {
+                    if (connection.isActive()) {
+                        connection.rollback();
+                    }
+                    throw e;
+                }
+                report.loaded(graph, batch.size());
+                return;
+            } catch (RepositoryException e) {
+                if (attempt >= settings.getMaxRetries()) {
+                    logger.error("A batch of {} statements for <{}> is given up after {} retries."
+                        + " {}", batch.size(), graph, attempt, e);
+                    report.failed(batch.size());
+                    return;
+                }
+                logger.warn("A batch of {} statements for <{}> failed and is retried in {} ms. {}",
+                    batch.size(), graph, retryDelay, e.getMessage());
+                report.retried();
+                try {
+                    TimeUnit.MILLISECONDS.sleep(retryDelay);
+                } catch (InterruptedException i) {
+                    Thread.currentThread().interrupt();
+                    report.failed(batch.size());
+                    return;
+                }
+                retryDelay *= 2;
+            }
+        }
+    }
+
+    /**
+     * Logs the progress of the bulk load, if the progress interval has elapsed since the last
+     * time it has been logged.
+     *
+     * @param report       {@link BulkLoadReport} of the bulk load.
+     * @param lastProgress the time at which the progress has been logged the last time.
+     */
+    private void logProgress(BulkLoadReport report, AtomicLong lastProgress) {
+        long now = System.nanoTime();
+        long last = lastProgress.get();
+        if (now - last >= TimeUnit.MILLISECONDS.toNanos(settings.getProgressInterval())
+            && lastProgress.compareAndSet(last, now)) {
+            logger.info("{} statements loaded ({} statements/s).", report.getLoadedStatements(),
+                String.format("%.1f", report.getStatementsPerSecond()));
+        }
+    }
+
+    /**
+     * Shuts the pool of this loader down. The batches that have already been submitted are still
+     * loaded, but this loader must not be used for further loads.
+     */
+    @Override
+    public void close() {
+        batchExecutor.shutdown();
+    }
+}
@@ -0,0 +1,82 @@
+package at.ac.tuwien.finder.datamanagement.integration.bulk;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class assigns resources to data sets by the namespace of their IRI. The namespaces are
+ * stored in a prefix trie, such that the data set of a resource is found by a single walk along
+ * its IRI, independent of the number of namespaces. If the namespaces of several data sets are
+ * prefixes of the IRI, the resource is assigned to the data set with the longest namespace.
+ * Resources that do not start with any namespace are assigned to the default data set.
+ *
+ * @author Kevin Haller
+ */
+public final class NamespacePartitioner {
+
+    private final Node root = new Node();
+    private final IRI defaultDataSet;
+
+    /**
+     * Creates a new {@link NamespacePartitioner}.
+     *
+     * @param namespaceMapping maps the namespaces of resources to the data set into which they
+     *                         shall be integrated.
+     * @param defaultDataSet   the data set to which resources are assigned, whose IRI does not
+     *                         start with any of the given namespaces.
+     */
+    public NamespacePartitioner(Map<IRI, IRI> namespaceMapping, IRI defaultDataSet) {
+        assert namespaceMapping != null;
+        assert defaultDataSet != null;
+        this.defaultDataSet = defaultDataSet;
+        for (Map.Entry<IRI, IRI> mapping : namespaceMapping.entrySet()) {
+            String namespace = mapping.getKey().stringValue();
+            Node node = root;
+            for (int i = 0; i < namespace.length(); i++) {
+                node = node.children.computeIfAbsent(namespace.charAt(i), c -> new Node());
+            }
+            node.dataSet = mapping.getValue();
+        }
+    }
+
+    /**
+     * Gets the data set to which the given resource is assigned.
+     *
+     * @param resource the {@link Resource} of which the data set shall be returned.
+     * @return the data set of the given resource.
+     */
+    public IRI partition(Resource resource) {
+        String value = resource.stringValue();
+        IRI dataSet = defaultDataSet;
+        Node node = root;
+        for (int i = 0; i < value.length() && node != null; i++) {
+            node = node.children.get(value.charAt(i));
+            if (node != null && node.dataSet != null) {
+                dataSet = node.dataSet;
+            }
+        }
+        return dataSet;
+    }
+
+    /**
+     * Gets the data set to which resources are assigned, whose IRI does not start with any known
+     * namespace.
+     *
+     * @return the default data set.
+     */
+    public IRI getDefaultDataSet() {
+        return defaultDataSet;
+    }
+
+    /**
+     * A node of the prefix trie, which holds the data set, if a namespace ends at this node.
+     */
+    private static final class Node {
+
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private IRI dataSet;
+    }
+}
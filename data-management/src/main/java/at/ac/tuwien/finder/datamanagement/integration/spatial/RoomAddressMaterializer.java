@@ -0,0 +1,134 @@
+package at.ac.tuwien.finder.datamanagement.integration.spatial;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.SpatialDataSet;
+import at.ac.tuwien.finder.datamanagement.integration.DataMaterializer;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is an implementation of {@link DataMaterializer} that materializes the address of
+ * each room, which is derived from the address of its building and the labels of its floor and
+ * building tract. The address of a room is identified by the IRI of the room followed by
+ * {@code /address}. Moreover, the room is linked directly to its building, floor and building
+ * tract with {@code tuvs:isBuildingUnitOf}. The derived statements are written into the derived
+ * graph of the spatial data set ({@link SpatialDataSet#DERIVED_GRAPH}).
+ * <p>
+ * The transitive paths of {@code tuvs:containsBuildingUnit} are evaluated once for all rooms per
+ * load, such that the address of a room can be looked up instead of being computed for each
+ * request. Hence, this materializer must run after the {@link RoomBuildingUnitLinker}s.
+ *
+ * @author Kevin Haller
+ */
+public final class RoomAddressMaterializer implements DataMaterializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomAddressMaterializer.class);
+
+    /**
+     * The suffix of the IRI of a room, which identifies its address.
+     */
+    public static final String ADDRESS_SUFFIX = "/address";
+
+    private static final String ROOM_ADDRESS_QUERY =
+        "PREFIX tuvs: <http://finder.tuwien.ac.at/vocab/spatial#>\n"
+            + "PREFIX locn: <http://www.w3.org/ns/locn#>\n"
+            + "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>\n"
+            + "CONSTRUCT {\n"
+            + "    ?room tuvs:isBuildingUnitOf ?building, ?floor, ?bt .\n"
+            + "    ?roomAddressIRI a locn:Address ;\n"
+            + "        locn:addressId ?roomAddressIRI ;\n"
+            + "        locn:fullAddress ?roomFullAddress ;\n"
+            + "        locn:locatorDesignator ?roomLocatorDesignator ;\n"
+            + "        locn:locatorName ?roomLocatorName ;\n"
+            + "        ?addressProperty ?addressObject .\n"
+            + "} WHERE {\n"
+            + "    ?room a tuvs:Room ; tuvs:roomCode ?roomCode .\n"
+            + "    ?building a tuvs:Building ; (tuvs:containsBuildingUnit)+ ?room .\n"
+            + "    ?building locn:address ?address .\n"
+            + "    ?address ?addressProperty ?addressObject ;\n"
+            + "        locn:locatorDesignator ?locatorDesignator ;\n"
+            + "        locn:thoroughfare ?thoroughfare ;\n"
+            + "        locn:postCode ?postCode ;\n"
+            + "        locn:postName ?postNameDE .\n"
+            + "    OPTIONAL {\n"
+            + "        ?floor a tuvs:Floor ;\n"
+            + "            (tuvs:containsBuildingUnit)+ ?room ;\n"
+            + "            rdfs:label ?floorLabel .\n"
+            + "    }\n"
+            + "    OPTIONAL {\n"
+            + "        ?bt a tuvs:BuildingTract ;\n"
+            + "            (tuvs:containsBuildingUnit)+ ?room ;\n"
+            + "            rdfs:label ?btLabel .\n"
+            + "    }\n"
+            + "    OPTIONAL {\n"
+            + "        ?room rdfs:label ?roomLabel .\n"
+            + "    }\n"
+            + "    FILTER(?addressProperty != locn:fullAddress"
+            + " && ?addressProperty != locn:locatorDesignator"
+            + " && ?addressProperty != locn:addressId) .\n"
+            + "    FILTER(lang(?postNameDE) = \"de\") .\n"
+            + "    BIND(IRI(concat(str(?room), \"" + ADDRESS_SUFFIX + "\")) as ?roomAddressIRI) .\n"
+            + "    BIND(concat(?locatorDesignator,"
+            + " IF(BOUND(?floorLabel), concat(\"/\", ?floorLabel), \"\"),"
+            + " IF(BOUND(?btLabel), concat(\"/Tract \", ?btLabel), \"\"), \"\")"
+            + " as ?roomLocatorDesignator) .\n"
+            + "    BIND(concat(str(?thoroughfare), \" \", str(?roomLocatorDesignator), \", \","
+            + " str(?postCode), \" \", str(?postNameDE), \", Österreich\")"
+            + " as ?roomFullAddress) .\n"
+            + "    BIND(IF(BOUND(?roomLabel),"
+            + " concat(str(?roomLabel), \" (\", str(?roomCode), \")\"), ?roomCode)"
+            + " as ?roomLocatorName)\n"
+            + "}";
+
+    private TripleStoreManager tripleStoreManager;
+
+    /**
+     * Creates a new {@link RoomAddressMaterializer} for the spatial data set managed by the
+     * {@link TripleStoreManager} of this application.
+     */
+    public RoomAddressMaterializer() {
+        this(TripleStoreManager.getInstance());
+    }
+
+    /**
+     * Creates a new {@link RoomAddressMaterializer} for the spatial data set managed by the given
+     * {@link TripleStoreManager}.
+     *
+     * @param tripleStoreManager {@link TripleStoreManager} that manages the triple store that holds
+     *                           the spatial data set.
+     */
+    public RoomAddressMaterializer(TripleStoreManager tripleStoreManager) {
+        assert tripleStoreManager != null;
+        this.tripleStoreManager = tripleStoreManager;
+    }
+
+    @Override
+    public Model materialize() {
+        try (RepositoryConnection connection = tripleStoreManager
+            .getStagedConnection(SpatialDataSet.NS)) {
+            Model addressModel = QueryResults.asModel(
+                connection.prepareGraphQuery(QueryLanguage.SPARQL, ROOM_ADDRESS_QUERY)
+                    .evaluate());
+            logger.debug("Materialized {} statements about the addresses of rooms.",
+                addressModel.size());
+            return addressModel;
+        }
+    }
+
+    @Override
+    public IRI getDerivedGraph() {
+        return SpatialDataSet.DERIVED_GRAPH;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (tripleStoreManager != null) {
+            tripleStoreManager.close();
+        }
+    }
+}
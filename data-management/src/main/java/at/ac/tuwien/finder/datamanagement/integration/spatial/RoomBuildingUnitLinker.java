@@ -1,6 +1,7 @@
 package at.ac.tuwien.finder.datamanagement.integration.spatial;
 
 import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.SpatialDataSet;
 import at.ac.tuwien.finder.datamanagement.integration.DataLinker;
 import at.ac.tuwien.finder.vocabulary.TUVS;
 import org.eclipse.rdf4j.model.IRI;
@@ -50,7 +51,8 @@ public class RoomBuildingUnitLinker implements DataLinker {
     @Override
     public Model link() {
         Model linkResultModel = new LinkedHashModel();
-        try (RepositoryConnection connection = tripleStoreManager.getConnection()) {
+        try (RepositoryConnection connection = tripleStoreManager
+            .getStagedConnection(SpatialDataSet.NS)) {
             Map<String, Resource> buildingTractMap = new HashMap<>();
             TupleQueryResult buildingTractResult = connection
                 .prepareTupleQuery(QueryLanguage.SPARQL, String
@@ -68,4 +68,18 @@ public class SimpleSpatialIntegrationPlan extends IntegrationPlan {
         super(dataIntegrator, Arrays.asList(dataLinkers), null);
     }
 
+    /**
+     * Creates a new simple facility integration plan. The plan includes the given
+     * {@link DataIntegrator}, {@link DataLinker}s and {@link DataMaterializer}s, but no
+     * {@link DataCleanser}.
+     *
+     * @param dataIntegrator    {@link DataIntegrator} that shall be used.
+     * @param dataLinkers       {@link DataLinker} that shall be used.
+     * @param dataMaterializers {@link DataMaterializer} that shall be used after the linking.
+     */
+    public SimpleSpatialIntegrationPlan(DataIntegrator dataIntegrator,
+        Collection<DataLinker> dataLinkers, Collection<DataMaterializer> dataMaterializers) {
+        super(dataIntegrator, dataLinkers, dataMaterializers, null);
+    }
+
 }
@@ -0,0 +1,81 @@
+package at.ac.tuwien.finder.datamanagement.replication;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class tracks the latencies of read operations. It maintains an exponentially weighted
+ * moving average, which reacts quickly to changes of the latency, and a window of the most recent
+ * latencies, from which percentiles can be computed. The tracker can be updated concurrently
+ * without locking.
+ *
+ * @author Kevin Haller
+ */
+public final class LatencyTracker {
+
+    private static final int WINDOW_SIZE = 256;
+    private static final double SMOOTHING_FACTOR = 0.2;
+
+    private final AtomicLongArray window = new AtomicLongArray(WINDOW_SIZE);
+    private final AtomicLong recordings = new AtomicLong();
+    private final AtomicLong averageBits = new AtomicLong(Double.doubleToLongBits(0.0));
+
+    /**
+     * Records the given latency.
+     *
+     * @param nanos the latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        long recording = recordings.getAndIncrement();
+        window.set((int) (recording % WINDOW_SIZE), nanos);
+        long currentBits;
+        long nextBits;
+        do {
+            currentBits = averageBits.get();
+            double average = Double.longBitsToDouble(currentBits);
+            nextBits = Double.doubleToLongBits(
+                recording == 0 ? nanos : average + SMOOTHING_FACTOR * (nanos - average));
+        } while (!averageBits.compareAndSet(currentBits, nextBits));
+    }
+
+    /**
+     * Gets the number of recorded latencies.
+     *
+     * @return the number of recorded latencies.
+     */
+    public long count() {
+        return recordings.get();
+    }
+
+    /**
+     * Gets the exponentially weighted moving average of the recorded latencies.
+     *
+     * @return the moving average of the recorded latencies in nanoseconds, or 0, if no latency
+     * has been recorded yet.
+     */
+    public double averageNanos() {
+        return Double.longBitsToDouble(averageBits.get());
+    }
+
+    /**
+     * Gets the given percentile of the most recent latencies.
+     *
+     * @param percentile the percentile in the range (0, 1] (e.g. 0.95).
+     * @return the given percentile of the most recent latencies in nanoseconds, or -1, if no
+     * latency has been recorded yet.
+     */
+    public long percentileNanos(double percentile) {
+        assert percentile > 0 && percentile <= 1;
+        int size = (int) Math.min(recordings.get(), WINDOW_SIZE);
+        if (size == 0) {
+            return -1;
+        }
+        long[] latencies = new long[size];
+        for (int i = 0; i < size; i++) {
+            latencies[i] = window.get(i);
+        }
+        Arrays.sort(latencies);
+        return latencies[Math.max(0, (int) Math.ceil(percentile * size) - 1)];
+    }
+}
@@ -0,0 +1,26 @@
+package at.ac.tuwien.finder.datamanagement.replication;
+
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+
+/**
+ * This interface represents a read-only operation on a {@link RepositoryConnection}. A read
+ * operation may be executed on several replicas of the triple store at the same time (see
+ * {@link ReadRouter#read(ReadOperation)}) and must therefore not modify the triple store or any
+ * shared state.
+ *
+ * @param <T> the type of the result of the operation.
+ * @author Kevin Haller
+ */
+@FunctionalInterface
+public interface ReadOperation<T> {
+
+    /**
+     * Executes this read operation on the given {@link RepositoryConnection}. The result must not
+     * depend on the connection after it has been returned, because the connection is closed
+     * afterwards.
+     *
+     * @param connection {@link RepositoryConnection} on which this operation shall be executed.
+     * @return the result of this operation.
+     */
+    T read(RepositoryConnection connection);
+}
@@ -0,0 +1,468 @@
+package at.ac.tuwien.finder.datamanagement.replication;
+
+import at.ac.tuwien.finder.datamanagement.catalog.DataSetModificationListener;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class routes the reads from the triple store to its healthy read replicas. A replica is
+ * selected by comparing two randomly chosen healthy replicas and taking the one with the lower
+ * latency weighted by its pending reads. The primary triple store only answers reads, if there is
+ * no healthy replica.
+ * <p>
+ * If hedging is enabled, a read that has not been answered within the configured percentile of
+ * the latency of the recent reads is sent to a second replica as well, and the first answer is
+ * taken. The health of the replicas is checked periodically, such that unhealthy replicas are
+ * selected again as soon as they recovered. Hedged reads are executed by a bounded pool of
+ * threads; a read that cannot be handed over to this pool is executed without hedging.
+ * <p>
+ * If a reader of the modification dates of the data sets is given, the dates of the primary and
+ * of the replicas are compared on every health check, and a replica is only selected, if it has
+ * reached the modification dates of the primary. Announced modifications raise the dates that the
+ * replicas have to reach immediately. Thereby, a lagging replica does not answer reads that are
+ * validated by the modification dates of the primary, until it has caught up.
+ *
+ * @author Kevin Haller
+ */
+public class ReadRouter implements DataSetModificationListener, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadRouter.class);
+
+    private static final String HEALTH_CHECK_QUERY = "ASK {}";
+    private static final int HEDGE_MIN_SAMPLES = 32;
+    private static final int HEDGE_DELAY_UPDATE_INTERVAL = 32;
+    private static final int MAX_HEDGE_THREADS = 64;
+
+    private final Replica primary;
+    private final List<Replica> replicas;
+    private final ReplicaSettings settings;
+    private final ReadOperation<Map<IRI, Date>> modificationDatesReader;
+    private final LatencyTracker readLatencyTracker = new LatencyTracker();
+    private final ExecutorService hedgeExecutor;
+    private final ScheduledExecutorService healthCheckExecutor;
+    private volatile long hedgeDelayNanos = -1;
+    private volatile Map<IRI, Date> primaryModificationDates;
+
+    private final LongAdder hedgedReads = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    /**
+     * Creates a new {@link ReadRouter} that routes the reads to the given replicas.
+     *
+     * @param primary  the primary triple store, which only answers reads, if there is no healthy
+     *                 replica.
+     * @param replicas the read replicas of the triple store.
+     * @param settings {@link ReplicaSettings} for the routing.
+     */
+    public ReadRouter(Replica primary, List<Replica> replicas, ReplicaSettings settings) {
+        this(primary, replicas, settings, null);
+    }
+
+    /**
+     * Creates a new {@link ReadRouter} that routes the reads to the given replicas, as soon as
+     * they have reached the modification dates of the data sets in the primary triple store.
+     *
+     * @param primary                 the primary triple store, which only answers reads, if there
+     *                                is no healthy and up-to-date replica.
+     * @param replicas                the read replicas of the triple store.
+     * @param settings                {@link ReplicaSettings} for the routing.
+     * @param modificationDatesReader {@link ReadOperation} that reads the modification dates of
+     *                                the data sets from a store, or null, if the replicas shall
+     *                                be regarded as up-to-date.
+     */
+    public ReadRouter(Replica primary, List<Replica> replicas, ReplicaSettings settings,
+        ReadOperation<Map<IRI, Date>> modificationDatesReader) {
+        assert primary != null;
+        assert replicas != null;
+        assert settings != null;
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+        this.settings = settings;
+        this.modificationDatesReader = modificationDatesReader;
+        this.hedgeExecutor = new ThreadPoolExecutor(0, MAX_HEDGE_THREADS, 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "replica-reader");
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.healthCheckExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!this.replicas.isEmpty()) {
+            this.healthCheckExecutor.scheduleWithFixedDelay(this::checkHealth,
+                modificationDatesReader != null ? 0 : settings.getHealthCheckInterval(),
+                settings.getHealthCheckInterval(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Borrows a {@link RepositoryConnection} to the selected replica. The connection must only be
+     * used for reading and must be closed after its usage.
+     *
+     * @return {@link RepositoryConnection} to the selected replica.
+     * @throws RepositoryException if no connection to a replica or the primary can be acquired.
+     */
+    public RepositoryConnection getConnection() throws RepositoryException {
+        Replica replica = select(null);
+        try {
+            return replica.getConnectionPool().getConnection();
+        } catch (RepositoryException e) {
+            Replica failover = select(replica);
+            if (failover == null) {
+                throw e;
+            }
+            logger.debug("No connection to {} can be acquired, failover to {}. {}", replica,
+                failover, e);
+            return failover.getConnectionPool().getConnection();
+        }
+    }
+
+    /**
+     * Executes the given {@link ReadOperation} on the selected replica. The operation is executed
+     * on a second replica, if the first one fails or if hedging is enabled, there are at least two
+     * replicas and the first replica does not answer within the hedge delay.
+     *
+     * @param operation {@link ReadOperation} that shall be executed.
+     * @param <T>       the type of the result of the operation.
+     * @return the result of the given operation.
+     * @throws RepositoryException if the operation cannot be executed on any replica.
+     */
+    public <T> T read(ReadOperation<T> operation) throws RepositoryException {
+        assert operation != null;
+        Replica replica = select(null);
+        long hedgeDelay = hedgeDelayNanos;
+        if (!settings.isHedgingEnabled() || hedgeDelay < 0 || replicas.size() < 2) {
+            return readWithFailover(replica, operation);
+        }
+        return hedgedRead(replica, operation, hedgeDelay);
+    }
+
+    /**
+     * Executes the given {@link ReadOperation} on the given replica and on a second replica, if
+     * the given replica fails.
+     *
+     * @param replica   the replica on which the operation shall be executed first.
+     * @param operation {@link ReadOperation} that shall be executed.
+     * @param <T>       the type of the result of the operation.
+     * @return the result of the given operation.
+     */
+    private <T> T readWithFailover(Replica replica, ReadOperation<T> operation) {
+        try {
+            return execute(replica, operation);
+        } catch (RepositoryException | QueryEvaluationException e) {
+            Replica failover = select(replica);
+            if (failover == null) {
+                throw e;
+            }
+            logger.debug("Read from {} failed, failover to {}. {}", replica, failover, e);
+            return execute(failover, operation);
+        }
+    }
+
+    /**
+     * Executes the given {@link ReadOperation} on the given replica and sends it to a second
+     * replica, if the given replica does not answer within the given delay. If the pool of the
+     * hedged reads is exhausted, the operation is executed by the calling thread without hedging.
+     *
+     * @param replica    the replica on which the operation shall be executed first.
+     * @param operation  {@link ReadOperation} that shall be executed.
+     * @param hedgeDelay the delay in nanoseconds after which the read shall be hedged.
+     * @param <T>        the type of the result of the operation.
+     * @return the first result of the given operation.
+     */
+    private <T> T hedgedRead(Replica replica, ReadOperation<T> operation, long hedgeDelay) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger pendingAttempts = new AtomicInteger(2);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        try {
+            hedgeExecutor
+                .execute(() -> attempt(replica, operation, result, pendingAttempts, failure, false));
+        } catch (RejectedExecutionException e) {
+            return readWithFailover(replica, operation);
+        }
+        try {
+            try {
+                return result.get(hedgeDelay, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                Replica hedgeReplica = select(replica);
+                if (hedgeReplica == null || !hedge(hedgeReplica, operation, result, pendingAttempts,
+                    failure)) {
+                    if (pendingAttempts.decrementAndGet() == 0) {
+                        result.completeExceptionally(failure.get());
+                    }
+                }
+                return result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryException("The read from the replicas was interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RepositoryException(e.getCause());
+        }
+    }
+
+    /**
+     * Hands the given {@link ReadOperation} over to the pool of the hedged reads, such that it is
+     * executed on the given replica as second attempt of a hedged read.
+     *
+     * @param replica         the replica on which the operation shall be executed.
+     * @param operation       {@link ReadOperation} that shall be executed.
+     * @param result          the result of the hedged read.
+     * @param pendingAttempts the number of attempts that have not been finished yet.
+     * @param failure         the first failure of an attempt.
+     * @param <T>             the type of the result of the operation.
+     * @return true, if the operation has been handed over, or false, if the pool is exhausted.
+     */
+    private <T> boolean hedge(Replica replica, ReadOperation<T> operation,
+        CompletableFuture<T> result, AtomicInteger pendingAttempts,
+        AtomicReference<RuntimeException> failure) {
+        try {
+            hedgeExecutor
+                .execute(() -> attempt(replica, operation, result, pendingAttempts, failure, true));
+            hedgedReads.increment();
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.debug("The read cannot be hedged to {}, because the pool is exhausted.", replica);
+            return false;
+        }
+    }
+
+    /**
+     * Executes the given {@link ReadOperation} on the given replica as one attempt of a hedged
+     * read. The given result is completed by the first successful attempt or, if all attempts
+     * failed, by the first failure.
+     *
+     * @param replica         the replica on which the operation shall be executed.
+     * @param operation       {@link ReadOperation} that shall be executed.
+     * @param result          the result of the hedged read.
+     * @param pendingAttempts the number of attempts that have not been finished yet.
+     * @param failure         the first failure of an attempt.
+     * @param hedge           true, if this attempt is the hedge of the read.
+     * @param <T>             the type of the result of the operation.
+     */
+    private <T> void attempt(Replica replica, ReadOperation<T> operation,
+        CompletableFuture<T> result, AtomicInteger pendingAttempts,
+        AtomicReference<RuntimeException> failure, boolean hedge) {
+        try {
+            if (result.complete(execute(replica, operation)) && hedge) {
+                hedgeWins.increment();
+            }
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+            if (pendingAttempts.decrementAndGet() == 0) {
+                result.completeExceptionally(failure.get());
+            }
+        }
+    }
+
+    /**
+     * Executes the given {@link ReadOperation} on the given replica and records its latency for
+     * the computation of the hedge delay.
+     *
+     * @param replica   the replica on which the operation shall be executed.
+     * @param operation {@link ReadOperation} that shall be executed.
+     * @param <T>       the type of the result of the operation.
+     * @return the result of the given operation.
+     */
+    private <T> T execute(Replica replica, ReadOperation<T> operation) {
+        long startTime = System.nanoTime();
+        T result = replica.execute(operation);
+        readLatencyTracker.record(System.nanoTime() - startTime);
+        long reads = readLatencyTracker.count();
+        if (reads >= HEDGE_MIN_SAMPLES && reads % HEDGE_DELAY_UPDATE_INTERVAL == 0) {
+            hedgeDelayNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(settings.getHedgeMinDelay()),
+                readLatencyTracker.percentileNanos(settings.getHedgePercentile()));
+        }
+        return result;
+    }
+
+    /**
+     * Selects the replica to which a read shall be sent. Two healthy and up-to-date replicas are
+     * chosen randomly and the one with the lower score is taken. The primary is taken, if there is
+     * no such replica.
+     *
+     * @param excluded the replica that shall not be selected, or null.
+     * @return the selected replica, or null, if there is no replica except the excluded one.
+     */
+    Replica select(Replica excluded) {
+        List<Replica> candidates = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica != excluded && replica.isHealthy() && isUpToDate(replica)) {
+                candidates.add(replica);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return primary != excluded ? primary : null;
+        } else if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Replica firstReplica = candidates.get(first);
+        Replica secondReplica = candidates.get(second);
+        return firstReplica.score() <= secondReplica.score() ? firstReplica : secondReplica;
+    }
+
+    /**
+     * Checks whether the given replica has reached the modification dates of the primary.
+     *
+     * @param replica the replica that shall be checked.
+     * @return true, if the given replica is up-to-date or no modification dates are compared,
+     * otherwise false.
+     */
+    private boolean isUpToDate(Replica replica) {
+        if (modificationDatesReader == null) {
+            return true;
+        }
+        Map<IRI, Date> modificationDates = primaryModificationDates;
+        return modificationDates != null && replica.hasReached(modificationDates);
+    }
+
+    /**
+     * Raises the modification dates that the replicas have to reach to the given dates. Since the
+     * modification dates only increase, the later of the known and the given date is kept for
+     * each data set.
+     *
+     * @param modificationDates the modification dates of the data sets in the primary.
+     */
+    private synchronized void raiseModificationDates(Map<IRI, Date> modificationDates) {
+        Map<IRI, Date> raisedModificationDates = primaryModificationDates != null ? new HashMap<>(
+            primaryModificationDates) : new HashMap<>();
+        for (Map.Entry<IRI, Date> modificationDate : modificationDates.entrySet()) {
+            raisedModificationDates.merge(modificationDate.getKey(), modificationDate.getValue(),
+                (known, given) -> given.after(known) ? given : known);
+        }
+        primaryModificationDates = Collections.unmodifiableMap(raisedModificationDates);
+    }
+
+    @Override
+    public void dataSetModified(IRI namespace, Date modificationDate) {
+        if (modificationDatesReader != null && primaryModificationDates != null) {
+            raiseModificationDates(Collections.singletonMap(namespace, modificationDate));
+        }
+    }
+
+    /**
+     * Checks the health of all replicas by sending a trivial query to them. If a reader of the
+     * modification dates is given, the modification dates of the primary and afterwards of the
+     * replicas are read as well.
+     */
+    void checkHealth() {
+        if (modificationDatesReader != null) {
+            try (RepositoryConnection connection = primary.getConnectionPool().getConnection()) {
+                raiseModificationDates(modificationDatesReader.read(connection));
+            } catch (RuntimeException e) {
+                logger.warn("The modification dates of the primary cannot be read. {}", e);
+            }
+        }
+        for (Replica replica : replicas) {
+            try (RepositoryConnection connection = replica.getConnectionPool().getConnection()) {
+                connection.prepareBooleanQuery(QueryLanguage.SPARQL, HEALTH_CHECK_QUERY).evaluate();
+                if (modificationDatesReader != null) {
+                    replica.setModificationDates(modificationDatesReader.read(connection));
+                }
+                if (!replica.isHealthy()) {
+                    logger.info("{} has recovered.", replica);
+                }
+                replica.markHealthy();
+            } catch (RuntimeException e) {
+                if (replica.isHealthy()) {
+                    logger.warn("{} is unhealthy. {}", replica, e);
+                }
+                replica.markUnhealthy();
+            }
+        }
+    }
+
+    /**
+     * Gets the primary triple store.
+     *
+     * @return the primary triple store.
+     */
+    public Replica getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Gets the read replicas of the triple store.
+     *
+     * @return the read replicas of the triple store.
+     */
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Gets the current delay after which a read is hedged.
+     *
+     * @return the current delay in nanoseconds after which a read is hedged, or -1, if not enough
+     * reads have been recorded yet.
+     */
+    public long getHedgeDelay() {
+        return hedgeDelayNanos;
+    }
+
+    /**
+     * Gets the number of reads that have been sent to a second replica.
+     *
+     * @return the number of reads that have been sent to a second replica.
+     */
+    public long getHedgedReadCount() {
+        return hedgedReads.sum();
+    }
+
+    /**
+     * Gets the number of hedged reads that have been answered by the second replica first.
+     *
+     * @return the number of hedged reads that have been answered by the second replica first.
+     */
+    public long getHedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * Closes this {@link ReadRouter} and the replicas. The primary is not closed, because it is
+     * managed by the owner of this router.
+     */
+    @Override
+    public void close() {
+        healthCheckExecutor.shutdownNow();
+        hedgeExecutor.shutdown();
+        replicas.forEach(Replica::close);
+    }
+}
@@ -0,0 +1,193 @@
+package at.ac.tuwien.finder.datamanagement.replication;
+
+import at.ac.tuwien.finder.datamanagement.connection.ConnectionPool;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class represents a copy of the triple store that can answer read operations. It holds the
+ * {@link ConnectionPool} to the copy as well as its health and the latency of its reads, which
+ * are considered by the {@link ReadRouter} for the selection of a replica.
+ *
+ * @author Kevin Haller
+ */
+public class Replica implements AutoCloseable {
+
+    private final String name;
+    private final ConnectionPool connectionPool;
+    private final LatencyTracker latencyTracker = new LatencyTracker();
+    private final AtomicInteger pendingReads = new AtomicInteger();
+    private final LongAdder failedReads = new LongAdder();
+    private volatile boolean healthy = true;
+    private volatile Map<IRI, Date> modificationDates;
+
+    /**
+     * Creates a new {@link Replica} with the given name that is accessed by the given
+     * {@link ConnectionPool}.
+     *
+     * @param name           the name of the replica (e.g. its URL).
+     * @param connectionPool {@link ConnectionPool} to the replica.
+     */
+    public Replica(String name, ConnectionPool connectionPool) {
+        assert name != null;
+        assert connectionPool != null;
+        this.name = name;
+        this.connectionPool = connectionPool;
+    }
+
+    /**
+     * Executes the given {@link ReadOperation} on a connection to this replica and records its
+     * latency. This replica is marked as unhealthy, if the connection or the evaluation of a query
+     * fails.
+     *
+     * @param operation {@link ReadOperation} that shall be executed.
+     * @param <T>       the type of the result of the operation.
+     * @return the result of the given operation.
+     * @throws RepositoryException      if the connection to this replica fails.
+     * @throws QueryEvaluationException if the evaluation of a query on this replica fails.
+     */
+    <T> T execute(ReadOperation<T> operation)
+        throws RepositoryException, QueryEvaluationException {
+        pendingReads.incrementAndGet();
+        long startTime = System.nanoTime();
+        try (RepositoryConnection connection = connectionPool.getConnection()) {
+            T result = operation.read(connection);
+            latencyTracker.record(System.nanoTime() - startTime);
+            return result;
+        } catch (RepositoryException | QueryEvaluationException e) {
+            failedReads.increment();
+            markUnhealthy();
+            throw e;
+        } finally {
+            pendingReads.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the score of this replica for the selection of a replica, whereby a lower score is
+     * better. The score is the average latency weighted by the number of pending reads.
+     *
+     * @return the score of this replica for the selection of a replica.
+     */
+    double score() {
+        return latencyTracker.averageNanos() * (pendingReads.get() + 1);
+    }
+
+    /**
+     * Marks this replica as healthy.
+     */
+    void markHealthy() {
+        healthy = true;
+    }
+
+    /**
+     * Marks this replica as unhealthy, such that it is not selected until it is marked as healthy
+     * again.
+     */
+    void markUnhealthy() {
+        healthy = false;
+    }
+
+    /**
+     * Sets the modification dates of the data sets that have been read from this replica.
+     *
+     * @param modificationDates the modification dates of the data sets in this replica.
+     */
+    void setModificationDates(Map<IRI, Date> modificationDates) {
+        this.modificationDates = modificationDates;
+    }
+
+    /**
+     * Checks whether this replica has reached the given modification dates, i.e. none of its
+     * modification dates is unknown or earlier than the given one of the same data set.
+     *
+     * @param requiredModificationDates the modification dates that this replica has to reach.
+     * @return true, if this replica has reached the given modification dates, otherwise false.
+     */
+    boolean hasReached(Map<IRI, Date> requiredModificationDates) {
+        Map<IRI, Date> modificationDates = this.modificationDates;
+        if (modificationDates == null) {
+            return false;
+        }
+        for (Map.Entry<IRI, Date> requiredModificationDate : requiredModificationDates
+            .entrySet()) {
+            Date modificationDate = modificationDates.get(requiredModificationDate.getKey());
+            if (modificationDate == null || modificationDate
+                .before(requiredModificationDate.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the name of this replica.
+     *
+     * @return the name of this replica.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the {@link ConnectionPool} to this replica.
+     *
+     * @return the {@link ConnectionPool} to this replica.
+     */
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * Gets the {@link LatencyTracker} that tracks the latency of the reads from this replica.
+     *
+     * @return the {@link LatencyTracker} of this replica.
+     */
+    public LatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
+
+    /**
+     * Gets the number of reads from this replica that are currently executed.
+     *
+     * @return the number of reads from this replica that are currently executed.
+     */
+    public int getPendingReadCount() {
+        return pendingReads.get();
+    }
+
+    /**
+     * Gets the number of reads from this replica that failed due to the connection.
+     *
+     * @return the number of reads from this replica that failed due to the connection.
+     */
+    public long getFailedReadCount() {
+        return failedReads.sum();
+    }
+
+    /**
+     * Checks whether this replica is healthy.
+     *
+     * @return true, if this replica is healthy, otherwise false.
+     */
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    @Override
+    public void close() {
+        connectionPool.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Replica{name=%s, healthy=%s}", name, healthy);
+    }
+}
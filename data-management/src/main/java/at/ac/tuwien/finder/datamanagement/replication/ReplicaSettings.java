@@ -0,0 +1,149 @@
+package at.ac.tuwien.finder.datamanagement.replication;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * This class holds the settings of the read replicas of the triple store and of the
+ * {@link ReadRouter}. The settings can be read from the data-management properties
+ * ({@code db.replicas} and {@code db.replica.*}), whereby missing properties fall back to the
+ * default values. Without replicas, all reads are answered by the primary triple store.
+ *
+ * @author Kevin Haller
+ */
+public final class ReplicaSettings {
+
+    public static final long DEFAULT_HEALTH_CHECK_INTERVAL = 5000L;
+    public static final boolean DEFAULT_HEDGING = false;
+    public static final double DEFAULT_HEDGE_PERCENTILE = 0.95;
+    public static final long DEFAULT_HEDGE_MIN_DELAY = 5L;
+
+    private final List<URL> replicaURLs;
+    private final long healthCheckInterval;
+    private final boolean hedging;
+    private final double hedgePercentile;
+    private final long hedgeMinDelay;
+
+    /**
+     * Creates new {@link ReplicaSettings}.
+     *
+     * @param replicaURLs         the {@link URL}s of the remote read replicas.
+     * @param healthCheckInterval the interval in milliseconds in which the health of the replicas
+     *                            is checked.
+     * @param hedging             true, if a read shall be sent to a second replica, if the first
+     *                            one does not answer within the hedge percentile of the latency.
+     * @param hedgePercentile     the percentile of the latency of the reads after which a read is
+     *                            hedged (e.g. 0.95).
+     * @param hedgeMinDelay       the minimal time in milliseconds after which a read is hedged.
+     */
+    public ReplicaSettings(List<URL> replicaURLs, long healthCheckInterval, boolean hedging,
+        double hedgePercentile, long hedgeMinDelay) {
+        assert replicaURLs != null;
+        assert healthCheckInterval > 0;
+        assert hedgePercentile > 0 && hedgePercentile <= 1;
+        assert hedgeMinDelay >= 0;
+        this.replicaURLs = Collections.unmodifiableList(new ArrayList<>(replicaURLs));
+        this.healthCheckInterval = healthCheckInterval;
+        this.hedging = hedging;
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeMinDelay = hedgeMinDelay;
+    }
+
+    /**
+     * Creates {@link ReplicaSettings} without replicas and with the default values.
+     *
+     * @return {@link ReplicaSettings} without replicas and with the default values.
+     */
+    public static ReplicaSettings defaults() {
+        return fromProperties(new Properties());
+    }
+
+    /**
+     * Reads the {@link ReplicaSettings} from the given {@link Properties} ({@code db.replicas} as
+     * comma separated list of URLs, {@code db.replica.health-check-interval},
+     * {@code db.replica.hedging}, {@code db.replica.hedge-percentile} and
+     * {@code db.replica.hedge-min-delay}).
+     *
+     * @param properties {@link Properties} from which the settings shall be read.
+     * @return {@link ReplicaSettings} read from the given {@link Properties}.
+     * @throws IllegalArgumentException if the value of a property is malformed.
+     */
+    public static ReplicaSettings fromProperties(Properties properties) {
+        assert properties != null;
+        List<URL> replicaURLs = new ArrayList<>();
+        for (String replica : properties.getProperty("db.replicas", "").split(",")) {
+            if (!replica.trim().isEmpty()) {
+                try {
+                    replicaURLs.add(new URL(replica.trim()));
+                } catch (MalformedURLException e) {
+                    throw new IllegalArgumentException(
+                        String.format("The url '%s' of the replica is malformed.", replica), e);
+                }
+            }
+        }
+        return new ReplicaSettings(replicaURLs,
+            Long.parseLong(properties.getProperty("db.replica.health-check-interval",
+                String.valueOf(DEFAULT_HEALTH_CHECK_INTERVAL)).trim()),
+            Boolean.parseBoolean(properties.getProperty("db.replica.hedging",
+                String.valueOf(DEFAULT_HEDGING)).trim()),
+            Double.parseDouble(properties.getProperty("db.replica.hedge-percentile",
+                String.valueOf(DEFAULT_HEDGE_PERCENTILE)).trim()),
+            Long.parseLong(properties.getProperty("db.replica.hedge-min-delay",
+                String.valueOf(DEFAULT_HEDGE_MIN_DELAY)).trim()));
+    }
+
+    /**
+     * Gets the {@link URL}s of the remote read replicas.
+     *
+     * @return the {@link URL}s of the remote read replicas.
+     */
+    public List<URL> getReplicaURLs() {
+        return replicaURLs;
+    }
+
+    /**
+     * Gets the interval in milliseconds in which the health of the replicas is checked.
+     *
+     * @return the interval in milliseconds in which the health of the replicas is checked.
+     */
+    public long getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    /**
+     * Checks whether reads shall be hedged.
+     *
+     * @return true, if reads shall be hedged, otherwise false.
+     */
+    public boolean isHedgingEnabled() {
+        return hedging;
+    }
+
+    /**
+     * Gets the percentile of the latency of the reads after which a read is hedged.
+     *
+     * @return the percentile of the latency of the reads after which a read is hedged.
+     */
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    /**
+     * Gets the minimal time in milliseconds after which a read is hedged.
+     *
+     * @return the minimal time in milliseconds after which a read is hedged.
+     */
+    public long getHedgeMinDelay() {
+        return hedgeMinDelay;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{replicas=%s, hedging=%s, hedgePercentile=%s}", replicaURLs, hedging,
+            hedgePercentile);
+    }
+}
@@ -0,0 +1,162 @@
+package at.ac.tuwien.finder.datamanagement.sharding;
+
+import at.ac.tuwien.finder.datamanagement.connection.ConnectionPool;
+import at.ac.tuwien.finder.datamanagement.connection.ConnectionPoolSettings;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * This class represents a shard, i.e. a repository that holds the named graphs of some data sets
+ * apart from the main repository. A resource belongs to the shard, if its IRI starts with the
+ * namespace of one of the data sets of the shard (like the integration partitions the
+ * statements).
+ * <p>
+ * The connections to the shard are pooled. The pool can be replaced by {@link #reload()}, e.g.
+ * after the repository of the shard has been restarted, without affecting the other shards.
+ *
+ * @author Kevin Haller
+ */
+public class Shard implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(Shard.class);
+
+    private final String name;
+    private final Set<IRI> dataSets;
+    private final Repository repository;
+    private final ConnectionPoolSettings connectionPoolSettings;
+    private volatile ConnectionPool connectionPool;
+
+    /**
+     * Creates a new {@link Shard} for the given initialized repository.
+     *
+     * @param name                   the unique name of the shard.
+     * @param dataSets               the namespaces of the data sets that are held by the shard.
+     * @param repository             the initialized {@link Repository} of the shard.
+     * @param connectionPoolSettings {@link ConnectionPoolSettings} of the pool of connections to
+     *                               the shard.
+     */
+    public Shard(String name, Collection<IRI> dataSets, Repository repository,
+        ConnectionPoolSettings connectionPoolSettings) {
+        assert name != null;
+        assert dataSets != null && !dataSets.isEmpty();
+        assert repository != null;
+        assert connectionPoolSettings != null;
+        this.name = name;
+        this.dataSets = Collections.unmodifiableSet(new LinkedHashSet<>(dataSets));
+        this.repository = repository;
+        this.connectionPoolSettings = connectionPoolSettings;
+        this.connectionPool = new ConnectionPool(repository, connectionPoolSettings);
+    }
+
+    /**
+     * Gets the unique name of this shard.
+     *
+     * @return the unique name of this shard.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the namespaces of the data sets that are held by this shard.
+     *
+     * @return the namespaces of the data sets that are held by this shard.
+     */
+    public Set<IRI> getDataSets() {
+        return dataSets;
+    }
+
+    /**
+     * Checks whether the given resource or named graph belongs to this shard.
+     *
+     * @param resource the {@link IRI} of the resource or named graph.
+     * @return true, if the given resource starts with the namespace of a data set of this shard,
+     * otherwise false.
+     */
+    public boolean contains(IRI resource) {
+        for (IRI dataSet : dataSets) {
+            if (resource.stringValue().startsWith(dataSet.stringValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the {@link Repository} of this shard.
+     *
+     * @return the {@link Repository} of this shard.
+     */
+    public Repository getRepository() {
+        return repository;
+    }
+
+    /**
+     * Borrows a {@link RepositoryConnection} to this shard from its {@link ConnectionPool}. The
+     * connection must be closed after its usage, which returns it to the pool.
+     *
+     * @return {@link RepositoryConnection} to this shard.
+     * @throws RepositoryException if no connection can be acquired within the acquisition timeout
+     *                             of the pool.
+     */
+    public RepositoryConnection getConnection() throws RepositoryException {
+        return connectionPool.getConnection();
+    }
+
+    /**
+     * Gets the {@link ConnectionPool} that manages the connections to this shard, which can be
+     * used to inspect its statistics.
+     *
+     * @return the {@link ConnectionPool} that manages the connections to this shard.
+     */
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * Replaces the {@link ConnectionPool} of this shard by a new one. The idle connections of the
+     * former pool are closed immediately, the borrowed ones, when they are returned.
+     */
+    public synchronized void reload() {
+        ConnectionPool formerConnectionPool = connectionPool;
+        connectionPool = new ConnectionPool(repository, connectionPoolSettings);
+        formerConnectionPool.close();
+        logger.info("The connections to the shard {} have been reloaded.", name);
+    }
+
+    /**
+     * Removes all the statements of the data sets of this shard, such that they can be integrated
+     * anew without affecting the other shards.
+     *
+     * @throws RepositoryException if the statements cannot be removed.
+     */
+    public void clear() throws RepositoryException {
+        try (RepositoryConnection connection = getConnection()) {
+            connection.clear(dataSets.toArray(new IRI[dataSets.size()]));
+        }
+        logger.info("The data sets {} of the shard {} have been cleared.", dataSets, name);
+    }
+
+    /**
+     * Closes the {@link ConnectionPool} of this shard. The repository is shut down by its
+     * repository manager.
+     */
+    @Override
+    public synchronized void close() {
+        connectionPool.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Shard{name='%s', dataSets=%s}", name, dataSets);
+    }
+}
@@ -0,0 +1,194 @@
+package at.ac.tuwien.finder.datamanagement.sharding;
+
+import at.ac.tuwien.finder.datamanagement.connection.ConnectionPoolSettings;
+import at.ac.tuwien.finder.datamanagement.store.StoreSettings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * This class holds the settings of a {@link Shard}, i.e. of a repository that holds some of the
+ * data sets apart from the main repository. The shards are read from the data-management
+ * properties: {@code db.shards} lists the names of the shards, {@code db.shard.<name>.datasets}
+ * the names of the data sets of a shard (e.g. {@code event}, the last segment of their namespace)
+ * and {@code db.shard.<name>.repository} the name of its repository. Every other property of the
+ * triple store ({@code db.*}) can be overridden for a shard by {@code db.shard.<name>.*}, such
+ * that a shard can be located in another triple store and sized independently (e.g.
+ * {@code db.shard.event.url} or {@code db.shard.event.pool.max-size}).
+ *
+ * @author Kevin Haller
+ */
+public final class ShardSettings {
+
+    private static final String SHARD_PREFIX = "db.shard.";
+
+    private final String name;
+    private final Set<String> dataSetNames;
+    private final String repositoryName;
+    private final StoreSettings storeSettings;
+    private final ConnectionPoolSettings connectionPoolSettings;
+
+    /**
+     * Creates new {@link ShardSettings}.
+     *
+     * @param name                   the unique name of the shard.
+     * @param dataSetNames           the names of the data sets that are held by the shard.
+     * @param repositoryName         the name of the repository of the shard.
+     * @param storeSettings          {@link StoreSettings} of the triple store of the shard.
+     * @param connectionPoolSettings {@link ConnectionPoolSettings} of the pool of connections to
+     *                               the shard.
+     */
+    public ShardSettings(String name, Set<String> dataSetNames, String repositoryName,
+        StoreSettings storeSettings, ConnectionPoolSettings connectionPoolSettings) {
+        assert name != null;
+        assert dataSetNames != null && !dataSetNames.isEmpty();
+        assert repositoryName != null;
+        assert storeSettings != null;
+        assert connectionPoolSettings != null;
+        this.name = name;
+        this.dataSetNames = Collections.unmodifiableSet(new LinkedHashSet<>(dataSetNames));
+        this.repositoryName = repositoryName;
+        this.storeSettings = storeSettings;
+        this.connectionPoolSettings = connectionPoolSettings;
+    }
+
+    /**
+     * Reads the settings of all the shards from the given {@link Properties}. Without
+     * {@code db.shards}, all the data sets are held by the main repository and the returned list
+     * is empty.
+     *
+     * @param properties {@link Properties} from which the settings shall be read.
+     * @return the list of the {@link ShardSettings} read from the given {@link Properties}.
+     * @throws IllegalArgumentException if the value of a property is malformed, a shard has no
+     *                                  data sets or a data set is assigned to several shards.
+     */
+    public static List<ShardSettings> fromProperties(Properties properties) {
+        assert properties != null;
+        List<ShardSettings> shardSettings = new ArrayList<>();
+        Map<String, String> shardOfDataSet = new HashMap<>();
+        for (String name : split(properties.getProperty("db.shards", ""))) {
+            Set<String> dataSetNames =
+                split(properties.getProperty(SHARD_PREFIX + name + ".datasets", ""));
+            if (dataSetNames.isEmpty()) {
+                throw new IllegalArgumentException(
+                    String.format("The shard '%s' does not hold any data set.", name));
+            }
+            for (String dataSetName : dataSetNames) {
+                String otherShard = shardOfDataSet.putIfAbsent(dataSetName, name);
+                if (otherShard != null) {
+                    throw new IllegalArgumentException(String
+                        .format("The data set '%s' is assigned to the shards '%s' and '%s'.",
+                            dataSetName, otherShard, name));
+                }
+            }
+            Properties shardProperties = shardProperties(properties, name);
+            try {
+                shardSettings.add(new ShardSettings(name, dataSetNames, properties
+                    .getProperty(SHARD_PREFIX + name + ".repository",
+                        String.format("finder-%s-repo", name)).trim(),
+                    StoreSettings.fromProperties(shardProperties),
+                    ConnectionPoolSettings.fromProperties(shardProperties)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                    String.format("The settings of the shard '%s' are malformed.", name), e);
+            }
+        }
+        return shardSettings;
+    }
+
+    /**
+     * Gets the properties of the triple store for the shard with the given name, i.e. the given
+     * properties, where {@code db.*} is overridden by {@code db.shard.<name>.*}.
+     *
+     * @param properties {@link Properties} of the main triple store.
+     * @param name       the name of the shard.
+     * @return the properties of the triple store for the shard with the given name.
+     */
+    static Properties shardProperties(Properties properties, String name) {
+        Properties shardProperties = new Properties();
+        shardProperties.putAll(properties);
+        String prefix = SHARD_PREFIX + name + ".";
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                shardProperties.setProperty("db." + key.substring(prefix.length()),
+                    properties.getProperty(key));
+            }
+        }
+        return shardProperties;
+    }
+
+    /**
+     * Splits the given comma separated list into a set of its trimmed, non-empty elements.
+     *
+     * @param list the comma separated list.
+     * @return the set of the elements of the given list in their order.
+     */
+    private static Set<String> split(String list) {
+        Set<String> elements = new LinkedHashSet<>();
+        for (String element : list.split(",")) {
+            if (!element.trim().isEmpty()) {
+                elements.add(element.trim());
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Gets the unique name of the shard.
+     *
+     * @return the unique name of the shard.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the names of the data sets that are held by the shard, i.e. the last segment of their
+     * namespace.
+     *
+     * @return the names of the data sets that are held by the shard.
+     */
+    public Set<String> getDataSetNames() {
+        return dataSetNames;
+    }
+
+    /**
+     * Gets the name of the repository of the shard.
+     *
+     * @return the name of the repository of the shard.
+     */
+    public String getRepositoryName() {
+        return repositoryName;
+    }
+
+    /**
+     * Gets the {@link StoreSettings} of the triple store of the shard.
+     *
+     * @return the {@link StoreSettings} of the triple store of the shard.
+     */
+    public StoreSettings getStoreSettings() {
+        return storeSettings;
+    }
+
+    /**
+     * Gets the {@link ConnectionPoolSettings} of the pool of connections to the shard.
+     *
+     * @return the {@link ConnectionPoolSettings} of the pool of connections to the shard.
+     */
+    public ConnectionPoolSettings getConnectionPoolSettings() {
+        return connectionPoolSettings;
+    }
+
+    @Override
+    public String toString() {
+        return String
+            .format("ShardSettings{name='%s', dataSets=%s, repository='%s', store=%s}", name,
+                dataSetNames, repositoryName, storeSettings);
+    }
+}
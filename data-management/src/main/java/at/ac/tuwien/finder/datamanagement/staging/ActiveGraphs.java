@@ -0,0 +1,513 @@
+package at.ac.tuwien.finder.datamanagement.staging;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.catalog.DataCatalog;
+import at.ac.tuwien.finder.datamanagement.catalog.exception.DataCatalogException;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.UpdateExecutionException;
+import org.eclipse.rdf4j.query.impl.SimpleDataset;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class manages the named graphs that hold the data sets. Each data set has an active graph,
+ * which is observed by the readers, and at most one staging graph, into which a load writes (see
+ * {@link StagingSession}). When the load has been finished, the staging graph becomes the active
+ * graph by switching a pointer in the catalog graph in one transaction. Readers only observe the
+ * active graphs and the catalog (see {@link #readView(RepositoryConnection)}), such that they
+ * never observe a load in progress.
+ * <p>
+ * The former active graph is marked in the catalog graph in the same transaction and discarded
+ * after a grace period by the thread of these {@link ActiveGraphs}. Marked graphs whose discard
+ * has not happened, e.g. because the process has been stopped, are discarded by the next load.
+ * <p>
+ * Data sets without pointer are held by the named graph with their namespace. The pointers are
+ * read from the catalog graph together with the modification dates of the data sets, and read
+ * again after the refresh interval, such that switches of other processes are observed. Since
+ * both are read in one query, the modification dates of these {@link ActiveGraphs} (see
+ * {@link #getModificationDates()}) never announce a modification whose graph is not observed.
+ * <p>
+ * Derived graphs hold the statements that are derived from a data set at its integration (see
+ * {@link at.ac.tuwien.finder.datamanagement.integration.DataMaterializer}). They are staged and
+ * switched like the data sets, but their staging graph starts empty, since the derived statements
+ * are computed again with each load, and their switch is not recorded in the catalog, since it is
+ * announced by the modification of the data set from which they are derived.
+ *
+ * @author Kevin Haller
+ */
+public final class ActiveGraphs implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveGraphs.class);
+
+    /**
+     * The property of a data set in the catalog graph that points to its active graph.
+     */
+    public static final IRI ACTIVE_GRAPH =
+        SimpleValueFactory.getInstance().createIRI(DataCatalog.NS.stringValue(), "#activeGraph");
+
+    /**
+     * The property of a former active graph in the catalog graph that holds the time after which
+     * it is discarded.
+     */
+    public static final IRI DISCARD_AFTER =
+        SimpleValueFactory.getInstance().createIRI(DataCatalog.NS.stringValue(), "#discardAfter");
+
+    private static final String POINTERS_QUERY =
+        "SELECT ?dataSet ?graph ?lastModified WHERE { { GRAPH <%1$s> { ?dataSet <%2$s> ?graph . } } UNION { SELECT ?dataSet (MAX(?modified) AS ?lastModified) WHERE { GRAPH <%1$s> { ?dataSet <%3$s> ?modified . } } GROUP BY ?dataSet } }";
+    private static final String COPY_GRAPH_UPDATE =
+        "INSERT { GRAPH <%s> { ?s ?p ?o . } } WHERE { GRAPH <%s> { ?s ?p ?o . } }";
+
+    private final TripleStoreManager tripleStoreManager;
+    private final List<IRI> dataSets;
+    private final Set<IRI> derivedGraphs;
+    private final IRI catalogGraph;
+    private final long refreshInterval;
+    private final Map<IRI, IRI> stagingGraphs = new ConcurrentHashMap<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final ScheduledExecutorService discardExecutor;
+    private volatile Map<IRI, IRI> activeGraphs = Collections.emptyMap();
+    private volatile Map<IRI, Date> modificationDates = Collections.emptyMap();
+    private volatile Dataset readDataset;
+    private volatile long lastRefresh;
+
+    /**
+     * Creates new {@link ActiveGraphs} for the given data sets.
+     *
+     * @param tripleStoreManager {@link TripleStoreManager} that manages the triple store that
+     *                           holds the data sets.
+     * @param dataSets           the namespaces of the data sets.
+     * @param catalogGraph       the named graph of the catalog, which holds the pointers.
+     * @param refreshInterval    the interval in milliseconds after which the pointers are read
+     *                           again.
+     */
+    public ActiveGraphs(TripleStoreManager tripleStoreManager, Collection<IRI> dataSets,
+        IRI catalogGraph, long refreshInterval) {
+        this(tripleStoreManager, dataSets, Collections.emptyList(), catalogGraph, refreshInterval);
+    }
+
+    /**
+     * Creates new {@link ActiveGraphs} for the given data sets and derived graphs.
+     *
+     * @param tripleStoreManager {@link TripleStoreManager} that manages the triple store that
+     *                           holds the data sets.
+     * @param dataSets           the namespaces of the data sets.
+     * @param derivedGraphs      the named graphs of the statements that are derived from the data
+     *                           sets.
+     * @param catalogGraph       the named graph of the catalog, which holds the pointers.
+     * @param refreshInterval    the interval in milliseconds after which the pointers are read
+     *                           again.
+     */
+    public ActiveGraphs(TripleStoreManager tripleStoreManager, Collection<IRI> dataSets,
+        Collection<IRI> derivedGraphs, IRI catalogGraph, long refreshInterval) {
+        assert tripleStoreManager != null;
+        assert dataSets != null;
+        assert derivedGraphs != null;
+        assert catalogGraph != null;
+        assert refreshInterval >= 0;
+        this.tripleStoreManager = tripleStoreManager;
+        this.dataSets = new ArrayList<>(dataSets);
+        this.dataSets.addAll(derivedGraphs);
+        this.derivedGraphs = new HashSet<>(derivedGraphs);
+        this.catalogGraph = catalogGraph;
+        this.refreshInterval = TimeUnit.MILLISECONDS.toNanos(refreshInterval);
+        this.discardExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "graph-discard");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the pointers to the active graphs. The pointers are read again, if the refresh interval
+     * has elapsed. A reader does not wait for another reader that is reading the pointers, but
+     * uses the former ones.
+     *
+     * @return the map of the data sets to their active graph.
+     */
+    private Map<IRI, IRI> pointers() {
+        if (readDataset == null) {
+            refreshLock.lock();
+        } else if (System.nanoTime() - lastRefresh < refreshInterval || !refreshLock.tryLock()) {
+            return activeGraphs;
+        }
+        try {
+            if (readDataset == null || System.nanoTime() - lastRefresh >= refreshInterval) {
+                refresh();
+            }
+        } catch (RepositoryException | QueryEvaluationException e) {
+            logger.error("The pointers to the active graphs cannot be read. {}", e);
+            update(activeGraphs, modificationDates);
+        } finally {
+            lastRefresh = System.nanoTime();
+            refreshLock.unlock();
+        }
+        return activeGraphs;
+    }
+
+    /**
+     * Reads the pointers to the active graphs and the modification dates of the data sets from
+     * the catalog graph in one query.
+     *
+     * @throws RepositoryException      if the catalog graph cannot be read.
+     * @throws QueryEvaluationException if the query of the pointers cannot be evaluated.
+     */
+    private void refresh() throws RepositoryException, QueryEvaluationException {
+        Map<IRI, IRI> pointers = new HashMap<>();
+        Map<IRI, Date> dates = new HashMap<>();
+        try (RepositoryConnection connection = tripleStoreManager.getPrimaryConnection();
+             TupleQueryResult result = connection.prepareTupleQuery(QueryLanguage.SPARQL,
+                 String.format(POINTERS_QUERY, catalogGraph, ACTIVE_GRAPH, DCTERMS.MODIFIED))
+                 .evaluate()) {
+            while (result.hasNext()) {
+                BindingSet bindingSet = result.next();
+                Value dataSet = bindingSet.getValue("dataSet");
+                Value graph = bindingSet.getValue("graph");
+                Value lastModified = bindingSet.getValue("lastModified");
+                if (!(dataSet instanceof IRI)) {
+                    continue;
+                }
+                if (graph instanceof IRI) {
+                    pointers.put((IRI) dataSet, (IRI) graph);
+                } else if (lastModified instanceof Literal && XMLSchema.DATETIME
+                    .equals(((Literal) lastModified).getDatatype())) {
+                    dates.put((IRI) dataSet,
+                        ((Literal) lastModified).calendarValue().toGregorianCalendar().getTime());
+                }
+            }
+        }
+        update(pointers, dates);
+    }
+
+    /**
+     * Replaces the pointers to the active graphs and the modification dates by the given ones.
+     *
+     * @param pointers the map of the data sets to their active graph.
+     * @param dates    the map of the data sets to their most recent modification date.
+     */
+    private synchronized void update(Map<IRI, IRI> pointers, Map<IRI, Date> dates) {
+        modificationDates = Collections.unmodifiableMap(dates);
+        if (pointers.equals(activeGraphs) && readDataset != null) {
+            return;
+        }
+        activeGraphs = Collections.unmodifiableMap(pointers);
+        readDataset = dataset(false);
+        logger.debug("The active graphs are {}.", activeGraphs);
+    }
+
+    /**
+     * Creates the {@link Dataset} of the catalog and the graphs of the data sets.
+     *
+     * @param staging true, if the staging graphs shall be used instead of the active graphs of
+     *                the data sets that are loaded.
+     * @return the {@link Dataset} of the catalog and the graphs of the data sets.
+     */
+    private Dataset dataset(boolean staging) {
+        SimpleDataset dataset = new SimpleDataset();
+        dataset.addDefaultGraph(catalogGraph);
+        dataset.addNamedGraph(catalogGraph);
+        for (IRI dataSet : dataSets) {
+            IRI graph = staging ? getWriteGraph(dataSet) :
+                activeGraphs.getOrDefault(dataSet, dataSet);
+            dataset.addDefaultGraph(graph);
+            dataset.addNamedGraph(graph);
+        }
+        return dataset;
+    }
+
+    /**
+     * Reads the pointers to the active graphs and the modification dates of the data sets from
+     * the primary triple store, and returns the modification dates. The pointers that are read
+     * with them are used by the readers afterwards, such that the returned dates do not announce
+     * a modification whose graph is not observed yet.
+     *
+     * @return the map of the namespaces of the data sets to their most recent modification date.
+     * @throws RepositoryException      if the catalog graph cannot be read.
+     * @throws QueryEvaluationException if the query of the pointers cannot be evaluated.
+     */
+    public Map<IRI, Date> getModificationDates()
+        throws RepositoryException, QueryEvaluationException {
+        refreshLock.lock();
+        try {
+            refresh();
+            lastRefresh = System.nanoTime();
+            return modificationDates;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the active graph of the given data set.
+     *
+     * @param dataSet the namespace of the data set.
+     * @return the active graph of the given data set.
+     */
+    public IRI getActiveGraph(IRI dataSet) {
+        return pointers().getOrDefault(dataSet, dataSet);
+    }
+
+    /**
+     * Gets the graph into which data of the given data set shall be written, i.e. the staging
+     * graph, if the data set is loaded, or otherwise its active graph. Graphs that are not the
+     * namespace of a data set are returned unchanged.
+     *
+     * @param graph the namespace of the data set or another named graph.
+     * @return the graph into which data of the given data set shall be written.
+     */
+    public IRI getWriteGraph(IRI graph) {
+        IRI stagingGraph = stagingGraphs.get(graph);
+        if (stagingGraph != null) {
+            return stagingGraph;
+        }
+        return dataSets.contains(graph) ? getActiveGraph(graph) : graph;
+    }
+
+    /**
+     * Gets the {@link Dataset} that is observed by the readers, i.e. the catalog and the active
+     * graphs of the data sets.
+     *
+     * @return the {@link Dataset} that is observed by the readers.
+     */
+    public Dataset getReadDataset() {
+        pointers();
+        return readDataset;
+    }
+
+    /**
+     * Wraps the given connection, such that it only observes the catalog and the active graphs of
+     * the data sets.
+     *
+     * @param connection {@link RepositoryConnection} that shall be wrapped.
+     * @return {@link RepositoryConnection} that only observes the active graphs.
+     */
+    public RepositoryConnection readView(RepositoryConnection connection) {
+        assert connection != null;
+        return new GraphViewConnection(connection, this::getReadDataset,
+            graph -> dataSets.contains(graph) ? getActiveGraph(graph) : graph);
+    }
+
+    /**
+     * Wraps the given connection, such that it observes the staging graphs of the data sets that
+     * are loaded and the active graphs of the other data sets, e.g. for linking the data of a
+     * load in progress.
+     *
+     * @param connection {@link RepositoryConnection} that shall be wrapped.
+     * @return {@link RepositoryConnection} that observes the staging graphs.
+     */
+    public RepositoryConnection writeView(RepositoryConnection connection) {
+        assert connection != null;
+        return new GraphViewConnection(connection, () -> dataset(true), this::getWriteGraph);
+    }
+
+    /**
+     * Starts to load the given data set into a new staging graph. The staging graph starts as a
+     * copy of the active graph, since the integrators add to the data set or apply the changes to
+     * it. The copy is made by the triple store in one update. The staging graph of a derived graph
+     * starts empty instead. The staging graph is observed by the readers after the returned
+     * session has been committed. Former active graphs whose grace period has elapsed, but which
+     * have not been discarded yet, are discarded before.
+     *
+     * @param dataSet the namespace of the data set or the derived graph that shall be loaded.
+     * @return the {@link StagingSession} of the load.
+     * @throws RepositoryException   if the active graph cannot be copied into the staging graph.
+     * @throws IllegalStateException if the data set is already loaded.
+     */
+    public StagingSession stage(IRI dataSet) throws RepositoryException {
+        assert dataSets.contains(dataSet);
+        IRI stagingGraph = SimpleValueFactory.getInstance()
+            .createIRI(dataSet.stringValue(), "/graph/" + System.currentTimeMillis());
+        if (stagingGraphs.putIfAbsent(dataSet, stagingGraph) != null) {
+            throw new IllegalStateException(
+                String.format("The data set <%s> is already loaded.", dataSet));
+        }
+        discardExpiredGraphs();
+        if (derivedGraphs.contains(dataSet)) {
+            logger.info("The derived graph <{}> is loaded into the staging graph <{}>.", dataSet,
+                stagingGraph);
+            return new StagingSession(this, dataSet, stagingGraph);
+        }
+        IRI activeGraph = getActiveGraph(dataSet);
+        try (RepositoryConnection connection = tripleStoreManager.getPrimaryConnection(dataSet)) {
+            connection.begin();
+            try {
+                connection.prepareUpdate(QueryLanguage.SPARQL,
+                    String.format(COPY_GRAPH_UPDATE, stagingGraph, activeGraph)).execute();
+                connection.commit();
+            } catch (RepositoryException | UpdateExecutionException e) {
+                if (connection.isActive()) {
+                    connection.rollback();
+                }
+                throw e instanceof RepositoryException ? (RepositoryException) e :
+                    new RepositoryException(e);
+            }
+        } catch (RepositoryException e) {
+            stagingGraphs.remove(dataSet, stagingGraph);
+            throw e;
+        }
+        logger.info("The data set <{}> is loaded into the staging graph <{}>.", dataSet,
+            stagingGraph);
+        return new StagingSession(this, dataSet, stagingGraph);
+    }
+
+    /**
+     * Makes the given staging graph the active graph of the given data set by switching the
+     * pointer in the catalog graph in one transaction, and marks the data set as modified
+     * afterwards, unless it is a derived graph. The former active graph is marked in the same
+     * transaction and discarded after the grace period.
+     *
+     * @param dataSet      the namespace of the data set.
+     * @param stagingGraph the staging graph that shall become the active graph.
+     * @throws RepositoryException if the pointer cannot be switched.
+     */
+    void activate(IRI dataSet, IRI stagingGraph) throws RepositoryException {
+        IRI formerGraph;
+        long gracePeriod = getGracePeriod();
+        synchronized (this) {
+            formerGraph = getActiveGraph(dataSet);
+            try (RepositoryConnection connection = tripleStoreManager.getPrimaryConnection()) {
+                connection.begin();
+                try {
+                    connection.remove(dataSet, ACTIVE_GRAPH, null, catalogGraph);
+                    connection.add(dataSet, ACTIVE_GRAPH, stagingGraph, catalogGraph);
+                    if (!formerGraph.equals(stagingGraph)) {
+                        connection.add(formerGraph, DISCARD_AFTER, SimpleValueFactory.getInstance()
+                                .createLiteral(new Date(System.currentTimeMillis() + gracePeriod)),
+                            catalogGraph);
+                    }
+                    connection.commit();
+                } catch (RepositoryException e) {
+                    if (connection.isActive()) {
+                        connection.rollback();
+                    }
+                    throw e;
+                }
+            }
+            Map<IRI, IRI> pointers = new HashMap<>(activeGraphs);
+            pointers.put(dataSet, stagingGraph);
+            update(pointers, modificationDates);
+            stagingGraphs.remove(dataSet, stagingGraph);
+        }
+        logger.info("The graph <{}> is the active graph of <{}>.", stagingGraph, dataSet);
+        if (!formerGraph.equals(stagingGraph)) {
+            discardExecutor.schedule(this::discardExpiredGraphs, gracePeriod,
+                TimeUnit.MILLISECONDS);
+        }
+        if (derivedGraphs.contains(dataSet)) {
+            return;
+        }
+        try {
+            Date modificationDate = new Date();
+            tripleStoreManager.getDataCatalog().get(dataSet).modifiedAt(modificationDate);
+            DataCatalog.notifyModification(dataSet, modificationDate);
+        } catch (DataCatalogException e) {
+            logger.error("The modification of <{}> cannot be recorded. {}", dataSet, e);
+        }
+    }
+
+    /**
+     * Aborts the load of the given data set into the given staging graph.
+     *
+     * @param dataSet      the namespace of the data set.
+     * @param stagingGraph the staging graph of the aborted load.
+     */
+    void abort(IRI dataSet, IRI stagingGraph) {
+        stagingGraphs.remove(dataSet, stagingGraph);
+        logger.warn("The load of <{}> into <{}> has been aborted.", dataSet, stagingGraph);
+    }
+
+    /**
+     * Gets the time in milliseconds that a former active graph is kept, before it is discarded,
+     * such that readers in other processes observe the switch of the pointer before. It is twice
+     * the refresh interval of the pointers.
+     *
+     * @return the time in milliseconds that a former active graph is kept.
+     */
+    long getGracePeriod() {
+        return 2 * TimeUnit.NANOSECONDS.toMillis(refreshInterval);
+    }
+
+    /**
+     * Discards the former active graphs whose grace period has elapsed and removes their marks
+     * from the catalog graph. A graph that is active again is not discarded.
+     */
+    void discardExpiredGraphs() {
+        try (RepositoryConnection connection = tripleStoreManager.getPrimaryConnection()) {
+            Date now = new Date();
+            List<IRI> expiredGraphs = new ArrayList<>();
+            for (Statement statement : Iterations.asList(
+                connection.getStatements(null, DISCARD_AFTER, null, false, catalogGraph))) {
+                if (!(statement.getSubject() instanceof IRI) || !(statement
+                    .getObject() instanceof Literal)) {
+                    continue;
+                }
+                Literal discardAfter = (Literal) statement.getObject();
+                if (XMLSchema.DATETIME.equals(discardAfter.getDatatype()) && !discardAfter
+                    .calendarValue().toGregorianCalendar().getTime().after(now)) {
+                    expiredGraphs.add((IRI) statement.getSubject());
+                }
+            }
+            for (IRI graph : expiredGraphs) {
+                if (!activeGraphs.containsValue(graph) && discard(graph)) {
+                    connection.remove(graph, DISCARD_AFTER, null, catalogGraph);
+                }
+            }
+        } catch (RepositoryException e) {
+            logger.error("The former active graphs cannot be discarded. {}", e);
+        }
+    }
+
+    /**
+     * Removes all the statements of the given named graph.
+     *
+     * @param graph the named graph that shall be discarded.
+     * @return true, if the graph has been discarded, otherwise false.
+     */
+    boolean discard(IRI graph) {
+        try (RepositoryConnection connection = tripleStoreManager.getPrimaryConnection(graph)) {
+            connection.clear(graph);
+            logger.info("The graph <{}> has been discarded.", graph);
+            return true;
+        } catch (RepositoryException e) {
+            logger.error("The graph <{}> cannot be discarded. {}", graph, e);
+            return false;
+        }
+    }
+
+    /**
+     * Stops the discarding of the former active graphs. Former active graphs whose discard is
+     * pending are discarded by the next load of any process.
+     */
+    @Override
+    public void close() {
+        discardExecutor.shutdownNow();
+    }
+}
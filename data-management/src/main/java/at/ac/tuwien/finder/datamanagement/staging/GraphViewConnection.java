@@ -0,0 +1,135 @@
+package at.ac.tuwien.finder.datamanagement.staging;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BooleanQuery;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.GraphQuery;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.Query;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.RepositoryResult;
+import org.eclipse.rdf4j.repository.base.RepositoryConnectionWrapper;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * This class is a {@link RepositoryConnection} that only observes the named graphs of a view,
+ * i.e. the active (or staging) graphs of the data sets and the catalog (see
+ * {@link ActiveGraphs}). Queries without an explicit dataset are evaluated on the graphs of the
+ * view, and reads of statements without contexts are restricted to them. The namespace of a data
+ * set that is given as context is resolved to the graph of the data set in the view. All other
+ * operations are delegated to the underlying connection, which is closed together with this
+ * connection.
+ *
+ * @author Kevin Haller
+ */
+final class GraphViewConnection extends RepositoryConnectionWrapper {
+
+    private final Supplier<Dataset> dataset;
+    private final Function<IRI, IRI> graphResolver;
+
+    /**
+     * Creates a new {@link GraphViewConnection} for the given connection.
+     *
+     * @param delegate      the underlying {@link RepositoryConnection}.
+     * @param dataset       supplies the {@link Dataset} with the graphs of the view.
+     * @param graphResolver resolves the namespace of a data set to its graph in the view.
+     */
+    GraphViewConnection(RepositoryConnection delegate, Supplier<Dataset> dataset,
+        Function<IRI, IRI> graphResolver) {
+        super(delegate.getRepository(), delegate);
+        assert dataset != null;
+        assert graphResolver != null;
+        this.dataset = dataset;
+        this.graphResolver = graphResolver;
+    }
+
+    /**
+     * Restricts the given query to the graphs of this view, if no dataset is specified for it.
+     *
+     * @param query the prepared {@link Query}.
+     * @return the given query.
+     */
+    private <Q extends Query> Q restrict(Q query) {
+        if (query.getDataset() == null) {
+            query.setDataset(dataset.get());
+        }
+        return query;
+    }
+
+    /**
+     * Gets the contexts that correspond to the given contexts in this view. Without contexts, all
+     * the graphs of this view are returned.
+     *
+     * @param contexts the contexts of a read.
+     * @return the contexts of the read in this view.
+     */
+    private Resource[] contexts(Resource... contexts) {
+        if (contexts == null || contexts.length == 0) {
+            return dataset.get().getNamedGraphs().toArray(new Resource[0]);
+        }
+        Resource[] resolvedContexts = new Resource[contexts.length];
+        for (int i = 0; i < contexts.length; i++) {
+            resolvedContexts[i] = contexts[i] instanceof IRI ?
+                graphResolver.apply((IRI) contexts[i]) : contexts[i];
+        }
+        return resolvedContexts;
+    }
+
+    @Override
+    public Query prepareQuery(QueryLanguage ql, String query, String baseURI)
+        throws MalformedQueryException, RepositoryException {
+        return restrict(getDelegate().prepareQuery(ql, query, baseURI));
+    }
+
+    @Override
+    public GraphQuery prepareGraphQuery(QueryLanguage ql, String query, String baseURI)
+        throws MalformedQueryException, RepositoryException {
+        return restrict(getDelegate().prepareGraphQuery(ql, query, baseURI));
+    }
+
+    @Override
+    public TupleQuery prepareTupleQuery(QueryLanguage ql, String query, String baseURI)
+        throws MalformedQueryException, RepositoryException {
+        return restrict(getDelegate().prepareTupleQuery(ql, query, baseURI));
+    }
+
+    @Override
+    public BooleanQuery prepareBooleanQuery(QueryLanguage ql, String query, String baseURI)
+        throws MalformedQueryException, RepositoryException {
+        return restrict(getDelegate().prepareBooleanQuery(ql, query, baseURI));
+    }
+
+    @Override
+    public RepositoryResult<Statement> getStatements(Resource subj, IRI pred, Value obj,
+        boolean includeInferred, Resource... contexts) throws RepositoryException {
+        return getDelegate().getStatements(subj, pred, obj, includeInferred, contexts(contexts));
+    }
+
+    @Override
+    public boolean hasStatement(Resource subj, IRI pred, Value obj, boolean includeInferred,
+        Resource... contexts) throws RepositoryException {
+        return getDelegate().hasStatement(subj, pred, obj, includeInferred, contexts(contexts));
+    }
+
+    @Override
+    public void exportStatements(Resource subj, IRI pred, Value obj, boolean includeInferred,
+        RDFHandler handler, Resource... contexts) throws RepositoryException, RDFHandlerException {
+        getDelegate()
+            .exportStatements(subj, pred, obj, includeInferred, handler, contexts(contexts));
+    }
+
+    @Override
+    public long size(Resource... contexts) throws RepositoryException {
+        return getDelegate().size(contexts(contexts));
+    }
+}
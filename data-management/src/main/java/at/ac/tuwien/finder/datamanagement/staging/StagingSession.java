@@ -0,0 +1,85 @@
+package at.ac.tuwien.finder.datamanagement.staging;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.repository.RepositoryException;
+
+/**
+ * This class represents the load of a data set into a staging graph (see
+ * {@link ActiveGraphs#stage(IRI)}). While the session is open, the data of the data set is
+ * written into the staging graph, which is not observed by the readers. Committing the session
+ * makes the staging graph the active graph. Closing a session that has not been committed aborts
+ * the load and discards the staging graph.
+ *
+ * @author Kevin Haller
+ */
+public final class StagingSession implements AutoCloseable {
+
+    private final ActiveGraphs activeGraphs;
+    private final IRI dataSet;
+    private final IRI stagingGraph;
+    private boolean finished;
+
+    /**
+     * Creates a new {@link StagingSession}.
+     *
+     * @param activeGraphs {@link ActiveGraphs} that manages the graphs of the data set.
+     * @param dataSet      the namespace of the data set that is loaded.
+     * @param stagingGraph the staging graph into which the data set is loaded.
+     */
+    StagingSession(ActiveGraphs activeGraphs, IRI dataSet, IRI stagingGraph) {
+        assert activeGraphs != null;
+        assert dataSet != null;
+        assert stagingGraph != null;
+        this.activeGraphs = activeGraphs;
+        this.dataSet = dataSet;
+        this.stagingGraph = stagingGraph;
+    }
+
+    /**
+     * Gets the namespace of the data set that is loaded.
+     *
+     * @return the namespace of the data set that is loaded.
+     */
+    public IRI getDataSet() {
+        return dataSet;
+    }
+
+    /**
+     * Gets the staging graph into which the data set is loaded.
+     *
+     * @return the staging graph into which the data set is loaded.
+     */
+    public IRI getStagingGraph() {
+        return stagingGraph;
+    }
+
+    /**
+     * Makes the staging graph the active graph of the data set. The former active graph is
+     * discarded by the {@link ActiveGraphs} after the grace period, in which the readers of other
+     * processes observe the switch.
+     *
+     * @throws RepositoryException   if the active graph cannot be switched, in which case the
+     *                               session stays open.
+     * @throws IllegalStateException if the session has already been committed or closed.
+     */
+    public synchronized void commit() throws RepositoryException {
+        if (finished) {
+            throw new IllegalStateException(
+                String.format("The load of <%s> has already been finished.", dataSet));
+        }
+        activeGraphs.activate(dataSet, stagingGraph);
+        finished = true;
+    }
+
+    /**
+     * Aborts the load and discards the staging graph, if the session has not been committed.
+     */
+    @Override
+    public synchronized void close() {
+        if (!finished) {
+            finished = true;
+            activeGraphs.abort(dataSet, stagingGraph);
+            activeGraphs.discard(stagingGraph);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package at.ac.tuwien.finder.datamanagement.store;
+
+import org.eclipse.rdf4j.query.algebra.evaluation.function.Function;
+import org.eclipse.rdf4j.query.algebra.evaluation.function.FunctionRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class switches the GeoSPARQL functions of the embedded query engine on or off. The
+ * functions are registered by RDF4J in the JVM-wide {@link FunctionRegistry}, if they are on the
+ * classpath. Disabled functions are kept by this class, such that they can be registered again,
+ * when another triple store of the same JVM enables GeoSPARQL or the disabling one is closed.
+ * Switching the functions is idempotent. A remote triple store evaluates the queries itself and is
+ * therefore not affected.
+ *
+ * @author Kevin Haller
+ */
+public final class GeoSparqlSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeoSparqlSupport.class);
+
+    /**
+     * The namespace of the GeoSPARQL functions.
+     */
+    public static final String GEOF_NAMESPACE = "http://www.opengis.net/def/function/geosparql/";
+
+    private static final List<Function> disabledFunctions = new ArrayList<>();
+
+    private GeoSparqlSupport() {
+    }
+
+    /**
+     * Enables or disables the GeoSPARQL functions of the embedded query engine. Enabling restores
+     * the functions that have been disabled before.
+     *
+     * @param enabled true, if the GeoSPARQL functions shall be available, otherwise false.
+     */
+    public static synchronized void configure(boolean enabled) {
+        FunctionRegistry functionRegistry = FunctionRegistry.getInstance();
+        if (enabled) {
+            disabledFunctions.forEach(functionRegistry::add);
+            disabledFunctions.clear();
+        }
+        List<Function> geoFunctions = new ArrayList<>();
+        for (Function function : functionRegistry.getAll()) {
+            if (function.getURI().startsWith(GEOF_NAMESPACE)) {
+                geoFunctions.add(function);
+            }
+        }
+        if (enabled) {
+            if (geoFunctions.isEmpty()) {
+                logger.warn("GeoSPARQL is enabled, but no GeoSPARQL functions are on the classpath.");
+            } else {
+                logger.debug("{} GeoSPARQL functions are available.", geoFunctions.size());
+            }
+        } else {
+            geoFunctions.forEach(functionRegistry::remove);
+            disabledFunctions.addAll(geoFunctions);
+            logger.debug("{} GeoSPARQL functions have been disabled.", geoFunctions.size());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package at.ac.tuwien.finder.datamanagement.store;
+
+import java.util.Locale;
+
+/**
+ * This enum represents the modes in which the triple store of the finder can be operated.
+ *
+ * @author Kevin Haller
+ */
+public enum StoreMode {
+
+    /**
+     * The triple store is a remote repository (e.g. GraphDB or RDF4J server) that is accessed over
+     * HTTP.
+     */
+    REMOTE,
+
+    /**
+     * The triple store is an embedded native store that is persisted on the local disk.
+     */
+    NATIVE,
+
+    /**
+     * The triple store is an embedded memory store that is persisted on the local disk.
+     */
+    MEMORY;
+
+    /**
+     * Gets the {@link StoreMode} with the given name (case insensitive).
+     *
+     * @param name the name of the {@link StoreMode}.
+     * @return the {@link StoreMode} with the given name.
+     * @throws IllegalArgumentException if there is no {@link StoreMode} with the given name.
+     */
+    public static StoreMode fromName(String name) {
+        assert name != null;
+        return valueOf(name.trim().toUpperCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Checks whether the triple store is embedded into this process.
+     *
+     * @return true, if the triple store is embedded into this process, otherwise false.
+     */
+    public boolean isEmbedded() {
+        return this != REMOTE;
+    }
+}
@@ -0,0 +1,196 @@
+package at.ac.tuwien.finder.datamanagement.store;
+
+import org.eclipse.rdf4j.repository.config.RepositoryImplConfig;
+import org.eclipse.rdf4j.repository.manager.LocalRepositoryManager;
+import org.eclipse.rdf4j.repository.manager.RemoteRepositoryManager;
+import org.eclipse.rdf4j.repository.manager.RepositoryManager;
+import org.eclipse.rdf4j.repository.sail.config.SailRepositoryConfig;
+import org.eclipse.rdf4j.sail.memory.config.MemoryStoreConfig;
+import org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreConfig;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * This class holds the settings of the triple store. The settings can be read from the
+ * data-management properties ({@code db.*}), whereby missing properties fall back to the default
+ * values. The triple store is either a remote repository at {@code db.url} or a store embedded
+ * into this process, which is persisted in the directory {@code db.data-dir}.
+ *
+ * @author Kevin Haller
+ */
+public final class StoreSettings {
+
+    public static final StoreMode DEFAULT_MODE = StoreMode.REMOTE;
+    public static final String DEFAULT_DATA_DIRECTORY = "triplestore";
+    public static final String DEFAULT_TRIPLE_INDEXES = "spoc,posc,cspo";
+    public static final long DEFAULT_SYNC_DELAY = 1000L;
+    public static final boolean DEFAULT_GEO_SPARQL = true;
+
+    private final StoreMode mode;
+    private final URL url;
+    private final File dataDirectory;
+    private final String tripleIndexes;
+    private final long syncDelay;
+    private final boolean geoSparql;
+
+    /**
+     * Creates new {@link StoreSettings}.
+     *
+     * @param mode          the {@link StoreMode} of the triple store.
+     * @param url           the {@link URL} of the remote triple store, which is only required for
+     *                      the mode {@link StoreMode#REMOTE}.
+     * @param dataDirectory the directory in which an embedded triple store is persisted.
+     * @param tripleIndexes the indexes of an embedded native store (e.g. {@code spoc,posc}).
+     * @param syncDelay     the delay in milliseconds after which the changes of an embedded memory
+     *                      store are synchronized to the disk.
+     * @param geoSparql     true, if the GeoSPARQL functions shall be available to an embedded
+     *                      triple store.
+     */
+    public StoreSettings(StoreMode mode, URL url, File dataDirectory, String tripleIndexes,
+        long syncDelay, boolean geoSparql) {
+        assert mode != null;
+        assert mode.isEmbedded() || url != null;
+        assert dataDirectory != null;
+        assert tripleIndexes != null;
+        this.mode = mode;
+        this.url = url;
+        this.dataDirectory = dataDirectory;
+        this.tripleIndexes = tripleIndexes;
+        this.syncDelay = syncDelay;
+        this.geoSparql = geoSparql;
+    }
+
+    /**
+     * Creates {@link StoreSettings} for the remote triple store at the given {@link URL}.
+     *
+     * @param url the {@link URL} of the remote triple store.
+     * @return {@link StoreSettings} for the remote triple store at the given {@link URL}.
+     */
+    public static StoreSettings remote(URL url) {
+        return new StoreSettings(StoreMode.REMOTE, url, new File(DEFAULT_DATA_DIRECTORY),
+            DEFAULT_TRIPLE_INDEXES, DEFAULT_SYNC_DELAY, DEFAULT_GEO_SPARQL);
+    }
+
+    /**
+     * Reads the {@link StoreSettings} from the given {@link Properties} ({@code db.mode},
+     * {@code db.url}, {@code db.data-dir}, {@code db.native.triple-indexes},
+     * {@code db.memory.sync-delay} and {@code db.geosparql}).
+     *
+     * @param properties {@link Properties} from which the settings shall be read.
+     * @return {@link StoreSettings} read from the given {@link Properties}.
+     * @throws IllegalArgumentException if the value of a property is malformed.
+     */
+    public static StoreSettings fromProperties(Properties properties) {
+        assert properties != null;
+        StoreMode mode =
+            StoreMode.fromName(properties.getProperty("db.mode", DEFAULT_MODE.name()));
+        String urlProperty = properties.getProperty("db.url");
+        URL url = null;
+        if (urlProperty != null && !urlProperty.trim().isEmpty()) {
+            try {
+                url = new URL(urlProperty.trim());
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException(
+                    String.format("The url '%s' of the triple store is malformed.", urlProperty),
+                    e);
+            }
+        } else if (!mode.isEmbedded()) {
+            throw new IllegalArgumentException("The url of the remote triple store is missing.");
+        }
+        return new StoreSettings(mode, url,
+            new File(properties.getProperty("db.data-dir", DEFAULT_DATA_DIRECTORY).trim()),
+            properties.getProperty("db.native.triple-indexes", DEFAULT_TRIPLE_INDEXES).trim(),
+            Long.parseLong(properties.getProperty("db.memory.sync-delay",
+                String.valueOf(DEFAULT_SYNC_DELAY)).trim()),
+            Boolean.parseBoolean(properties.getProperty("db.geosparql",
+                String.valueOf(DEFAULT_GEO_SPARQL)).trim()));
+    }
+
+    /**
+     * Gets the {@link StoreMode} of the triple store.
+     *
+     * @return the {@link StoreMode} of the triple store.
+     */
+    public StoreMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Gets the {@link URL} that identifies the location of the triple store. This is the
+     * {@link URL} of a remote triple store or the file {@link URL} of the data directory of an
+     * embedded one.
+     *
+     * @return the {@link URL} that identifies the location of the triple store.
+     */
+    public URL getLocation() {
+        if (!mode.isEmbedded()) {
+            return url;
+        }
+        try {
+            return dataDirectory.getAbsoluteFile().toURI().toURL();
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets the directory in which an embedded triple store is persisted.
+     *
+     * @return the directory in which an embedded triple store is persisted.
+     */
+    public File getDataDirectory() {
+        return dataDirectory;
+    }
+
+    /**
+     * Checks whether the GeoSPARQL functions shall be available to an embedded triple store.
+     *
+     * @return true, if the GeoSPARQL functions shall be available, otherwise false.
+     */
+    public boolean isGeoSparqlEnabled() {
+        return geoSparql;
+    }
+
+    /**
+     * Creates the {@link RepositoryManager} that manages the repositories of the triple store. The
+     * returned manager has not been initialized yet.
+     *
+     * @return the {@link RepositoryManager} that manages the repositories of the triple store.
+     */
+    public RepositoryManager createRepositoryManager() {
+        if (mode.isEmbedded()) {
+            return new LocalRepositoryManager(dataDirectory);
+        }
+        return new RemoteRepositoryManager(url.toString());
+    }
+
+    /**
+     * Creates the configuration of a new repository of the triple store, if repositories can be
+     * created automatically in the mode of this triple store. This is only the case for embedded
+     * triple stores.
+     *
+     * @return the configuration of a new repository, or an empty {@link Optional}, if repositories
+     * cannot be created automatically.
+     */
+    public Optional<RepositoryImplConfig> createRepositoryImplConfig() {
+        switch (mode) {
+            case NATIVE:
+                return Optional.of(new SailRepositoryConfig(new NativeStoreConfig(tripleIndexes)));
+            case MEMORY:
+                return Optional
+                    .of(new SailRepositoryConfig(new MemoryStoreConfig(true, syncDelay)));
+            default:
+                return Optional.empty();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{mode=%s, location=%s, geoSparql=%s}", mode, getLocation(),
+            geoSparql);
+    }
+}
@@ -0,0 +1,255 @@
+package at.ac.tuwien.finder.datamanagement.unittest;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.catalog.DataCatalog;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.DataSet;
+import at.ac.tuwien.finder.datamanagement.staging.ActiveGraphs;
+import at.ac.tuwien.finder.datamanagement.staging.StagingSession;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Date;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests the {@link ActiveGraphs} with a memory store standing in for the triple store.
+ *
+ * @author Kevin Haller
+ */
+public class ActiveGraphsTest {
+
+    private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+    private static final IRI CATALOG_NS =
+        valueFactory.createIRI("http://finder.tuwien.ac.at/catalog");
+    private static final IRI SPATIAL_NS =
+        valueFactory.createIRI("http://finder.tuwien.ac.at/spatial");
+    private static final IRI DERIVED_GRAPH =
+        valueFactory.createIRI("http://finder.tuwien.ac.at/spatial/derived");
+    private static final IRI ROOM_A =
+        valueFactory.createIRI("http://finder.tuwien.ac.at/spatial/room/id/a");
+    private static final IRI ROOM_B =
+        valueFactory.createIRI("http://finder.tuwien.ac.at/spatial/room/id/b");
+
+    private Repository repository;
+    private TripleStoreManager tripleStoreManager;
+    private ActiveGraphs activeGraphs;
+
+    @Before
+    public void setUp() {
+        repository = new SailRepository(new MemoryStore());
+        repository.initialize();
+        tripleStoreManager = mock(TripleStoreManager.class);
+        when(tripleStoreManager.getPrimaryConnection())
+            .thenAnswer(invocation -> repository.getConnection());
+        when(tripleStoreManager.getPrimaryConnection(any(IRI.class)))
+            .thenAnswer(invocation -> repository.getConnection());
+        DataCatalog dataCatalog = mock(DataCatalog.class);
+        when(dataCatalog.get(any(IRI.class))).thenReturn(mock(DataSet.class));
+        when(tripleStoreManager.getDataCatalog()).thenReturn(dataCatalog);
+        activeGraphs = newActiveGraphs();
+        try (RepositoryConnection connection = repository.getConnection()) {
+            connection.add(ROOM_A, RDFS.LABEL, valueFactory.createLiteral("A"), SPATIAL_NS);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        activeGraphs.close();
+        repository.shutDown();
+    }
+
+    /**
+     * Creates new {@link ActiveGraphs} for the spatial data set, which read the pointers on each
+     * access and discard a former graph immediately.
+     *
+     * @return new {@link ActiveGraphs} for the spatial data set.
+     */
+    private ActiveGraphs newActiveGraphs() {
+        return new ActiveGraphs(tripleStoreManager, Collections.singletonList(SPATIAL_NS),
+            CATALOG_NS, 0);
+    }
+
+    /**
+     * Waits until the given named graph is empty and no longer marked in the catalog graph, since
+     * the former active graphs are discarded asynchronously.
+     *
+     * @param graph the named graph that shall be discarded.
+     */
+    private void awaitDiscard(IRI graph) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            try (RepositoryConnection connection = repository.getConnection()) {
+                if (connection.size(graph) == 0 && !connection
+                    .hasStatement(graph, ActiveGraphs.DISCARD_AFTER, null, false, CATALOG_NS)) {
+                    return;
+                }
+            }
+            assertThat(System.currentTimeMillis(), lessThan(deadline));
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Checks whether the given room is observed by the readers of the given {@link ActiveGraphs}.
+     *
+     * @param activeGraphs {@link ActiveGraphs} of which the read view shall be checked.
+     * @param room         the {@link IRI} of the room.
+     * @return true, if the given room is observed by the readers, otherwise false.
+     */
+    private boolean isVisible(ActiveGraphs activeGraphs, IRI room) {
+        try (RepositoryConnection connection = activeGraphs
+            .readView(repository.getConnection())) {
+            return connection.hasStatement(room, RDFS.LABEL, null, false) && connection
+                .prepareBooleanQuery(QueryLanguage.SPARQL,
+                    String.format("ASK { <%s> ?p ?o . }", room)).evaluate();
+        }
+    }
+
+    @Test
+    public void stageAndWrite_invisibleUntilCommit() throws Exception {
+        try (StagingSession session = activeGraphs.stage(SPATIAL_NS)) {
+            IRI stagingGraph = activeGraphs.getWriteGraph(SPATIAL_NS);
+            assertThat(stagingGraph, is(session.getStagingGraph()));
+            assertThat(stagingGraph, is(not(SPATIAL_NS)));
+            try (RepositoryConnection connection = tripleStoreManager
+                .getPrimaryConnection(SPATIAL_NS)) {
+                assertTrue(connection.hasStatement(ROOM_A, RDFS.LABEL, null, false, stagingGraph));
+                connection.add(ROOM_B, RDFS.LABEL, valueFactory.createLiteral("B"), stagingGraph);
+            }
+            assertTrue(isVisible(activeGraphs, ROOM_A));
+            assertFalse(isVisible(activeGraphs, ROOM_B));
+            session.commit();
+            assertThat(activeGraphs.getActiveGraph(SPATIAL_NS), is(stagingGraph));
+        }
+        assertTrue(isVisible(activeGraphs, ROOM_A));
+        assertTrue(isVisible(activeGraphs, ROOM_B));
+        awaitDiscard(SPATIAL_NS);
+    }
+
+    @Test
+    public void commit_switchObservedByOtherInstance() throws Exception {
+        IRI stagingGraph;
+        try (StagingSession session = activeGraphs.stage(SPATIAL_NS)) {
+            stagingGraph = session.getStagingGraph();
+            session.commit();
+        }
+        assertThat(newActiveGraphs().getActiveGraph(SPATIAL_NS), is(stagingGraph));
+    }
+
+    @Test
+    public void closeWithoutCommit_stagingGraphDiscarded() throws Exception {
+        IRI stagingGraph;
+        try (StagingSession session = activeGraphs.stage(SPATIAL_NS)) {
+            stagingGraph = session.getStagingGraph();
+        }
+        assertThat(activeGraphs.getActiveGraph(SPATIAL_NS), is(SPATIAL_NS));
+        assertThat(activeGraphs.getWriteGraph(SPATIAL_NS), is(SPATIAL_NS));
+        try (RepositoryConnection connection = repository.getConnection()) {
+            assertThat(connection.size(stagingGraph), is(0L));
+            assertThat(connection.size(SPATIAL_NS), is(1L));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void stageLoadedDataSet_throwsIllegalStateException() throws Exception {
+        try (StagingSession session = activeGraphs.stage(SPATIAL_NS)) {
+            activeGraphs.stage(SPATIAL_NS);
+        }
+    }
+
+    @Test
+    public void stageDerivedGraph_startsEmptyAndNotRecordedInCatalog() throws Exception {
+        ActiveGraphs derivedActiveGraphs = new ActiveGraphs(tripleStoreManager,
+            Collections.singletonList(SPATIAL_NS), Collections.singletonList(DERIVED_GRAPH),
+            CATALOG_NS, 0);
+        try (RepositoryConnection connection = repository.getConnection()) {
+            connection.add(ROOM_A, RDFS.COMMENT, valueFactory.createLiteral("A"), DERIVED_GRAPH);
+        }
+        try {
+            IRI stagingGraph;
+            try (StagingSession session = derivedActiveGraphs.stage(DERIVED_GRAPH)) {
+                stagingGraph = session.getStagingGraph();
+                try (RepositoryConnection connection = repository.getConnection()) {
+                    assertThat(connection.size(stagingGraph), is(0L));
+                    connection
+                        .add(ROOM_B, RDFS.COMMENT, valueFactory.createLiteral("B"), stagingGraph);
+                }
+                session.commit();
+            }
+            assertThat(derivedActiveGraphs.getActiveGraph(DERIVED_GRAPH), is(stagingGraph));
+            try (RepositoryConnection connection = derivedActiveGraphs
+                .readView(repository.getConnection())) {
+                assertTrue(connection.hasStatement(ROOM_B, RDFS.COMMENT, null, false));
+                assertFalse(connection.hasStatement(ROOM_A, RDFS.COMMENT, null, false));
+            }
+            verify(tripleStoreManager.getDataCatalog(), never()).get(DERIVED_GRAPH);
+        } finally {
+            derivedActiveGraphs.close();
+        }
+    }
+
+    @Test
+    public void getModificationDates_pointersReadTogether() throws Exception {
+        ActiveGraphs otherActiveGraphs = new ActiveGraphs(tripleStoreManager,
+            Collections.singletonList(SPATIAL_NS), CATALOG_NS, 60000);
+        try {
+            assertThat(otherActiveGraphs.getActiveGraph(SPATIAL_NS), is(SPATIAL_NS));
+            IRI stagingGraph;
+            try (StagingSession session = activeGraphs.stage(SPATIAL_NS)) {
+                stagingGraph = session.getStagingGraph();
+                session.commit();
+            }
+            Date modificationDate = new Date();
+            try (RepositoryConnection connection = repository.getConnection()) {
+                connection.add(SPATIAL_NS, DCTERMS.MODIFIED,
+                    valueFactory.createLiteral(modificationDate), CATALOG_NS);
+            }
+            assertThat(otherActiveGraphs.getActiveGraph(SPATIAL_NS), is(SPATIAL_NS));
+            assertThat(otherActiveGraphs.getModificationDates().get(SPATIAL_NS),
+                is(modificationDate));
+            assertThat(otherActiveGraphs.getActiveGraph(SPATIAL_NS), is(stagingGraph));
+        } finally {
+            otherActiveGraphs.close();
+        }
+    }
+
+    @Test
+    public void pendingDiscard_discardedByNextLoad() throws Exception {
+        IRI formerGraph = valueFactory.createIRI(SPATIAL_NS.stringValue(), "/graph/0");
+        try (RepositoryConnection connection = repository.getConnection()) {
+            connection.add(ROOM_B, RDFS.LABEL, valueFactory.createLiteral("B"), formerGraph);
+            connection.add(formerGraph, ActiveGraphs.DISCARD_AFTER,
+                valueFactory.createLiteral(new Date(0)), CATALOG_NS);
+        }
+        try (StagingSession session = activeGraphs.stage(SPATIAL_NS)) {
+            try (RepositoryConnection connection = repository.getConnection()) {
+                assertThat(connection.size(formerGraph), is(0L));
+                assertFalse(connection.hasStatement(formerGraph, ActiveGraphs.DISCARD_AFTER, null,
+                    false, CATALOG_NS));
+            }
+        }
+    }
+}
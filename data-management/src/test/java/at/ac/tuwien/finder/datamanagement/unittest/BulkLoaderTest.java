@@ -0,0 +1,182 @@
+package at.ac.tuwien.finder.datamanagement.unittest;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.integration.bulk.BulkLoadReport;
+import at.ac.tuwien.finder.datamanagement.integration.bulk.BulkLoadSettings;
+import at.ac.tuwien.finder.datamanagement.integration.bulk.BulkLoader;
+import at.ac.tuwien.finder.datamanagement.integration.bulk.NamespacePartitioner;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests the {@link BulkLoader} and the {@link NamespacePartitioner} with a memory store
+ * standing in for the triple store.
+ *
+ * @author Kevin Haller
+ */
+public class BulkLoaderTest {
+
+    private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+    private static final IRI SPATIAL_NS =
+        valueFactory.createIRI("http://finder.tuwien.ac.at/spatial");
+    private static final IRI EVENT_NS = valueFactory.createIRI("http://finder.tuwien.ac.at/event");
+    private static final IRI CATALOG_NS =
+        valueFactory.createIRI("http://finder.tuwien.ac.at/catalog");
+
+    private Repository repository;
+    private TripleStoreManager tripleStoreManager;
+    private NamespacePartitioner partitioner;
+
+    @Before
+    public void setUp() {
+        repository = new SailRepository(new MemoryStore());
+        repository.initialize();
+        tripleStoreManager = mock(TripleStoreManager.class);
+        when(tripleStoreManager.getPrimaryConnection(any(IRI.class)))
+            .thenAnswer(invocation -> repository.getConnection());
+        when(tripleStoreManager.getWriteGraph(any(IRI.class)))
+            .thenAnswer(invocation -> invocation.getArguments()[0]);
+        Map<IRI, IRI> namespaceMapping = new HashMap<>();
+        namespaceMapping.put(SPATIAL_NS, SPATIAL_NS);
+        namespaceMapping.put(EVENT_NS, EVENT_NS);
+        partitioner = new NamespacePartitioner(namespaceMapping, CATALOG_NS);
+    }
+
+    @After
+    public void tearDown() {
+        repository.shutDown();
+    }
+
+    /**
+     * Creates a model with the given number of labelled resources in the given namespace.
+     *
+     * @param namespace the namespace of the resources.
+     * @param n         the number of resources.
+     * @return the model with the given number of labelled resources.
+     */
+    private static Model resources(IRI namespace, int n) {
+        Model model = new LinkedHashModel();
+        for (int i = 0; i < n; i++) {
+            model.add(valueFactory.createIRI(namespace.stringValue(), "/id/" + i), RDFS.LABEL,
+                valueFactory.createLiteral("Resource " + i));
+        }
+        return model;
+    }
+
+    @Test
+    public void partitionResource_longestNamespaceWins() {
+        Map<IRI, IRI> namespaceMapping = new HashMap<>();
+        IRI roomNS = valueFactory.createIRI(SPATIAL_NS.stringValue(), "/room");
+        namespaceMapping.put(SPATIAL_NS, SPATIAL_NS);
+        namespaceMapping.put(roomNS, EVENT_NS);
+        NamespacePartitioner partitioner = new NamespacePartitioner(namespaceMapping, CATALOG_NS);
+        assertThat(partitioner.partition(valueFactory.createIRI(roomNS.stringValue(), "/id/1")),
+            is(EVENT_NS));
+        assertThat(partitioner.partition(valueFactory.createIRI(SPATIAL_NS.stringValue(), "/f")),
+            is(SPATIAL_NS));
+        assertThat(partitioner.partition(valueFactory.createIRI("http://example.org/a")),
+            is(CATALOG_NS));
+        assertThat(partitioner.partition(valueFactory.createBNode()), is(CATALOG_NS));
+    }
+
+    @Test
+    public void loadStatements_loadedIntoGraphsOfDataSets() {
+        Model model = resources(SPATIAL_NS, 250);
+        model.addAll(resources(EVENT_NS, 120));
+        model.add(valueFactory.createIRI("http://example.org/a"), RDFS.LABEL,
+            valueFactory.createLiteral("A"));
+        BulkLoadReport report =
+            new BulkLoader(tripleStoreManager, new BulkLoadSettings(50, 3, 0, 0, 1000))
+                .load(model.stream(), partitioner);
+        assertTrue(report.isComplete());
+        assertThat(report.getLoadedStatements(), is(371L));
+        assertThat(report.getLoadedStatements(SPATIAL_NS), is(250L));
+        assertThat(report.getLoadedStatements(CATALOG_NS), is(1L));
+        try (RepositoryConnection connection = repository.getConnection()) {
+            assertThat(connection.size(SPATIAL_NS), is(250L));
+            assertThat(connection.size(EVENT_NS), is(120L));
+            assertThat(connection.size(CATALOG_NS), is(1L));
+        }
+    }
+
+    @Test
+    public void loadTwice_loadedByPoolOfLoader() {
+        try (BulkLoader bulkLoader = new BulkLoader(tripleStoreManager,
+            new BulkLoadSettings(50, 3, 0, 0, 1000))) {
+            assertTrue(bulkLoader.load(resources(SPATIAL_NS, 120).stream(), partitioner)
+                .isComplete());
+            assertTrue(bulkLoader.load(resources(EVENT_NS, 80).stream(), partitioner)
+                .isComplete());
+        }
+        try (RepositoryConnection connection = repository.getConnection()) {
+            assertThat(connection.size(SPATIAL_NS), is(120L));
+            assertThat(connection.size(EVENT_NS), is(80L));
+        }
+    }
+
+    @Test
+    public void failingBatch_retriedAndLoaded() {
+        AtomicInteger failures = new AtomicInteger(2);
+        when(tripleStoreManager.getPrimaryConnection(any(IRI.class))).thenAnswer(invocation -> {
+            if (failures.getAndDecrement() > 0) {
+                throw new RepositoryException("The triple store is not reachable.");
+            }
+            return repository.getConnection();
+        });
+        BulkLoadReport report =
+            new BulkLoader(tripleStoreManager, new BulkLoadSettings(1000, 1, 3, 1, 1000))
+                .load(resources(EVENT_NS, 10).stream(), partitioner);
+        assertTrue(report.isComplete());
+        assertThat(report.getRetries(), is(2L));
+        assertThat(report.getLoadedStatements(EVENT_NS), is(10L));
+    }
+
+    @Test
+    public void batchFailingAfterRetries_givenUp() {
+        when(tripleStoreManager.getPrimaryConnection(any(IRI.class)))
+            .thenThrow(new RepositoryException("The triple store is not reachable."));
+        BulkLoadReport report =
+            new BulkLoader(tripleStoreManager, new BulkLoadSettings(5, 2, 1, 1, 1000))
+                .load(resources(SPATIAL_NS, 10).stream(), partitioner);
+        assertFalse(report.isComplete());
+        assertThat(report.getFailedBatches(), is(2L));
+        assertThat(report.getFailedStatements(), is(10L));
+        assertThat(report.getLoadedStatements(), is(0L));
+    }
+
+    @Test
+    public void batchFailingUnexpectedly_givenUpWithoutRetries() {
+        when(tripleStoreManager.getPrimaryConnection(any(IRI.class)))
+            .thenThrow(new IllegalStateException("The connection pool has been closed."));
+        BulkLoadReport report =
+            new BulkLoader(tripleStoreManager, new BulkLoadSettings(5, 2, 3, 1, 1000))
+                .load(resources(SPATIAL_NS, 10).stream(), partitioner);
+        assertFalse(report.isComplete());
+        assertThat(report.getFailedBatches(), is(2L));
+        assertThat(report.getRetries(), is(0L));
+    }
+}
@@ -0,0 +1,95 @@
+package at.ac.tuwien.finder.datamanagement.unittest;
+
+import at.ac.tuwien.finder.datamanagement.connection.ConnectionPool;
+import at.ac.tuwien.finder.datamanagement.connection.ConnectionPoolSettings;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.base.RepositoryConnectionWrapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests the {@link ConnectionPool}.
+ *
+ * @author Kevin Haller
+ */
+public class ConnectionPoolTest {
+
+    private Repository repository;
+    private ConnectionPool connectionPool;
+
+    @Before
+    public void setUp() {
+        repository = mock(Repository.class);
+        when(repository.getConnection()).thenAnswer(invocation -> {
+            RepositoryConnection connection = mock(RepositoryConnection.class);
+            when(connection.isOpen()).thenReturn(true);
+            return connection;
+        });
+        connectionPool =
+            new ConnectionPool(repository, new ConnectionPoolSettings(0, 1, 50, true, 5000, 60000,
+                60000));
+    }
+
+    @After
+    public void tearDown() {
+        connectionPool.close();
+    }
+
+    private static RepositoryConnection delegateOf(RepositoryConnection connection) {
+        return ((RepositoryConnectionWrapper) connection).getDelegate();
+    }
+
+    @Test
+    public void closedConnection_returnedAndReused() {
+        RepositoryConnection connection = connectionPool.getConnection();
+        RepositoryConnection delegate = delegateOf(connection);
+        connection.close();
+        assertThat(connection.isOpen(), is(false));
+        assertThat(delegateOf(connectionPool.getConnection()), sameInstance(delegate));
+        assertThat(connectionPool.getCreatedConnectionCount(), is(1L));
+        assertThat(connectionPool.getBorrowCount(), is(2L));
+    }
+
+    @Test(expected = RepositoryException.class)
+    public void exhaustedPool_mustThrowRepositoryExceptionAfterTimeout() {
+        connectionPool.getConnection();
+        try {
+            connectionPool.getConnection();
+        } finally {
+            assertThat(connectionPool.getAcquisitionTimeoutCount(), is(1L));
+        }
+    }
+
+    @Test
+    public void invalidIdleConnection_replaced() {
+        RepositoryConnection connection = connectionPool.getConnection();
+        RepositoryConnection delegate = delegateOf(connection);
+        connection.close();
+        when(delegate.isOpen()).thenReturn(false);
+        assertThat(delegateOf(connectionPool.getConnection()), not(sameInstance(delegate)));
+        assertThat(connectionPool.getValidationFailureCount(), is(1L));
+        verify(delegate).close();
+    }
+
+    @Test
+    public void activeTransaction_rolledBackOnClose() {
+        RepositoryConnection connection = connectionPool.getConnection();
+        RepositoryConnection delegate = delegateOf(connection);
+        when(delegate.isActive()).thenReturn(true);
+        connection.close();
+        verify(delegate).rollback();
+        assertThat(connectionPool.getBorrowedConnectionCount(), is(0));
+        assertThat(connectionPool.getIdleConnectionCount(), is(1));
+    }
+}
@@ -0,0 +1,159 @@
+package at.ac.tuwien.finder.datamanagement.unittest;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.catalog.DataCatalog;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.DataSet;
+import at.ac.tuwien.finder.datamanagement.integration.ChangeSet;
+import at.ac.tuwien.finder.datamanagement.integration.DeltaDataIntegrator;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Date;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests the {@link DeltaDataIntegrator} with a memory store standing in for the triple
+ * store.
+ *
+ * @author Kevin Haller
+ */
+public class DeltaDataIntegratorTest {
+
+    private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+    private static final IRI ORGANIZATIONAL_NS =
+        valueFactory.createIRI("http://finder.tuwien.ac.at/organizational");
+    private static final IRI PERSON_A =
+        valueFactory.createIRI("http://finder.tuwien.ac.at/organizational/person/id/a");
+    private static final IRI PERSON_B =
+        valueFactory.createIRI("http://finder.tuwien.ac.at/organizational/person/id/b");
+
+    private Repository repository;
+    private DataSet dataSet;
+    private TripleStoreManager tripleStoreManager;
+    private DeltaDataIntegrator integrator;
+
+    @Before
+    public void setUp() throws Exception {
+        repository = new SailRepository(new MemoryStore());
+        repository.initialize();
+        tripleStoreManager = mock(TripleStoreManager.class);
+        when(tripleStoreManager.getPrimaryConnection(any(IRI.class)))
+            .thenAnswer(invocation -> repository.getConnection());
+        when(tripleStoreManager.getWriteGraph(any(IRI.class)))
+            .thenAnswer(invocation -> invocation.getArguments()[0]);
+        DataCatalog dataCatalog = mock(DataCatalog.class);
+        dataSet = mock(DataSet.class);
+        when(dataCatalog.get(ORGANIZATIONAL_NS)).thenReturn(dataSet);
+        when(tripleStoreManager.getDataCatalog()).thenReturn(dataCatalog);
+        integrator = new DeltaDataIntegrator(tripleStoreManager, ORGANIZATIONAL_NS,
+            Collections.emptyMap());
+    }
+
+    @After
+    public void tearDown() {
+        repository.shutDown();
+    }
+
+    /**
+     * Creates the acquired model of a person with the given name and a blank node as account.
+     *
+     * @param person the {@link IRI} of the person.
+     * @param name   the name of the person.
+     * @return the acquired model of the given person.
+     */
+    private static Model person(IRI person, String name) {
+        Model model = new LinkedHashModel();
+        BNode account = valueFactory.createBNode();
+        model.add(person, FOAF.NAME, valueFactory.createLiteral(name));
+        model.add(person, FOAF.ACCOUNT, account);
+        model.add(account, RDFS.LABEL, valueFactory.createLiteral(name.toLowerCase()));
+        return model;
+    }
+
+    @Test
+    public void integrateSameModelTwice_secondChangeSetEmpty() throws Exception {
+        ChangeSet first = integrator.apply(person(PERSON_A, "Alice"));
+        assertThat(first.getAdditions(ORGANIZATIONAL_NS).size(), is(3));
+        ChangeSet second = integrator.apply(person(PERSON_A, "Alice"));
+        assertTrue(second.isEmpty());
+        verify(dataSet, times(1)).modifiedAt(any(Date.class));
+        try (RepositoryConnection connection = repository.getConnection()) {
+            assertThat(connection.size(ORGANIZATIONAL_NS), is(3L));
+        }
+    }
+
+    @Test
+    public void integrateChangedModel_onlyDifferencesApplied() {
+        DeltaDataIntegrator integrator = new DeltaDataIntegrator(tripleStoreManager,
+            ORGANIZATIONAL_NS, Collections.emptyMap(), 1.0);
+        Model initial = person(PERSON_A, "Alice");
+        initial.addAll(person(PERSON_B, "Bob"));
+        integrator.apply(initial);
+        Model changed = person(PERSON_A, "Alicia");
+        ChangeSet changeSet = integrator.apply(changed);
+        assertThat(changeSet.getAdditions(ORGANIZATIONAL_NS).size(), is(3));
+        assertThat(changeSet.getRemovals(ORGANIZATIONAL_NS).size(), is(6));
+        try (RepositoryConnection connection = repository.getConnection()) {
+            assertTrue(connection.hasStatement(PERSON_A, FOAF.NAME,
+                valueFactory.createLiteral("Alicia"), false, ORGANIZATIONAL_NS));
+            assertFalse(connection.hasStatement(PERSON_B, null, null, false));
+            assertThat(connection.size(ORGANIZATIONAL_NS), is(3L));
+        }
+    }
+
+    @Test
+    public void integratePartialAcquisition_removalsRefused() {
+        // The persons of two acquirers, of which the second one fails in the next acquisition.
+        Model complete = new LinkedHashModel();
+        Model partial = new LinkedHashModel();
+        for (int i = 0; i < 10; i++) {
+            Model acquired = person(valueFactory
+                .createIRI("http://finder.tuwien.ac.at/organizational/person/id/" + i), "P" + i);
+            complete.addAll(acquired);
+            if (i < 5) {
+                partial.addAll(acquired);
+            }
+        }
+        integrator.apply(complete);
+        ChangeSet changeSet = integrator.apply(partial);
+        assertTrue(changeSet.isEmpty());
+        verify(dataSet, times(1)).modifiedAt(any(Date.class));
+        try (RepositoryConnection connection = repository.getConnection()) {
+            assertThat(connection.size(ORGANIZATIONAL_NS), is(30L));
+        }
+    }
+
+    @Test
+    public void diffModel_storeUnchanged() throws Exception {
+        ChangeSet changeSet = integrator.diff(person(PERSON_A, "Alice"));
+        assertTrue(changeSet.isChanged(ORGANIZATIONAL_NS));
+        try (RepositoryConnection connection = repository.getConnection()) {
+            assertThat(connection.size(ORGANIZATIONAL_NS), is(0L));
+        }
+        verify(dataSet, never()).modifiedAt(any(Date.class));
+    }
+}
@@ -0,0 +1,171 @@
+package at.ac.tuwien.finder.datamanagement.unittest;
+
+import at.ac.tuwien.finder.datamanagement.cache.QueryCacheSettings;
+import at.ac.tuwien.finder.datamanagement.cache.QueryResultCache;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.GraphQuery;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * This class tests the {@link QueryResultCache}.
+ *
+ * @author Kevin Haller
+ */
+public class QueryResultCacheTest {
+
+    private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+    private static final String BASE = "http://finder.tuwien.ac.at/";
+    private static final IRI SPATIAL = valueFactory.createIRI(BASE, "spatial");
+    private static final IRI ORGANIZATIONAL = valueFactory.createIRI(BASE, "organizational");
+    private static final IRI CATALOG = valueFactory.createIRI(BASE, "catalog");
+    private static final IRI ROOM = valueFactory.createIRI(BASE, "spatial/room/id/HS1");
+
+    private Repository repository;
+    private Map<IRI, Date> modificationDates = new HashMap<>();
+    private QueryResultCache queryResultCache;
+
+    @Before
+    public void setUp() {
+        repository = new SailRepository(new MemoryStore());
+        repository.initialize();
+        try (RepositoryConnection connection = repository.getConnection()) {
+            connection.add(ROOM, RDFS.LABEL, valueFactory.createLiteral("HS 1"), SPATIAL);
+        }
+        queryResultCache = new QueryResultCache(new QueryCacheSettings(true, 1024 * 1024, 0),
+            Arrays.asList(SPATIAL, ORGANIZATIONAL), CATALOG,
+            () -> new HashMap<>(modificationDates));
+    }
+
+    @After
+    public void tearDown() {
+        repository.shutDown();
+    }
+
+    private Model describe(String query) {
+        try (RepositoryConnection connection = queryResultCache
+            .wrap(repository.getConnection())) {
+            return QueryResults
+                .asModel(connection.prepareGraphQuery(QueryLanguage.SPARQL, query).evaluate());
+        }
+    }
+
+    private int countLabels(String label) {
+        try (RepositoryConnection connection = queryResultCache
+            .wrap(repository.getConnection())) {
+            GraphQuery query = connection.prepareGraphQuery(QueryLanguage.SPARQL,
+                "CONSTRUCT WHERE { ?s <" + RDFS.LABEL + "> ?label }");
+            query.setBinding("label", valueFactory.createLiteral(label));
+            return QueryResults.asModel(query.evaluate()).size();
+        }
+    }
+
+    private void addLabel(String label) {
+        try (RepositoryConnection connection = repository.getConnection()) {
+            connection.add(ROOM, RDFS.LABEL, valueFactory.createLiteral(label), SPATIAL);
+        }
+    }
+
+    @Test
+    public void sameQueryWithDifferentWhitespace_answeredFromCache() {
+        Model model = describe("DESCRIBE <" + ROOM + ">");
+        assertThat(describe("  DESCRIBE\n\t<" + ROOM + ">  "), is(model));
+        assertThat(queryResultCache.missCount(), is(1L));
+        assertThat(queryResultCache.hitCount(), is(1L));
+        assertThat(model.size(), is(1));
+    }
+
+    @Test
+    public void differentBindings_notAnsweredFromCache() {
+        assertThat(countLabels("HS 1"), is(1));
+        assertThat(countLabels("HS 2"), is(0));
+        assertThat(queryResultCache.hitCount(), is(0L));
+        assertThat(countLabels("HS 1"), is(1));
+        assertThat(queryResultCache.hitCount(), is(1L));
+    }
+
+    @Test
+    public void modificationOfOtherGraph_describeStillCached() {
+        describe("DESCRIBE <" + ROOM + ">");
+        queryResultCache.dataSetModified(ORGANIZATIONAL, new Date());
+        describe("DESCRIBE <" + ROOM + ">");
+        assertThat(queryResultCache.hitCount(), is(1L));
+    }
+
+    @Test
+    public void modificationOfGraph_invalidatesDescribe() {
+        describe("DESCRIBE <" + ROOM + ">");
+        addLabel("HS 1 (Hörsaal)");
+        queryResultCache.dataSetModified(SPATIAL, new Date());
+        assertThat(describe("DESCRIBE <" + ROOM + ">").size(), is(2));
+        assertThat(queryResultCache.hitCount(), is(0L));
+    }
+
+    @Test
+    public void modificationOfAnyGraph_invalidatesUnscopedQuery() {
+        assertThat(countLabels("HS 1"), is(1));
+        queryResultCache.dataSetModified(ORGANIZATIONAL, new Date());
+        assertThat(countLabels("HS 1"), is(1));
+        assertThat(queryResultCache.hitCount(), is(0L));
+    }
+
+    @Test
+    public void modificationInOtherProcess_detectedByStamp() {
+        describe("DESCRIBE <" + ROOM + ">");
+        addLabel("HS 1 (Hörsaal)");
+        modificationDates.put(SPATIAL, new Date());
+        assertThat(describe("DESCRIBE <" + ROOM + ">").size(), is(2));
+        assertThat(describe("DESCRIBE <" + ROOM + ">").size(), is(2));
+        assertThat(queryResultCache.hitCount(), is(1L));
+    }
+
+    @Test
+    public void evaluateWithHandler_streamedWithoutCaching() {
+        StatementCollector collector = new StatementCollector();
+        try (RepositoryConnection connection = queryResultCache
+            .wrap(repository.getConnection())) {
+            connection.prepareGraphQuery(QueryLanguage.SPARQL, "DESCRIBE <" + ROOM + ">")
+                .evaluate(collector);
+        }
+        assertThat(collector.getStatements().size(), is(1));
+        describe("DESCRIBE <" + ROOM + ">");
+        assertThat(queryResultCache.hitCount(), is(0L));
+        describe("DESCRIBE <" + ROOM + ">");
+        assertThat(queryResultCache.hitCount(), is(1L));
+    }
+
+    @Test
+    public void failingStampCheck_notRepeatedWithinRefreshInterval() {
+        AtomicInteger stampChecks = new AtomicInteger();
+        queryResultCache = new QueryResultCache(new QueryCacheSettings(true, 1024 * 1024, 60000),
+            Arrays.asList(SPATIAL, ORGANIZATIONAL), CATALOG, () -> {
+            stampChecks.incrementAndGet();
+            throw new RepositoryException("Catalog is not available.");
+        });
+        describe("DESCRIBE <" + ROOM + ">");
+        describe("DESCRIBE <" + ROOM + ">");
+        assertThat(stampChecks.get(), is(1));
+    }
+}
@@ -0,0 +1,200 @@
+package at.ac.tuwien.finder.datamanagement.unittest;
+
+import at.ac.tuwien.finder.datamanagement.catalog.DataCatalog;
+import at.ac.tuwien.finder.datamanagement.connection.ConnectionPool;
+import at.ac.tuwien.finder.datamanagement.connection.ConnectionPoolSettings;
+import at.ac.tuwien.finder.datamanagement.replication.ReadOperation;
+import at.ac.tuwien.finder.datamanagement.replication.ReadRouter;
+import at.ac.tuwien.finder.datamanagement.replication.Replica;
+import at.ac.tuwien.finder.datamanagement.replication.ReplicaSettings;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests the {@link ReadRouter} with memory stores standing in for the primary triple
+ * store and its replicas. Each store contains a label with its name, such that the store that
+ * answered a read can be identified.
+ *
+ * @author Kevin Haller
+ */
+public class ReadRouterTest {
+
+    private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+    private static final IRI STORE = valueFactory.createIRI("http://finder.tuwien.ac.at/store");
+    private static final IRI DATA_SET = valueFactory.createIRI("http://finder.tuwien.ac.at/ds");
+    private static final ConnectionPoolSettings POOL_SETTINGS =
+        new ConnectionPoolSettings(0, 4, 1000, true, 5000, 60000, 60000);
+
+    private static final ReadOperation<String> STORE_NAME = connection -> connection
+        .getStatements(STORE, RDFS.LABEL, null).next().getObject().stringValue();
+
+    private List<Repository> repositories = new ArrayList<>();
+    private ReadRouter readRouter;
+
+    @After
+    public void tearDown() {
+        if (readRouter != null) {
+            readRouter.close();
+            readRouter.getPrimary().close();
+        }
+        repositories.forEach(Repository::shutDown);
+    }
+
+    private Replica createReplica(String name) {
+        Repository repository = new SailRepository(new MemoryStore());
+        repository.initialize();
+        try (RepositoryConnection connection = repository.getConnection()) {
+            connection.add(STORE, RDFS.LABEL, valueFactory.createLiteral(name));
+        }
+        repositories.add(repository);
+        return new Replica(name, new ConnectionPool(repository, POOL_SETTINGS));
+    }
+
+    private Replica createFailingReplica(String name) {
+        Repository repository = mock(Repository.class);
+        when(repository.getConnection()).thenThrow(new RepositoryException("Replica is down."));
+        return new Replica(name, new ConnectionPool(repository, POOL_SETTINGS));
+    }
+
+    private static void stamp(Replica replica, Date modificationDate) {
+        try (RepositoryConnection connection = replica.getConnectionPool().getConnection()) {
+            connection.add(DATA_SET, DCTERMS.MODIFIED, valueFactory.createLiteral(modificationDate),
+                DataCatalog.NS);
+        }
+    }
+
+    private static ReplicaSettings settings(boolean hedging) {
+        return new ReplicaSettings(Collections.emptyList(), 60000, hedging, 0.95, 5);
+    }
+
+    @Test
+    public void withReplicas_readsAreNotAnsweredByPrimary() {
+        readRouter = new ReadRouter(createReplica("primary"),
+            Arrays.asList(createReplica("replica-1"), createReplica("replica-2")), settings(false));
+        for (int i = 0; i < 20; i++) {
+            assertThat(readRouter.read(STORE_NAME), not(is("primary")));
+            try (RepositoryConnection connection = readRouter.getConnection()) {
+                assertThat(STORE_NAME.read(connection), not(is("primary")));
+            }
+        }
+    }
+
+    @Test
+    public void withoutReplicas_readsAreAnsweredByPrimary() {
+        readRouter =
+            new ReadRouter(createReplica("primary"), Collections.emptyList(), settings(true));
+        assertThat(readRouter.read(STORE_NAME), is("primary"));
+    }
+
+    @Test
+    public void failingReplica_failoverAndMarkedUnhealthy() {
+        Replica failingReplica = createFailingReplica("replica-1");
+        readRouter = new ReadRouter(createReplica("primary"),
+            Arrays.asList(failingReplica, createReplica("replica-2")), settings(false));
+        for (int i = 0; i < 20; i++) {
+            assertThat(readRouter.read(STORE_NAME), is("replica-2"));
+        }
+        assertThat(failingReplica.isHealthy(), is(false));
+        assertThat(failingReplica.getFailedReadCount(), is(1L));
+    }
+
+    @Test
+    public void allReplicasFailing_readsAreAnsweredByPrimary() {
+        readRouter = new ReadRouter(createReplica("primary"),
+            Collections.singletonList(createFailingReplica("replica-1")), settings(false));
+        assertThat(readRouter.read(STORE_NAME), is("primary"));
+        assertThat(readRouter.read(STORE_NAME), is("primary"));
+    }
+
+    @Test
+    public void slowRead_hedgedToSecondReplica() {
+        readRouter = new ReadRouter(createReplica("primary"),
+            Arrays.asList(createReplica("replica-1"), createReplica("replica-2")), settings(true));
+        for (int i = 0; i < 32; i++) {
+            readRouter.read(STORE_NAME);
+        }
+        assertThat(readRouter.getHedgeDelay() > 0, is(true));
+        AtomicBoolean firstAttempt = new AtomicBoolean(true);
+        long startTime = System.nanoTime();
+        String storeName = readRouter.read(connection -> {
+            if (firstAttempt.getAndSet(false)) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "slow";
+            }
+            return STORE_NAME.read(connection);
+        });
+        assertThat(storeName, not(is("slow")));
+        assertThat(System.nanoTime() - startTime, lessThan(500_000_000L));
+        assertThat(readRouter.getHedgedReadCount(), is(1L));
+        assertThat(readRouter.getHedgeWinCount(), is(1L));
+    }
+
+    @Test
+    public void failingQueryOnReplica_failoverAndMarkedUnhealthy() {
+        Replica replica = createReplica("replica-1");
+        readRouter = new ReadRouter(createReplica("primary"), Collections.singletonList(replica),
+            settings(false));
+        String storeName = readRouter.read(connection -> {
+            if (STORE_NAME.read(connection).equals("replica-1")) {
+                throw new QueryEvaluationException("Query failed on replica.");
+            }
+            return STORE_NAME.read(connection);
+        });
+        assertThat(storeName, is("primary"));
+        assertThat(replica.isHealthy(), is(false));
+    }
+
+    @Test
+    public void laggingReplica_readsAreNotAnsweredByLaggingReplica() throws Exception {
+        Date modificationDate = new Date();
+        Replica primary = createReplica("primary");
+        Replica laggingReplica = createReplica("replica-1");
+        Replica replica = createReplica("replica-2");
+        stamp(primary, modificationDate);
+        stamp(laggingReplica, new Date(modificationDate.getTime() - 60000));
+        stamp(replica, modificationDate);
+        readRouter = new ReadRouter(primary, Arrays.asList(laggingReplica, replica),
+            new ReplicaSettings(Collections.emptyList(), 20, false, 0.95, 5),
+            DataCatalog::getModificationDates);
+        for (int i = 0; i < 20; i++) {
+            assertThat(readRouter.read(STORE_NAME), not(is("replica-1")));
+        }
+        stamp(laggingReplica, modificationDate);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!readRouter.read(STORE_NAME).equals("replica-1")) {
+            assertThat(System.currentTimeMillis(), lessThan(deadline));
+            Thread.sleep(10);
+        }
+        readRouter.dataSetModified(DATA_SET, new Date(modificationDate.getTime() + 60000));
+        assertThat(readRouter.read(STORE_NAME), is("primary"));
+    }
+}
@@ -0,0 +1,126 @@
+package at.ac.tuwien.finder.datamanagement.unittest;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.integration.spatial.RoomAddressMaterializer;
+import at.ac.tuwien.finder.vocabulary.LOCN;
+import at.ac.tuwien.finder.vocabulary.TUVS;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests the {@link RoomAddressMaterializer} with a memory store standing in for the
+ * triple store.
+ *
+ * @author Kevin Haller
+ */
+public class RoomAddressMaterializerTest {
+
+    private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+    private static final String SPATIAL = "http://finder.tuwien.ac.at/spatial/";
+    private static final IRI BUILDING = valueFactory.createIRI(SPATIAL, "building/id/H");
+    private static final IRI ADDRESS = valueFactory.createIRI(SPATIAL, "address/id/H");
+    private static final IRI FLOOR = valueFactory.createIRI(SPATIAL, "floor/id/HEG");
+    private static final IRI TRACT = valueFactory.createIRI(SPATIAL, "buildingtract/id/HG");
+    private static final IRI FLOOR_SECTION =
+        valueFactory.createIRI(SPATIAL, "floorsection/id/HGEG");
+    private static final IRI ROOM = valueFactory.createIRI(SPATIAL, "room/id/HGEG15");
+    private static final IRI ROOM_ADDRESS =
+        valueFactory.createIRI(ROOM.stringValue() + RoomAddressMaterializer.ADDRESS_SUFFIX);
+
+    private Repository repository;
+    private RoomAddressMaterializer materializer;
+
+    @Before
+    public void setUp() throws Exception {
+        repository = new SailRepository(new MemoryStore());
+        repository.initialize();
+        try (RepositoryConnection connection = repository.getConnection()) {
+            connection.add(BUILDING, RDF.TYPE, TUVS.Building);
+            connection.add(BUILDING, LOCN.address, ADDRESS);
+            connection.add(BUILDING, TUVS.containsBuildingUnit, FLOOR);
+            connection.add(BUILDING, TUVS.containsBuildingUnit, TRACT);
+            connection.add(ADDRESS, RDF.TYPE, LOCN.Address);
+            connection.add(ADDRESS, LOCN.locatorDesignator, valueFactory.createLiteral("8-10"));
+            connection
+                .add(ADDRESS, LOCN.thoroughfare, valueFactory.createLiteral("Favoritenstraße"));
+            connection.add(ADDRESS, LOCN.postCode, valueFactory.createLiteral("1040"));
+            connection.add(ADDRESS, LOCN.postName, valueFactory.createLiteral("Wien", "de"));
+            connection.add(FLOOR, RDF.TYPE, TUVS.Floor);
+            connection.add(FLOOR, RDFS.LABEL, valueFactory.createLiteral("EG"));
+            connection.add(FLOOR, TUVS.containsBuildingUnit, FLOOR_SECTION);
+            connection.add(FLOOR_SECTION, TUVS.containsBuildingUnit, ROOM);
+            connection.add(TRACT, RDF.TYPE, TUVS.BuildingTract);
+            connection.add(TRACT, RDFS.LABEL, valueFactory.createLiteral("HG"));
+            connection.add(TRACT, TUVS.containsBuildingUnit, ROOM);
+            connection.add(ROOM, RDF.TYPE, TUVS.Room);
+            connection.add(ROOM, TUVS.roomCode, valueFactory.createLiteral("HGEG15"));
+            connection.add(ROOM, RDFS.LABEL, valueFactory.createLiteral("Pong"));
+        }
+        TripleStoreManager tripleStoreManager = mock(TripleStoreManager.class);
+        when(tripleStoreManager.getStagedConnection(any(IRI.class)))
+            .thenAnswer(invocation -> repository.getConnection());
+        materializer = new RoomAddressMaterializer(tripleStoreManager);
+    }
+
+    @After
+    public void tearDown() {
+        repository.shutDown();
+    }
+
+    @Test
+    public void materializeAddressOfRoom_derivedFromBuildingFloorAndTract() {
+        Model model = materializer.materialize();
+        assertTrue(model.contains(ROOM_ADDRESS, RDF.TYPE, LOCN.Address));
+        assertThat(literal(model, LOCN.locatorDesignator), is(Optional.of("8-10/EG/Tract HG")));
+        assertThat(literal(model, LOCN.fullAddress),
+            is(Optional.of("Favoritenstraße 8-10/EG/Tract HG, 1040 Wien, Österreich")));
+        assertThat(literal(model, LOCN.locatorName), is(Optional.of("Pong (HGEG15)")));
+        assertTrue(model.contains(ROOM_ADDRESS, LOCN.postCode, null));
+        assertTrue(model.contains(ROOM, TUVS.isBuildingUnitOf, BUILDING));
+        assertTrue(model.contains(ROOM, TUVS.isBuildingUnitOf, FLOOR));
+        assertTrue(model.contains(ROOM, TUVS.isBuildingUnitOf, TRACT));
+    }
+
+    @Test
+    public void materializeAddressOfRoomWithoutBuilding_nothingDerived() {
+        try (RepositoryConnection connection = repository.getConnection()) {
+            connection.remove(BUILDING, TUVS.containsBuildingUnit, null);
+        }
+        assertFalse(materializer.materialize().contains(ROOM_ADDRESS, null, null));
+    }
+
+    /**
+     * Gets the label of the literal of the given property of the materialized room address.
+     *
+     * @param model    the materialized {@link Model}.
+     * @param property the property of the room address.
+     * @return the label of the literal, or empty, if there is none.
+     */
+    private static Optional<String> literal(Model model, IRI property) {
+        return Models.objectLiteral(model.filter(ROOM_ADDRESS, property, null))
+            .map(Literal::getLabel);
+    }
+}
@@ -0,0 +1,148 @@
+package at.ac.tuwien.finder.datamanagement.unittest;
+
+import at.ac.tuwien.finder.datamanagement.connection.ConnectionPoolSettings;
+import at.ac.tuwien.finder.datamanagement.sharding.Shard;
+import at.ac.tuwien.finder.datamanagement.sharding.ShardSettings;
+import at.ac.tuwien.finder.datamanagement.store.StoreMode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class tests the {@link ShardSettings} and the {@link Shard}.
+ *
+ * @author Kevin Haller
+ */
+public class ShardTest {
+
+    private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+    private static final IRI EVENT_NS = valueFactory.createIRI("http://finder.tuwien.ac.at/event");
+    private static final IRI SPATIAL_NS =
+        valueFactory.createIRI("http://finder.tuwien.ac.at/spatial");
+
+    private Repository repository;
+    private Shard shard;
+
+    @Before
+    public void setUp() {
+        repository = new SailRepository(new MemoryStore());
+        repository.initialize();
+        shard = new Shard("event", Collections.singleton(EVENT_NS), repository,
+            ConnectionPoolSettings.defaults());
+    }
+
+    @After
+    public void tearDown() {
+        shard.close();
+        repository.shutDown();
+    }
+
+    /**
+     * Gets the properties of a remote triple store.
+     *
+     * @return the properties of a remote triple store.
+     */
+    private static Properties remoteProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("db.url", "http://localhost:7200");
+        properties.setProperty("db.pool.max-size", "16");
+        return properties;
+    }
+
+    @Test
+    public void withoutShards_emptyList() {
+        assertTrue(ShardSettings.fromProperties(remoteProperties()).isEmpty());
+    }
+
+    @Test
+    public void shardWithOverriddenProperties_overridesStoreAndPool() throws Exception {
+        Properties properties = remoteProperties();
+        properties.setProperty("db.shards", "event, organizational");
+        properties.setProperty("db.shard.event.datasets", "event");
+        properties.setProperty("db.shard.event.mode", "memory");
+        properties.setProperty("db.shard.event.pool.max-size", "4");
+        properties.setProperty("db.shard.organizational.datasets", "organizational");
+        properties.setProperty("db.shard.organizational.repository", "finder-org");
+        List<ShardSettings> shardSettings = ShardSettings.fromProperties(properties);
+        assertThat(shardSettings.size(), is(2));
+        ShardSettings eventShard = shardSettings.get(0);
+        assertThat(eventShard.getDataSetNames(), hasItems("event"));
+        assertThat(eventShard.getRepositoryName(), is("finder-event-repo"));
+        assertThat(eventShard.getStoreSettings().getMode(), is(StoreMode.MEMORY));
+        assertThat(eventShard.getConnectionPoolSettings().getMaxSize(), is(4));
+        ShardSettings organizationalShard = shardSettings.get(1);
+        assertThat(organizationalShard.getRepositoryName(), is("finder-org"));
+        assertThat(organizationalShard.getStoreSettings().getLocation(),
+            is(new URL("http://localhost:7200")));
+        assertThat(organizationalShard.getConnectionPoolSettings().getMaxSize(), is(16));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void dataSetInSeveralShards_mustThrowIllegalArgumentException() {
+        Properties properties = remoteProperties();
+        properties.setProperty("db.shards", "a,b");
+        properties.setProperty("db.shard.a.datasets", "event");
+        properties.setProperty("db.shard.b.datasets", "spatial,event");
+        ShardSettings.fromProperties(properties);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shardWithoutDataSets_mustThrowIllegalArgumentException() {
+        Properties properties = remoteProperties();
+        properties.setProperty("db.shards", "event");
+        ShardSettings.fromProperties(properties);
+    }
+
+    @Test
+    public void resourceOfDataSet_containedInShard() {
+        assertTrue(shard.contains(valueFactory.createIRI(EVENT_NS.stringValue(), "/id/1")));
+        assertTrue(shard.contains(EVENT_NS));
+        assertFalse(shard.contains(valueFactory.createIRI(SPATIAL_NS.stringValue(), "/room")));
+    }
+
+    @Test
+    public void reloadShard_replacesConnectionPool() {
+        Object formerConnectionPool = shard.getConnectionPool();
+        shard.reload();
+        assertThat(shard.getConnectionPool(), not(sameInstance(formerConnectionPool)));
+        try (RepositoryConnection connection = shard.getConnection()) {
+            assertTrue(connection.isOpen());
+        }
+    }
+
+    @Test
+    public void clearShard_removesOnlyItsDataSets() {
+        IRI event = valueFactory.createIRI(EVENT_NS.stringValue(), "/id/1");
+        IRI room = valueFactory.createIRI(SPATIAL_NS.stringValue(), "/room/id/1");
+        try (RepositoryConnection connection = shard.getConnection()) {
+            connection.add(event, RDFS.LABEL, valueFactory.createLiteral("Event"), EVENT_NS);
+            connection.add(room, RDFS.LABEL, valueFactory.createLiteral("Room"), SPATIAL_NS);
+        }
+        shard.clear();
+        try (RepositoryConnection connection = shard.getConnection()) {
+            assertFalse(connection.hasStatement(event, null, null, false));
+            assertTrue(connection.hasStatement(room, null, null, false));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package at.ac.tuwien.finder.datamanagement.unittest;
+
+import at.ac.tuwien.finder.datamanagement.store.GeoSparqlSupport;
+import at.ac.tuwien.finder.datamanagement.store.StoreMode;
+import at.ac.tuwien.finder.datamanagement.store.StoreSettings;
+import org.eclipse.rdf4j.query.algebra.evaluation.function.FunctionRegistry;
+import org.eclipse.rdf4j.repository.manager.LocalRepositoryManager;
+import org.eclipse.rdf4j.repository.manager.RemoteRepositoryManager;
+import org.eclipse.rdf4j.repository.sail.config.SailRepositoryConfig;
+import org.eclipse.rdf4j.sail.memory.config.MemoryStoreConfig;
+import org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreConfig;
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.Properties;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * This class tests the {@link StoreSettings} and the {@link GeoSparqlSupport}.
+ *
+ * @author Kevin Haller
+ */
+public class StoreSettingsTest {
+
+    @Test
+    public void missingMode_fallsBackToRemote() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("db.url", "http://localhost:7200");
+        StoreSettings storeSettings = StoreSettings.fromProperties(properties);
+        assertThat(storeSettings.getMode(), is(StoreMode.REMOTE));
+        assertThat(storeSettings.getLocation(), is(new URL("http://localhost:7200")));
+        assertThat(storeSettings.createRepositoryManager(),
+            instanceOf(RemoteRepositoryManager.class));
+        assertThat(storeSettings.createRepositoryImplConfig().isPresent(), is(false));
+    }
+
+    @Test
+    public void nativeMode_createsNativeStoreConfig() {
+        Properties properties = new Properties();
+        properties.setProperty("db.mode", " Native ");
+        properties.setProperty("db.native.triple-indexes", "spoc,posc");
+        StoreSettings storeSettings = StoreSettings.fromProperties(properties);
+        assertThat(storeSettings.getMode(), is(StoreMode.NATIVE));
+        assertThat(storeSettings.createRepositoryManager(),
+            instanceOf(LocalRepositoryManager.class));
+        SailRepositoryConfig repositoryConfig =
+            (SailRepositoryConfig) storeSettings.createRepositoryImplConfig().get();
+        assertThat(((NativeStoreConfig) repositoryConfig.getSailImplConfig()).getTripleIndexes(),
+            is("spoc,posc"));
+    }
+
+    @Test
+    public void memoryMode_createsPersistentMemoryStoreConfig() {
+        Properties properties = new Properties();
+        properties.setProperty("db.mode", "memory");
+        properties.setProperty("db.geosparql", "false");
+        StoreSettings storeSettings = StoreSettings.fromProperties(properties);
+        assertThat(storeSettings.isGeoSparqlEnabled(), is(false));
+        SailRepositoryConfig repositoryConfig =
+            (SailRepositoryConfig) storeSettings.createRepositoryImplConfig().get();
+        assertThat(((MemoryStoreConfig) repositoryConfig.getSailImplConfig()).getPersist(),
+            is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void remoteModeWithoutUrl_mustThrowIllegalArgumentException() {
+        StoreSettings.fromProperties(new Properties());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownMode_mustThrowIllegalArgumentException() {
+        Properties properties = new Properties();
+        properties.setProperty("db.mode", "cluster");
+        StoreSettings.fromProperties(properties);
+    }
+
+    @Test
+    public void disableAndEnableGeoSparql_functionsRestored() {
+        int geoFunctions = geoFunctionCount();
+        try {
+            GeoSparqlSupport.configure(false);
+            GeoSparqlSupport.configure(false);
+            assertThat(geoFunctionCount(), is(0));
+        } finally {
+            GeoSparqlSupport.configure(true);
+        }
+        assertThat(geoFunctionCount(), is(geoFunctions));
+        GeoSparqlSupport.configure(true);
+        assertThat(geoFunctionCount(), is(geoFunctions));
+    }
+
+    /**
+     * Gets the number of GeoSPARQL functions in the {@link FunctionRegistry}.
+     *
+     * @return the number of GeoSPARQL functions in the {@link FunctionRegistry}.
+     */
+    private static int geoFunctionCount() {
+        return (int) FunctionRegistry.getInstance().getAll().stream()
+            .filter(function -> function.getURI().startsWith(GeoSparqlSupport.GEOF_NAMESPACE))
+            .count();
+    }
+}
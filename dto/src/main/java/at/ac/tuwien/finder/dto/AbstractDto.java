@@ -11,9 +11,11 @@ import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.DC;
 import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
 import org.eclipse.rdf4j.rio.Rio;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringWriter;
 
 /**
@@ -65,12 +67,26 @@ public abstract class AbstractDto implements Dto {
 
     @Override
     public String transformTo(SerializationFormat format) throws IOException {
+        if (format.isBinary()) {
+            throw new IOException(String
+                .format("The binary format %s cannot be transformed into a string.", format));
+        }
         try (StringWriter stringWriter = new StringWriter()) {
             Rio.write(getModel(), stringWriter, format.getRDFFormat());
             return stringWriter.toString();
         }
     }
 
+    @Override
+    public void transformTo(SerializationFormat format, OutputStream outputStream)
+        throws IOException {
+        try {
+            Rio.write(getModel(), outputStream, format.getRDFFormat());
+        } catch (RDFHandlerException e) {
+            throw new IOException(e);
+        }
+    }
+
     /**
      * ******************************************************************************************
      * Label, Description, Type
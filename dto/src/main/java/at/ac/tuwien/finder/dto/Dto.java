@@ -5,7 +5,9 @@ import org.outofbits.opinto.Identifiable;
 import org.outofbits.opinto.Memorable;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Instances of this interface represents a Dto.
@@ -73,4 +75,17 @@ public interface Dto extends Identifiable, Memorable {
      * @throws IOException if the transformation of this {@link Dto} failed due to an IO error.
      */
     String transformTo(SerializationFormat format) throws IOException;
+
+    /**
+     * Transforms this {@link Dto} into RDF of the given format and writes it (UTF-8 encoded) to
+     * the given {@link OutputStream}. The given {@link OutputStream} is not closed.
+     *
+     * @param format       {@link SerializationFormat} the result shall have.
+     * @param outputStream {@link OutputStream} to which the result shall be written.
+     * @throws IOException if the transformation of this {@link Dto} failed due to an IO error.
+     */
+    default void transformTo(SerializationFormat format, OutputStream outputStream)
+        throws IOException {
+        outputStream.write(transformTo(format).getBytes(StandardCharsets.UTF_8));
+    }
 }
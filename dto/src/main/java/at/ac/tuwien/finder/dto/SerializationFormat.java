@@ -12,7 +12,7 @@ import java.util.*;
  * @æuthor Kevin Haller
  */
 public enum SerializationFormat {
-    RDFXML, TURTLE, JSONLD, N3, TRIG;
+    RDFXML, TURTLE, JSONLD, N3, TRIG, NTRIPLES, NQUADS, BINARY;
 
     private RDFFormat rdfFormat;
     private static Map<RDFFormat, SerializationFormat> internalFormatMapping = new HashMap<>();
@@ -23,12 +23,18 @@ public enum SerializationFormat {
         SerializationFormat.JSONLD.rdfFormat = RDFFormat.JSONLD;
         SerializationFormat.N3.rdfFormat = RDFFormat.N3;
         SerializationFormat.TRIG.rdfFormat = RDFFormat.TRIG;
+        SerializationFormat.NTRIPLES.rdfFormat = RDFFormat.NTRIPLES;
+        SerializationFormat.NQUADS.rdfFormat = RDFFormat.NQUADS;
+        SerializationFormat.BINARY.rdfFormat = RDFFormat.BINARY;
         //Set-up internal mapping
         internalFormatMapping.put(RDFFormat.RDFXML, SerializationFormat.RDFXML);
         internalFormatMapping.put(RDFFormat.TURTLE, SerializationFormat.TURTLE);
         internalFormatMapping.put(RDFFormat.JSONLD, SerializationFormat.JSONLD);
         internalFormatMapping.put(RDFFormat.N3, SerializationFormat.N3);
         internalFormatMapping.put(RDFFormat.TRIG, SerializationFormat.TRIG);
+        internalFormatMapping.put(RDFFormat.NTRIPLES, SerializationFormat.NTRIPLES);
+        internalFormatMapping.put(RDFFormat.NQUADS, SerializationFormat.NQUADS);
+        internalFormatMapping.put(RDFFormat.BINARY, SerializationFormat.BINARY);
     }
 
     /**
@@ -59,6 +65,16 @@ public enum SerializationFormat {
         return this.rdfFormat.getMIMETypes();
     }
 
+    /**
+     * Checks whether this {@link SerializationFormat} is a binary format, which can only be
+     * written to an {@link java.io.OutputStream}, but not to a {@link java.io.Writer}.
+     *
+     * @return true, if this {@link SerializationFormat} is a binary format, otherwise false.
+     */
+    public boolean isBinary() {
+        return !this.rdfFormat.hasCharset();
+    }
+
     /**
      * Gets the {@link SerializationFormat} for the given file ending.
      *
@@ -0,0 +1,182 @@
+package at.ac.tuwien.finder.service;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.catalog.DataCatalog;
+import at.ac.tuwien.finder.datamanagement.catalog.DataSetModificationListener;
+import org.eclipse.rdf4j.model.IRI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class keeps track of the modification stamps ({@code dcterms:modified}) of the data sets in
+ * the data catalog. The stamps are held in memory and refreshed from the triple store at most once
+ * per refresh interval, such that the stamps can be checked for each request without touching the
+ * triple store. The refresh is carried out by a background thread, the requesting threads go on
+ * with the stamps of the last refresh meanwhile. A failed refresh is retried after the refresh
+ * interval. Modifications announced in this process invalidate the stamps immediately (see
+ * {@link DataSetModificationListener}), the stamps are then unknown until the next refresh has
+ * completed. If the data is integrated by another process than the one of this tracker (e.g. the
+ * web application and the data management run in separate JVMs), a modification is only observed
+ * with the next refresh, i.e. at most one refresh interval later.
+ *
+ * @author Kevin Haller
+ */
+public class DataSetModificationTracker implements DataSetModificationListener, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSetModificationTracker.class);
+
+    public static final long DEFAULT_REFRESH_INTERVAL = 5000L;
+
+    private TripleStoreManager tripleStoreManager;
+    private long refreshInterval;
+    private final Date creationDate = new Date();
+    private final ExecutorService refreshExecutor;
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private volatile Map<IRI, Date> modificationDates = Collections.emptyMap();
+    private volatile long nextRefresh = 0L;
+
+    /**
+     * Creates a new {@link DataSetModificationTracker} for the data catalog managed by the given
+     * {@link TripleStoreManager}. The stamps are refreshed on the first access or by calling
+     * {@link #refresh()}.
+     *
+     * @param tripleStoreManager {@link TripleStoreManager} that manages the data catalog.
+     * @param refreshInterval    the interval in milliseconds after which the stamps shall be
+     *                           refreshed from the triple store.
+     */
+    public DataSetModificationTracker(TripleStoreManager tripleStoreManager,
+        long refreshInterval) {
+        assert tripleStoreManager != null;
+        assert refreshInterval >= 0;
+        this.tripleStoreManager = tripleStoreManager;
+        this.refreshInterval = refreshInterval;
+        ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "modification-stamp-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+        refreshExecutor.allowCoreThreadTimeOut(true);
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Gets the most recent modification {@link Date} of the given data sets. If no data set is
+     * given, the data is assumed to be static for the lifetime of this tracker and its creation
+     * {@link Date} is returned. If at least one of the given data sets has never been modified or
+     * the stamps are unknown, because they have not been refreshed yet, an empty {@link Optional}
+     * is returned.
+     *
+     * @param dataSets the namespaces of the data sets for which the most recent modification
+     *                 {@link Date} shall be returned.
+     * @return the most recent modification {@link Date} of the given data sets, or an empty
+     * {@link Optional}, if it is unknown.
+     */
+    public Optional<Date> lastModified(Collection<IRI> dataSets) {
+        assert dataSets != null;
+        if (dataSets.isEmpty()) {
+            return Optional.of(creationDate);
+        }
+        refreshIfNecessary();
+        Map<IRI, Date> currentModificationDates = modificationDates;
+        Date lastModified = null;
+        for (IRI dataSet : dataSets) {
+            Date modificationDate = currentModificationDates.get(dataSet);
+            if (modificationDate == null) {
+                return Optional.empty();
+            }
+            if (lastModified == null || modificationDate.after(lastModified)) {
+                lastModified = modificationDate;
+            }
+        }
+        return Optional.ofNullable(lastModified);
+    }
+
+    /**
+     * Invalidates the stamps held in memory, such that they are unknown until they have been
+     * refreshed from the triple store, which is triggered by the next access.
+     */
+    public void invalidate() {
+        invalidations.incrementAndGet();
+        modificationDates = Collections.emptyMap();
+        nextRefresh = 0L;
+    }
+
+    @Override
+    public void dataSetModified(IRI namespace, Date modificationDate) {
+        invalidate();
+    }
+
+    /**
+     * Refreshes the stamps from the triple store in the calling thread. If the stamps are
+     * invalidated during the refresh, the refreshed stamps are discarded, because they might
+     * precede the modification.
+     *
+     * @return true, if the stamps have been refreshed, otherwise false.
+     */
+    public boolean refresh() {
+        long invalidationCount = invalidations.get();
+        try {
+            Map<IRI, Date> refreshedModificationDates =
+                DataCatalog.getModificationDates(tripleStoreManager);
+            if (invalidations.get() != invalidationCount) {
+                return false;
+            }
+            modificationDates = Collections.unmodifiableMap(refreshedModificationDates);
+            nextRefresh = System.currentTimeMillis() + refreshInterval;
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("The modification stamps of the data sets cannot be refreshed. {}",
+                e.getMessage());
+            if (invalidations.get() == invalidationCount) {
+                nextRefresh = System.currentTimeMillis() + refreshInterval;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Triggers a refresh of the stamps in the background, if the refresh interval has elapsed and
+     * no refresh is in progress.
+     */
+    private void refreshIfNecessary() {
+        if (System.currentTimeMillis() < nextRefresh || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Stops the background refresh of the stamps.
+     */
+    @Override
+    public void close() {
+        refreshExecutor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,325 @@
+package at.ac.tuwien.finder.service;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.service.query.DtoProjections;
+import at.ac.tuwien.finder.service.query.QueryTemplate;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.repository.RepositoryException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class collects the concurrent descriptions of resources with the same projection of a
+ * {@link at.ac.tuwien.finder.dto.Dto} class (see {@link DtoProjections}) into batches, which are
+ * evaluated in one query with the resources in its inline data block. The first description that
+ * arrives while another description of the same projection is in progress opens a batch and
+ * waits at most for the configured window, before it evaluates the batch for all the resources
+ * that have joined it in the meantime. A batch is evaluated immediately, if it has reached the
+ * maximal size. Thereby, a description is delayed at most by the window.
+ * <p>
+ * A description is evaluated on its own, if no other description of its projection is in
+ * progress, such that the window is only spent under concurrent load. Batching is disabled with
+ * a window of zero, which is the initial configuration of the instance of this application.
+ *
+ * @author Kevin Haller
+ */
+public class DescribeBatcher {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 32;
+
+    private static final DescribeBatcher instance =
+        new DescribeBatcher(0, TimeUnit.MILLISECONDS, DEFAULT_MAX_BATCH_SIZE);
+
+    private volatile long window;
+    private volatile int maxBatchSize;
+    private final ConcurrentMap<QueryTemplate, Lane> lanes = new ConcurrentHashMap<>();
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedRequests = new LongAdder();
+    private final LongAdder bypassedRequests = new LongAdder();
+
+    /**
+     * Creates a new {@link DescribeBatcher} with the given window and maximal size of batches.
+     *
+     * @param window       the time that a batch waits for further descriptions, or zero, if
+     *                     batching shall be disabled.
+     * @param unit         the {@link TimeUnit} of the given window.
+     * @param maxBatchSize the maximal number of resources in a batch, which must be at least 2.
+     */
+    public DescribeBatcher(long window, TimeUnit unit, int maxBatchSize) {
+        configure(window, unit, maxBatchSize);
+    }
+
+    /**
+     * Gets the instance of {@link DescribeBatcher} of this application.
+     *
+     * @return the instance of {@link DescribeBatcher} of this application.
+     */
+    public static DescribeBatcher getInstance() {
+        return instance;
+    }
+
+    /**
+     * Configures the window and the maximal size of the batches of this batcher. The new
+     * configuration applies to the batches that are opened afterwards.
+     *
+     * @param window       the time that a batch waits for further descriptions, or zero, if
+     *                     batching shall be disabled.
+     * @param unit         the {@link TimeUnit} of the given window.
+     * @param maxBatchSize the maximal number of resources in a batch, which must be at least 2.
+     */
+    public void configure(long window, TimeUnit unit, int maxBatchSize) {
+        assert window >= 0;
+        assert unit != null;
+        assert maxBatchSize > 1;
+        this.window = unit.toNanos(window);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Checks whether the descriptions are batched, i.e. the window is greater than zero.
+     *
+     * @return true, if the descriptions are batched, otherwise false.
+     */
+    public boolean isEnabled() {
+        return window > 0;
+    }
+
+    /**
+     * Evaluates the given graph query template for the given resource, which is bound to its
+     * parameter {@link QueryTemplates#RESOURCE}. If the template is the projection of a
+     * {@link at.ac.tuwien.finder.dto.Dto} class and other descriptions of it are in progress, the
+     * resource is described in a batch together with the resources of concurrent descriptions.
+     *
+     * @param tripleStoreManager {@link TripleStoreManager} that manages the triple store.
+     * @param template           the graph query template that shall be evaluated.
+     * @param resource           the {@link IRI} of the resource that shall be described.
+     * @return the description of the given resource, which is empty, if the resource is unknown.
+     * @throws RepositoryException      if the query cannot be evaluated on the triple store.
+     * @throws QueryEvaluationException if the evaluation of the query failed.
+     */
+    public Model describe(TripleStoreManager tripleStoreManager, QueryTemplate template,
+        IRI resource) throws RepositoryException, QueryEvaluationException {
+        assert tripleStoreManager != null;
+        assert template != null;
+        assert resource != null;
+        long window = this.window;
+        if (window == 0 || !DtoProjections.isProjection(template)) {
+            return describeSingle(tripleStoreManager, template, resource);
+        }
+        Lane lane = lanes.computeIfAbsent(template, t -> new Lane());
+        lane.activeRequests.incrementAndGet();
+        try {
+            Batch batch;
+            CompletableFuture<Model> description;
+            synchronized (lane) {
+                batch = lane.openBatch;
+                if (batch == null && lane.activeRequests.get() > 1) {
+                    batch = new Batch(tripleStoreManager);
+                    lane.openBatch = batch;
+                } else if (batch != null && batch.tripleStoreManager != tripleStoreManager) {
+                    batch = null;
+                }
+                if (batch == null) {
+                    description = null;
+                } else {
+                    description = batch.descriptions
+                        .computeIfAbsent(resource, r -> new CompletableFuture<>());
+                    if (batch.descriptions.size() >= maxBatchSize) {
+                        close(lane, batch);
+                    }
+                }
+            }
+            if (batch == null) {
+                bypassedRequests.increment();
+                return describeSingle(tripleStoreManager, template, resource);
+            }
+            batchedRequests.increment();
+            if (batch.leader == Thread.currentThread()) {
+                awaitWindow(lane, batch, window);
+                evaluate(batch, template);
+            }
+            return await(description);
+        } finally {
+            lane.activeRequests.decrementAndGet();
+        }
+    }
+
+    /**
+     * Evaluates the given graph query template for the given resource alone.
+     *
+     * @param tripleStoreManager {@link TripleStoreManager} that manages the triple store.
+     * @param template           the graph query template that shall be evaluated.
+     * @param resource           the {@link IRI} of the resource that shall be described.
+     * @return the description of the given resource.
+     */
+    private static Model describeSingle(TripleStoreManager tripleStoreManager,
+        QueryTemplate template, IRI resource) {
+        return tripleStoreManager.read(resource,
+            connection -> template.evaluateGraph(connection, QueryTemplates.RESOURCE, resource));
+    }
+
+    /**
+     * Waits until the given window has elapsed or the given batch has been closed, because it has
+     * reached the maximal size. Afterwards, the batch is closed. An interrupt ends the waiting.
+     *
+     * @param lane   the lane to which the given batch belongs.
+     * @param batch  the batch of which the calling thread is the leader.
+     * @param window the time in nanoseconds that shall be waited for further descriptions.
+     */
+    private static void awaitWindow(Lane lane, Batch batch, long window) {
+        long deadline = System.nanoTime() + window;
+        synchronized (lane) {
+            try {
+                long remaining = window;
+                while (!batch.closed && remaining > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(lane, remaining);
+                    remaining = deadline - System.nanoTime();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            close(lane, batch);
+        }
+    }
+
+    /**
+     * Closes the given batch, such that no further descriptions join it, and wakes up its leader.
+     * The monitor of the given lane must be held by the calling thread.
+     *
+     * @param lane  the lane to which the given batch belongs.
+     * @param batch the batch that shall be closed.
+     */
+    private static void close(Lane lane, Batch batch) {
+        batch.closed = true;
+        if (lane.openBatch == batch) {
+            lane.openBatch = null;
+        }
+        lane.notifyAll();
+    }
+
+    /**
+     * Evaluates the given closed batch in one query and completes the descriptions of its
+     * resources. If the evaluation fails, all descriptions fail with the same exception.
+     *
+     * @param batch    the closed batch that shall be evaluated.
+     * @param template the projection that shall be evaluated for the resources of the batch.
+     */
+    private void evaluate(Batch batch, QueryTemplate template) {
+        batches.increment();
+        List<IRI> resources = new ArrayList<>(batch.descriptions.keySet());
+        try {
+            Map<IRI, Model> models;
+            if (resources.size() == 1) {
+                models = new LinkedHashMap<>();
+                models.put(resources.get(0),
+                    describeSingle(batch.tripleStoreManager, template, resources.get(0)));
+            } else {
+                models = batch.tripleStoreManager.read(resources,
+                    connection -> DtoProjections.evaluateBatch(connection, template, resources));
+            }
+            for (Map.Entry<IRI, CompletableFuture<Model>> description : batch.descriptions
+                .entrySet()) {
+                description.getValue().complete(models.get(description.getKey()));
+            }
+        } catch (RuntimeException | Error e) {
+            for (CompletableFuture<Model> description : batch.descriptions.values()) {
+                description.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Waits for the given description of a batch. Since the descriptions of the same resource in
+     * a batch share the result, a copy of it is returned.
+     *
+     * @param description the description of a batch.
+     * @return a copy of the description.
+     * @throws RepositoryException if the evaluation of the batch failed or the waiting has been
+     *                             interrupted.
+     */
+    private static Model await(CompletableFuture<Model> description) {
+        try {
+            return new LinkedHashModel(description.get());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RepositoryException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryException(e);
+        }
+    }
+
+    /**
+     * Gets the number of batches that have been evaluated.
+     *
+     * @return the number of batches that have been evaluated.
+     */
+    public long batchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Gets the number of descriptions that have been answered by a batch.
+     *
+     * @return the number of descriptions that have been answered by a batch.
+     */
+    public long batchedRequestCount() {
+        return batchedRequests.sum();
+    }
+
+    /**
+     * Gets the number of descriptions of projections that have been evaluated on their own,
+     * because no other description of the same projection has been in progress.
+     *
+     * @return the number of descriptions that have been evaluated on their own.
+     */
+    public long bypassedRequestCount() {
+        return bypassedRequests.sum();
+    }
+
+    /**
+     * This class represents the descriptions in progress of one projection together with the
+     * batch that is currently open for it.
+     */
+    private static final class Lane {
+
+        private final AtomicInteger activeRequests = new AtomicInteger();
+        private Batch openBatch;
+    }
+
+    /**
+     * This class represents a batch of descriptions, which is evaluated by the thread that has
+     * opened it.
+     */
+    private static final class Batch {
+
+        private final TripleStoreManager tripleStoreManager;
+        private final Thread leader = Thread.currentThread();
+        private final Map<IRI, CompletableFuture<Model>> descriptions = new LinkedHashMap<>();
+        private boolean closed;
+
+        private Batch(TripleStoreManager tripleStoreManager) {
+            this.tripleStoreManager = tripleStoreManager;
+        }
+    }
+}
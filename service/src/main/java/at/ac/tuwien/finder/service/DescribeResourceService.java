@@ -5,19 +5,19 @@ import at.ac.tuwien.finder.dto.Dto;
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
 import at.ac.tuwien.finder.service.exception.ResourceNotFoundException;
 import at.ac.tuwien.finder.service.exception.ServiceException;
+import at.ac.tuwien.finder.service.metrics.ServiceMetrics;
+import at.ac.tuwien.finder.service.query.QueryTemplate;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
 import org.eclipse.rdf4j.model.Model;
-import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
-import org.eclipse.rdf4j.query.QueryLanguage;
-import org.eclipse.rdf4j.query.QueryResults;
-import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.rio.RDFHandlerException;
 
 /**
  * This abstract class is an implementation of {@link QueryService} that returns all
  * known information about a given resource contained in the triple store managed by the
- * given {@link TripleStoreManager}.
+ * given {@link TripleStoreManager}. The resource is described by a {@link QueryTemplate} whose
+ * parameter {@code ?resource} is bound to the IRI of the resource.
  *
  * @author Kevin Haller
  */
@@ -52,28 +52,42 @@ public abstract class DescribeResourceService implements QueryService {
         return resourceIdentifier;
     }
 
+    /**
+     * Gets the {@link QueryTemplate} that describes the resource bound to its parameter
+     * {@code ?resource}. Subclasses can override this method in order to describe also related
+     * resources or to opt into the lighter projection of the {@link Dto} class to which the result
+     * is mapped (see {@link at.ac.tuwien.finder.service.query.DtoProjections}).
+     *
+     * @return the {@link QueryTemplate} that describes the resource.
+     */
+    protected QueryTemplate getQueryTemplate() {
+        return QueryTemplates.DESCRIBE_RESOURCE;
+    }
+
     @Override
     public String getQuery() {
-        return String.format("DESCRIBE <%s>", resourceIdentifier.rawIRI());
+        return getQueryTemplate().getQuery();
     }
 
     /**
-     * Executes the query of this {@link QueryService}.
+     * Executes the query of this {@link QueryService} on the shard or read replica of the triple
+     * store that holds the described resource. Under concurrent load, the projections of resources
+     * are evaluated in batches (see {@link DescribeBatcher}).
      *
      * @return the result of the execution of the query given by this {@link QueryService}.
      * @throws ServiceException if the execution of the given query failed.
      */
     private Model executeQuery() throws ServiceException {
-        try (RepositoryConnection connection = tripleStoreManager.getConnection()) {
-            Model resultModel = QueryResults
-                .asModel(connection.prepareGraphQuery(QueryLanguage.SPARQL, getQuery()).evaluate());
+        try {
+            Model resultModel = DescribeBatcher.getInstance()
+                .describe(tripleStoreManager, getQueryTemplate(), resourceIdentifier.iriValue());
             if (resultModel.isEmpty() || !resultModel
                 .contains(resourceIdentifier.iriValue(), null, null)) {
                 throw new ResourceNotFoundException(resourceIdentifier.rawIRI(), String
                     .format("The resource <%s> cannot be located.", resourceIdentifier().rawIRI()));
             }
             return resultModel;
-        } catch (RepositoryException | MalformedQueryException | QueryEvaluationException | RDFHandlerException e) {
+        } catch (RepositoryException | QueryEvaluationException | RDFHandlerException e) {
             throw new ServiceException(e);
         }
     }
@@ -89,6 +103,13 @@ public abstract class DescribeResourceService implements QueryService {
 
     @Override
     public Dto execute() throws ServiceException {
-        return wrapResult(executeQuery());
+        ServiceMetrics serviceMetrics = ServiceMetrics.getInstance();
+        long queryStartTime = System.nanoTime();
+        Model model = executeQuery();
+        serviceMetrics.recordPhase(ServiceMetrics.Phase.QUERY, queryStartTime);
+        long mappingStartTime = System.nanoTime();
+        Dto result = wrapResult(model);
+        serviceMetrics.recordPhase(ServiceMetrics.Phase.MAPPING, mappingStartTime);
+        return result;
     }
 }
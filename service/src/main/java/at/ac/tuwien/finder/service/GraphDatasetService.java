@@ -11,14 +11,16 @@ import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
 
 /**
  * This class is an implementation of {@link IService} that returns all the data contained in a
- * given named graph.
+ * given named graph. The data can also be streamed (see {@link StreamingService}).
  *
  * @author Kevin Haller
  */
-public class GraphDatasetService implements IService {
+public class GraphDatasetService implements StreamingService {
 
     private TripleStoreManager tripleStoreManager;
     private IRI graphName;
@@ -35,12 +37,21 @@ public class GraphDatasetService implements IService {
 
     @Override
     public Dto execute() throws ServiceException {
-        try (RepositoryConnection connection = tripleStoreManager.getConnection();) {
+        try {
             return new SimpleResourceDto(new IResourceIdentifier(graphName.stringValue()),
-                new LinkedHashModel(Iterations
-                    .asList(connection.getStatements(null, null, null, true, graphName))));
+                tripleStoreManager.read(graphName, connection -> new LinkedHashModel(Iterations
+                    .asList(connection.getStatements(null, null, null, true, graphName)))));
         } catch (RepositoryException e) {
             throw new ServiceException(e);
         }
     }
+
+    @Override
+    public void stream(RDFHandler rdfHandler) throws ServiceException {
+        try (RepositoryConnection connection = tripleStoreManager.getConnection(graphName)) {
+            connection.exportStatements(null, null, null, true, rdfHandler, graphName);
+        } catch (RepositoryException | RDFHandlerException e) {
+            throw new ServiceException(e);
+        }
+    }
 }
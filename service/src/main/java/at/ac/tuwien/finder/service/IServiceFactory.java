@@ -1,6 +1,8 @@
 package at.ac.tuwien.finder.service;
 
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.service.dispatch.DispatchTrie;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 
@@ -35,4 +37,18 @@ public interface IServiceFactory {
      */
     IService getService(IResourceIdentifier parentIRI, Scanner pathScanner,
         Map<String, String> parameterMap) throws IRIInvalidException, IRIUnknownException;
+
+    /**
+     * Registers the {@link IService}s of this {@link IServiceFactory} and the factories managed by
+     * it at the given {@link RouteBuilder}, which represents the path segment handled by this
+     * factory in a {@link DispatchTrie}. Per default, all paths passing this segment are handed
+     * to {@link #getService(IResourceIdentifier, Scanner, Map)}. Factories should override this
+     * method, such that the paths can be dispatched by the trie without a path scanner.
+     *
+     * @param route {@link RouteBuilder} of the path segment handled by this factory.
+     */
+    default void compile(RouteBuilder route) {
+        route.remainder(match -> getService(match.iri(), match.remainderScanner(),
+            match.parameters()));
+    }
 }
@@ -1,16 +1,20 @@
 package at.ac.tuwien.finder.service;
 
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.TreeSet;
 
 /**
  * This abstract class is a partial implementation of {@link IServiceFactory} that should abstract
- * the common parts for internal nodes in the path tree.
+ * the common parts for internal nodes in the path tree. Subclasses that assign a service to their
+ * own path segment must override {@link #compile(RouteBuilder)} as well as
+ * {@link #getService(IResourceIdentifier, Scanner, Map)}.
  *
  * @author Kevin Haller
  */
@@ -54,8 +58,15 @@ public abstract class InternalTreeNodeServiceFactory implements IServiceFactory
             throw new IRIUnknownException(String.format(
                 "The given IRI '%s' is not valid. Possible continuations of '%s' are ../%s.",
                 newParent.rawIRI(), parent.rawIRI(),
-                String.join(", ../", getServiceFactoryMap().keySet())));
+                String.join(", ../", new TreeSet<>(serviceFactoryMap.keySet()))));
         }
         return serviceFactoryMap.get(pathSegment).getService(newParent, pathScanner, parameterMap);
     }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        for (Map.Entry<String, IServiceFactory> factoryEntry : getServiceFactoryMap().entrySet()) {
+            factoryEntry.getValue().compile(route.literal(factoryEntry.getKey()));
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package at.ac.tuwien.finder.service;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.helpers.RDFHandlerWrapper;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * This class is a {@link RDFHandler} that forwards all statements to the wrapped handler and
+ * builds a RDF collection (rdf:List) with the given head on the fly. Every subject that is stated
+ * to be of the given member type is appended to the collection, when it is seen for the first
+ * time. This is the streaming counterpart to
+ * {@link org.eclipse.rdf4j.model.util.RDFCollections#asRDF}.
+ *
+ * @author Kevin Haller
+ */
+public class RDFCollectionHandler extends RDFHandlerWrapper {
+
+    private ValueFactory valueFactory = SimpleValueFactory.getInstance();
+
+    private IRI head;
+    private IRI memberType;
+    private Collection<Statement> headStatements;
+    private Set<Resource> members = new HashSet<>();
+    private Resource currentNode;
+
+    /**
+     * Creates a new {@link RDFCollectionHandler}.
+     *
+     * @param rdfHandler     {@link RDFHandler} to which all statements shall be forwarded.
+     * @param head           {@link IRI} that shall be the head of the RDF collection.
+     * @param memberType     the type of the resources that shall be members of the collection.
+     * @param headStatements statements describing the head that shall be written before any other
+     *                       statement.
+     */
+    public RDFCollectionHandler(RDFHandler rdfHandler, IRI head, IRI memberType,
+        Collection<Statement> headStatements) {
+        super(rdfHandler);
+        assert head != null;
+        assert memberType != null;
+        this.head = head;
+        this.memberType = memberType;
+        this.headStatements = headStatements != null ? headStatements : Collections.emptyList();
+    }
+
+    @Override
+    public void startRDF() throws RDFHandlerException {
+        super.startRDF();
+        for (Statement headStatement : headStatements) {
+            super.handleStatement(headStatement);
+        }
+    }
+
+    @Override
+    public void handleStatement(Statement statement) throws RDFHandlerException {
+        super.handleStatement(statement);
+        if (RDF.TYPE.equals(statement.getPredicate()) && memberType.equals(statement.getObject())
+            && members.add(statement.getSubject())) {
+            appendMember(statement.getSubject());
+        }
+    }
+
+    /**
+     * Appends the given member to the RDF collection.
+     *
+     * @param member {@link Value} that shall be appended to the RDF collection.
+     * @throws RDFHandlerException if the statements cannot be handled by the wrapped handler.
+     */
+    private void appendMember(Value member) throws RDFHandlerException {
+        if (currentNode == null) {
+            currentNode = head;
+        } else {
+            BNode nextNode = valueFactory.createBNode();
+            super.handleStatement(valueFactory.createStatement(currentNode, RDF.REST, nextNode));
+            currentNode = nextNode;
+        }
+        super.handleStatement(valueFactory.createStatement(currentNode, RDF.FIRST, member));
+    }
+
+    @Override
+    public void endRDF() throws RDFHandlerException {
+        if (currentNode != null) {
+            super.handleStatement(valueFactory.createStatement(currentNode, RDF.REST, RDF.NIL));
+        }
+        super.endRDF();
+    }
+}
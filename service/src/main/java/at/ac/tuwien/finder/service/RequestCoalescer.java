@@ -0,0 +1,177 @@
+package at.ac.tuwien.finder.service;
+
+import at.ac.tuwien.finder.dto.Dto;
+import at.ac.tuwien.finder.service.exception.ServiceException;
+import at.ac.tuwien.finder.service.metrics.ServiceMetrics;
+import at.ac.tuwien.finder.service.metrics.ServiceMetrics.Coalescing;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class coalesces concurrent executions of identical {@link IService}s. The first execution
+ * for a key is carried out, while the executions for the same key that start before it has
+ * finished wait for its result instead of executing their own service. All of them receive the
+ * same {@link Dto}, which must therefore only be read, or the same {@link ServiceException}. An
+ * execution that has waited longer than the timeout for the key carries out its own service. The
+ * result is not kept after the execution has finished, this is left to the
+ * {@link at.ac.tuwien.finder.service.cache.RepresentationCache}.
+ *
+ * @author Kevin Haller
+ */
+public class RequestCoalescer {
+
+    public static final long DEFAULT_TIMEOUT = 10000L;
+
+    private long defaultTimeout;
+    private final ConcurrentMap<String, CompletableFuture<Dto>> inFlight =
+        new ConcurrentHashMap<>();
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder sharedExecutions = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * Creates a new {@link RequestCoalescer} with the given timeout.
+     *
+     * @param defaultTimeout the time in milliseconds that an execution waits for the result of a
+     *                       concurrent identical execution, if no timeout is given for its key.
+     */
+    public RequestCoalescer(long defaultTimeout) {
+        assert defaultTimeout >= 0;
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    /**
+     * Executes the given {@link IService} or waits for the result of the concurrent execution of
+     * a service for the same key (see {@link #execute(String, IService, long)}) at most for the
+     * default timeout.
+     *
+     * @param key     the key that identifies identical services, e.g. the path of the service.
+     * @param service the {@link IService} that shall be executed.
+     * @return the result of the given or an identical {@link IService}.
+     * @throws ServiceException if the execution of the given or an identical service failed.
+     */
+    public Dto execute(String key, IService service) throws ServiceException {
+        return execute(key, service, defaultTimeout);
+    }
+
+    /**
+     * Executes the given {@link IService}, if no service for the given key is executed
+     * concurrently, otherwise the result of the concurrent execution is awaited at most for the
+     * given timeout. If the concurrent execution does not finish in time, the given service is
+     * executed on its own.
+     *
+     * @param key     the key that identifies identical services, e.g. the path of the service.
+     * @param service the {@link IService} that shall be executed.
+     * @param timeout the time in milliseconds that shall be waited for the result of a concurrent
+     *                execution.
+     * @return the result of the given or an identical {@link IService}.
+     * @throws ServiceException if the execution of the given or an identical service failed.
+     */
+    public Dto execute(String key, IService service, long timeout) throws ServiceException {
+        assert key != null;
+        assert service != null;
+        assert timeout >= 0;
+        CompletableFuture<Dto> flight = new CompletableFuture<>();
+        CompletableFuture<Dto> concurrentFlight = inFlight.putIfAbsent(key, flight);
+        if (concurrentFlight == null) {
+            return lead(key, flight, service);
+        }
+        try {
+            Dto result = concurrentFlight.get(timeout, TimeUnit.MILLISECONDS);
+            sharedExecutions.increment();
+            ServiceMetrics.getInstance().recordCoalescing(Coalescing.SHARED);
+            return result;
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            executions.increment();
+            ServiceMetrics.getInstance().recordCoalescing(Coalescing.TIMED_OUT);
+            return service.execute();
+        } catch (ExecutionException e) {
+            sharedExecutions.increment();
+            ServiceMetrics.getInstance().recordCoalescing(Coalescing.SHARED);
+            Throwable cause = e.getCause();
+            if (cause instanceof ServiceException) {
+                throw (ServiceException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ServiceException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException(e);
+        }
+    }
+
+    /**
+     * Executes the given {@link IService} and completes the given flight with its result, such
+     * that the waiting executions receive it.
+     *
+     * @param key     the key of the given flight.
+     * @param flight  the flight of which the given service is the leading execution.
+     * @param service the {@link IService} that shall be executed.
+     * @return the result of the given {@link IService}.
+     * @throws ServiceException if the execution of the given service failed.
+     */
+    private Dto lead(String key, CompletableFuture<Dto> flight, IService service)
+        throws ServiceException {
+        executions.increment();
+        ServiceMetrics.getInstance().recordCoalescing(Coalescing.EXECUTED);
+        try {
+            Dto result = service.execute();
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Gets the number of services that have been executed.
+     *
+     * @return the number of services that have been executed.
+     */
+    public long executionCount() {
+        return executions.sum();
+    }
+
+    /**
+     * Gets the number of executions that have been saved, because they received the result of a
+     * concurrent identical execution.
+     *
+     * @return the number of executions that have been saved.
+     */
+    public long sharedExecutionCount() {
+        return sharedExecutions.sum();
+    }
+
+    /**
+     * Gets the number of executions that have waited in vain for the result of a concurrent
+     * identical execution.
+     *
+     * @return the number of executions that have waited in vain.
+     */
+    public long timeoutCount() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Gets the number of keys for which a service is currently executed.
+     *
+     * @return the number of keys for which a service is currently executed.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -1,23 +1,38 @@
 package at.ac.tuwien.finder.service;
 
 import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.catalog.DataCatalog;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.EventDataSet;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.OrganizationalDataSet;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.SpatialDataSet;
 import at.ac.tuwien.finder.datamanagement.integration.exception.TripleStoreManagerException;
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.service.batch.factory.BatchServiceFactory;
+import at.ac.tuwien.finder.service.cache.KnownResourceFilter;
 import at.ac.tuwien.finder.service.catalog.factory.CatalogServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.DispatchTrie;
 import at.ac.tuwien.finder.service.dump.factory.DumpServiceFactory;
 import at.ac.tuwien.finder.service.event.EventServiceFactory;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 import at.ac.tuwien.finder.service.exception.ServiceException;
+import at.ac.tuwien.finder.service.exception.UnknownResourceException;
 import at.ac.tuwien.finder.service.organizational.OrganizationalServiceFactory;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
 import at.ac.tuwien.finder.service.search.factory.SearchServiceFactory;
 import at.ac.tuwien.finder.service.spatial.SpatialServiceFactory;
 import at.ac.tuwien.finder.service.vocabulary.VocabularyServiceFactory;
+import org.eclipse.rdf4j.model.IRI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Scanner;
 
 /**
@@ -32,6 +47,13 @@ public class ServiceFactory extends InternalTreeNodeServiceFactory implements Au
 
     private TripleStoreManager tripleStoreManager;
     private Map<String, IServiceFactory> serviceFactoryMap = new HashMap<>();
+    private Map<String, Collection<IRI>> dataSetDependencyMap = new HashMap<>();
+    private DataSetModificationTracker modificationTracker;
+    private KnownResourceFilter knownResourceFilter;
+    private SpatialServiceFactory spatialServiceFactory;
+    private RequestCoalescer requestCoalescer =
+        new RequestCoalescer(RequestCoalescer.DEFAULT_TIMEOUT);
+    private DispatchTrie dispatchTrie;
 
     /**
      * Creates a new {@link ServiceFactory}.
@@ -62,8 +84,17 @@ public class ServiceFactory extends InternalTreeNodeServiceFactory implements Au
      * Sets-up the factory map for the services.
      */
     private void setupServiceFactoryMap() {
-        serviceFactoryMap.put(SpatialServiceFactory.getManagedPathName(),
-            new SpatialServiceFactory(tripleStoreManager));
+        logger.debug("Query templates of services validated: {}", QueryTemplates.load());
+        modificationTracker = new DataSetModificationTracker(tripleStoreManager,
+            DataSetModificationTracker.DEFAULT_REFRESH_INTERVAL);
+        DataCatalog.addModificationListener(modificationTracker);
+        knownResourceFilter = new KnownResourceFilter(tripleStoreManager, modificationTracker,
+            Arrays.asList(SpatialDataSet.NS, OrganizationalDataSet.NS, EventDataSet.NS),
+            KnownResourceFilter.DEFAULT_FALSE_POSITIVE_PROBABILITY);
+        DataCatalog.addModificationListener(knownResourceFilter);
+        spatialServiceFactory = new SpatialServiceFactory(tripleStoreManager, modificationTracker);
+        DataCatalog.addModificationListener(spatialServiceFactory.getHierarchyIndex());
+        serviceFactoryMap.put(SpatialServiceFactory.getManagedPathName(), spatialServiceFactory);
         serviceFactoryMap.put(OrganizationalServiceFactory.getManagedPathName(),
             new OrganizationalServiceFactory(tripleStoreManager));
         serviceFactoryMap.put(EventServiceFactory.getManagedPathName(),
@@ -76,8 +107,155 @@ public class ServiceFactory extends InternalTreeNodeServiceFactory implements Au
             new SearchServiceFactory(tripleStoreManager));
         serviceFactoryMap.put(DumpServiceFactory.getManagedPathName(),
             new DumpServiceFactory(tripleStoreManager));
+        serviceFactoryMap.put(BatchServiceFactory.getManagedPathName(),
+            new BatchServiceFactory(tripleStoreManager));
         logger.debug("Factory map of services initialized: ../{}",
             String.join(", ../ ", serviceFactoryMap.keySet()));
+        dispatchTrie = DispatchTrie.compile(TripleStoreManager.BASE.stringValue(), this);
+        // Data sets on which the results of the services depend.
+        Collection<IRI> allDataSets =
+            Arrays.asList(SpatialDataSet.NS, OrganizationalDataSet.NS, EventDataSet.NS);
+        dataSetDependencyMap.put(SpatialServiceFactory.getManagedPathName(),
+            Collections.singleton(SpatialDataSet.NS));
+        dataSetDependencyMap.put(OrganizationalServiceFactory.getManagedPathName(),
+            Collections.singleton(OrganizationalDataSet.NS));
+        dataSetDependencyMap.put(EventServiceFactory.getManagedPathName(),
+            Collections.singleton(EventDataSet.NS));
+        dataSetDependencyMap
+            .put(VocabularyServiceFactory.getManagedPathName(), Collections.emptyList());
+        dataSetDependencyMap.put(CatalogServiceFactory.getManagedPathName(), allDataSets);
+        dataSetDependencyMap.put(SearchServiceFactory.getManagedPathName(),
+            Arrays.asList(SpatialDataSet.NS, EventDataSet.NS));
+        dataSetDependencyMap.put(DumpServiceFactory.getManagedPathName(), allDataSets);
+        dataSetDependencyMap.put(BatchServiceFactory.getManagedPathName(), allDataSets);
+    }
+
+    /**
+     * Gets the most recent modification {@link Date} of the data on which the result of the
+     * service represented by the given path depends. This {@link Date} is looked up in the
+     * modification stamps of the data sets in the data catalog, which are refreshed periodically
+     * (see {@link DataSetModificationTracker}), and not by executing the service.
+     *
+     * @param path path that represents the service.
+     * @return the most recent modification {@link Date} of the data on which the result of the
+     * service depends, or an empty {@link Optional}, if it is unknown.
+     */
+    public Optional<Date> getLastModified(String path) {
+        Collection<IRI> dataSets = getDataSetDependencies(path);
+        return dataSets != null ? modificationTracker.lastModified(dataSets) : Optional.empty();
+    }
+
+    /**
+     * Gets the namespaces of the data sets on which the result of the service represented by the
+     * given path depends.
+     *
+     * @param path path that represents the service.
+     * @return the namespaces of the data sets on which the result of the service depends, or null,
+     * if the path is unknown.
+     */
+    public Collection<IRI> getDataSetDependencies(String path) {
+        assert path != null;
+        return dataSetDependencyMap.get(path.split("/", 2)[0]);
+    }
+
+    /**
+     * Gets the template of the route to which the given path is dispatched, in which the captured
+     * path variables are replaced by their names (e.g. {@code spatial/room/id/{id}}).
+     *
+     * @param path the path relative to the base IRI, which consists of segments separated by '/'.
+     * @return the template of the route to which the given path is dispatched, or an empty
+     * {@link Optional}, if no service is assigned to the given path.
+     */
+    public Optional<String> getRouteTemplate(String path) {
+        assert path != null;
+        return Optional.ofNullable(dispatchTrie.template(path));
+    }
+
+    /**
+     * Gets the {@link IService} that is responsible for handling the requested path, if the path is
+     * valid, otherwise a {@link IRIUnknownException} will be thrown. The path is dispatched by the
+     * {@link DispatchTrie} that has been compiled from the tree of factories. The base IRI before
+     * the path will be {@code TripleStoreManager.BASE_NAMED_GRAPH} per default. Concurrent
+     * executions of the returned service for the same path share one execution (see
+     * {@link RequestCoalescer}), except for a {@link StreamingService}, which is returned as is.
+     *
+     * @param path the path relative to the base IRI, which consists of segments separated by '/'.
+     * @return the {@link IService} that is responsible for handling the requested path.
+     * @throws IRIUnknownException if no service is assigned to the given path.
+     * @throws IRIInvalidException if the given path is not valid.
+     */
+    public IService getService(String path) throws IRIInvalidException, IRIUnknownException {
+        IService service = filterUnknownResource(dispatchTrie.dispatch(path));
+        if (service instanceof StreamingService) {
+            return service;
+        }
+        return () -> requestCoalescer.execute(path, service);
+    }
+
+    /**
+     * Gets the {@link IRI} of the resource that is described by the service to which the given
+     * path is dispatched (see {@link DescribeResourceService}). The service is not executed and
+     * it is not checked whether the resource exists.
+     *
+     * @param path the path relative to the base IRI, which consists of segments separated by '/'.
+     * @return the {@link IRI} of the described resource, or an empty {@link Optional}, if the
+     * service to which the given path is dispatched does not describe a single resource.
+     * @throws IRIUnknownException if no service is assigned to the given path.
+     * @throws IRIInvalidException if the given path is not valid.
+     */
+    public Optional<IRI> getDescribedResource(String path)
+        throws IRIInvalidException, IRIUnknownException {
+        IService service = dispatchTrie.dispatch(path);
+        if (service instanceof DescribeResourceService) {
+            return Optional.of(((DescribeResourceService) service).resourceIdentifier().iriValue());
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public IService getService(IResourceIdentifier parent, Scanner pathScanner,
+        Map<String, String> parameterMap) throws IRIInvalidException, IRIUnknownException {
+        return filterUnknownResource(super.getService(parent, pathScanner, parameterMap));
+    }
+
+    /**
+     * Replaces the given {@link IService}, if it describes a resource that is definitely unknown
+     * (see {@link KnownResourceFilter}), with a service that fails with an
+     * {@link UnknownResourceException} without touching the triple store.
+     *
+     * @param service the {@link IService} to which a path has been dispatched.
+     * @return the given {@link IService}, or a service that fails, if it describes an unknown
+     * resource.
+     */
+    private IService filterUnknownResource(IService service) {
+        if (service instanceof DescribeResourceService) {
+            IResourceIdentifier resource = ((DescribeResourceService) service).resourceIdentifier();
+            if (!knownResourceFilter.mightExist(resource.iriValue())) {
+                return () -> {
+                    throw new UnknownResourceException(resource.rawIRI());
+                };
+            }
+        }
+        return service;
+    }
+
+    /**
+     * Gets the {@link RequestCoalescer} that coalesces the concurrent executions of the services
+     * for the same path.
+     *
+     * @return the {@link RequestCoalescer} of this factory.
+     */
+    public RequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
+    /**
+     * Gets the {@link KnownResourceFilter} that answers requests of definitely unknown resources.
+     *
+     * @return the {@link KnownResourceFilter} of this factory.
+     */
+    public KnownResourceFilter getKnownResourceFilter() {
+        return knownResourceFilter;
     }
 
     /**
@@ -95,9 +273,8 @@ public class ServiceFactory extends InternalTreeNodeServiceFactory implements Au
      */
     public IService getService(Scanner pathScanner, Map<String, String> parameterMap)
         throws IRIInvalidException, IRIUnknownException {
-        return super
-            .getService(new IResourceIdentifier(TripleStoreManager.BASE.stringValue()), pathScanner,
-                parameterMap);
+        return getService(new IResourceIdentifier(TripleStoreManager.BASE.stringValue()),
+            pathScanner, parameterMap);
     }
 
     /**
@@ -114,9 +291,8 @@ public class ServiceFactory extends InternalTreeNodeServiceFactory implements Au
      */
     public IService getService(Scanner pathScanner)
         throws IRIInvalidException, IRIUnknownException {
-        return super
-            .getService(new IResourceIdentifier(TripleStoreManager.BASE.stringValue()), pathScanner,
-                null);
+        return getService(new IResourceIdentifier(TripleStoreManager.BASE.stringValue()),
+            pathScanner, null);
     }
 
     @Override
@@ -126,6 +302,12 @@ public class ServiceFactory extends InternalTreeNodeServiceFactory implements Au
 
     @Override
     public void close() throws Exception {
+        DataCatalog.removeModificationListener(modificationTracker);
+        DataCatalog.removeModificationListener(knownResourceFilter);
+        DataCatalog.removeModificationListener(spatialServiceFactory.getHierarchyIndex());
+        spatialServiceFactory.getHierarchyIndex().close();
+        knownResourceFilter.close();
+        modificationTracker.close();
         tripleStoreManager.close();
     }
 
@@ -0,0 +1,25 @@
+package at.ac.tuwien.finder.service;
+
+import at.ac.tuwien.finder.service.exception.ServiceException;
+import org.eclipse.rdf4j.rio.RDFHandler;
+
+/**
+ * Instances of this interface represent {@link IService}s that are able to push their result
+ * statement by statement to a given {@link RDFHandler} instead of materialising it as a
+ * {@link at.ac.tuwien.finder.dto.Dto}. This is intended for services with large results, where the
+ * time to the first byte and the memory consumption shall be independent of the result size.
+ *
+ * @author Kevin Haller
+ */
+public interface StreamingService extends IService {
+
+    /**
+     * Executes this {@link StreamingService} and pushes the statements of the result to the given
+     * {@link RDFHandler}. The handler is started and ended by this method.
+     *
+     * @param rdfHandler {@link RDFHandler} to which the statements of the result shall be pushed.
+     * @throws ServiceException if the execution of this {@link StreamingService} fails.
+     */
+    void stream(RDFHandler rdfHandler) throws ServiceException;
+
+}
@@ -0,0 +1,119 @@
+package at.ac.tuwien.finder.service.batch.factory;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.dto.Dto;
+import at.ac.tuwien.finder.dto.organizational.PersonDto;
+import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.dto.spatial.BuildingDto;
+import at.ac.tuwien.finder.dto.spatial.BuildingTractDto;
+import at.ac.tuwien.finder.dto.spatial.FloorDto;
+import at.ac.tuwien.finder.dto.spatial.FloorSectionDto;
+import at.ac.tuwien.finder.dto.spatial.RoomDto;
+import at.ac.tuwien.finder.service.IService;
+import at.ac.tuwien.finder.service.IServiceFactory;
+import at.ac.tuwien.finder.service.batch.service.BatchDescribeService;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
+import at.ac.tuwien.finder.service.exception.IRIInvalidException;
+import at.ac.tuwien.finder.service.exception.IRIUnknownException;
+import at.ac.tuwien.finder.vocabulary.TUVS;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+/**
+ * This class is an implementation of {@link IServiceFactory} that provides access to the
+ * {@link BatchDescribeService} for arbitrary resources. The resources are given by their paths
+ * relative to the base IRI, which are separated by ',' (e.g.
+ * {@code batch/spatial/room/id/HA0318,spatial/building/id/H}).
+ *
+ * @author Kevin Haller
+ */
+public class BatchServiceFactory implements IServiceFactory {
+
+    /**
+     * The {@link Dto} classes to which the described resources are mapped by their type.
+     */
+    public static final Map<IRI, Class<? extends Dto>> DTO_CLASSES;
+
+    static {
+        Map<IRI, Class<? extends Dto>> dtoClasses = new LinkedHashMap<>();
+        dtoClasses.put(TUVS.Room, RoomDto.class);
+        dtoClasses.put(TUVS.FloorSection, FloorSectionDto.class);
+        dtoClasses.put(TUVS.Floor, FloorDto.class);
+        dtoClasses.put(TUVS.BuildingTract, BuildingTractDto.class);
+        dtoClasses.put(TUVS.Building, BuildingDto.class);
+        dtoClasses.put(FOAF.PERSON, PersonDto.class);
+        DTO_CLASSES = Collections.unmodifiableMap(dtoClasses);
+    }
+
+    private TripleStoreManager tripleStoreManager;
+
+    /**
+     * Creates a new {@link BatchServiceFactory}.
+     *
+     * @param tripleStoreManager {@link TripleStoreManager} that shall be used.
+     */
+    public BatchServiceFactory(TripleStoreManager tripleStoreManager) {
+        assert tripleStoreManager != null;
+        this.tripleStoreManager = tripleStoreManager;
+    }
+
+    /**
+     * Gets the name of the path segment that is handled by this {@link IServiceFactory}.
+     *
+     * @return name of the path segment that is handled by this {@link IServiceFactory}.
+     */
+    public static String getManagedPathName() {
+        return "batch";
+    }
+
+    @Override
+    public IService getService(IResourceIdentifier parentIRI, Scanner pathScanner,
+        Map<String, String> parameterMap) throws IRIInvalidException, IRIUnknownException {
+        List<String> remainder = new ArrayList<>();
+        while (pathScanner.hasNext()) {
+            remainder.add(pathScanner.next());
+        }
+        return describe(parentIRI, remainder);
+    }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        route.remainder(match -> describe(match.iri(), match.remainder()));
+    }
+
+    /**
+     * Creates the {@link BatchDescribeService} for the resources given by the path segments after
+     * the given batch IRI.
+     *
+     * @param batchIri  {@link IResourceIdentifier} of the path segment handled by this factory.
+     * @param remainder the path segments that follow the path segment handled by this factory.
+     * @return the {@link BatchDescribeService} for the given resources.
+     * @throws IRIInvalidException if no resource or more than
+     *                             {@link BatchDescribeService#MAX_BATCH_SIZE} resources are given.
+     */
+    private IService describe(IResourceIdentifier batchIri, List<String> remainder)
+        throws IRIInvalidException {
+        String resourcePaths = String.join("/", remainder);
+        List<IRI> resources = new ArrayList<>();
+        for (String resourcePath : resourcePaths.split(",")) {
+            if (!resourcePath.isEmpty()) {
+                resources.add(new IResourceIdentifier(TripleStoreManager.BASE.stringValue())
+                    .resolve(resourcePath).iriValue());
+            }
+        }
+        if (resources.isEmpty() || resources.size() > BatchDescribeService.MAX_BATCH_SIZE) {
+            throw new IRIInvalidException(String
+                .format("Between 1 and %d resources separated by ',' must follow '%s'.",
+                    BatchDescribeService.MAX_BATCH_SIZE, batchIri.rawIRI()));
+        }
+        return new BatchDescribeService(tripleStoreManager,
+            batchIri.resolve(resourcePaths).rawIRI(), resources, DTO_CLASSES);
+    }
+}
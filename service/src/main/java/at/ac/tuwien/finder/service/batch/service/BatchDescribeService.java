@@ -0,0 +1,153 @@
+package at.ac.tuwien.finder.service.batch.service;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.dto.Dto;
+import at.ac.tuwien.finder.dto.SimpleDtoCollectionDto;
+import at.ac.tuwien.finder.dto.SimpleResourceDto;
+import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.service.QueryService;
+import at.ac.tuwien.finder.service.exception.ResourceNotFoundException;
+import at.ac.tuwien.finder.service.exception.ServiceException;
+import at.ac.tuwien.finder.service.metrics.ServiceMetrics;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.RDFCollections;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.outofbits.opinto.RDFMapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is an implementation of {@link QueryService} that describes several resources in
+ * one round trip. The resources are described by one query, in which they are given as inline
+ * data (see {@link QueryTemplates#DESCRIBE_RESOURCES}), and each described resource is mapped to
+ * the {@link Dto} class of its type. The result is a collection of the described resources in
+ * the order of the request, whose model contains the descriptions of all of them. Resources that
+ * cannot be located are left out, whereas a {@link ResourceNotFoundException} is thrown, if none
+ * of them can be located.
+ *
+ * @author Kevin Haller
+ */
+public class BatchDescribeService implements QueryService {
+
+    /**
+     * The maximal number of resources that can be described by one request.
+     */
+    public static final int MAX_BATCH_SIZE = 100;
+
+    private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+
+    private TripleStoreManager tripleStoreManager;
+    private IRI batchIri;
+    private List<IRI> resources;
+    private Map<IRI, Class<? extends Dto>> dtoClasses;
+
+    /**
+     * Creates a new instance of {@link BatchDescribeService} for the given resources.
+     *
+     * @param tripleStoreManager the {@link TripleStoreManager} that manages the triple store that
+     *                           shall be used as knowledge base for this
+     *                           {@link BatchDescribeService}.
+     * @param batchIri           the IRI of the collection of the described resources.
+     * @param resources          the IRIs of the resources that shall be described.
+     * @param dtoClasses         the {@link Dto} classes to which the resources of the given types
+     *                           shall be mapped, whereby the first type of a resource in the order
+     *                           of this map is chosen. Resources of other types are mapped to
+     *                           {@link SimpleResourceDto}.
+     */
+    public BatchDescribeService(TripleStoreManager tripleStoreManager, String batchIri,
+        Collection<IRI> resources, Map<IRI, Class<? extends Dto>> dtoClasses) {
+        assert tripleStoreManager != null;
+        assert batchIri != null;
+        assert resources != null && !resources.isEmpty();
+        assert resources.size() <= MAX_BATCH_SIZE;
+        assert dtoClasses != null;
+        this.tripleStoreManager = tripleStoreManager;
+        this.batchIri = valueFactory.createIRI(batchIri);
+        this.resources = new ArrayList<>(new LinkedHashSet<>(resources));
+        this.dtoClasses = new LinkedHashMap<>(dtoClasses);
+    }
+
+    @Override
+    public String getQuery() {
+        return QueryTemplates.DESCRIBE_RESOURCES.getQuery();
+    }
+
+    /**
+     * Describes the resources of this batch in one query on a read replica, the shard of the
+     * triple store that holds them or the federation of all shards (see
+     * {@link TripleStoreManager#read(java.util.Collection,
+     * at.ac.tuwien.finder.datamanagement.replication.ReadOperation)}).
+     *
+     * @return the descriptions of all the resources of this batch.
+     * @throws ServiceException if the execution of the query failed.
+     */
+    private Model executeQuery() throws ServiceException {
+        try {
+            return tripleStoreManager.read(resources, connection -> QueryTemplates
+                .DESCRIBE_RESOURCES.evaluateGraph(connection, QueryTemplates.RESOURCE, resources));
+        } catch (RepositoryException | QueryEvaluationException | RDFHandlerException e) {
+            throw new ServiceException(e);
+        }
+    }
+
+    /**
+     * Maps the given resource to the {@link Dto} class of its type.
+     *
+     * @param model    the {@link Model} that contains the description of the given resource.
+     * @param resource the {@link IRI} of the resource that shall be mapped.
+     * @return the {@link Dto} of the given resource.
+     */
+    private Dto map(Model model, IRI resource) {
+        for (Map.Entry<IRI, Class<? extends Dto>> dtoClass : dtoClasses.entrySet()) {
+            if (model.contains(resource, RDF.TYPE, dtoClass.getKey())) {
+                return RDFMapper.create().readValue(model, dtoClass.getValue(), resource);
+            }
+        }
+        return new SimpleResourceDto(new IResourceIdentifier(resource), model);
+    }
+
+    @Override
+    public Dto execute() throws ServiceException {
+        ServiceMetrics serviceMetrics = ServiceMetrics.getInstance();
+        long queryStartTime = System.nanoTime();
+        Model model = executeQuery();
+        serviceMetrics.recordPhase(ServiceMetrics.Phase.QUERY, queryStartTime);
+        long mappingStartTime = System.nanoTime();
+        List<IRI> describedResources = new ArrayList<>();
+        for (IRI resource : resources) {
+            if (model.contains(resource, null, null)) {
+                describedResources.add(resource);
+            }
+        }
+        if (describedResources.isEmpty()) {
+            throw new ResourceNotFoundException(
+                String.format("None of the resources of <%s> can be located.", batchIri),
+                batchIri.stringValue());
+        }
+        model.add(batchIri, RDFS.LABEL, valueFactory
+            .createLiteral(String.format("Batch of %d resources", describedResources.size()),
+                "en"));
+        RDFCollections.asRDF(describedResources, batchIri, model);
+        SimpleDtoCollectionDto<Dto> batchDto = new SimpleDtoCollectionDto<>();
+        batchDto.id(batchIri);
+        batchDto.setModel(model);
+        for (IRI resource : describedResources) {
+            batchDto.add(map(model, resource));
+        }
+        serviceMetrics.recordPhase(ServiceMetrics.Phase.MAPPING, mappingStartTime);
+        return batchDto;
+    }
+}
@@ -0,0 +1,129 @@
+package at.ac.tuwien.finder.service.cache;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is a Bloom filter of strings, which answers whether a string might have been added or
+ * has definitely not been added to it. It never answers a string that has been added with false,
+ * but might answer a string that has not been added with true at the probability given at its
+ * creation. The filter holds its bits in an array of longs and derives the positions of a string
+ * from two 64-bit hashes of its UTF-8 bytes (double hashing).
+ * <p>
+ * A filter is filled by one thread before it is published, afterwards it must only be read.
+ *
+ * @author Kevin Haller
+ */
+public final class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Creates a new {@link BloomFilter} that is sized for the given number of strings, such that it
+     * answers strings that have not been added with true at most at the given probability.
+     *
+     * @param expectedInsertions       the number of strings that are expected to be added.
+     * @param falsePositiveProbability the probability at which strings that have not been added
+     *                                 are answered with true, which must be in (0,1).
+     */
+    public BloomFilter(int expectedInsertions, double falsePositiveProbability) {
+        assert expectedInsertions >= 0;
+        assert falsePositiveProbability > 0 && falsePositiveProbability < 1;
+        int insertions = Math.max(expectedInsertions, 1);
+        long optimalBitCount = (long) Math.ceil(
+            -insertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.bits = new long[(int) Math.max(1, (optimalBitCount + 63) / 64)];
+        this.bitCount = bits.length * 64L;
+        this.hashCount =
+            Math.max(1, (int) Math.round((double) bitCount / insertions * Math.log(2)));
+    }
+
+    /**
+     * Adds the given string to this filter.
+     *
+     * @param value the string that shall be added.
+     */
+    public void put(String value) {
+        assert value != null;
+        long hash = hash(value);
+        long hash1 = mix(hash);
+        long hash2 = mix(hash ^ FNV_PRIME) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long position = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            bits[(int) (position >>> 6)] |= 1L << position;
+        }
+    }
+
+    /**
+     * Checks whether the given string might have been added to this filter.
+     *
+     * @param value the string that shall be checked.
+     * @return false, if the given string has definitely not been added, otherwise true.
+     */
+    public boolean mightContain(String value) {
+        assert value != null;
+        long hash = hash(value);
+        long hash1 = mix(hash);
+        long hash2 = mix(hash ^ FNV_PRIME) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long position = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            if ((bits[(int) (position >>> 6)] & (1L << position)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of bits of this filter.
+     *
+     * @return the number of bits of this filter.
+     */
+    public long bitCount() {
+        return bitCount;
+    }
+
+    /**
+     * Gets the number of positions that are set for each string.
+     *
+     * @return the number of positions that are set for each string.
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Computes the 64-bit FNV-1a hash of the UTF-8 bytes of the given string.
+     *
+     * @param value the string that shall be hashed.
+     * @return the hash of the given string.
+     */
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Mixes the bits of the given hash, such that each bit of the result depends on all bits of
+     * it (finalizer of MurmurHash3).
+     *
+     * @param hash the hash that shall be mixed.
+     * @return the mixed hash.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,270 @@
+package at.ac.tuwien.finder.service.cache;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.catalog.DataSetModificationListener;
+import at.ac.tuwien.finder.service.DataSetModificationTracker;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class holds a {@link BloomFilter} of the IRIs of all the resources that are described as
+ * subject in a data set, for each of the given data sets. A resource belongs to the data set whose
+ * namespace followed by '/' is a prefix of its IRI. Thereby, requests for resources that are
+ * definitely unknown can be answered without touching the triple store.
+ * <p>
+ * A filter is only consulted as long as the modification stamp of its data set is the one with
+ * which it has been built (see {@link DataSetModificationTracker}), such that a filter never hides
+ * resources that have been loaded afterwards. Modifications announced in this process discard the
+ * filter of the data set immediately (see {@link DataSetModificationListener}). Without a current
+ * filter or while the modification stamp is unknown, every resource might exist. Missing and
+ * outdated filters are rebuilt by a background thread, the requesting threads go on without
+ * filter until the rebuilt one is current. A failed build is retried after the retry interval.
+ *
+ * @author Kevin Haller
+ */
+public class KnownResourceFilter implements DataSetModificationListener, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(KnownResourceFilter.class);
+
+    public static final double DEFAULT_FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private static final long RETRY_INTERVAL = 5000L;
+
+    private static final String PREFIX = "prefix";
+    private static final String SUBJECT = "subject";
+
+    private TripleStoreManager tripleStoreManager;
+    private DataSetModificationTracker modificationTracker;
+    private Collection<IRI> dataSets;
+    private double falsePositiveProbability;
+    private final Map<IRI, Filter> filters = new ConcurrentHashMap<>();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ExecutorService rebuildExecutor;
+    private final Set<IRI> rebuildingDataSets = ConcurrentHashMap.newKeySet();
+    private final Map<IRI, Long> nextRetries = new ConcurrentHashMap<>();
+
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * Creates a new {@link KnownResourceFilter} for the given data sets managed by the given
+     * {@link TripleStoreManager}. The filters are built in the background after the first check
+     * or by calling {@link #rebuild()}.
+     *
+     * @param tripleStoreManager       {@link TripleStoreManager} that manages the data sets.
+     * @param modificationTracker      {@link DataSetModificationTracker} that keeps track of the
+     *                                 modification stamps of the data sets.
+     * @param dataSets                 the namespaces of the data sets for which a filter shall be
+     *                                 held.
+     * @param falsePositiveProbability the probability at which the filters report an unknown
+     *                                 resource as possibly existing, which must be in (0,1).
+     */
+    public KnownResourceFilter(TripleStoreManager tripleStoreManager,
+        DataSetModificationTracker modificationTracker, Collection<IRI> dataSets,
+        double falsePositiveProbability) {
+        assert tripleStoreManager != null;
+        assert modificationTracker != null;
+        assert dataSets != null;
+        this.tripleStoreManager = tripleStoreManager;
+        this.modificationTracker = modificationTracker;
+        this.dataSets = new ArrayList<>(dataSets);
+        this.falsePositiveProbability = falsePositiveProbability;
+        ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "known-resource-filter-rebuild");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        this.rebuildExecutor = executor;
+    }
+
+    /**
+     * Checks whether the given resource might be described in its data set. If the resource
+     * belongs to none of the data sets of this filter, no filter of its data set has been built
+     * yet or the modification stamp of its data set is unknown, true is returned.
+     *
+     * @param resource {@link IRI} of the resource that shall be checked.
+     * @return false, if the given resource is definitely unknown, otherwise true.
+     */
+    public boolean mightExist(IRI resource) {
+        assert resource != null;
+        String resourceIRI = resource.stringValue();
+        for (IRI dataSet : dataSets) {
+            if (resourceIRI.startsWith(dataSet.stringValue() + "/")) {
+                Filter filter = currentFilter(dataSet);
+                if (filter == null || filter.bloomFilter.mightContain(resourceIRI)) {
+                    return true;
+                }
+                rejections.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds the filters of all the data sets in the calling thread.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            for (IRI dataSet : dataSets) {
+                build(dataSet);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of resources that have been reported as definitely unknown.
+     *
+     * @return the number of resources that have been reported as definitely unknown.
+     */
+    public long rejectionCount() {
+        return rejections.sum();
+    }
+
+    @Override
+    public void dataSetModified(IRI namespace, Date modificationDate) {
+        filters.remove(namespace);
+    }
+
+    /**
+     * Gets the filter of the given data set, if it has been built with the current modification
+     * stamp of the data set. Otherwise, a rebuild is triggered in the background.
+     *
+     * @param dataSet the namespace of the data set.
+     * @return the current filter of the given data set, or null, if there is none or the
+     * modification stamp of the data set is unknown.
+     */
+    private Filter currentFilter(IRI dataSet) {
+        Date modificationDate = lastModified(dataSet);
+        if (modificationDate == null) {
+            return null;
+        }
+        Filter filter = filters.get(dataSet);
+        if (filter == null || !modificationDate.equals(filter.modificationDate)) {
+            rebuildInBackground(dataSet);
+            return null;
+        }
+        return filter;
+    }
+
+    /**
+     * Triggers a rebuild of the filter of the given data set in the background, if no rebuild of
+     * it is in progress and the retry interval after a failed build has elapsed.
+     *
+     * @param dataSet the namespace of the data set.
+     */
+    private void rebuildInBackground(IRI dataSet) {
+        Long nextRetry = nextRetries.get(dataSet);
+        if ((nextRetry != null && System.currentTimeMillis() < nextRetry)
+            || !rebuildingDataSets.add(dataSet)) {
+            return;
+        }
+        try {
+            rebuildExecutor.execute(() -> {
+                rebuildLock.lock();
+                try {
+                    build(dataSet);
+                } finally {
+                    rebuildLock.unlock();
+                    rebuildingDataSets.remove(dataSet);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rebuildingDataSets.remove(dataSet);
+        }
+    }
+
+    /**
+     * Builds the filter of the given data set. The modification stamp is read before the
+     * resources, such that a modification during the build outdates the built filter. The lock
+     * for rebuilding must be held by the calling thread.
+     *
+     * @param dataSet the namespace of the data set.
+     * @return the built filter, or null, if it cannot be built.
+     */
+    private Filter build(IRI dataSet) {
+        Date modificationDate = lastModified(dataSet);
+        try {
+            long startTime = System.nanoTime();
+            Value prefix = SimpleValueFactory.getInstance()
+                .createLiteral(dataSet.stringValue() + "/");
+            List<BindingSet> subjects = tripleStoreManager.read(dataSet,
+                connection -> QueryTemplates.SUBJECTS_WITH_PREFIX
+                    .evaluateTuple(connection, Collections.singletonMap(PREFIX, prefix)));
+            BloomFilter bloomFilter = new BloomFilter(subjects.size(), falsePositiveProbability);
+            for (BindingSet bindingSet : subjects) {
+                bloomFilter.put(bindingSet.getValue(SUBJECT).stringValue());
+            }
+            Filter filter = new Filter(bloomFilter, modificationDate);
+            filters.put(dataSet, filter);
+            nextRetries.remove(dataSet);
+            logger.info("Filter of the {} resources of {} built in {} ms.", subjects.size(),
+                dataSet, (System.nanoTime() - startTime) / 1000000L);
+            return filter;
+        } catch (RuntimeException e) {
+            nextRetries.put(dataSet, System.currentTimeMillis() + RETRY_INTERVAL);
+            logger.warn("The filter of the resources of {} cannot be built. {}", dataSet,
+                e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Gets the modification stamp of the given data set.
+     *
+     * @param dataSet the namespace of the data set.
+     * @return the modification stamp of the given data set, or null, if it is unknown.
+     */
+    private Date lastModified(IRI dataSet) {
+        return modificationTracker.lastModified(Collections.singleton(dataSet)).orElse(null);
+    }
+
+    /**
+     * Stops the background rebuild of the filters.
+     */
+    @Override
+    public void close() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * This class represents the filter of a data set together with the modification stamp of the
+     * data set with which it has been built.
+     */
+    private static final class Filter {
+
+        private final BloomFilter bloomFilter;
+        private final Date modificationDate;
+
+        private Filter(BloomFilter bloomFilter, Date modificationDate) {
+            this.bloomFilter = bloomFilter;
+            this.modificationDate = modificationDate;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package at.ac.tuwien.finder.service.cache;
+
+import at.ac.tuwien.finder.datamanagement.catalog.DataSetModificationListener;
+import org.eclipse.rdf4j.model.IRI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is a cache for the serialized representations of the results of services. A
+ * representation is identified by the path of the service, its media type and language. The cache
+ * is bounded by the total number of bytes of the cached representations and evicts the least
+ * recently used representations first. Representations that would occupy more than an eighth of
+ * the cache are not cached at all.
+ * <p>
+ * Lookups take no lock. Every representation records the time of its last lookup, and the writer
+ * that exceeds the bound evicts the representations with the oldest times. Since these times are
+ * recorded without synchronization, the eviction order is only approximately the order of use.
+ * <p>
+ * Every representation is stored together with the modification stamp of the data sets on which
+ * it depends. A representation is only returned, if the stamp is still the current one, such that
+ * modifications in another process are detected as well, as soon as the current stamp has been
+ * refreshed (see {@link at.ac.tuwien.finder.service.DataSetModificationTracker}). Until then,
+ * the representations of the previous data are returned. Modifications in this process are
+ * announced as {@link DataSetModificationListener} and invalidate the affected representations
+ * immediately.
+ *
+ * @author Kevin Haller
+ */
+public class RepresentationCache implements DataSetModificationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepresentationCache.class);
+
+    private final long maximumWeight;
+    private final long maximumEntryWeight;
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>(256);
+    private final AtomicLong weight = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Creates a new {@link RepresentationCache} that holds at most the given number of bytes.
+     *
+     * @param maximumWeight the maximal number of bytes of all cached representations.
+     */
+    public RepresentationCache(long maximumWeight) {
+        assert maximumWeight > 0;
+        this.maximumWeight = maximumWeight;
+        this.maximumEntryWeight = maximumWeight / 8;
+    }
+
+    /**
+     * Gets the cached representation for the given path, media type and language, if it has been
+     * computed with the given modification stamp.
+     *
+     * @param path         path of the service of which the representation shall be returned.
+     * @param mediaType    the media type of the representation.
+     * @param language     the language of the representation, or null, if it is language-neutral.
+     * @param lastModified the current modification stamp of the data on which the service depends.
+     * @return the bytes of the cached representation, or null, if there is no valid one.
+     */
+    public byte[] get(String path, String mediaType, String language, Date lastModified) {
+        assert lastModified != null;
+        Key key = new Key(path, mediaType, language);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.lastModified.equals(lastModified)) {
+                entry.lastAccess = System.nanoTime();
+                hits.increment();
+                return entry.representation;
+            }
+            if (remove(key, entry)) {
+                invalidations.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches the given representation for the given path, media type and language.
+     *
+     * @param path           path of the service of which the representation shall be cached.
+     * @param mediaType      the media type of the representation.
+     * @param language       the language of the representation, or null, if it is
+     *                       language-neutral.
+     * @param lastModified   the modification stamp of the data with which the representation has
+     *                       been computed.
+     * @param dataSets       the namespaces of the data sets on which the representation depends.
+     * @param representation the bytes of the representation.
+     */
+    public void put(String path, String mediaType, String language, Date lastModified,
+        Collection<IRI> dataSets, byte[] representation) {
+        assert lastModified != null;
+        assert representation != null;
+        if (representation.length > maximumEntryWeight) {
+            return;
+        }
+        Key key = new Key(path, mediaType, language);
+        Entry entry = new Entry(representation, lastModified,
+            dataSets != null ? new HashSet<>(dataSets) : Collections.emptySet());
+        Entry formerEntry = entries.put(key, entry);
+        weight.addAndGet(representation.length - (formerEntry != null ?
+            formerEntry.representation.length : 0));
+        if (weight.get() > maximumWeight) {
+            evict();
+        }
+    }
+
+    /**
+     * Evicts the representations with the oldest lookup times, until the cached representations
+     * respect the bound of this cache. Only one writer evicts at a time.
+     */
+    private void evict() {
+        synchronized (evictionLock) {
+            while (weight.get() > maximumWeight) {
+                Map.Entry<Key, Entry> eldest = null;
+                for (Map.Entry<Key, Entry> candidate : entries.entrySet()) {
+                    if (eldest == null || candidate.getValue().lastAccess - eldest.getValue()
+                        .lastAccess < 0) {
+                        eldest = candidate;
+                    }
+                }
+                if (eldest == null) {
+                    return;
+                }
+                if (remove(eldest.getKey(), eldest.getValue())) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Invalidates all cached representations that depend on the data set with the given
+     * namespace.
+     *
+     * @param dataSet the namespace {@link IRI} of the data set.
+     */
+    public void invalidate(IRI dataSet) {
+        int count = 0;
+        for (Map.Entry<Key, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().dataSets.contains(dataSet) && remove(entry.getKey(),
+                entry.getValue())) {
+                count++;
+            }
+        }
+        invalidations.add(count);
+        logger.debug("{} cached representations invalidated for the data set {}.", count,
+            dataSet);
+    }
+
+    /**
+     * Invalidates all cached representations.
+     */
+    public void invalidateAll() {
+        for (Map.Entry<Key, Entry> entry : entries.entrySet()) {
+            if (remove(entry.getKey(), entry.getValue())) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    @Override
+    public void dataSetModified(IRI namespace, Date modificationDate) {
+        invalidate(namespace);
+    }
+
+    /**
+     * Removes the given entry with the given key, if it has not been replaced or removed by
+     * another thread.
+     *
+     * @param key   the key of the entry that shall be removed.
+     * @param entry the entry that shall be removed.
+     * @return true, if the entry has been removed by this call, otherwise false.
+     */
+    private boolean remove(Key key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            weight.addAndGet(-entry.representation.length);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of requests that could be answered by a cached representation.
+     *
+     * @return the number of requests that could be answered by a cached representation.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of requests that could not be answered by a cached representation.
+     *
+     * @return the number of requests that could not be answered by a cached representation.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of representations that have been evicted to respect the size bound.
+     *
+     * @return the number of representations that have been evicted.
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the number of representations that have been invalidated, because the data on which
+     * they depend has been modified.
+     *
+     * @return the number of representations that have been invalidated.
+     */
+    public long invalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Gets the number of cached representations.
+     *
+     * @return the number of cached representations.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of bytes of all cached representations.
+     *
+     * @return the number of bytes of all cached representations.
+     */
+    public long weight() {
+        return weight.get();
+    }
+
+    /**
+     * Gets the maximal number of bytes of all cached representations.
+     *
+     * @return the maximal number of bytes of all cached representations.
+     */
+    public long maximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * This class represents the key of a cached representation.
+     */
+    private static final class Key {
+
+        private final String path;
+        private final String mediaType;
+        private final String language;
+
+        private Key(String path, String mediaType, String language) {
+            assert path != null;
+            assert mediaType != null;
+            this.path = path;
+            this.mediaType = mediaType;
+            this.language = language;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return path.equals(key.path) && mediaType.equals(key.mediaType) && Objects
+                .equals(language, key.language);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, mediaType, language);
+        }
+    }
+
+    /**
+     * This class represents a cached representation.
+     */
+    private static final class Entry {
+
+        private final byte[] representation;
+        private final Date lastModified;
+        private final Set<IRI> dataSets;
+        private volatile long lastAccess = System.nanoTime();
+
+        private Entry(byte[] representation, Date lastModified, Set<IRI> dataSets) {
+            this.representation = representation;
+            this.lastModified = lastModified;
+            this.dataSets = dataSets;
+        }
+    }
+
+}
@@ -6,6 +6,7 @@ import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
 import at.ac.tuwien.finder.service.GraphDatasetService;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 
@@ -53,4 +54,9 @@ public class CatalogServiceFactory implements IServiceFactory {
         return "catalog";
     }
 
+    @Override
+    public void compile(RouteBuilder route) {
+        route.endpoint(
+            match -> new GraphDatasetService(tripleStoreManager, DataCatalog.NS.stringValue()));
+    }
 }
@@ -0,0 +1,250 @@
+package at.ac.tuwien.finder.service.dispatch;
+
+import at.ac.tuwien.finder.service.IService;
+import at.ac.tuwien.finder.service.IServiceFactory;
+import at.ac.tuwien.finder.service.exception.IRIInvalidException;
+import at.ac.tuwien.finder.service.exception.IRIUnknownException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * This class is an immutable trie that dispatches a requested path to its {@link IService} in a
+ * single pass over the path. It is compiled once from a tree of {@link IServiceFactory}s (see
+ * {@link IServiceFactory#compile(RouteBuilder)}), such that no path scanner has to be created and
+ * no IRI has to be resolved for each path segment. The IRIs of the path and of the captured path
+ * variables are only created, if the {@link ServiceEndpoint} asks for them.
+ * <p>
+ * The errors for unknown paths have the same messages as the ones of the {@link IServiceFactory}s,
+ * whose possible continuations are listed in alphabetical order.
+ *
+ * @author Kevin Haller
+ */
+public final class DispatchTrie {
+
+    private static final int INITIAL_SEGMENT_CAPACITY = 8;
+
+    private final String baseIRI;
+    private final Node root;
+
+    private DispatchTrie(String baseIRI, Node root) {
+        this.baseIRI = baseIRI;
+        this.root = root;
+    }
+
+    /**
+     * Compiles the tree of {@link IServiceFactory}s with the given root into a
+     * {@link DispatchTrie}.
+     *
+     * @param baseIRI     the base IRI against which the paths are resolved.
+     * @param rootFactory the {@link IServiceFactory} that is the root of the tree.
+     * @return the compiled {@link DispatchTrie}.
+     */
+    public static DispatchTrie compile(String baseIRI, IServiceFactory rootFactory) {
+        assert baseIRI != null;
+        assert rootFactory != null;
+        RouteBuilder rootRoute = new RouteBuilder();
+        rootFactory.compile(rootRoute);
+        return new DispatchTrie(baseIRI, new Node(rootRoute, ""));
+    }
+
+    /**
+     * Dispatches the given path to the {@link IService} that is responsible for it.
+     *
+     * @param path the path relative to the base IRI, which consists of segments separated by '/'.
+     * @return the {@link IService} that is responsible for the given path.
+     * @throws IRIUnknownException if no service is assigned to the given path.
+     * @throws IRIInvalidException if the given path is not valid.
+     */
+    public IService dispatch(String path) throws IRIInvalidException, IRIUnknownException {
+        assert path != null;
+        int length = path.length();
+        int[] segmentStarts = new int[INITIAL_SEGMENT_CAPACITY];
+        int[] segmentEnds = new int[INITIAL_SEGMENT_CAPACITY];
+        int segmentCount = 0;
+        String[] variableNames = null;
+        int[] variableSegments = null;
+        int variableCount = 0;
+        boolean canonical = true;
+        Node node = root;
+        int position = 0;
+        while (true) {
+            int segmentStart = position;
+            while (position < length && path.charAt(position) == '/') {
+                position++;
+            }
+            if (position > segmentStart && (segmentStart == 0 || position - segmentStart > 1)
+                && position < length) {
+                canonical = false;
+            }
+            if (position >= length || node.remainderEndpoint != null) {
+                break;
+            }
+            int segmentEnd = path.indexOf('/', position);
+            if (segmentEnd < 0) {
+                segmentEnd = length;
+            }
+            Node next = node.literalChildren.isEmpty() ? null :
+                node.literalChildren.get(path.substring(position, segmentEnd));
+            if (next == null && node.variableChild != null) {
+                if (variableNames == null) {
+                    variableNames = new String[INITIAL_SEGMENT_CAPACITY];
+                    variableSegments = new int[INITIAL_SEGMENT_CAPACITY];
+                } else if (variableCount == variableNames.length) {
+                    variableNames = Arrays.copyOf(variableNames, variableCount * 2);
+                    variableSegments = Arrays.copyOf(variableSegments, variableCount * 2);
+                }
+                variableNames[variableCount] = node.variableName;
+                variableSegments[variableCount++] = segmentCount;
+                next = node.variableChild;
+            }
+            if (segmentCount == segmentStarts.length) {
+                segmentStarts = Arrays.copyOf(segmentStarts, segmentCount * 2);
+                segmentEnds = Arrays.copyOf(segmentEnds, segmentCount * 2);
+            }
+            segmentStarts[segmentCount] = position;
+            segmentEnds[segmentCount] = segmentEnd;
+            if (next == null) {
+                PathMatch match =
+                    new PathMatch(baseIRI, path, canonical, segmentStarts, segmentEnds,
+                        segmentCount, variableNames, variableSegments, variableCount, position);
+                String nodeIRI = match.rawIRI();
+                String segmentIRI = match.prefixIRI(segmentCount + 1);
+                if (node.literalChildren.isEmpty()) {
+                    throw new IRIUnknownException(String
+                        .format("'%s' does not expect any further path segments. '%s' is not valid.",
+                            nodeIRI, segmentIRI));
+                }
+                throw new IRIUnknownException(String.format(
+                    "The given IRI '%s' is not valid. Possible continuations of '%s' are ../%s.",
+                    segmentIRI, nodeIRI, node.continuations));
+            }
+            segmentCount++;
+            node = next;
+            position = segmentEnd;
+        }
+        PathMatch match =
+            new PathMatch(baseIRI, path, canonical, segmentStarts, segmentEnds, segmentCount,
+                variableNames, variableSegments, variableCount, position);
+        if (node.remainderEndpoint != null) {
+            return node.remainderEndpoint.createService(match);
+        } else if (node.endpoint != null) {
+            return node.endpoint.createService(match);
+        }
+        throw new IRIUnknownException(
+            String.format("There is no service assigned to '%s'.", match.rawIRI()));
+    }
+
+    /**
+     * Gets the template of the route to which the given path is dispatched, in which the captured
+     * path variables are replaced by their names in curly brackets (e.g.
+     * {@code spatial/room/id/{id}}). The remainder of a path that passes a remainder endpoint is
+     * represented by {@code **}. The service is not created by this method.
+     *
+     * @param path the path relative to the base IRI, which consists of segments separated by '/'.
+     * @return the template of the route to which the given path is dispatched, or null, if no
+     * service is assigned to the given path.
+     */
+    public String template(String path) {
+        assert path != null;
+        int length = path.length();
+        Node node = root;
+        int position = 0;
+        while (node.remainderEndpoint == null) {
+            while (position < length && path.charAt(position) == '/') {
+                position++;
+            }
+            if (position >= length) {
+                return node.endpoint != null ? node.template : null;
+            }
+            int segmentEnd = path.indexOf('/', position);
+            if (segmentEnd < 0) {
+                segmentEnd = length;
+            }
+            Node next = node.literalChildren.isEmpty() ? null :
+                node.literalChildren.get(path.substring(position, segmentEnd));
+            if (next == null) {
+                next = node.variableChild;
+                if (next == null) {
+                    return null;
+                }
+            }
+            node = next;
+            position = segmentEnd;
+        }
+        return node.remainderTemplate();
+    }
+
+    /**
+     * Gets the templates of all routes of this trie in alphabetical order (see
+     * {@link #template(String)}).
+     *
+     * @return the templates of all routes of this trie in alphabetical order.
+     */
+    public SortedSet<String> templates() {
+        SortedSet<String> templates = new TreeSet<>();
+        collectTemplates(root, templates);
+        return Collections.unmodifiableSortedSet(templates);
+    }
+
+    private static void collectTemplates(Node node, SortedSet<String> templates) {
+        if (node.remainderEndpoint != null) {
+            templates.add(node.remainderTemplate());
+            return;
+        }
+        if (node.endpoint != null) {
+            templates.add(node.template);
+        }
+        for (Node child : node.literalChildren.values()) {
+            collectTemplates(child, templates);
+        }
+        if (node.variableChild != null) {
+            collectTemplates(node.variableChild, templates);
+        }
+    }
+
+    /**
+     * This class represents an immutable node of the {@link DispatchTrie}.
+     */
+    private static final class Node {
+
+        private final Map<String, Node> literalChildren;
+        private final String continuations;
+        private final String variableName;
+        private final Node variableChild;
+        private final ServiceEndpoint endpoint;
+        private final ServiceEndpoint remainderEndpoint;
+        private final String template;
+
+        private Node(RouteBuilder route, String template) {
+            this.template = template;
+            String childPrefix = template.isEmpty() ? "" : template + "/";
+            continuations = String.join(", ../", new TreeSet<>(route.literalChildren.keySet()));
+            if (route.literalChildren.isEmpty()) {
+                literalChildren = Collections.emptyMap();
+            } else {
+                Map<String, Node> children = new HashMap<>();
+                for (Map.Entry<String, RouteBuilder> childEntry : route.literalChildren
+                    .entrySet()) {
+                    children.put(childEntry.getKey(),
+                        new Node(childEntry.getValue(), childPrefix + childEntry.getKey()));
+                }
+                literalChildren = Collections.unmodifiableMap(children);
+            }
+            variableName = route.variableName;
+            variableChild = route.variableChild != null ?
+                new Node(route.variableChild, childPrefix + "{" + variableName + "}") : null;
+            endpoint = route.endpoint;
+            remainderEndpoint = route.remainderEndpoint;
+        }
+
+        private String remainderTemplate() {
+            return template.isEmpty() ? "**" : template + "/**";
+        }
+    }
+
+}
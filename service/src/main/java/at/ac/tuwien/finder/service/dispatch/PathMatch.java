@@ -0,0 +1,204 @@
+package at.ac.tuwien.finder.service.dispatch;
+
+import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+/**
+ * This class represents the result of dispatching a path in a {@link DispatchTrie}. It gives
+ * access to the IRI of the matched path, the captured path variables and the remainder of the path
+ * that has not been dispatched by the trie. The IRIs are only created on demand.
+ *
+ * @author Kevin Haller
+ */
+public final class PathMatch {
+
+    private final String baseIRI;
+    private final String path;
+    private final boolean canonical;
+    private final int[] segmentStarts;
+    private final int[] segmentEnds;
+    private final int segmentCount;
+    private final String[] variableNames;
+    private final int[] variableSegments;
+    private final int variableCount;
+    private final int remainderStart;
+
+    PathMatch(String baseIRI, String path, boolean canonical, int[] segmentStarts,
+        int[] segmentEnds, int segmentCount, String[] variableNames, int[] variableSegments,
+        int variableCount, int remainderStart) {
+        this.baseIRI = baseIRI;
+        this.path = path;
+        this.canonical = canonical;
+        this.segmentStarts = segmentStarts;
+        this.segmentEnds = segmentEnds;
+        this.segmentCount = segmentCount;
+        this.variableNames = variableNames;
+        this.variableSegments = variableSegments;
+        this.variableCount = variableCount;
+        this.remainderStart = remainderStart;
+    }
+
+    /**
+     * Gets the raw IRI of the matched path. The remainder of the path is not part of this IRI.
+     *
+     * @return the raw IRI of the matched path.
+     */
+    public String rawIRI() {
+        return prefixIRI(segmentCount);
+    }
+
+    /**
+     * Gets the {@link IResourceIdentifier} of the matched path. The remainder of the path is not
+     * part of this IRI.
+     *
+     * @return the {@link IResourceIdentifier} of the matched path.
+     */
+    public IResourceIdentifier iri() {
+        return new IResourceIdentifier(rawIRI());
+    }
+
+    /**
+     * Gets the {@link IResourceIdentifier} of the matched path without its given number of last
+     * path segments.
+     *
+     * @param levels the number of last path segments that shall be left out.
+     * @return the {@link IResourceIdentifier} of the matched path without its given number of last
+     * path segments.
+     */
+    public IResourceIdentifier ancestor(int levels) {
+        assert levels >= 0 && levels <= segmentCount;
+        return new IResourceIdentifier(prefixIRI(segmentCount - levels));
+    }
+
+    /**
+     * Gets the path segment that has been captured by the path variable with the given name. If
+     * the variable has been captured several times, the last capture is returned.
+     *
+     * @param name the name of the path variable.
+     * @return the captured path segment, or null, if the variable has not been captured.
+     */
+    public String variable(String name) {
+        int segment = variableSegment(name);
+        return segment >= 0 ? path.substring(segmentStarts[segment], segmentEnds[segment]) : null;
+    }
+
+    /**
+     * Gets the raw IRI of the resource that has been captured by the path variable with the given
+     * name, which is the IRI of the path up to and including the captured segment.
+     *
+     * @param name the name of the path variable.
+     * @return the raw IRI of the captured resource, or null, if the variable has not been captured.
+     */
+    public String parameter(String name) {
+        int segment = variableSegment(name);
+        return segment >= 0 ? prefixIRI(segment + 1) : null;
+    }
+
+    /**
+     * Gets the {@link IResourceIdentifier} of the resource that has been captured by the path
+     * variable with the given name (see {@link #parameter(String)}).
+     *
+     * @param name the name of the path variable.
+     * @return the {@link IResourceIdentifier} of the captured resource, or null, if the variable
+     * has not been captured.
+     */
+    public IResourceIdentifier resource(String name) {
+        String parameter = parameter(name);
+        return parameter != null ? new IResourceIdentifier(parameter) : null;
+    }
+
+    /**
+     * Gets the map of all captured path variables to the IRIs of the captured resources, as it is
+     * passed to {@link at.ac.tuwien.finder.service.IServiceFactory#getService}.
+     *
+     * @return the map of all captured path variables to the IRIs of the captured resources.
+     */
+    public Map<String, String> parameters() {
+        Map<String, String> parameters = new HashMap<>();
+        for (int i = 0; i < variableCount; i++) {
+            parameters.put(variableNames[i], prefixIRI(variableSegments[i] + 1));
+        }
+        return parameters;
+    }
+
+    /**
+     * Gets the path segments that follow the node at which the dispatching has been stopped by
+     * a remainder endpoint (see {@link RouteBuilder#remainder(ServiceEndpoint)}).
+     *
+     * @return the remaining path segments, which might be empty.
+     */
+    public List<String> remainder() {
+        if (remainderStart >= path.length()) {
+            return Collections.emptyList();
+        }
+        List<String> remainder = new ArrayList<>();
+        int position = remainderStart;
+        while (position < path.length()) {
+            int end = path.indexOf('/', position);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (end > position) {
+                remainder.add(path.substring(position, end));
+            }
+            position = end + 1;
+        }
+        return remainder;
+    }
+
+    /**
+     * Gets a {@link Scanner} over the remaining path segments that has '/' as delimiter, as it is
+     * expected by {@link at.ac.tuwien.finder.service.IServiceFactory#getService}.
+     *
+     * @return a {@link Scanner} over the remaining path segments.
+     */
+    public Scanner remainderScanner() {
+        Scanner remainderScanner = new Scanner(String.join("/", remainder()));
+        remainderScanner.useDelimiter("/");
+        return remainderScanner;
+    }
+
+    /**
+     * Gets the index of the segment that has been captured last by the path variable with the
+     * given name.
+     *
+     * @param name the name of the path variable.
+     * @return the index of the segment, or -1, if the variable has not been captured.
+     */
+    private int variableSegment(String name) {
+        for (int i = variableCount - 1; i >= 0; i--) {
+            if (variableNames[i].equals(name)) {
+                return variableSegments[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the raw IRI of the first given number of path segments.
+     *
+     * @param count the number of path segments.
+     * @return the raw IRI of the first given number of path segments.
+     */
+    String prefixIRI(int count) {
+        if (count == 0) {
+            return baseIRI;
+        }
+        String base = baseIRI.endsWith("/") ? baseIRI.substring(0, baseIRI.length() - 1) : baseIRI;
+        if (canonical) {
+            return base + "/" + path.substring(0, segmentEnds[count - 1]);
+        }
+        StringBuilder iriBuilder = new StringBuilder(base);
+        for (int i = 0; i < count; i++) {
+            iriBuilder.append('/').append(path, segmentStarts[i], segmentEnds[i]);
+        }
+        return iriBuilder.toString();
+    }
+
+}
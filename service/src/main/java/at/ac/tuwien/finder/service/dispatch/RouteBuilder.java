@@ -0,0 +1,86 @@
+package at.ac.tuwien.finder.service.dispatch;
+
+import at.ac.tuwien.finder.service.IServiceFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class is used to describe a node of a {@link DispatchTrie} before it is compiled. Every
+ * {@link IServiceFactory} registers its {@link ServiceEndpoint}s and the nodes of the factories
+ * managed by it at the {@link RouteBuilder} of the path segment that it handles (see
+ * {@link IServiceFactory#compile(RouteBuilder)}).
+ *
+ * @author Kevin Haller
+ */
+public class RouteBuilder {
+
+    Map<String, RouteBuilder> literalChildren = new HashMap<>();
+    String variableName;
+    RouteBuilder variableChild;
+    ServiceEndpoint endpoint;
+    ServiceEndpoint remainderEndpoint;
+
+    RouteBuilder() {
+    }
+
+    /**
+     * Gets the {@link RouteBuilder} for the given literal path segment that follows this node. It
+     * is created, if it does not exist yet.
+     *
+     * @param segment the literal path segment.
+     * @return the {@link RouteBuilder} for the given literal path segment.
+     */
+    public RouteBuilder literal(String segment) {
+        assert segment != null && !segment.isEmpty() && segment.indexOf('/') < 0;
+        return literalChildren.computeIfAbsent(segment, s -> new RouteBuilder());
+    }
+
+    /**
+     * Gets the {@link RouteBuilder} for a path variable with the given name that follows this
+     * node. Every path segment that does not match a literal segment is captured by this variable.
+     * A node can have only one variable.
+     *
+     * @param name the name of the path variable.
+     * @return the {@link RouteBuilder} for the path variable.
+     */
+    public RouteBuilder variable(String name) {
+        assert name != null;
+        if (variableChild == null) {
+            variableName = name;
+            variableChild = new RouteBuilder();
+        } else if (!variableName.equals(name)) {
+            throw new IllegalStateException(String
+                .format("The path variable '%s' conflicts with the path variable '%s'.", name,
+                    variableName));
+        }
+        return variableChild;
+    }
+
+    /**
+     * Sets the {@link ServiceEndpoint} for paths that end at this node.
+     *
+     * @param endpoint {@link ServiceEndpoint} for paths that end at this node.
+     * @return this {@link RouteBuilder}.
+     */
+    public RouteBuilder endpoint(ServiceEndpoint endpoint) {
+        assert endpoint != null;
+        this.endpoint = endpoint;
+        return this;
+    }
+
+    /**
+     * Sets the {@link ServiceEndpoint} for all paths that pass this node. The path segments after
+     * this node are not dispatched by the trie, but handed to the given endpoint as remainder (see
+     * {@link PathMatch#remainder()}).
+     *
+     * @param remainderEndpoint {@link ServiceEndpoint} for all paths that pass this node.
+     * @return this {@link RouteBuilder}.
+     */
+    public RouteBuilder remainder(ServiceEndpoint remainderEndpoint) {
+        assert remainderEndpoint != null;
+        this.remainderEndpoint = remainderEndpoint;
+        return this;
+    }
+
+}
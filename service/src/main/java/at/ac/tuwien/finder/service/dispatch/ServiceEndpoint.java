@@ -0,0 +1,26 @@
+package at.ac.tuwien.finder.service.dispatch;
+
+import at.ac.tuwien.finder.service.IService;
+import at.ac.tuwien.finder.service.exception.IRIInvalidException;
+import at.ac.tuwien.finder.service.exception.IRIUnknownException;
+
+/**
+ * Instances of this interface represent the end of a path in a {@link DispatchTrie} and create
+ * the {@link IService} that is assigned to a matched path.
+ *
+ * @author Kevin Haller
+ */
+@FunctionalInterface
+public interface ServiceEndpoint {
+
+    /**
+     * Creates the {@link IService} for the given {@link PathMatch}.
+     *
+     * @param match {@link PathMatch} of the requested path.
+     * @return the {@link IService} that is assigned to the matched path.
+     * @throws IRIUnknownException if no service is assigned to the matched path.
+     * @throws IRIInvalidException if the matched path is not valid.
+     */
+    IService createService(PathMatch match) throws IRIInvalidException, IRIUnknownException;
+
+}
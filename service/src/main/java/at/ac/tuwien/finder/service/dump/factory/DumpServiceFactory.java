@@ -4,6 +4,7 @@ import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.dump.service.DumpService;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
@@ -48,4 +49,9 @@ public class DumpServiceFactory implements IServiceFactory {
         }
         return new DumpService(parentIRI, tripleStoreManager);
     }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        route.endpoint(match -> new DumpService(match.iri(), tripleStoreManager));
+    }
 }
@@ -5,8 +5,10 @@ import at.ac.tuwien.finder.dto.Dto;
 import at.ac.tuwien.finder.dto.SimpleResourceDto;
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
 import at.ac.tuwien.finder.service.IService;
+import at.ac.tuwien.finder.service.StreamingService;
 import at.ac.tuwien.finder.service.exception.ServiceException;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.util.ModelBuilder;
@@ -14,16 +16,22 @@ import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.VOID;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.helpers.RDFHandlerWrapper;
 import org.eclipse.rdf4j.rio.helpers.StatementCollector;
 
 import java.util.Date;
 
 /**
  * This class is an implementation of {@link IService} that provides a dump of the whole dataset.
+ * The dump can also be streamed (see {@link StreamingService}), which should be preferred, because
+ * the whole dataset has not to be kept in memory.
  *
  * @author Kevin Haller
  */
-public class DumpService implements IService {
+public class DumpService implements StreamingService {
 
     private IResourceIdentifier dumpIRI;
     private TripleStoreManager tripleStoreManager;
@@ -41,21 +49,48 @@ public class DumpService implements IService {
         this.tripleStoreManager = tripleStoreManager;
     }
 
+    /**
+     * Returns the description of this dump.
+     *
+     * @return {@link Model} describing this dump.
+     */
+    private Model describeDump() {
+        ValueFactory valueFactory = SimpleValueFactory.getInstance();
+        return new ModelBuilder().add(dumpIRI.iriValue(), RDF.TYPE, VOID.DATASET)
+            .add(dumpIRI.iriValue(), DCTERMS.TITLE,
+                valueFactory.createLiteral("RDF dump of the Finder (app)."))
+            .add(dumpIRI.iriValue(), DCTERMS.ISSUED, valueFactory.createLiteral(new Date()))
+            .add(dumpIRI.iriValue(), DCTERMS.DESCRIPTION,
+                "This dataset is a RDF dump of the finder (app) including spatial, organizational and event data of TU Vienna.")
+            .add(dumpIRI.iriValue(), DCTERMS.CONTRIBUTOR, valueFactory
+                .createIRI("http://dbpedia.org/resource/Vienna_University_of_Technology"))
+            .build();
+    }
+
     @Override
     public Dto execute() throws ServiceException {
-        try (RepositoryConnection connection = tripleStoreManager.getConnection()) {
-            ValueFactory valueFactory = SimpleValueFactory.getInstance();
-            Model dumpModel = new ModelBuilder().add(dumpIRI.iriValue(), RDF.TYPE, VOID.DATASET)
-                .add(dumpIRI.iriValue(), DCTERMS.TITLE,
-                    valueFactory.createLiteral("RDF dump of the Finder (app)."))
-                .add(dumpIRI.iriValue(), DCTERMS.ISSUED, valueFactory.createLiteral(new Date()))
-                .add(dumpIRI.iriValue(), DCTERMS.DESCRIPTION,
-                    "This dataset is a RDF dump of the finder (app) including spatial, organizational and event data of TU Vienna.")
-                .add(dumpIRI.iriValue(), DCTERMS.CONTRIBUTOR, valueFactory
-                    .createIRI("http://dbpedia.org/resource/Vienna_University_of_Technology"))
-                .build();
+        try (RepositoryConnection connection = tripleStoreManager.getFederatedConnection()) {
+            Model dumpModel = describeDump();
             connection.exportStatements(null, null, null, true, new StatementCollector(dumpModel));
             return new SimpleResourceDto(dumpIRI, dumpModel);
         }
     }
+
+    @Override
+    public void stream(RDFHandler rdfHandler) throws ServiceException {
+        Model dumpDescription = describeDump();
+        try (RepositoryConnection connection = tripleStoreManager.getFederatedConnection()) {
+            connection.exportStatements(null, null, null, true, new RDFHandlerWrapper(rdfHandler) {
+                @Override
+                public void startRDF() throws RDFHandlerException {
+                    super.startRDF();
+                    for (Statement statement : dumpDescription) {
+                        super.handleStatement(statement);
+                    }
+                }
+            });
+        } catch (RepositoryException | RDFHandlerException e) {
+            throw new ServiceException(e);
+        }
+    }
 }
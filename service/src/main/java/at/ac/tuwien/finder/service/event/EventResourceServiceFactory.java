@@ -3,6 +3,7 @@ package at.ac.tuwien.finder.service.event;
 import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
 import at.ac.tuwien.finder.service.*;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 
@@ -57,6 +58,23 @@ class EventResourceServiceFactory extends InternalTreeNodeServiceFactory {
             return super.getService(newParent, pathScanner,
                 super.pushParameter(parameter, "id", newParent.rawIRI()));
         }
-        return new SimpleDescribeResourceService(tripleStoreManager, newParent.rawIRI());
+        return describe(newParent);
+    }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        RouteBuilder resourceRoute = route.variable("id");
+        super.compile(resourceRoute);
+        resourceRoute.endpoint(match -> describe(match.resource("id")));
+    }
+
+    /**
+     * Creates the {@link IService} that describes the resource with the given IRI.
+     *
+     * @param resource {@link IResourceIdentifier} of the resource that shall be described.
+     * @return the {@link IService} that describes the resource with the given IRI.
+     */
+    private IService describe(IResourceIdentifier resource) {
+        return new SimpleDescribeResourceService(tripleStoreManager, resource.rawIRI());
     }
 }
@@ -0,0 +1,24 @@
+package at.ac.tuwien.finder.service.exception;
+
+/**
+ * This class represents a {@link ResourceNotFoundException} that will be thrown, if a requested
+ * resource is known to be absent from the knowledge base without querying it (see
+ * {@link at.ac.tuwien.finder.service.cache.KnownResourceFilter}). Its message does not depend on
+ * the requested resource, such that its representation can be shared by all responses. It has no
+ * stack trace, because it is thrown for each request of an unknown resource.
+ *
+ * @author Kevin Haller
+ */
+public class UnknownResourceException extends ResourceNotFoundException {
+
+    public static final String MESSAGE = "The requested resource is unknown.";
+
+    /**
+     * Creates a new {@link UnknownResourceException} for the given resource.
+     *
+     * @param resourceUri the URI for which the resource cannot be found in the knowledge base.
+     */
+    public UnknownResourceException(String resourceUri) {
+        super(MESSAGE, null, false, false, resourceUri);
+    }
+}
@@ -0,0 +1,89 @@
+package at.ac.tuwien.finder.service.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is a histogram of latencies with fixed buckets, which can be updated concurrently
+ * without locking. The buckets are cumulative, as it is expected by the Prometheus text format.
+ *
+ * @author Kevin Haller
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The upper bounds of the buckets in seconds.
+     */
+    static final double[] BUCKET_BOUNDS =
+        {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private static final long[] BUCKET_BOUNDS_NANOS = new long[BUCKET_BOUNDS.length];
+
+    static {
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            BUCKET_BOUNDS_NANOS[i] = (long) (BUCKET_BOUNDS[i] * 1_000_000_000L);
+        }
+    }
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    /**
+     * Creates a new empty {@link LatencyHistogram}.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records the given latency.
+     *
+     * @param nanos the latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        count.increment();
+        sumNanos.add(nanos);
+        for (int i = 0; i < BUCKET_BOUNDS_NANOS.length; i++) {
+            if (nanos <= BUCKET_BOUNDS_NANOS[i]) {
+                buckets[i].increment();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of recorded latencies.
+     *
+     * @return the number of recorded latencies.
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the sum of all recorded latencies in seconds.
+     *
+     * @return the sum of all recorded latencies in seconds.
+     */
+    public double sumSeconds() {
+        return sumNanos.sum() / 1e9;
+    }
+
+    /**
+     * Gets the cumulative number of recorded latencies that are less than or equal to the upper
+     * bound of each bucket (see {@link #BUCKET_BOUNDS}).
+     *
+     * @return the cumulative number of recorded latencies per bucket.
+     */
+    public long[] cumulativeBucketCounts() {
+        long[] cumulativeCounts = new long[buckets.length];
+        long cumulativeCount = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulativeCount += buckets[i].sum();
+            cumulativeCounts[i] = cumulativeCount;
+        }
+        return cumulativeCounts;
+    }
+}
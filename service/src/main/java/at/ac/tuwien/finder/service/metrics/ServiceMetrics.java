@@ -0,0 +1,255 @@
+package at.ac.tuwien.finder.service.metrics;
+
+import at.ac.tuwien.finder.service.query.QueryRegistry;
+import at.ac.tuwien.finder.service.query.QueryTemplate;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class records the latencies of the requests to the services and of the phases of their
+ * computation (dispatching of the path, evaluation of the query, mapping of the result and its
+ * serialization). The latencies are recorded per route template (e.g.
+ * {@code spatial/room/id/{id}}), such that the number of recorded series is bounded by the
+ * number of routes and not by the number of resources.
+ * <p>
+ * The phases of a service are executed on the thread that computes the request. The route of the
+ * request is therefore bound to this thread (see {@link #bindRoute(String)}), such that the
+ * services can record their phases without knowing the route.
+ * <p>
+ * The latencies of the evaluations of the query templates, which are recorded by the templates
+ * themselves, are exposed together with the latencies of the requests. Moreover, the outcomes of
+ * the coalescing of concurrent identical requests are counted per route (see
+ * {@link at.ac.tuwien.finder.service.RequestCoalescer}).
+ *
+ * @author Kevin Haller
+ */
+public final class ServiceMetrics {
+
+    /**
+     * The route template for paths to which no service is assigned.
+     */
+    public static final String UNKNOWN_ROUTE = "unknown";
+
+    /**
+     * This enum represents the phases of the computation of a request.
+     */
+    public enum Phase {
+        DISPATCH, QUERY, MAPPING, SERIALIZATION;
+
+        private String label() {
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    /**
+     * This enum represents the outcomes of the coalescing of a request with concurrent identical
+     * requests.
+     */
+    public enum Coalescing {
+        EXECUTED, SHARED, TIMED_OUT;
+
+        private String label() {
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    private static final ServiceMetrics instance = new ServiceMetrics();
+
+    private final ThreadLocal<String> boundRoute = new ThreadLocal<>();
+    private final ConcurrentMap<String, LatencyHistogram> requestHistograms =
+        new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> phaseHistograms =
+        new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> coalescingCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the {@link ServiceMetrics} of this application.
+     *
+     * @return the {@link ServiceMetrics} of this application.
+     */
+    public static ServiceMetrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * Binds the given route template to the current thread. The phases that are recorded by this
+     * thread are assigned to this route, until {@link #unbindRoute()} is called.
+     *
+     * @param route the route template that shall be bound to the current thread.
+     */
+    public void bindRoute(String route) {
+        assert route != null;
+        boundRoute.set(route);
+    }
+
+    /**
+     * Gets the route template that is bound to the current thread.
+     *
+     * @return the route template that is bound to the current thread, or an empty
+     * {@link Optional}, if no route is bound to the current thread.
+     */
+    public Optional<String> boundRoute() {
+        return Optional.ofNullable(boundRoute.get());
+    }
+
+    /**
+     * Removes the route template that is bound to the current thread.
+     */
+    public void unbindRoute() {
+        boundRoute.remove();
+    }
+
+    /**
+     * Records the latency of the given phase for the route that is bound to the current thread.
+     *
+     * @param phase     the {@link Phase} of which the latency shall be recorded.
+     * @param startTime the value of {@link System#nanoTime()} at the start of the phase.
+     */
+    public void recordPhase(Phase phase, long startTime) {
+        String route = boundRoute.get();
+        recordPhase(route != null ? route : UNKNOWN_ROUTE, phase, startTime);
+    }
+
+    /**
+     * Records the latency of the given phase for the given route.
+     *
+     * @param route     the route template for which the latency shall be recorded.
+     * @param phase     the {@link Phase} of which the latency shall be recorded.
+     * @param startTime the value of {@link System#nanoTime()} at the start of the phase.
+     */
+    public void recordPhase(String route, Phase phase, long startTime) {
+        assert route != null;
+        assert phase != null;
+        histogram(phaseHistograms,
+            String.format("route=\"%s\",phase=\"%s\"", escape(route), phase.label()))
+            .record(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Records the latency of a request to the given route that has been answered in the given
+     * format with the given status code.
+     *
+     * @param route     the route template for which the latency shall be recorded.
+     * @param format    the format of the response.
+     * @param status    the status code of the response.
+     * @param startTime the value of {@link System#nanoTime()} at the start of the request.
+     */
+    public void recordRequest(String route, String format, int status, long startTime) {
+        assert route != null;
+        assert format != null;
+        histogram(requestHistograms,
+            String.format("route=\"%s\",format=\"%s\",status=\"%d\"", escape(route),
+                escape(format), status)).record(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Records the given outcome of the coalescing of a request for the route that is bound to the
+     * current thread.
+     *
+     * @param coalescing the {@link Coalescing} outcome that shall be recorded.
+     */
+    public void recordCoalescing(Coalescing coalescing) {
+        assert coalescing != null;
+        String route = boundRoute.get();
+        String labels = String.format("route=\"%s\",outcome=\"%s\"",
+            escape(route != null ? route : UNKNOWN_ROUTE), coalescing.label());
+        LongAdder counter = coalescingCounters.get(labels);
+        if (counter == null) {
+            counter = coalescingCounters.computeIfAbsent(labels, key -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Writes the recorded latencies and counters in the Prometheus text format (version 0.0.4) to
+     * the given {@link StringBuilder}.
+     *
+     * @param builder {@link StringBuilder} to which the latencies shall be written.
+     */
+    public void writePrometheus(StringBuilder builder) {
+        writeHistograms(builder, "finder_request_duration_seconds",
+            "Latency of the requests to the services.", requestHistograms);
+        writeHistograms(builder, "finder_phase_duration_seconds",
+            "Latency of the phases of the computation of the requests.", phaseHistograms);
+        Map<String, LatencyHistogram> templateHistograms = new HashMap<>();
+        for (QueryTemplate template : QueryRegistry.getInstance().getTemplates()) {
+            templateHistograms.put(String.format("template=\"%s\"", escape(template.getName())),
+                template.getLatencies());
+        }
+        writeHistograms(builder, "finder_query_template_duration_seconds",
+            "Latency of the evaluations of the query templates.", templateHistograms);
+        builder.append("# HELP finder_coalesced_requests_total ")
+            .append("Outcomes of the coalescing of concurrent identical requests.\n");
+        builder.append("# TYPE finder_coalesced_requests_total counter\n");
+        for (Map.Entry<String, LongAdder> counterEntry : new TreeMap<>(coalescingCounters)
+            .entrySet()) {
+            builder.append("finder_coalesced_requests_total{").append(counterEntry.getKey())
+                .append("} ").append(counterEntry.getValue().sum()).append('\n');
+        }
+    }
+
+    /**
+     * Gets the {@link LatencyHistogram} for the given labels out of the given map. If there is no
+     * such histogram, a new one is created.
+     *
+     * @param histograms the map of labels to {@link LatencyHistogram}s.
+     * @param labels     the labels of the histogram in the Prometheus text format.
+     * @return the {@link LatencyHistogram} for the given labels.
+     */
+    private static LatencyHistogram histogram(ConcurrentMap<String, LatencyHistogram> histograms,
+        String labels) {
+        LatencyHistogram histogram = histograms.get(labels);
+        return histogram != null ? histogram :
+            histograms.computeIfAbsent(labels, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Writes the given histograms with the given metric name in the Prometheus text format to the
+     * given {@link StringBuilder}.
+     *
+     * @param builder    {@link StringBuilder} to which the histograms shall be written.
+     * @param name       the name of the metric.
+     * @param help       the description of the metric.
+     * @param histograms the map of labels to {@link LatencyHistogram}s.
+     */
+    private static void writeHistograms(StringBuilder builder, String name, String help,
+        Map<String, LatencyHistogram> histograms) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(" histogram\n");
+        for (Map.Entry<String, LatencyHistogram> histogramEntry : new TreeMap<>(histograms)
+            .entrySet()) {
+            String labels = histogramEntry.getKey();
+            LatencyHistogram histogram = histogramEntry.getValue();
+            long[] bucketCounts = histogram.cumulativeBucketCounts();
+            for (int i = 0; i < bucketCounts.length; i++) {
+                builder.append(name).append("_bucket{").append(labels).append(",le=\"")
+                    .append(LatencyHistogram.BUCKET_BOUNDS[i]).append("\"} ")
+                    .append(bucketCounts[i]).append('\n');
+            }
+            long count = Math.max(histogram.count(), bucketCounts[bucketCounts.length - 1]);
+            builder.append(name).append("_bucket{").append(labels).append(",le=\"+Inf\"} ")
+                .append(count).append('\n');
+            builder.append(name).append("_sum{").append(labels).append("} ")
+                .append(histogram.sumSeconds()).append('\n');
+            builder.append(name).append("_count{").append(labels).append("} ").append(count)
+                .append('\n');
+        }
+    }
+
+    /**
+     * Escapes the given label value for the Prometheus text format.
+     *
+     * @param labelValue the label value that shall be escaped.
+     * @return the escaped label value.
+     */
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -7,6 +7,7 @@ import at.ac.tuwien.finder.service.GraphDatasetService;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
 import at.ac.tuwien.finder.service.InternalTreeNodeServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 import at.ac.tuwien.finder.service.organizational.person.PersonServiceFactory;
@@ -70,4 +71,11 @@ public class OrganizationalServiceFactory extends InternalTreeNodeServiceFactory
     public Map<String, IServiceFactory> getServiceFactoryMap() {
         return organizationalServiceFactoryMap;
     }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        super.compile(route);
+        route.endpoint(match -> new GraphDatasetService(tripleStoreManager,
+            OrganizationalDataSet.NS.stringValue()));
+    }
 }
@@ -8,10 +8,12 @@ import at.ac.tuwien.finder.service.DescribeResourceService;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
 import at.ac.tuwien.finder.service.InternalTreeNodeServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 import at.ac.tuwien.finder.service.exception.ServiceException;
-import at.ac.tuwien.finder.vocabulary.ORG;
+import at.ac.tuwien.finder.service.query.QueryTemplate;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.outofbits.opinto.RDFMapper;
@@ -67,18 +69,34 @@ class PersonResourceServiceFactory extends InternalTreeNodeServiceFactory {
             return super.getService(newParent, pathScanner,
                 super.pushParameter(parameter, "id", newParent.rawIRI()));
         }
-        return new DescribeResourceService(tripleStoreManager, newParent.rawIRI()) {
+        return describe(newParent);
+    }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        RouteBuilder resourceRoute = route.variable("id");
+        super.compile(resourceRoute);
+        resourceRoute.endpoint(match -> describe(match.resource("id")));
+    }
+
+    /**
+     * Creates the {@link IService} that describes the resource with the given IRI.
+     *
+     * @param resource {@link IResourceIdentifier} of the resource that shall be described.
+     * @return the {@link IService} that describes the resource with the given IRI.
+     */
+    private IService describe(IResourceIdentifier resource) {
+        return new DescribeResourceService(tripleStoreManager, resource.rawIRI()) {
 
             @Override
-            public String getQuery() {
-                return String.format("DESCRIBE <%s> ?room WHERE { OPTIONAL {<%s> <%s> ?room} }",
-                    newParent.rawIRI(), newParent.rawIRI(), ORG.basedAt);
+            protected QueryTemplate getQueryTemplate() {
+                return QueryTemplates.PROJECT_PERSON;
             }
 
             @Override
             protected Dto wrapResult(Model model) throws ServiceException {
                 PersonDto personDto = RDFMapper.create().readValue(model, PersonDto.class,
-                    SimpleValueFactory.getInstance().createIRI(newParent.rawIRI()));
+                    SimpleValueFactory.getInstance().createIRI(resource.rawIRI()));
                 personDto.setModel(model);
                 return personDto;
             }
@@ -0,0 +1,185 @@
+package at.ac.tuwien.finder.service.paging;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.dto.Dto;
+import at.ac.tuwien.finder.dto.SimpleDtoCollectionDto;
+import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.service.QueryService;
+import at.ac.tuwien.finder.service.exception.ServiceException;
+import at.ac.tuwien.finder.service.metrics.ServiceMetrics;
+import at.ac.tuwien.finder.service.query.KeysetQuery;
+import at.ac.tuwien.finder.service.query.QueryTemplate;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
+import at.ac.tuwien.finder.vocabulary.HYDRA;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.RDFCollections;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.outofbits.opinto.RDFMapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is an implementation of {@link QueryService} that returns one page of a collection,
+ * whose members are ordered by their IRI. The members of the page are selected by a
+ * {@link KeysetQuery} and then described by one query, in which they are given as inline data.
+ * Hence, a page costs two bounded queries regardless of the size of the collection.
+ * <p>
+ * The returned page is the head of a RDF collection (rdf:List) of its members and is described as
+ * {@code hydra:PartialCollectionView} of the collection, which links to the first, next and
+ * previous page.
+ *
+ * @author Kevin Haller
+ */
+public class CollectionPageService implements QueryService {
+
+    private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+
+    private TripleStoreManager tripleStoreManager;
+    private IResourceIdentifier collectionIri;
+    private String label;
+    private PageRequest page;
+    private KeysetQuery membersQuery;
+    private Map<String, Value> bindings;
+    private QueryTemplate describeTemplate;
+    private Class<? extends Dto> memberClass;
+
+    /**
+     * Creates a new instance of {@link CollectionPageService} for the given page.
+     *
+     * @param tripleStoreManager the {@link TripleStoreManager} that manages the triple store that
+     *                           shall be used as knowledge base for this
+     *                           {@link CollectionPageService}.
+     * @param collectionIri      {@link IResourceIdentifier} of the paged collection.
+     * @param label              the label of the paged collection.
+     * @param page               the {@link PageRequest} of the requested page.
+     * @param membersQuery       {@link KeysetQuery} that selects the members of the collection.
+     * @param bindings           the values to which the other parameters of the given keyset query
+     *                           shall be bound.
+     * @param describeTemplate   {@link QueryTemplate} that describes the members given in its
+     *                           inline data block for {@code ?resource}.
+     * @param memberClass        the {@link Dto} class to which the members shall be mapped.
+     */
+    public CollectionPageService(TripleStoreManager tripleStoreManager,
+        IResourceIdentifier collectionIri, String label, PageRequest page,
+        KeysetQuery membersQuery, Map<String, ? extends Value> bindings,
+        QueryTemplate describeTemplate, Class<? extends Dto> memberClass) {
+        assert tripleStoreManager != null;
+        assert collectionIri != null;
+        assert label != null;
+        assert page != null;
+        assert membersQuery != null;
+        assert bindings != null;
+        assert describeTemplate != null;
+        assert memberClass != null;
+        this.tripleStoreManager = tripleStoreManager;
+        this.collectionIri = collectionIri;
+        this.label = label;
+        this.page = page;
+        this.membersQuery = membersQuery;
+        this.bindings = new HashMap<>(bindings);
+        this.describeTemplate = describeTemplate;
+        this.memberClass = memberClass;
+    }
+
+    @Override
+    public String getQuery() {
+        return (page.isForward() ? membersQuery.getForward() : membersQuery.getBackward())
+            .getQuery();
+    }
+
+    @Override
+    public Dto execute() throws ServiceException {
+        ServiceMetrics serviceMetrics = ServiceMetrics.getInstance();
+        long queryStartTime = System.nanoTime();
+        List<IRI> members;
+        boolean hasMore;
+        Model model;
+        try {
+            members = new ArrayList<>(tripleStoreManager.read(collectionIri.iriValue(),
+                connection -> membersQuery
+                    .members(connection, bindings, page.getKey(), page.isForward(),
+                        page.getLimit() + 1)));
+            hasMore = members.size() > page.getLimit();
+            if (hasMore) {
+                members = new ArrayList<>(members.subList(0, page.getLimit()));
+            }
+            if (!page.isForward()) {
+                Collections.reverse(members);
+            }
+            List<IRI> pageMembers = members;
+            model = members.isEmpty() ? new LinkedHashModel() : tripleStoreManager
+                .read(collectionIri.iriValue(), connection -> describeTemplate
+                    .evaluateGraph(connection, QueryTemplates.RESOURCE, pageMembers));
+        } catch (RepositoryException | QueryEvaluationException | RDFHandlerException e) {
+            throw new ServiceException(e);
+        }
+        serviceMetrics.recordPhase(ServiceMetrics.Phase.QUERY, queryStartTime);
+        long mappingStartTime = System.nanoTime();
+        IRI pageIri = page.resolve(collectionIri).iriValue();
+        describePage(model, pageIri, members, hasMore);
+        RDFCollections.asRDF(members, pageIri, model);
+        Dto pageDto = RDFMapper.create()
+            .readValue(model, SimpleDtoCollectionDto.class, memberClass, pageIri);
+        serviceMetrics.recordPhase(ServiceMetrics.Phase.MAPPING, mappingStartTime);
+        return pageDto;
+    }
+
+    /**
+     * Adds the description of the collection and of the given page as
+     * {@code hydra:PartialCollectionView} of it to the given model.
+     *
+     * @param model   the {@link Model} to which the description shall be added.
+     * @param pageIri the {@link IRI} of the requested page.
+     * @param members the members of the page in ascending order of their IRI.
+     * @param hasMore true, if there are further members in the direction of the request.
+     */
+    private void describePage(Model model, IRI pageIri, List<IRI> members, boolean hasMore) {
+        IRI collection = collectionIri.iriValue();
+        model.add(collection, RDF.TYPE, HYDRA.Collection);
+        model.add(collection, RDFS.LABEL, valueFactory.createLiteral(label, "en"));
+        model.add(collection, HYDRA.view, pageIri);
+        for (IRI member : members) {
+            model.add(collection, HYDRA.member, member);
+        }
+        model.add(pageIri, RDF.TYPE, HYDRA.PartialCollectionView);
+        model.add(pageIri, RDFS.LABEL, valueFactory.createLiteral(label, "en"));
+        model.add(pageIri, HYDRA.first,
+            PageRequest.first(page.getLimit()).resolve(collectionIri).iriValue());
+        PageRequest next = null;
+        PageRequest previous = null;
+        if (page.isForward()) {
+            if (hasMore) {
+                next = PageRequest.after(page.getLimit(), members.get(members.size() - 1));
+            }
+            if (!page.isFirst() && !members.isEmpty()) {
+                previous = PageRequest.before(page.getLimit(), members.get(0));
+            }
+        } else if (members.isEmpty()) {
+            next = PageRequest.first(page.getLimit());
+        } else {
+            next = PageRequest.after(page.getLimit(), members.get(members.size() - 1));
+            if (hasMore) {
+                previous = PageRequest.before(page.getLimit(), members.get(0));
+            }
+        }
+        if (next != null) {
+            model.add(pageIri, HYDRA.next, next.resolve(collectionIri).iriValue());
+        }
+        if (previous != null) {
+            model.add(pageIri, HYDRA.previous, previous.resolve(collectionIri).iriValue());
+        }
+    }
+}
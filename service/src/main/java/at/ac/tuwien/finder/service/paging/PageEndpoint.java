@@ -0,0 +1,32 @@
+package at.ac.tuwien.finder.service.paging;
+
+import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.service.IService;
+import at.ac.tuwien.finder.service.dispatch.PathMatch;
+import at.ac.tuwien.finder.service.exception.IRIInvalidException;
+import at.ac.tuwien.finder.service.exception.IRIUnknownException;
+
+/**
+ * Instances of this interface represent the end of the path of a page of a collection in a
+ * {@link at.ac.tuwien.finder.service.dispatch.DispatchTrie} (see
+ * {@link PageRequest#route(at.ac.tuwien.finder.service.dispatch.RouteBuilder, PageEndpoint)}).
+ *
+ * @author Kevin Haller
+ */
+@FunctionalInterface
+public interface PageEndpoint {
+
+    /**
+     * Creates the {@link IService} for the requested page of the given collection.
+     *
+     * @param match         {@link PathMatch} of the requested path.
+     * @param collectionIri {@link IResourceIdentifier} of the paged collection.
+     * @param page          the {@link PageRequest} of the requested page.
+     * @return the {@link IService} that is assigned to the requested page.
+     * @throws IRIUnknownException if no service is assigned to the matched path.
+     * @throws IRIInvalidException if the matched path is not valid.
+     */
+    IService createService(PathMatch match, IResourceIdentifier collectionIri, PageRequest page)
+        throws IRIInvalidException, IRIUnknownException;
+
+}
@@ -0,0 +1,251 @@
+package at.ac.tuwien.finder.service.paging;
+
+import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
+import at.ac.tuwien.finder.service.exception.IRIInvalidException;
+import at.ac.tuwien.finder.service.exception.IRIUnknownException;
+import org.eclipse.rdf4j.model.IRI;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Scanner;
+
+/**
+ * This class represents the request of a page of a collection, whose members are ordered by their
+ * IRI. A page is given by the path segments {@code limit/<n>} that follow the IRI of the
+ * collection, which request the first {@code n} members, optionally followed by
+ * {@code after/<cursor>} or {@code before/<cursor>}, which request the {@code n} members after or
+ * before the member of the opaque cursor (e.g. {@code spatial/rooms/limit/50/after/aHR0cDov...}).
+ *
+ * @author Kevin Haller
+ */
+public final class PageRequest {
+
+    /**
+     * The maximal number of members of a page.
+     */
+    public static final int MAX_LIMIT = 500;
+
+    private static final String LIMIT = "limit";
+    private static final String AFTER = "after";
+    private static final String BEFORE = "before";
+
+    private final int limit;
+    private final String key;
+    private final boolean forward;
+
+    /**
+     * Creates a new {@link PageRequest}.
+     *
+     * @param limit   the maximal number of members of the requested page.
+     * @param key     the IRI of the member after (or before) the requested page, or an empty
+     *                string for the first page.
+     * @param forward true, if the members after the given key are requested, or false, if the
+     *                members before the given key are requested.
+     */
+    private PageRequest(int limit, String key, boolean forward) {
+        assert limit > 0 && limit <= MAX_LIMIT;
+        assert key != null;
+        this.limit = limit;
+        this.key = key;
+        this.forward = forward;
+    }
+
+    /**
+     * Gets the request of the first page with the given limit.
+     *
+     * @param limit the maximal number of members of the page.
+     * @return the request of the first page with the given limit.
+     */
+    public static PageRequest first(int limit) {
+        return new PageRequest(limit, "", true);
+    }
+
+    /**
+     * Gets the request of the page with the given limit that follows the given member.
+     *
+     * @param limit the maximal number of members of the page.
+     * @param key   the {@link IRI} of the member that precedes the page.
+     * @return the request of the page with the given limit that follows the given member.
+     */
+    public static PageRequest after(int limit, IRI key) {
+        return new PageRequest(limit, key.stringValue(), true);
+    }
+
+    /**
+     * Gets the request of the page with the given limit that precedes the given member.
+     *
+     * @param limit the maximal number of members of the page.
+     * @param key   the {@link IRI} of the member that follows the page.
+     * @return the request of the page with the given limit that precedes the given member.
+     */
+    public static PageRequest before(int limit, IRI key) {
+        return new PageRequest(limit, key.stringValue(), false);
+    }
+
+    /**
+     * Parses the request of a page from the path segments of the given {@link Scanner}, which
+     * follow the given IRI of the collection. All remaining path segments are consumed.
+     *
+     * @param collectionIri {@link IResourceIdentifier} of the paged collection.
+     * @param pathScanner   the scanner that is pointing to the path segment after the collection.
+     * @return the parsed {@link PageRequest}.
+     * @throws IRIUnknownException if the path segments do not request a page.
+     * @throws IRIInvalidException if the limit or cursor of the requested page is not valid.
+     */
+    public static PageRequest parse(IResourceIdentifier collectionIri, Scanner pathScanner)
+        throws IRIInvalidException, IRIUnknownException {
+        String segment = pathScanner.next();
+        if (!LIMIT.equals(segment)) {
+            throw new IRIUnknownException(String
+                .format("'%s' does only expect the path segment '%s'. '%s' is not valid.",
+                    collectionIri.rawIRI(), LIMIT, collectionIri.resolve(segment).rawIRI()));
+        }
+        if (!pathScanner.hasNext()) {
+            throw new IRIInvalidException(String
+                .format("The maximal number of members must follow '%s'.",
+                    collectionIri.resolve(LIMIT).rawIRI()));
+        }
+        String limit = pathScanner.next();
+        if (!pathScanner.hasNext()) {
+            return of(collectionIri, limit, null, null);
+        }
+        String direction = pathScanner.next();
+        if (!pathScanner.hasNext()) {
+            throw new IRIInvalidException(String
+                .format("A cursor must follow '%s'.",
+                    collectionIri.resolve(String.join("/", LIMIT, limit, direction)).rawIRI()));
+        }
+        String cursor = pathScanner.next();
+        if (pathScanner.hasNext()) {
+            throw new IRIUnknownException(String
+                .format("There is no service assigned to '%s'.", collectionIri
+                    .resolve(String.join("/", LIMIT, limit, direction, cursor, pathScanner.next()))
+                    .rawIRI()));
+        }
+        return of(collectionIri, limit, direction, cursor);
+    }
+
+    /**
+     * Registers the routes of the pages of the collection of the given {@link RouteBuilder} at the
+     * given builder.
+     *
+     * @param collectionRoute {@link RouteBuilder} of the paged collection.
+     * @param endpoint        {@link PageEndpoint} that creates the services for the pages.
+     */
+    public static void route(RouteBuilder collectionRoute, PageEndpoint endpoint) {
+        RouteBuilder limitRoute = collectionRoute.literal(LIMIT).variable(LIMIT);
+        limitRoute.endpoint(match -> endpoint
+            .createService(match, match.ancestor(2),
+                of(match.ancestor(2), match.variable(LIMIT), null, null)));
+        for (String direction : new String[] {AFTER, BEFORE}) {
+            limitRoute.literal(direction).variable("cursor").endpoint(match -> endpoint
+                .createService(match, match.ancestor(4),
+                    of(match.ancestor(4), match.variable(LIMIT), direction,
+                        match.variable("cursor"))));
+        }
+    }
+
+    /**
+     * Creates the {@link PageRequest} with the given limit and cursor.
+     *
+     * @param collectionIri {@link IResourceIdentifier} of the paged collection.
+     * @param limit         the path segment of the limit.
+     * @param direction     either {@code after} or {@code before}, or null for the first page.
+     * @param cursor        the path segment of the cursor, or null for the first page.
+     * @return the {@link PageRequest} with the given limit and cursor.
+     * @throws IRIInvalidException if the given limit or cursor is not valid.
+     */
+    private static PageRequest of(IResourceIdentifier collectionIri, String limit,
+        String direction, String cursor) throws IRIInvalidException {
+        int parsedLimit;
+        try {
+            parsedLimit = Integer.parseInt(limit);
+        } catch (NumberFormatException e) {
+            parsedLimit = -1;
+        }
+        if (parsedLimit < 1 || parsedLimit > MAX_LIMIT) {
+            throw new IRIInvalidException(String
+                .format("The maximal number of members '%s' after '%s' must be between 1 and %d.",
+                    limit, collectionIri.resolve(LIMIT).rawIRI(), MAX_LIMIT));
+        }
+        if (direction == null) {
+            return first(parsedLimit);
+        } else if (!AFTER.equals(direction) && !BEFORE.equals(direction)) {
+            throw new IRIInvalidException(String
+                .format("Either '%s' or '%s' must follow '%s', but not '%s'.", AFTER, BEFORE,
+                    collectionIri.resolve(String.join("/", LIMIT, limit)).rawIRI(), direction));
+        }
+        String key;
+        try {
+            key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            key = "";
+        }
+        if (key.isEmpty()) {
+            throw new IRIInvalidException(String
+                .format("The cursor '%s' after '%s' is not valid.", cursor,
+                    collectionIri.resolve(String.join("/", LIMIT, limit, direction)).rawIRI()));
+        }
+        return new PageRequest(parsedLimit, key, AFTER.equals(direction));
+    }
+
+    /**
+     * Gets the maximal number of members of the requested page.
+     *
+     * @return the maximal number of members of the requested page.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Gets the IRI of the member after (or before) the requested page.
+     *
+     * @return the IRI of the member after (or before) the requested page, or an empty string for
+     * the first page.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Checks whether the members after the key are requested.
+     *
+     * @return true, if the members after the key are requested, or false, if the members before
+     * the key are requested.
+     */
+    public boolean isForward() {
+        return forward;
+    }
+
+    /**
+     * Checks whether the first page is requested.
+     *
+     * @return true, if the first page is requested, otherwise false.
+     */
+    public boolean isFirst() {
+        return key.isEmpty();
+    }
+
+    /**
+     * Resolves the path of the requested page against the given IRI of the collection.
+     *
+     * @param collectionIri {@link IResourceIdentifier} of the paged collection.
+     * @return the {@link IResourceIdentifier} of the requested page.
+     */
+    public IResourceIdentifier resolve(IResourceIdentifier collectionIri) {
+        String limitPath = String.join("/", LIMIT, String.valueOf(limit));
+        if (isFirst()) {
+            return collectionIri.resolve(limitPath);
+        }
+        return collectionIri.resolve(String.join("/", limitPath, forward ? AFTER : BEFORE,
+            Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(key.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PageRequest{limit=%d, key='%s', forward=%s}", limit, key, forward);
+    }
+}
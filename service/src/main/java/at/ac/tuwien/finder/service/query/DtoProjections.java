@@ -0,0 +1,334 @@
+package at.ac.tuwien.finder.service.query;
+
+import at.ac.tuwien.finder.dto.Dto;
+import at.ac.tuwien.finder.dto.util.Namespaces;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.outofbits.opinto.annotations.RdfProperty;
+import org.outofbits.opinto.annotations.SuperclassOf;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This class derives a {@code CONSTRUCT} query for a {@link Dto} class from its opinto
+ * annotations, which is a lighter alternative to {@code DESCRIBE}. The query projects all the
+ * statements about the resource bound to {@code ?resource}, but only the type, the label and the
+ * properties annotated with {@link RdfProperty} of the resources that are linked by it with a
+ * property, whose value is mapped to another {@link Dto} class. The subclasses of this class that
+ * are declared with {@link SuperclassOf} are considered as well. In contrast to {@code DESCRIBE},
+ * blank nodes are not followed and the linked resources are not described entirely.
+ * <p>
+ * The query of a {@link Dto} class is derived once and registered as {@link QueryTemplate} in the
+ * {@link QueryRegistry} of this application (see {@link #of(Class)}). Together with it, a variant
+ * for the resources given in the inline data block {@code VALUES ?resource { }} is registered,
+ * whose result can be split into the projections of the single resources (see
+ * {@link #evaluateBatch(RepositoryConnection, QueryTemplate, Collection)}).
+ *
+ * @author Kevin Haller
+ */
+public final class DtoProjections {
+
+    private static final ConcurrentMap<Class<? extends Dto>, QueryTemplate> projections =
+        new ConcurrentHashMap<>();
+    private static final ConcurrentMap<QueryTemplate, BatchProjection> batchProjections =
+        new ConcurrentHashMap<>();
+
+    private DtoProjections() {
+    }
+
+    /**
+     * Gets the {@link QueryTemplate} with the projection of the given {@link Dto} class. The
+     * template is derived and registered, if it is requested for the first time.
+     *
+     * @param dtoClass the {@link Dto} class of which the projection shall be returned.
+     * @return the {@link QueryTemplate} with the projection of the given {@link Dto} class.
+     * @throws IllegalArgumentException if a prefixed name in an annotation of the given class
+     *                                  cannot be expanded.
+     */
+    public static QueryTemplate of(Class<? extends Dto> dtoClass) {
+        assert dtoClass != null;
+        return projections.computeIfAbsent(dtoClass, projectedClass -> {
+            String name = String.format("project-%s",
+                projectedClass.getSimpleName().replaceAll("Dto$", "").toLowerCase());
+            QueryTemplate projection = QueryRegistry.getInstance()
+                .register(name, constructQuery(projectedClass), QueryTemplates.RESOURCE);
+            batchProjections.put(projection, new BatchProjection(QueryRegistry.getInstance()
+                .register(name + "-batch", constructBatchQuery(projectedClass),
+                    QueryTemplates.RESOURCE), linkedProjections(projectedClass)));
+            return projection;
+        });
+    }
+
+    /**
+     * Checks whether the given {@link QueryTemplate} is the projection of a {@link Dto} class,
+     * which can be evaluated for several resources in one query (see
+     * {@link #evaluateBatch(RepositoryConnection, QueryTemplate, Collection)}).
+     *
+     * @param template the {@link QueryTemplate} that shall be checked.
+     * @return true, if the given template is the projection of a {@link Dto} class, otherwise
+     * false.
+     */
+    public static boolean isProjection(QueryTemplate template) {
+        return batchProjections.containsKey(template);
+    }
+
+    /**
+     * Evaluates the given projection for all the given resources in one query and splits the
+     * result into the projections of the single resources. The projection of a resource contains
+     * exactly the statements that the evaluation of the given projection for this resource alone
+     * would return.
+     *
+     * @param connection {@link RepositoryConnection} on which the query shall be evaluated.
+     * @param projection the {@link QueryTemplate} with the projection of a {@link Dto} class.
+     * @param resources  the resources for which the projection shall be evaluated.
+     * @return the map of the given resources to their projection, which is empty, if a resource
+     * is unknown.
+     * @throws RepositoryException      if the query cannot be prepared.
+     * @throws QueryEvaluationException if the evaluation of the query failed.
+     * @throws IllegalArgumentException if the given template is no projection of a {@link Dto}
+     *                                  class.
+     */
+    public static Map<IRI, Model> evaluateBatch(RepositoryConnection connection,
+        QueryTemplate projection, Collection<IRI> resources)
+        throws RepositoryException, QueryEvaluationException {
+        assert resources != null && !resources.isEmpty();
+        BatchProjection batchProjection = batchProjections.get(projection);
+        if (batchProjection == null) {
+            throw new IllegalArgumentException(
+                String.format("The template '%s' is no projection of a DTO class.",
+                    projection.getName()));
+        }
+        Model model = batchProjection.template
+            .evaluateGraph(connection, QueryTemplates.RESOURCE, resources);
+        Map<IRI, Model> resourceModels = new LinkedHashMap<>();
+        for (IRI resource : resources) {
+            Model resourceModel = new LinkedHashModel(model.filter(resource, null, null));
+            for (Statement statement : model.filter(resource, null, null)) {
+                Set<String> linkedProjection = batchProjection.linkedProjections
+                    .get(statement.getPredicate().stringValue());
+                if (linkedProjection != null && statement.getObject() instanceof Resource) {
+                    for (Statement linkedStatement : model
+                        .filter((Resource) statement.getObject(), null, null)) {
+                        if (linkedProjection
+                            .contains(linkedStatement.getPredicate().stringValue())) {
+                            resourceModel.add(linkedStatement);
+                        }
+                    }
+                }
+            }
+            resourceModels.put(resource, resourceModel);
+        }
+        return resourceModels;
+    }
+
+    /**
+     * Derives the {@code CONSTRUCT} query with the projection of the given {@link Dto} class.
+     *
+     * @param dtoClass the {@link Dto} class of which the projection shall be derived.
+     * @return the {@code CONSTRUCT} query with the projection of the given {@link Dto} class.
+     * @throws IllegalArgumentException if a prefixed name in an annotation of the given class
+     *                                  cannot be expanded.
+     */
+    public static String constructQuery(Class<? extends Dto> dtoClass) {
+        assert dtoClass != null;
+        return String.format("CONSTRUCT { ?resource ?p ?o . ?linked ?q ?v . } WHERE { %s }",
+            whereClause(dtoClass));
+    }
+
+    /**
+     * Derives the {@code CONSTRUCT} query with the projection of the given {@link Dto} class for
+     * all the resources given in the inline data block {@code VALUES ?resource { }}.
+     *
+     * @param dtoClass the {@link Dto} class of which the projection shall be derived.
+     * @return the {@code CONSTRUCT} query with the projection of the given {@link Dto} class for
+     * several resources.
+     * @throws IllegalArgumentException if a prefixed name in an annotation of the given class
+     *                                  cannot be expanded.
+     */
+    public static String constructBatchQuery(Class<? extends Dto> dtoClass) {
+        assert dtoClass != null;
+        return String.format(
+            "CONSTRUCT { ?resource ?p ?o . ?linked ?q ?v . } WHERE { VALUES ?resource { } %s }",
+            whereClause(dtoClass));
+    }
+
+    /**
+     * Derives the graph pattern of the projection of the given {@link Dto} class.
+     *
+     * @param dtoClass the {@link Dto} class of which the projection shall be derived.
+     * @return the graph pattern of the projection of the given {@link Dto} class.
+     */
+    private static String whereClause(Class<? extends Dto> dtoClass) {
+        Map<String, Set<String>> linksByProjection = new TreeMap<>();
+        for (Map.Entry<String, Set<String>> linkedProjection : linkedProjections(dtoClass)
+            .entrySet()) {
+            linksByProjection
+                .computeIfAbsent(String.join("> <", linkedProjection.getValue()),
+                    p -> new TreeSet<>()).add(linkedProjection.getKey());
+        }
+        StringBuilder whereClause = new StringBuilder("{ ?resource ?p ?o . }");
+        for (Map.Entry<String, Set<String>> links : linksByProjection.entrySet()) {
+            whereClause.append(String.format(
+                " UNION { VALUES ?link { <%s> } ?resource ?link ?linked . VALUES ?q { <%s> }"
+                    + " ?linked ?q ?v . }", String.join("> <", links.getValue()),
+                links.getKey()));
+        }
+        return whereClause.toString();
+    }
+
+    /**
+     * Gets the IRIs of the annotated properties of the given {@link Dto} class, whose values are
+     * mapped to another {@link Dto} class, together with the IRIs of the properties of the linked
+     * resources that are projected, i.e. their type, label and annotated properties.
+     *
+     * @param dtoClass the {@link Dto} class of which the linked projections shall be returned.
+     * @return the map of the IRIs of the linking properties to the IRIs of the projected
+     * properties of the linked resources.
+     */
+    private static Map<String, Set<String>> linkedProjections(Class<? extends Dto> dtoClass) {
+        Map<String, Set<String>> linkedProjections = new TreeMap<>();
+        for (Map.Entry<String, Set<Class<?>>> property : annotatedProperties(dtoClass)
+            .entrySet()) {
+            if (!property.getValue().isEmpty()) {
+                Set<String> projection = new TreeSet<>();
+                for (Class<?> linkedClass : property.getValue()) {
+                    projection.addAll(annotatedProperties(linkedClass).keySet());
+                }
+                projection.add(RDF.TYPE.stringValue());
+                projection.add(RDFS.LABEL.stringValue());
+                linkedProjections.put(property.getKey(), projection);
+            }
+        }
+        return linkedProjections;
+    }
+
+    /**
+     * Gets the IRIs of the properties that are annotated in the given class and in its subclasses
+     * (see {@link SuperclassOf}) together with the {@link Dto} classes to which their values are
+     * mapped.
+     *
+     * @param annotatedClass the class of which the annotated properties shall be returned.
+     * @return the IRIs of the annotated properties mapped to the {@link Dto} classes of their
+     * values, which is empty for literal values.
+     */
+    private static Map<String, Set<Class<?>>> annotatedProperties(Class<?> annotatedClass) {
+        Map<String, Set<Class<?>>> properties = new TreeMap<>();
+        for (Class<?> mappedClass : withSubclasses(annotatedClass)) {
+            for (Method method : mappedClass.getMethods()) {
+                RdfProperty rdfProperty = method.getAnnotation(RdfProperty.class);
+                if (rdfProperty != null && method.getParameterCount() == 1) {
+                    Set<Class<?>> valueClasses =
+                        properties.computeIfAbsent(expand(rdfProperty.value()),
+                            p -> new LinkedHashSet<>());
+                    Class<?> valueClass = valueClass(method);
+                    if (valueClass != null && Dto.class.isAssignableFrom(valueClass)) {
+                        valueClasses.add(valueClass);
+                    }
+                }
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Gets the given class and all its subclasses that are declared with {@link SuperclassOf}.
+     *
+     * @param mappedClass the class of which the subclasses shall be returned.
+     * @return the given class and all its declared subclasses.
+     */
+    private static Set<Class<?>> withSubclasses(Class<?> mappedClass) {
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        classes.add(mappedClass);
+        SuperclassOf superclassOf = mappedClass.getAnnotation(SuperclassOf.class);
+        if (superclassOf != null) {
+            for (Class<?> subclass : superclassOf.subclasses()) {
+                if (!classes.contains(subclass)) {
+                    classes.addAll(withSubclasses(subclass));
+                }
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Gets the class of the value that is set by the given annotated method. The class of the
+     * elements is returned for a collection of values.
+     *
+     * @param method the annotated method with one parameter.
+     * @return the class of the value that is set by the given method, or null, if it cannot be
+     * determined.
+     */
+    private static Class<?> valueClass(Method method) {
+        Class<?> parameterClass = method.getParameterTypes()[0];
+        if (!Collection.class.isAssignableFrom(parameterClass)) {
+            return parameterClass;
+        }
+        Type parameterType = method.getGenericParameterTypes()[0];
+        if (parameterType instanceof ParameterizedType) {
+            Type elementType = ((ParameterizedType) parameterType).getActualTypeArguments()[0];
+            if (elementType instanceof Class) {
+                return (Class<?>) elementType;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Expands the given IRI, which might be a prefixed name (e.g. {@code foaf:name}), to a full
+     * IRI by means of the known {@link Namespaces}.
+     *
+     * @param iri the IRI of an annotation that shall be expanded.
+     * @return the full IRI.
+     * @throws IllegalArgumentException if the prefix of the given prefixed name is unknown.
+     */
+    private static String expand(String iri) {
+        int colon = iri.indexOf(':');
+        if (colon < 0 || iri.startsWith("//", colon + 1)) {
+            return iri;
+        }
+        String prefix = iri.substring(0, colon);
+        for (Namespace namespace : new Namespaces()) {
+            if (namespace.getPrefix().equals(prefix)) {
+                return namespace.getName() + iri.substring(colon + 1);
+            }
+        }
+        throw new IllegalArgumentException(
+            String.format("The prefix of the annotated IRI '%s' is unknown.", iri));
+    }
+
+    /**
+     * This class represents the variant of a projection for several resources together with the
+     * projected properties of the linked resources, which are needed to split its result.
+     */
+    private static final class BatchProjection {
+
+        private final QueryTemplate template;
+        private final Map<String, Set<String>> linkedProjections;
+
+        private BatchProjection(QueryTemplate template,
+            Map<String, Set<String>> linkedProjections) {
+            this.template = template;
+            this.linkedProjections = linkedProjections;
+        }
+    }
+}
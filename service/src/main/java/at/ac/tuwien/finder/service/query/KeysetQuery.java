@@ -0,0 +1,118 @@
+package at.ac.tuwien.finder.service.query;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents a pair of {@link QueryTemplate}s that select the members of a collection
+ * page by page, whereby the members are ordered by their IRI. A page is not addressed by an offset,
+ * but by the IRI of the member before (or after) it, which is bound to the parameter
+ * {@link #KEY}. Hence, a page costs the same regardless of its position in the collection and
+ * pages stay stable, if members are added to or removed from the collection in between.
+ *
+ * @author Kevin Haller
+ */
+public final class KeysetQuery {
+
+    /**
+     * The name of the parameter that is bound to the IRI of the member before (or after) the
+     * requested page.
+     */
+    public static final String KEY = "key";
+
+    private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+
+    private final String member;
+    private final QueryTemplate forward;
+    private final QueryTemplate backward;
+
+    /**
+     * Creates a new {@link KeysetQuery}.
+     *
+     * @param member   the name of the variable of the member in both templates.
+     * @param forward  {@link QueryTemplate} that selects the members after {@code ?key} in
+     *                 ascending order.
+     * @param backward {@link QueryTemplate} that selects the members before {@code ?key} in
+     *                 descending order.
+     */
+    KeysetQuery(String member, QueryTemplate forward, QueryTemplate backward) {
+        assert member != null;
+        assert forward != null && forward.getParameters().contains(KEY);
+        assert backward != null && backward.getParameters().contains(KEY);
+        this.member = member;
+        this.forward = forward;
+        this.backward = backward;
+    }
+
+    /**
+     * Gets the template that selects the members after {@code ?key} in ascending order.
+     *
+     * @return the template that selects the members after {@code ?key} in ascending order.
+     */
+    public QueryTemplate getForward() {
+        return forward;
+    }
+
+    /**
+     * Gets the template that selects the members before {@code ?key} in descending order.
+     *
+     * @return the template that selects the members before {@code ?key} in descending order.
+     */
+    public QueryTemplate getBackward() {
+        return backward;
+    }
+
+    /**
+     * Selects at most the given number of members that follow (or precede) the member with the
+     * given key. The members are returned in the order in which they are traversed, i.e. in
+     * descending order of their IRI, if they precede the given key.
+     *
+     * @param connection {@link RepositoryConnection} on which the query shall be evaluated.
+     * @param bindings   the values to which the other parameters of the templates shall be bound.
+     * @param key        the IRI of the member after (or before) which the members shall be
+     *                   selected, or an empty string for the members from the start.
+     * @param forward    true, if the following members shall be selected, or false, if the
+     *                   preceding members shall be selected.
+     * @param limit      the maximal number of members, which must be positive.
+     * @return the IRIs of the selected members in the order in which they are traversed.
+     * @throws RepositoryException      if the query cannot be prepared.
+     * @throws QueryEvaluationException if the evaluation of the query failed.
+     */
+    public List<IRI> members(RepositoryConnection connection, Map<String, ? extends Value> bindings,
+        String key, boolean forward, int limit)
+        throws RepositoryException, QueryEvaluationException {
+        assert key != null;
+        Map<String, Value> keyBindings = new HashMap<>(bindings);
+        keyBindings.put(KEY, valueFactory.createLiteral(key));
+        List<BindingSet> solutions = (forward ? this.forward : this.backward)
+            .evaluateTuple(connection, keyBindings, limit);
+        if (solutions.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<IRI> members = new ArrayList<>(solutions.size());
+        for (BindingSet solution : solutions) {
+            Value value = solution.getValue(member);
+            if (value instanceof IRI) {
+                members.add((IRI) value);
+            }
+        }
+        return members;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("KeysetQuery{forward=%s, backward=%s}", forward, backward);
+    }
+}
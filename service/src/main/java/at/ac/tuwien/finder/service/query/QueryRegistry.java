@@ -0,0 +1,75 @@
+package at.ac.tuwien.finder.service.query;
+
+import org.eclipse.rdf4j.query.MalformedQueryException;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * This class is a registry of named {@link QueryTemplate}s. The templates are independent of the
+ * connections to the triple store and can thus be shared by all the services. The templates of
+ * the services are registered in the registry of this application (see {@link #getInstance()})
+ * by {@link QueryTemplates}.
+ *
+ * @author Kevin Haller
+ */
+public final class QueryRegistry {
+
+    private static final QueryRegistry instance = new QueryRegistry();
+
+    private final ConcurrentMap<String, QueryTemplate> templates = new ConcurrentSkipListMap<>();
+
+    /**
+     * Gets the {@link QueryRegistry} of this application.
+     *
+     * @return the {@link QueryRegistry} of this application.
+     */
+    public static QueryRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Parses the given SPARQL query and registers it as template with the given name.
+     *
+     * @param name       the unique name of the template.
+     * @param query      the SPARQL graph or tuple query of the template.
+     * @param parameters the names of the variables of the query that have to be bound for each
+     *                   evaluation.
+     * @return the registered {@link QueryTemplate}.
+     * @throws MalformedQueryException  if the given query is malformed, is neither a graph nor a
+     *                                  tuple query or does not contain one of the parameters.
+     * @throws IllegalArgumentException if a template with the given name is already registered.
+     */
+    public QueryTemplate register(String name, String query, String... parameters)
+        throws MalformedQueryException {
+        QueryTemplate template = new QueryTemplate(name, query, parameters);
+        if (templates.putIfAbsent(name, template) != null) {
+            throw new IllegalArgumentException(
+                String.format("A template with the name '%s' is already registered.", name));
+        }
+        return template;
+    }
+
+    /**
+     * Gets the template with the given name.
+     *
+     * @param name the name of the template.
+     * @return the {@link QueryTemplate} with the given name, or an empty {@link Optional}, if no
+     * template with this name is registered.
+     */
+    public Optional<QueryTemplate> get(String name) {
+        return Optional.ofNullable(templates.get(name));
+    }
+
+    /**
+     * Gets all the registered templates ordered by their name.
+     *
+     * @return all the registered templates ordered by their name.
+     */
+    public Collection<QueryTemplate> getTemplates() {
+        return Collections.unmodifiableCollection(templates.values());
+    }
+}
@@ -0,0 +1,387 @@
+package at.ac.tuwien.finder.service.query;
+
+import at.ac.tuwien.finder.service.metrics.LatencyHistogram;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.GraphQuery;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.Operation;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.algebra.ProjectionElem;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.parser.ParsedGraphQuery;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.ntriples.NTriplesUtil;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * This class represents a named SPARQL query with parameters. The parameters are variables of the
+ * query, which are bound to the given values with {@link org.eclipse.rdf4j.query.Query#setBinding}
+ * instead of splicing the values into the text of the query. Hence, the text of the query is the
+ * same for every evaluation, such that the query plans and results that are cached by the triple
+ * store (and the {@link at.ac.tuwien.finder.datamanagement.cache.QueryResultCache}) can be reused,
+ * and the values cannot change the structure of the query. Only a template that shall be evaluated
+ * for many values of its parameter at once contains an empty inline data block
+ * {@code VALUES ?parameter { }}, into which the values are written (see
+ * {@link #evaluateGraph(RepositoryConnection, String, Collection)}).
+ * <p>
+ * The query is parsed once, when the template is created, in order to reject malformed queries
+ * and unknown parameters before the template is used. The latency and number of failures of the
+ * evaluations of the template are recorded.
+ *
+ * @author Kevin Haller
+ */
+public final class QueryTemplate {
+
+    private final String name;
+    private final String query;
+    private final Set<String> parameters;
+    private final boolean graphQuery;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Creates a new {@link QueryTemplate} with the given name for the given SPARQL query.
+     *
+     * @param name       the unique name of the template.
+     * @param query      the SPARQL graph or tuple query of the template.
+     * @param parameters the names of the variables of the query that have to be bound for each
+     *                   evaluation.
+     * @throws MalformedQueryException if the given query is malformed, is neither a graph nor a
+     *                                 tuple query or does not contain one of the parameters.
+     */
+    QueryTemplate(String name, String query, String... parameters) throws MalformedQueryException {
+        assert name != null;
+        assert query != null;
+        this.name = name;
+        this.query = query;
+        this.parameters =
+            Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(parameters)));
+        ParsedQuery parsedQuery = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null);
+        if (!(parsedQuery instanceof ParsedGraphQuery || parsedQuery instanceof ParsedTupleQuery)) {
+            throw new MalformedQueryException(
+                String.format("The query of template '%s' is neither a graph nor a tuple query.",
+                    name));
+        }
+        this.graphQuery = parsedQuery instanceof ParsedGraphQuery;
+        Set<String> variables = variablesOf(parsedQuery);
+        for (String parameter : this.parameters) {
+            if (!variables.contains(parameter)) {
+                throw new MalformedQueryException(
+                    String.format("The query of template '%s' does not contain the parameter ?%s.",
+                        name, parameter));
+            }
+        }
+    }
+
+    /**
+     * Gets the names of the variables that occur in the given parsed query.
+     *
+     * @param parsedQuery {@link ParsedQuery} of which the variables shall be returned.
+     * @return the names of the variables that occur in the given parsed query.
+     */
+    private static Set<String> variablesOf(ParsedQuery parsedQuery) {
+        Set<String> variables = new HashSet<>();
+        parsedQuery.getTupleExpr().visit(new AbstractQueryModelVisitor<RuntimeException>() {
+            @Override
+            public void meet(Var node) {
+                variables.add(node.getName());
+            }
+
+            @Override
+            public void meet(ProjectionElem node) {
+                variables.add(node.getSourceName());
+            }
+        });
+        return variables;
+    }
+
+    /**
+     * Gets the unique name of this template.
+     *
+     * @return the unique name of this template.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the text of the SPARQL query of this template.
+     *
+     * @return the text of the SPARQL query of this template.
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Gets the names of the parameters of this template.
+     *
+     * @return the names of the parameters of this template.
+     */
+    public Set<String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Gets the histogram of the latencies of the evaluations of this template.
+     *
+     * @return the histogram of the latencies of the evaluations of this template.
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Gets the number of evaluations of this template that failed.
+     *
+     * @return the number of evaluations of this template that failed.
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Evaluates this graph query template with the given binding for its only parameter on the
+     * given connection.
+     *
+     * @param connection {@link RepositoryConnection} on which the query shall be evaluated.
+     * @param parameter  the name of the parameter that shall be bound.
+     * @param value      the value to which the parameter shall be bound.
+     * @return the {@link Model} that is the result of the query.
+     * @throws RepositoryException      if the query cannot be prepared.
+     * @throws QueryEvaluationException if the evaluation of the query failed.
+     */
+    public Model evaluateGraph(RepositoryConnection connection, String parameter, Value value)
+        throws RepositoryException, QueryEvaluationException {
+        return evaluateGraph(connection, Collections.singletonMap(parameter, value));
+    }
+
+    /**
+     * Evaluates this graph query template with the given bindings for its parameters on the given
+     * connection.
+     *
+     * @param connection {@link RepositoryConnection} on which the query shall be evaluated.
+     * @param bindings   the values to which the parameters shall be bound.
+     * @return the {@link Model} that is the result of the query.
+     * @throws RepositoryException      if the query cannot be prepared.
+     * @throws QueryEvaluationException if the evaluation of the query failed.
+     */
+    public Model evaluateGraph(RepositoryConnection connection,
+        Map<String, ? extends Value> bindings)
+        throws RepositoryException, QueryEvaluationException {
+        return measure(
+            () -> QueryResults.asModel(prepareGraphQuery(connection, bindings).evaluate()));
+    }
+
+    /**
+     * Evaluates this graph query template for all the given values of its only parameter in one
+     * query. Since a variable can only be bound to one value, the values are written in N-Triples
+     * syntax into the empty inline data block {@code VALUES ?parameter { }} of the query, such that
+     * they cannot change the structure of the query.
+     *
+     * @param connection {@link RepositoryConnection} on which the query shall be evaluated.
+     * @param parameter  the name of the parameter of the inline data block.
+     * @param values     the IRIs or literals for which the query shall be evaluated.
+     * @return the {@link Model} that is the result of the query.
+     * @throws RepositoryException      if the query cannot be prepared.
+     * @throws QueryEvaluationException if the evaluation of the query failed.
+     * @throws IllegalArgumentException if the given parameter is not the only parameter of this
+     *                                  template.
+     * @throws IllegalStateException    if this template is not a graph query or has no empty inline
+     *                                  data block for the given parameter.
+     */
+    public Model evaluateGraph(RepositoryConnection connection, String parameter,
+        Collection<? extends Value> values) throws RepositoryException, QueryEvaluationException {
+        assert values != null;
+        if (!parameters.equals(Collections.singleton(parameter))) {
+            throw new IllegalArgumentException(
+                String.format("The template '%s' has not only the parameter ?%s.", name,
+                    parameter));
+        }
+        String valuesBlock = String.format("VALUES ?%s { }", parameter);
+        int valuesBlockIndex = query.indexOf(valuesBlock);
+        if (!graphQuery || valuesBlockIndex < 0) {
+            throw new IllegalStateException(String
+                .format("The template '%s' is no graph query with a block '%s'.", name,
+                    valuesBlock));
+        }
+        String expandedQuery = query.substring(0, valuesBlockIndex) + String
+            .format("VALUES ?%s { %s }", parameter,
+                values.stream().map(NTriplesUtil::toNTriplesString)
+                    .collect(Collectors.joining(" "))) + query
+            .substring(valuesBlockIndex + valuesBlock.length());
+        return measure(() -> QueryResults.asModel(
+            connection.prepareGraphQuery(QueryLanguage.SPARQL, expandedQuery).evaluate()));
+    }
+
+    /**
+     * Evaluates this graph query template with the given bindings for its parameters on the given
+     * connection and reports the resulting statements to the given {@link RDFHandler}.
+     *
+     * @param connection {@link RepositoryConnection} on which the query shall be evaluated.
+     * @param bindings   the values to which the parameters shall be bound.
+     * @param rdfHandler {@link RDFHandler} to which the resulting statements shall be reported.
+     * @throws RepositoryException      if the query cannot be prepared.
+     * @throws QueryEvaluationException if the evaluation of the query failed.
+     * @throws RDFHandlerException      if the given handler failed to handle the statements.
+     */
+    public void evaluateGraph(RepositoryConnection connection,
+        Map<String, ? extends Value> bindings, RDFHandler rdfHandler)
+        throws RepositoryException, QueryEvaluationException, RDFHandlerException {
+        measure(() -> {
+            prepareGraphQuery(connection, bindings).evaluate(rdfHandler);
+            return null;
+        });
+    }
+
+    /**
+     * Evaluates this tuple query template with the given bindings for its parameters on the given
+     * connection.
+     *
+     * @param connection {@link RepositoryConnection} on which the query shall be evaluated.
+     * @param bindings   the values to which the parameters shall be bound.
+     * @return the list of {@link BindingSet}s that is the result of the query.
+     * @throws RepositoryException      if the query cannot be prepared.
+     * @throws QueryEvaluationException if the evaluation of the query failed.
+     */
+    public List<BindingSet> evaluateTuple(RepositoryConnection connection,
+        Map<String, ? extends Value> bindings)
+        throws RepositoryException, QueryEvaluationException {
+        return evaluateTuple(connection, query, bindings);
+    }
+
+    /**
+     * Evaluates this tuple query template with the given bindings for its parameters on the given
+     * connection and returns at most the given number of solutions. The limit is appended to the
+     * query as {@code LIMIT} clause, such that the triple store has to compute only the first
+     * solutions. Hence, the query of this template must not end with a limit or offset clause.
+     *
+     * @param connection {@link RepositoryConnection} on which the query shall be evaluated.
+     * @param bindings   the values to which the parameters shall be bound.
+     * @param limit      the maximal number of solutions, which must be positive.
+     * @return the list of {@link BindingSet}s that is the result of the query.
+     * @throws RepositoryException      if the query cannot be prepared.
+     * @throws QueryEvaluationException if the evaluation of the query failed.
+     */
+    public List<BindingSet> evaluateTuple(RepositoryConnection connection,
+        Map<String, ? extends Value> bindings, int limit)
+        throws RepositoryException, QueryEvaluationException {
+        assert limit > 0;
+        return evaluateTuple(connection, query + " LIMIT " + limit, bindings);
+    }
+
+    /**
+     * Evaluates the given text of the query of this tuple query template with the given bindings
+     * for its parameters on the given connection.
+     *
+     * @param connection {@link RepositoryConnection} on which the query shall be evaluated.
+     * @param queryText  the text of the query of this template that shall be evaluated.
+     * @param bindings   the values to which the parameters shall be bound.
+     * @return the list of {@link BindingSet}s that is the result of the query.
+     * @throws RepositoryException      if the query cannot be prepared.
+     * @throws QueryEvaluationException if the evaluation of the query failed.
+     */
+    private List<BindingSet> evaluateTuple(RepositoryConnection connection, String queryText,
+        Map<String, ? extends Value> bindings)
+        throws RepositoryException, QueryEvaluationException {
+        if (graphQuery) {
+            throw new IllegalStateException(
+                String.format("The template '%s' is not a tuple query.", name));
+        }
+        return measure(() -> {
+            TupleQuery tupleQuery = connection.prepareTupleQuery(QueryLanguage.SPARQL, queryText);
+            return QueryResults.asList(bind(tupleQuery, bindings).evaluate());
+        });
+    }
+
+    /**
+     * Prepares this graph query template with the given bindings on the given connection.
+     *
+     * @param connection {@link RepositoryConnection} on which the query shall be prepared.
+     * @param bindings   the values to which the parameters shall be bound.
+     * @return the prepared {@link GraphQuery}.
+     * @throws RepositoryException if the query cannot be prepared.
+     */
+    private GraphQuery prepareGraphQuery(RepositoryConnection connection,
+        Map<String, ? extends Value> bindings) throws RepositoryException {
+        if (!graphQuery) {
+            throw new IllegalStateException(
+                String.format("The template '%s' is not a graph query.", name));
+        }
+        return bind(connection.prepareGraphQuery(QueryLanguage.SPARQL, query), bindings);
+    }
+
+    /**
+     * Binds the parameters of the given prepared operation to the given values.
+     *
+     * @param operation the prepared {@link Operation} of this template.
+     * @param bindings  the values to which the parameters shall be bound.
+     * @return the given operation.
+     * @throws IllegalArgumentException if a binding is given for an unknown parameter or a
+     *                                  parameter is not bound.
+     */
+    private <O extends Operation> O bind(O operation, Map<String, ? extends Value> bindings) {
+        for (Map.Entry<String, ? extends Value> binding : bindings.entrySet()) {
+            if (!parameters.contains(binding.getKey())) {
+                throw new IllegalArgumentException(
+                    String.format("The template '%s' has no parameter ?%s.", name,
+                        binding.getKey()));
+            }
+            operation.setBinding(binding.getKey(), binding.getValue());
+        }
+        for (String parameter : parameters) {
+            if (bindings.get(parameter) == null) {
+                throw new IllegalArgumentException(
+                    String.format("The parameter ?%s of template '%s' is not bound.", parameter,
+                        name));
+            }
+        }
+        return operation;
+    }
+
+    /**
+     * Computes the given evaluation and records its latency and failure.
+     *
+     * @param evaluation the evaluation of this template.
+     * @return the result of the evaluation.
+     */
+    private <T> T measure(Supplier<T> evaluation) {
+        long startTime = System.nanoTime();
+        try {
+            return evaluation.get();
+        } catch (RuntimeException e) {
+            failures.increment();
+            throw e;
+        } finally {
+            latencies.record(System.nanoTime() - startTime);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("QueryTemplate{name='%s', parameters=%s}", name, parameters);
+    }
+}
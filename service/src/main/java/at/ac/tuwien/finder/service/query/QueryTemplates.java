@@ -0,0 +1,274 @@
+package at.ac.tuwien.finder.service.query;
+
+import at.ac.tuwien.finder.dto.organizational.PersonDto;
+import at.ac.tuwien.finder.dto.spatial.BuildingDto;
+import at.ac.tuwien.finder.dto.spatial.FloorDto;
+import at.ac.tuwien.finder.dto.spatial.RoomDto;
+import at.ac.tuwien.finder.service.spatial.hierarchy.SpatialHierarchy;
+import at.ac.tuwien.finder.vocabulary.GeoSPARQL;
+import at.ac.tuwien.finder.vocabulary.LOCN;
+import at.ac.tuwien.finder.vocabulary.ORG;
+import at.ac.tuwien.finder.vocabulary.SCHEMA;
+import at.ac.tuwien.finder.vocabulary.TUVS;
+import org.eclipse.rdf4j.model.IRI;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * This class declares the {@link QueryTemplate}s of the services, which are registered in the
+ * {@link QueryRegistry} of this application. All the templates are parsed, when this class is
+ * loaded (see {@link #load()}), such that a malformed template prevents the start of the
+ * application instead of failing the requests.
+ *
+ * @author Kevin Haller
+ */
+public final class QueryTemplates {
+
+    /**
+     * The name of the parameter of the templates that describe a single resource.
+     */
+    public static final String RESOURCE = "resource";
+
+    /**
+     * Describes the resource bound to {@code ?resource}.
+     */
+    public static final QueryTemplate DESCRIBE_RESOURCE =
+        register("describe-resource", "DESCRIBE ?resource", RESOURCE);
+
+    /**
+     * Describes all the resources given in the inline data block for {@code ?resource} (see
+     * {@link QueryTemplate#evaluateGraph(org.eclipse.rdf4j.repository.RepositoryConnection, String,
+     * Collection)}).
+     */
+    public static final QueryTemplate DESCRIBE_RESOURCES = register("describe-resources",
+        "DESCRIBE ?resource WHERE { VALUES ?resource { } }", RESOURCE);
+
+    /**
+     * Describes the building bound to {@code ?resource} together with its building units,
+     * address and geometry.
+     */
+    public static final QueryTemplate DESCRIBE_BUILDING = register("describe-building", String
+        .format(
+            "DESCRIBE ?resource ?buildingUnit ?address ?geometry WHERE { OPTIONAL { ?resource <%s> ?geometry . } OPTIONAL { ?resource <%s> ?buildingUnit . } OPTIONAL { ?resource <%s> ?address . } }",
+            GeoSPARQL.hasGeometry, TUVS.containsBuildingUnit, LOCN.address), RESOURCE);
+
+    /**
+     * Describes the floor bound to {@code ?resource} together with its geometry.
+     */
+    public static final QueryTemplate DESCRIBE_FLOOR = register("describe-floor", String
+        .format("DESCRIBE ?resource ?geometry WHERE { OPTIONAL { ?resource <%s> ?geometry . } }",
+            GeoSPARQL.hasGeometry), RESOURCE);
+
+    /**
+     * Describes the person bound to {@code ?resource} together with the rooms at which the person
+     * is based.
+     */
+    public static final QueryTemplate DESCRIBE_PERSON = register("describe-person", String
+        .format("DESCRIBE ?resource ?room WHERE { OPTIONAL { ?resource <%s> ?room . } }",
+            ORG.basedAt), RESOURCE);
+
+    /**
+     * Describes all the buildings together with their geometry.
+     */
+    public static final QueryTemplate ALL_BUILDINGS = register("all-buildings", String.format(
+        "DESCRIBE ?building ?geometry WHERE { ?building a <%s> . OPTIONAL { ?building <%s> ?geometry . } }",
+        TUVS.Building, GeoSPARQL.hasGeometry));
+
+    /**
+     * Describes all the building units of type {@code ?unitType} of the building bound to
+     * {@code ?building}.
+     */
+    public static final QueryTemplate UNITS_OF_BUILDING = register("units-of-building", String
+        .format("DESCRIBE ?unit WHERE { ?building a <%s> ; <%s> ?unit . ?unit a ?unitType . }",
+            TUVS.Building, TUVS.containsBuildingUnit), "building", "unitType");
+
+    /**
+     * Describes all the floor sections of the floor bound to {@code ?floor}.
+     */
+    public static final QueryTemplate FLOOR_SECTIONS = register("floor-sections", String
+        .format("DESCRIBE ?fSection WHERE { ?floor a <%s> ; <%s> ?fSection . }", TUVS.Floor,
+            TUVS.hasFloorSection), "floor");
+
+    /**
+     * Describes all the rooms.
+     */
+    public static final QueryTemplate ALL_ROOMS = register("all-rooms",
+        String.format("DESCRIBE ?room WHERE { ?room a <%s> . }", TUVS.Room));
+
+    /**
+     * Constructs the address {@code ?roomAddressIRI} of the room bound to {@code ?room} out of
+     * the address of its building.
+     */
+    public static final QueryTemplate ROOM_ADDRESS = register("room-address",
+        "PREFIX tuvs: <http://finder.tuwien.ac.at/vocab/spatial#> \n"
+            + "PREFIX locn: <http://www.w3.org/ns/locn#>\n"
+            + "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>\n"
+            + "CONSTRUCT { ?roomAddressIRI a locn:Address ;  locn:addressId ?roomAddressIRI; locn:fullAddress ?roomFullAddress ; locn:locatorDesignator ?roomLocatorDesignator; locn:locatorName ?roomLocatorName ; ?addressProperty ?addressObject . } where { \n"
+            + "    ?room tuvs:roomCode ?roomCode .\n"
+            + "    ?building a tuvs:Building ; (tuvs:containsBuildingUnit)+ ?room .\n"
+            + "    ?building locn:address ?address .\n"
+            + "    ?address ?addressProperty ?addressObject ;\n"
+            + "        locn:locatorDesignator ?locatorDesignator ;\n"
+            + "        locn:thoroughfare ?thoroughfare ;\n" + "        locn:postCode ?postCode ;\n"
+            + "        locn:postName ?postNameDE .\n" + "    OPTIONAL {\n"
+            + "        ?floor a tuvs:Floor ;\n"
+            + "            (tuvs:containsBuildingUnit)+ ?room ;\n"
+            + "            rdfs:label ?floorLabel .\n" + "    }\n" + "    OPTIONAL { \n"
+            + "        ?bt a tuvs:BuildingTract ;\n"
+            + "            (tuvs:containsBuildingUnit)+ ?room ;\n"
+            + "            rdfs:label ?btLabel .\n" + "    }\n"
+            + "    BIND(concat(?locatorDesignator, IF(BOUND(?floorLabel), concat(\"/\", ?floorLabel), \"\"), IF(BOUND(?btLabel), concat(\"/Tract \", ?btLabel), \"\"), \"\") as ?roomLocatorDesignator) .\n"
+            + "    BIND(concat(str(?thoroughfare), \" \", str(?roomLocatorDesignator), \", \", str(?postCode), \" \", str(?postNameDE), \", Österreich\") as ?roomFullAddress) .\n"
+            + "    FILTER(?addressProperty != locn:fullAddress && ?addressProperty != locn:locatorDesignator && ?addressProperty != locn:addressId).\n"
+            + "    FILTER(lang(?postNameDE) = \"de\") .\n" + "    OPTIONAL {\n"
+            + "        ?room rdfs:label ?roomLabel .\n" + "    }\n"
+            + "    BIND(IF(BOUND(?roomLabel), concat(str(?roomLabel), \" (\", str(?roomCode), \")\"), ?roomCode) as ?roomLocatorName)\n"
+            + "}", "room", "roomAddressIRI");
+
+    /**
+     * Gets the address {@code ?roomAddressIRI} of a room from the active graph
+     * {@code ?derivedGraph} of the statements derived from the spatial data, into which it has
+     * been materialized at the integration, without deriving it (see {@link #ROOM_ADDRESS}).
+     */
+    public static final QueryTemplate MATERIALIZED_ROOM_ADDRESS = register(
+        "materialized-room-address", String.format(
+            "CONSTRUCT { ?roomAddressIRI ?p ?o . } WHERE { GRAPH ?derivedGraph { ?roomAddressIRI a <%s> ; ?p ?o . } }",
+            LOCN.Address), "derivedGraph", "roomAddressIRI");
+
+    /**
+     * Describes all the rooms in which no event takes place between {@code ?tfBegin} and
+     * {@code ?tfEnd}.
+     */
+    public static final QueryTemplate FREE_ROOMS = register("free-rooms", String
+        .format("DESCRIBE ?room where { ?room a <%s> . FILTER NOT EXISTS {\n"
+                + "?event a <%s> ; <%s> ?room ; <%s> ?startDate ; <%s> ?endDate .\n"
+                + "FILTER(!((?startDate < ?tfBegin && ?tfBegin >= ?endDate) || (?startDate >= ?tfEnd && ?tfEnd < ?endDate))) .\n"
+                + "}}", TUVS.Room, SCHEMA.Event, SCHEMA.location, SCHEMA.startDate,
+            SCHEMA.endDate), "tfBegin", "tfEnd");
+
+    /**
+     * Describes all the buildings given in the inline data block for {@code ?resource} together
+     * with their geometry.
+     */
+    public static final QueryTemplate DESCRIBE_BUILDINGS = register("describe-buildings", String
+        .format(
+            "DESCRIBE ?resource ?geometry WHERE { VALUES ?resource { } OPTIONAL { ?resource <%s> ?geometry . } }",
+            GeoSPARQL.hasGeometry), RESOURCE);
+
+    /**
+     * Selects the buildings page by page.
+     */
+    public static final KeysetQuery BUILDINGS_PAGE =
+        keyset("buildings-page", "building", String.format("?building a <%s> .", TUVS.Building));
+
+    /**
+     * Selects the floor sections of the floor bound to {@code ?floor} page by page.
+     */
+    public static final KeysetQuery FLOOR_SECTIONS_PAGE = keyset("floor-sections-page",
+        "fSection", String.format("?floor a <%s> ; <%s> ?fSection .", TUVS.Floor,
+            TUVS.hasFloorSection), "floor");
+
+    /**
+     * Selects the rooms page by page.
+     */
+    public static final KeysetQuery ROOMS_PAGE =
+        keyset("rooms-page", "room", String.format("?room a <%s> .", TUVS.Room));
+
+    /**
+     * Selects the edges of the containment hierarchy of the spatial data (see
+     * {@link at.ac.tuwien.finder.service.spatial.hierarchy.SpatialHierarchy}).
+     */
+    public static final QueryTemplate SPATIAL_CONTAINMENT = register("spatial-containment", String
+        .format("SELECT ?parent ?child WHERE { VALUES ?link { <%s> <%s> } ?parent ?link ?child . }",
+            TUVS.containsBuildingUnit, TUVS.hasFloorSection));
+
+    /**
+     * Selects the types of the nodes of the containment hierarchy of the spatial data, which are
+     * distinguished by it.
+     */
+    public static final QueryTemplate SPATIAL_KINDS = register("spatial-kinds", String
+        .format("SELECT ?node ?type WHERE { VALUES ?type { <%s> } ?node a ?type . }", String
+            .join("> <", SpatialHierarchy.KINDS.stream().map(IRI::stringValue)
+                .collect(Collectors.toList()))));
+
+    /**
+     * Selects all the resources that are described as subject and whose IRI starts with the
+     * string bound to {@code ?prefix} (see
+     * {@link at.ac.tuwien.finder.service.cache.KnownResourceFilter}).
+     */
+    public static final QueryTemplate SUBJECTS_WITH_PREFIX = register("subjects-with-prefix",
+        "SELECT DISTINCT ?subject WHERE { ?subject ?p ?o . FILTER(isIRI(?subject) && STRSTARTS(STR(?subject), ?prefix)) }",
+        "prefix");
+
+    /**
+     * Projects the building bound to {@code ?resource} onto the properties of {@link BuildingDto}
+     * (see {@link DtoProjections}).
+     */
+    public static final QueryTemplate PROJECT_BUILDING = DtoProjections.of(BuildingDto.class);
+
+    /**
+     * Projects the floor bound to {@code ?resource} onto the properties of {@link FloorDto}.
+     */
+    public static final QueryTemplate PROJECT_FLOOR = DtoProjections.of(FloorDto.class);
+
+    /**
+     * Projects the room bound to {@code ?resource} onto the properties of {@link RoomDto}.
+     */
+    public static final QueryTemplate PROJECT_ROOM = DtoProjections.of(RoomDto.class);
+
+    /**
+     * Projects the person bound to {@code ?resource} onto the properties of {@link PersonDto}.
+     */
+    public static final QueryTemplate PROJECT_PERSON = DtoProjections.of(PersonDto.class);
+
+    private QueryTemplates() {
+    }
+
+    /**
+     * Registers the two templates of a {@link KeysetQuery} that select the members
+     * {@code ?member} of the given graph pattern after and before {@code ?key} ordered by their
+     * IRI.
+     *
+     * @param name       the unique name of the keyset query, which is the prefix of the names of
+     *                   its templates.
+     * @param member     the name of the variable of the members in the given graph pattern.
+     * @param pattern    the graph pattern that matches the members of the collection.
+     * @param parameters the names of the other parameters of the graph pattern.
+     * @return the {@link KeysetQuery} of the registered templates.
+     */
+    private static KeysetQuery keyset(String name, String member, String pattern,
+        String... parameters) {
+        String[] keysetParameters = Arrays.copyOf(parameters, parameters.length + 1);
+        keysetParameters[parameters.length] = KeysetQuery.KEY;
+        return new KeysetQuery(member, register(name + "-forward", String
+            .format("SELECT ?%1$s WHERE { %2$s FILTER(STR(?%1$s) > ?%3$s) } ORDER BY STR(?%1$s)",
+                member, pattern, KeysetQuery.KEY), keysetParameters),
+            register(name + "-backward", String.format(
+                "SELECT ?%1$s WHERE { %2$s FILTER(STR(?%1$s) < ?%3$s) } ORDER BY DESC(STR(?%1$s))",
+                member, pattern, KeysetQuery.KEY), keysetParameters));
+    }
+
+    /**
+     * Registers the given query as template in the {@link QueryRegistry} of this application.
+     *
+     * @param name       the unique name of the template.
+     * @param query      the SPARQL query of the template.
+     * @param parameters the names of the parameters of the template.
+     * @return the registered {@link QueryTemplate}.
+     */
+    private static QueryTemplate register(String name, String query, String... parameters) {
+        return QueryRegistry.getInstance().register(name, query, parameters);
+    }
+
+    /**
+     * Loads this class and thereby parses and validates all the templates of the services. This
+     * method shall be called at the start of the application.
+     *
+     * @return the templates of the services.
+     */
+    public static Collection<QueryTemplate> load() {
+        return QueryRegistry.getInstance().getTemplates();
+    }
+}
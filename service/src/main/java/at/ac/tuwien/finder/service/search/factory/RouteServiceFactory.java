@@ -4,6 +4,7 @@ import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 import at.ac.tuwien.finder.service.search.service.RoutesService;
@@ -47,4 +48,8 @@ class RouteServiceFactory implements IServiceFactory {
         return "routeTo";
     }
 
+    @Override
+    public void compile(RouteBuilder route) {
+        route.remainder(match -> new RoutesService(tripleStoreManager, match.rawIRI()));
+    }
 }
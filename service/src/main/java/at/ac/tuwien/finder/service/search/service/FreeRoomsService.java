@@ -1,32 +1,33 @@
 package at.ac.tuwien.finder.service.search.service;
 
 import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.EventDataSet;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.SpatialDataSet;
 import at.ac.tuwien.finder.dto.Dto;
 import at.ac.tuwien.finder.dto.SimpleDtoCollectionDto;
 import at.ac.tuwien.finder.dto.spatial.RoomDto;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.exception.ServiceException;
-import at.ac.tuwien.finder.vocabulary.SCHEMA;
-import at.ac.tuwien.finder.vocabulary.TUVS;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.util.RDFCollections;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
-import org.eclipse.rdf4j.query.GraphQuery;
-import org.eclipse.rdf4j.query.QueryLanguage;
-import org.eclipse.rdf4j.query.QueryResults;
 import org.eclipse.rdf4j.query.TupleQuery;
-import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.outofbits.opinto.RDFMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -47,7 +48,6 @@ public class FreeRoomsService implements IService {
     private Date endDate;
 
     private String requestIRIString;
-    private String query;
 
     /**
      * Creates a new instance of {@link FreeRoomsService} for the given time range.
@@ -66,27 +66,22 @@ public class FreeRoomsService implements IService {
         this.requestIRIString = requestIRIString;
         this.startDate = startDate;
         this.endDate = endDate;
-        this.query = String.format("DESCRIBE ?room where { ?room a <%s> . FILTER NOT EXISTS {\n"
-            + "?event a <%s> ; <%s> ?room ; <%s> ?startDate ; <%s> ?endDate .\n"
-            + "FILTER(!((?startDate < ?tfBegin && ?tfBegin >= ?endDate) || (?startDate >= ?tfEnd && ?tfEnd < ?endDate))) .\n"
-            + "}}", TUVS.Room, SCHEMA.Event, SCHEMA.location, SCHEMA.startDate, SCHEMA.endDate);
-        logger.debug("Free rooms query: {}", query);
     }
 
     @Override
     public Dto execute() throws ServiceException {
-        try (RepositoryConnection connection = tripleStoreManager.getConnection()) {
-            ValueFactory valueFactory = SimpleValueFactory.getInstance();
-            GraphQuery freeRoomsQuery = connection.prepareGraphQuery(QueryLanguage.SPARQL, query);
-            freeRoomsQuery.setBinding("tfBegin", valueFactory.createLiteral(startDate));
-            freeRoomsQuery.setBinding("tfEnd", valueFactory.createLiteral(endDate));
-            IRI requestIRI = valueFactory.createIRI(requestIRIString);
-            Model responseModel = QueryResults.asModel(freeRoomsQuery.evaluate());
-            responseModel.add(requestIRI, RDFS.LABEL, valueFactory.createLiteral(String
-                .format("All free rooms from %s to %s.", readableDateFormat.format(startDate),
-                    readableDateFormat.format(endDate)), "en"));
-            return RDFMapper.create().readValue(responseModel, SimpleDtoCollectionDto.class,
-                RoomDto.class, requestIRI);
-        }
+        ValueFactory valueFactory = SimpleValueFactory.getInstance();
+        Map<String, Value> queryBindings = new HashMap<>();
+        queryBindings.put("tfBegin", valueFactory.createLiteral(startDate));
+        queryBindings.put("tfEnd", valueFactory.createLiteral(endDate));
+        IRI requestIRI = valueFactory.createIRI(requestIRIString);
+        Model responseModel = tripleStoreManager
+            .read(Arrays.asList(SpatialDataSet.NS, EventDataSet.NS),
+                connection -> QueryTemplates.FREE_ROOMS.evaluateGraph(connection, queryBindings));
+        responseModel.add(requestIRI, RDFS.LABEL, valueFactory.createLiteral(String
+            .format("All free rooms from %s to %s.", readableDateFormat.format(startDate),
+                readableDateFormat.format(endDate)), "en"));
+        return RDFMapper.create().readValue(responseModel, SimpleDtoCollectionDto.class,
+            RoomDto.class, requestIRI);
     }
 }
@@ -3,10 +3,12 @@ package at.ac.tuwien.finder.service.spatial;
 import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
 import at.ac.tuwien.finder.datamanagement.catalog.dataset.SimpleSpatialDataSet;
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.service.DataSetModificationTracker;
 import at.ac.tuwien.finder.service.GraphDatasetService;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
 import at.ac.tuwien.finder.service.InternalTreeNodeServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 import at.ac.tuwien.finder.service.spatial.accessunit.factory.AccessUnitServiceFactory;
@@ -17,6 +19,7 @@ import at.ac.tuwien.finder.service.spatial.buildingtract.factory.BuildingTractSe
 import at.ac.tuwien.finder.service.spatial.elevator.factory.ElevatorServiceFactory;
 import at.ac.tuwien.finder.service.spatial.floor.factory.FloorServiceFactory;
 import at.ac.tuwien.finder.service.spatial.geometry.factory.GeometryServiceFactory;
+import at.ac.tuwien.finder.service.spatial.hierarchy.SpatialHierarchyIndex;
 import at.ac.tuwien.finder.service.spatial.pointofroute.factory.PointOfRouteServiceFactory;
 import at.ac.tuwien.finder.service.spatial.room.factory.AllRoomsServiceFactory;
 import at.ac.tuwien.finder.service.spatial.room.factory.RoomServiceFactory;
@@ -41,18 +44,23 @@ public class SpatialServiceFactory extends InternalTreeNodeServiceFactory {
 
     private Map<String, IServiceFactory> spatialServiceFactoryMap = new HashMap<>();
     private TripleStoreManager tripleStoreManager;
+    private SpatialHierarchyIndex hierarchyIndex;
 
     /**
      * Creates a new {@link SpatialServiceFactory}.
      *
      * @param tripleStoreManager the {@link TripleStoreManager} that manages the triple store that
      *                           shall be used as knowledge base for this {@link SpatialServiceFactory}.
+     * @param modificationTracker the {@link DataSetModificationTracker} that keeps track of the
+     *                            modification stamps of the data sets.
      */
-    public SpatialServiceFactory(TripleStoreManager tripleStoreManager) {
+    public SpatialServiceFactory(TripleStoreManager tripleStoreManager,
+        DataSetModificationTracker modificationTracker) {
         assert tripleStoreManager != null;
         this.tripleStoreManager = tripleStoreManager;
+        this.hierarchyIndex = new SpatialHierarchyIndex(tripleStoreManager, modificationTracker);
         spatialServiceFactoryMap.put(BuildingServiceFactory.getManagedPathName(),
-            new BuildingServiceFactory(tripleStoreManager));
+            new BuildingServiceFactory(tripleStoreManager, hierarchyIndex));
         spatialServiceFactoryMap.put(AllBuildingsServiceFactory.getManagedPathName(),
             new AllBuildingsServiceFactory(tripleStoreManager));
         spatialServiceFactoryMap.put(BuildingTractServiceFactory.getManagedPathName(),
@@ -100,8 +108,26 @@ public class SpatialServiceFactory extends InternalTreeNodeServiceFactory {
         return "spatial";
     }
 
+    /**
+     * Gets the {@link SpatialHierarchyIndex} of the containment hierarchy of the spatial data,
+     * which is shared by the spatial services. It has to be registered for the modifications of
+     * the data sets (see {@link at.ac.tuwien.finder.datamanagement.catalog.DataCatalog}).
+     *
+     * @return the {@link SpatialHierarchyIndex} of the spatial data.
+     */
+    public SpatialHierarchyIndex getHierarchyIndex() {
+        return hierarchyIndex;
+    }
+
     @Override
     public Map<String, IServiceFactory> getServiceFactoryMap() {
         return spatialServiceFactoryMap;
     }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        super.compile(route);
+        route.endpoint(match -> new GraphDatasetService(tripleStoreManager,
+            SimpleSpatialDataSet.NS.stringValue()));
+    }
 }
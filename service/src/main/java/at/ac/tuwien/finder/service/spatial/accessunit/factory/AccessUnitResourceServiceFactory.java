@@ -5,6 +5,7 @@ import at.ac.tuwien.finder.dto.Dto;
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
 import at.ac.tuwien.finder.dto.spatial.AccessUnitDto;
 import at.ac.tuwien.finder.service.*;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 import at.ac.tuwien.finder.service.exception.ServiceException;
@@ -61,12 +62,29 @@ public class AccessUnitResourceServiceFactory extends InternalTreeNodeServiceFac
             return super.getService(parent, pathScanner,
                 super.pushParameter(parameter, "id", newParent.rawIRI()));
         }
-        return new DescribeResourceService(tripleStoreManager, newParent.rawIRI()) {
+        return describe(newParent);
+    }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        RouteBuilder resourceRoute = route.variable("id");
+        super.compile(resourceRoute);
+        resourceRoute.endpoint(match -> describe(match.resource("id")));
+    }
+
+    /**
+     * Creates the {@link IService} that describes the resource with the given IRI.
+     *
+     * @param resource {@link IResourceIdentifier} of the resource that shall be described.
+     * @return the {@link IService} that describes the resource with the given IRI.
+     */
+    private IService describe(IResourceIdentifier resource) {
+        return new DescribeResourceService(tripleStoreManager, resource.rawIRI()) {
 
             @Override
             protected Dto wrapResult(Model model) throws ServiceException {
                 return RDFMapper.create()
-                    .readValue(model, AccessUnitDto.class, newParent.iriValue());
+                    .readValue(model, AccessUnitDto.class, resource.iriValue());
             }
         };
     }
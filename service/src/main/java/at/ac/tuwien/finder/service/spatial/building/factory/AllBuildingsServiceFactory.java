@@ -2,18 +2,25 @@ package at.ac.tuwien.finder.service.spatial.building.factory;
 
 import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.dto.spatial.BuildingDto;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
+import at.ac.tuwien.finder.service.paging.CollectionPageService;
+import at.ac.tuwien.finder.service.paging.PageRequest;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
 import at.ac.tuwien.finder.service.spatial.building.service.AllBuildingsService;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Scanner;
 
 /**
  * This is an implementation of {@link at.ac.tuwien.finder.service.IServiceFactory} that manages
- * the access to {@link AllBuildingsService}.
+ * the access to {@link AllBuildingsService} and the pages of all buildings (see
+ * {@link PageRequest}).
  *
  * @author Kevin Haller
  */
@@ -38,11 +45,21 @@ public class AllBuildingsServiceFactory implements IServiceFactory {
         Map<String, String> parameterMap) throws IRIInvalidException, IRIUnknownException {
         if (!pathScanner.hasNext()) {
             return new AllBuildingsService(tripleStoreManager, parent.rawIRI());
-        } else {
-            throw new IRIUnknownException(String
-                .format("'%s' does not expect any further path segments. '%s' is not valid.",
-                    parent.rawIRI(), parent.resolve(pathScanner.next()).rawIRI()));
         }
+        return pageOf(parent, PageRequest.parse(parent, pathScanner));
+    }
+
+    /**
+     * Creates the {@link CollectionPageService} for the given page of all buildings.
+     *
+     * @param buildingsIri {@link IResourceIdentifier} of the collection of all buildings.
+     * @param page         the {@link PageRequest} of the requested page.
+     * @return the {@link CollectionPageService} for the given page of all buildings.
+     */
+    private IService pageOf(IResourceIdentifier buildingsIri, PageRequest page) {
+        return new CollectionPageService(tripleStoreManager, buildingsIri, "All known buildings",
+            page, QueryTemplates.BUILDINGS_PAGE, Collections.emptyMap(),
+            QueryTemplates.DESCRIBE_BUILDINGS, BuildingDto.class);
     }
 
     /**
@@ -54,4 +71,9 @@ public class AllBuildingsServiceFactory implements IServiceFactory {
         return "buildings";
     }
 
+    @Override
+    public void compile(RouteBuilder route) {
+        route.endpoint(match -> new AllBuildingsService(tripleStoreManager, match.rawIRI()));
+        PageRequest.route(route, (match, buildingsIri, page) -> pageOf(buildingsIri, page));
+    }
 }
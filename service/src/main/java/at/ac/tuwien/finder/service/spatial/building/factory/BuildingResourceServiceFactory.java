@@ -8,12 +8,13 @@ import at.ac.tuwien.finder.service.DescribeResourceService;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
 import at.ac.tuwien.finder.service.InternalTreeNodeServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 import at.ac.tuwien.finder.service.exception.ServiceException;
-import at.ac.tuwien.finder.vocabulary.GeoSPARQL;
-import at.ac.tuwien.finder.vocabulary.LOCN;
-import at.ac.tuwien.finder.vocabulary.TUVS;
+import at.ac.tuwien.finder.service.query.QueryTemplate;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
+import at.ac.tuwien.finder.service.spatial.hierarchy.SpatialHierarchyIndex;
 import org.eclipse.rdf4j.model.Model;
 import org.outofbits.opinto.RDFMapper;
 import org.slf4j.Logger;
@@ -43,14 +44,18 @@ class BuildingResourceServiceFactory extends InternalTreeNodeServiceFactory {
      * @param tripleStoreManager the {@link TripleStoreManager} that manages the triple store that
      *                           shall be used as knowledge base for this
      *                           {@link BuildingResourceServiceFactory}.
+     * @param hierarchyIndex     {@link SpatialHierarchyIndex} of the containment hierarchy of the
+     *                           spatial data.
      */
-    BuildingResourceServiceFactory(TripleStoreManager tripleStoreManager) {
+    BuildingResourceServiceFactory(TripleStoreManager tripleStoreManager,
+        SpatialHierarchyIndex hierarchyIndex) {
         assert tripleStoreManager != null;
+        assert hierarchyIndex != null;
         this.tripleStoreManager = tripleStoreManager;
         serviceFactoryMap.put(BuildingResourceTractsServiceFactory.getManagedPathName(),
-            new BuildingResourceTractsServiceFactory(tripleStoreManager));
+            new BuildingResourceTractsServiceFactory(tripleStoreManager, hierarchyIndex));
         serviceFactoryMap.put(BuildingResourceFloorsServiceFactory.getManagedPathName(),
-            new BuildingResourceFloorsServiceFactory(tripleStoreManager));
+            new BuildingResourceFloorsServiceFactory(tripleStoreManager, hierarchyIndex));
         logger.debug("Factory map of building resource services ({}): ../{}.", getManagedPathName(),
             String.join(", ../", serviceFactoryMap.keySet()));
     }
@@ -77,16 +82,28 @@ class BuildingResourceServiceFactory extends InternalTreeNodeServiceFactory {
             return super.getService(parent.resolve(resourceId), pathScanner,
                 super.pushParameter(parameter, "id", parent.resolve(resourceId).rawIRI()));
         }
-        return new DescribeResourceService(tripleStoreManager,
-            parent.resolve(resourceId).rawIRI()) {
+        return describe(parent.resolve(resourceId));
+    }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        RouteBuilder resourceRoute = route.variable("id");
+        super.compile(resourceRoute);
+        resourceRoute.endpoint(match -> describe(match.resource("id")));
+    }
+
+    /**
+     * Creates the {@link IService} that describes the resource with the given IRI.
+     *
+     * @param resource {@link IResourceIdentifier} of the resource that shall be described.
+     * @return the {@link IService} that describes the resource with the given IRI.
+     */
+    private IService describe(IResourceIdentifier resource) {
+        return new DescribeResourceService(tripleStoreManager, resource.rawIRI()) {
 
             @Override
-            public String getQuery() {
-                return String.format(
-                    "DESCRIBE <%s> ?buildingUnit ?address ?geometry WHERE {OPTIONAL { <%s> <%s> ?geometry .} . OPTIONAL {<%s> <%s> ?buildingUnit .} OPTIONAL {<%s> <%s> ?address .}.}",
-                    resourceIdentifier().rawIRI(), resourceIdentifier().rawIRI(),
-                    GeoSPARQL.hasGeometry, resourceIdentifier().rawIRI(), TUVS.containsBuildingUnit,
-                    resourceIdentifier().rawIRI(), LOCN.address);
+            protected QueryTemplate getQueryTemplate() {
+                return QueryTemplates.PROJECT_BUILDING;
             }
 
             @Override
@@ -4,9 +4,11 @@ import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 import at.ac.tuwien.finder.service.spatial.building.service.UnitsOfBuildingService;
+import at.ac.tuwien.finder.service.spatial.hierarchy.SpatialHierarchyIndex;
 import at.ac.tuwien.finder.vocabulary.TUVS;
 
 import java.util.Map;
@@ -21,6 +23,7 @@ import java.util.Scanner;
 public class BuildingResourceTractsServiceFactory implements IServiceFactory {
 
     private TripleStoreManager tripleStoreManager;
+    private SpatialHierarchyIndex hierarchyIndex;
 
     /**
      * Creates a new instance of {@link BuildingResourceTractsServiceFactory}.
@@ -28,10 +31,15 @@ public class BuildingResourceTractsServiceFactory implements IServiceFactory {
      * @param tripleStoreManager the {@link TripleStoreManager} that manages the triple store that
      *                           shall be used as knowledge base for this
      *                           {@link BuildingResourceTractsServiceFactory}.
+     * @param hierarchyIndex     {@link SpatialHierarchyIndex} of the containment hierarchy of the
+     *                           spatial data.
      */
-    public BuildingResourceTractsServiceFactory(TripleStoreManager tripleStoreManager) {
+    public BuildingResourceTractsServiceFactory(TripleStoreManager tripleStoreManager,
+        SpatialHierarchyIndex hierarchyIndex) {
         assert tripleStoreManager != null;
+        assert hierarchyIndex != null;
         this.tripleStoreManager = tripleStoreManager;
+        this.hierarchyIndex = hierarchyIndex;
     }
 
     /**
@@ -50,12 +58,20 @@ public class BuildingResourceTractsServiceFactory implements IServiceFactory {
             if (parameterMap == null || !parameterMap.containsKey("id")) {
                 throw new IRIUnknownException("Id is not given.");
             }
-            return new UnitsOfBuildingService(tripleStoreManager, parent.rawIRI(),
-                "Building tract", parameterMap.get("id"), TUVS.BuildingTract.toString());
+            return new UnitsOfBuildingService(tripleStoreManager, hierarchyIndex,
+                parent.rawIRI(), "Building tract", parameterMap.get("id"),
+                TUVS.BuildingTract.toString());
         } else {
             throw new IRIUnknownException(String
                 .format("'%s' does not expect any further path segments. '%s' is not valid.",
                     parent.rawIRI(), parent.resolve(pathScanner.next())));
         }
     }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        route.endpoint(match -> new UnitsOfBuildingService(tripleStoreManager, hierarchyIndex,
+            match.rawIRI(), "Building tract", match.parameter("id"),
+            TUVS.BuildingTract.toString()));
+    }
 }
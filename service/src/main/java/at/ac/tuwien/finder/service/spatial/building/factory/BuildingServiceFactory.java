@@ -3,6 +3,7 @@ package at.ac.tuwien.finder.service.spatial.building.factory;
 import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
 import at.ac.tuwien.finder.service.IServiceFactory;
 import at.ac.tuwien.finder.service.InternalTreeNodeServiceFactory;
+import at.ac.tuwien.finder.service.spatial.hierarchy.SpatialHierarchyIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,11 +28,15 @@ public class BuildingServiceFactory extends InternalTreeNodeServiceFactory {
      * @param tripleStoreManager the {@link TripleStoreManager} that manages the triple store that
      *                           shall be used as knowledge base for this
      *                           {@link BuildingServiceFactory}.
+     * @param hierarchyIndex     {@link SpatialHierarchyIndex} of the containment hierarchy of the
+     *                           spatial data.
      */
-    public BuildingServiceFactory(TripleStoreManager tripleStoreManager) {
+    public BuildingServiceFactory(TripleStoreManager tripleStoreManager,
+        SpatialHierarchyIndex hierarchyIndex) {
         assert tripleStoreManager != null;
+        assert hierarchyIndex != null;
         serviceFactoryMap.put(BuildingResourceServiceFactory.getManagedPathName(),
-            new BuildingResourceServiceFactory(tripleStoreManager));
+            new BuildingResourceServiceFactory(tripleStoreManager, hierarchyIndex));
         logger.debug("Factory map of building services ({}): ../{}.", getManagedPathName(),
             String.join(", ../", serviceFactoryMap.keySet()));
     }
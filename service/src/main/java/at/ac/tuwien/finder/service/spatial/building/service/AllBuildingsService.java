@@ -6,7 +6,7 @@ import at.ac.tuwien.finder.dto.SimpleDtoCollectionDto;
 import at.ac.tuwien.finder.dto.spatial.BuildingDto;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.exception.ServiceException;
-import at.ac.tuwien.finder.vocabulary.GeoSPARQL;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
 import at.ac.tuwien.finder.vocabulary.TUVS;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
@@ -17,13 +17,12 @@ import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
-import org.eclipse.rdf4j.query.QueryLanguage;
-import org.eclipse.rdf4j.query.QueryResults;
-import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.rio.RDFHandlerException;
 import org.outofbits.opinto.RDFMapper;
 
+import java.util.Collections;
+
 /**
  * This class is an implementation of {@link IService} that returns a description of all known
  * buildings.
@@ -32,10 +31,6 @@ import org.outofbits.opinto.RDFMapper;
  */
 public class AllBuildingsService implements IService {
 
-    private final static String ALL_BUILDING_QUERY = String.format(
-        "DESCRIBE ?building ?geometry WHERE { ?building a <%s> . OPTIONAL { ?building <%s> ?geometry .} .}",
-        TUVS.Building.stringValue(), GeoSPARQL.hasGeometry.stringValue());
-
     private TripleStoreManager tripleStoreManager;
     private IRI allBuildinsgIri;
     private ValueFactory valueFactory = SimpleValueFactory.getInstance();
@@ -54,9 +49,10 @@ public class AllBuildingsService implements IService {
 
     @Override
     public Dto execute() throws ServiceException {
-        try (RepositoryConnection connection = tripleStoreManager.getConnection()) {
-            Model buildingListResponse = QueryResults.asModel(
-                connection.prepareGraphQuery(QueryLanguage.SPARQL, ALL_BUILDING_QUERY).evaluate());
+        try {
+            Model buildingListResponse = tripleStoreManager.read(allBuildinsgIri,
+                connection -> QueryTemplates.ALL_BUILDINGS
+                    .evaluateGraph(connection, Collections.emptyMap()));
             buildingListResponse.add(allBuildinsgIri, RDFS.LABEL,
                 valueFactory.createLiteral("All known buildings", "en"));
             buildingListResponse = RDFCollections
@@ -6,28 +6,40 @@ import at.ac.tuwien.finder.dto.SimpleDtoCollectionDto;
 import at.ac.tuwien.finder.dto.spatial.BuildingUnitDto;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.exception.ServiceException;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
+import at.ac.tuwien.finder.service.spatial.hierarchy.SpatialHierarchy;
+import at.ac.tuwien.finder.service.spatial.hierarchy.SpatialHierarchyIndex;
 import at.ac.tuwien.finder.vocabulary.TUVS;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.util.RDFCollections;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
-import org.eclipse.rdf4j.query.QueryLanguage;
-import org.eclipse.rdf4j.query.QueryResults;
-import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.rio.RDFHandlerException;
 import org.outofbits.opinto.RDFMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 /**
  * This class is an implementation of {@link IService} that returns a description of all
- * building units of a given type in the given {@code TuViennaSpatialOntology.Building}.
+ * building units of a given type in the given {@code TuViennaSpatialOntology.Building}. The
+ * building units are selected in the {@link SpatialHierarchy} and then described by one query,
+ * in which they are given as inline data. The building units are only selected by a query, if
+ * the hierarchy has not been built.
  *
  * @author Kevin Haller
  */
@@ -36,8 +48,9 @@ public class UnitsOfBuildingService implements IService {
     private static final Logger logger = LoggerFactory.getLogger(UnitsOfBuildingService.class);
 
     private ValueFactory valueFactory = SimpleValueFactory.getInstance();
-    private String unitsOfBuildingQuery;
+    private Map<String, Value> queryBindings = new HashMap<>();
     private TripleStoreManager tripleStoreManager;
+    private SpatialHierarchyIndex hierarchyIndex;
     private String unitName;
     private IRI unitsOfBuildingsIRI;
 
@@ -47,6 +60,8 @@ public class UnitsOfBuildingService implements IService {
      * @param tripleStoreManager  the {@link TripleStoreManager} that manages the triple store that
      *                            shall be used as knowledge base for this
      *                            {@link UnitsOfBuildingService}.
+     * @param hierarchyIndex      {@link SpatialHierarchyIndex} of the containment hierarchy of
+     *                            the spatial data, which selects the building units.
      * @param unitsOfBuildingsUri the uri of the request that builds the head of the returned rdf
      *                            collection.
      * @param unitName            the name of the units that are requested.
@@ -54,32 +69,45 @@ public class UnitsOfBuildingService implements IService {
      *                            returned.
      * @param buildingUnitTypeUri the URI of the building unit type that shall be returned.
      */
-    public UnitsOfBuildingService(TripleStoreManager tripleStoreManager, String unitsOfBuildingsUri,
-        String unitName, String resourceUri, String buildingUnitTypeUri) {
+    public UnitsOfBuildingService(TripleStoreManager tripleStoreManager,
+        SpatialHierarchyIndex hierarchyIndex, String unitsOfBuildingsUri, String unitName,
+        String resourceUri, String buildingUnitTypeUri) {
+        assert hierarchyIndex != null;
         assert unitName != null;
         assert resourceUri != null;
         this.tripleStoreManager = tripleStoreManager;
+        this.hierarchyIndex = hierarchyIndex;
         this.unitName = unitName;
         this.unitsOfBuildingsIRI = valueFactory.createIRI(unitsOfBuildingsUri);
-        this.unitsOfBuildingQuery = String
-            .format("DESCRIBE ?unit WHERE { <%s> a <%s> ; <%s> ?unit . ?unit a <%s> . }",
-                resourceUri, TUVS.Building.stringValue(), TUVS.containsBuildingUnit.stringValue(),
-                buildingUnitTypeUri);
-        logger.debug("Query for getting {} of buildings: {}", buildingUnitTypeUri,
-            unitsOfBuildingQuery);
+        this.queryBindings.put("building", valueFactory.createIRI(resourceUri));
+        this.queryBindings.put("unitType", valueFactory.createIRI(buildingUnitTypeUri));
+        logger.debug("Bindings for getting {} of buildings: {}", buildingUnitTypeUri,
+            queryBindings);
     }
 
     @Override
     public Dto execute() throws ServiceException {
-        try (RepositoryConnection connection = tripleStoreManager.getConnection()) {
-            Model responseModel = QueryResults.asModel(
-                connection.prepareGraphQuery(QueryLanguage.SPARQL, unitsOfBuildingQuery)
-                    .evaluate());
+        try {
+            Optional<SpatialHierarchy> hierarchy = hierarchyIndex.get();
+            Model responseModel;
+            Collection<? extends Resource> units;
+            if (hierarchy.isPresent()) {
+                List<IRI> unitList = hierarchy.get()
+                    .children((IRI) queryBindings.get("building"),
+                        (IRI) queryBindings.get("unitType"));
+                responseModel = unitList.isEmpty() ? new LinkedHashModel() : tripleStoreManager
+                    .read(unitsOfBuildingsIRI, connection -> QueryTemplates.DESCRIBE_RESOURCES
+                        .evaluateGraph(connection, QueryTemplates.RESOURCE, unitList));
+                units = unitList;
+            } else {
+                responseModel = tripleStoreManager.read(unitsOfBuildingsIRI,
+                    connection -> QueryTemplates.UNITS_OF_BUILDING
+                        .evaluateGraph(connection, queryBindings));
+                units = responseModel.filter(null, RDF.TYPE, TUVS.BuildingUnit).subjects();
+            }
             responseModel.add(unitsOfBuildingsIRI, RDFS.LABEL, valueFactory
                 .createLiteral(String.format("All known %ss", unitName.toLowerCase()), "en"));
-            responseModel = RDFCollections
-                .asRDF(responseModel.filter(null, RDF.TYPE, TUVS.BuildingUnit).subjects(),
-                    unitsOfBuildingsIRI, responseModel);
+            responseModel = RDFCollections.asRDF(units, unitsOfBuildingsIRI, responseModel);
             return RDFMapper.create()
                 .readValue(responseModel, SimpleDtoCollectionDto.class, BuildingUnitDto.class,
                     unitsOfBuildingsIRI);
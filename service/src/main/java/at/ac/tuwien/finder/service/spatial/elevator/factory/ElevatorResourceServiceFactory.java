@@ -8,6 +8,7 @@ import at.ac.tuwien.finder.service.DescribeResourceService;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
 import at.ac.tuwien.finder.service.InternalTreeNodeServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 import at.ac.tuwien.finder.service.exception.ServiceException;
@@ -55,11 +56,28 @@ class ElevatorResourceServiceFactory extends InternalTreeNodeServiceFactory {
             return super.getService(parent, pathScanner,
                 super.pushParameter(parameter, "id", newParent.rawIRI()));
         }
-        return new DescribeResourceService(tripleStoreManager, newParent.rawIRI()) {
+        return describe(newParent);
+    }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        RouteBuilder resourceRoute = route.variable("id");
+        super.compile(resourceRoute);
+        resourceRoute.endpoint(match -> describe(match.resource("id")));
+    }
+
+    /**
+     * Creates the {@link IService} that describes the resource with the given IRI.
+     *
+     * @param resource {@link IResourceIdentifier} of the resource that shall be described.
+     * @return the {@link IService} that describes the resource with the given IRI.
+     */
+    private IService describe(IResourceIdentifier resource) {
+        return new DescribeResourceService(tripleStoreManager, resource.rawIRI()) {
 
             @Override
             protected Dto wrapResult(Model model) throws ServiceException {
-                return RDFMapper.create().readValue(model, ElevatorDto.class, newParent.iriValue());
+                return RDFMapper.create().readValue(model, ElevatorDto.class, resource.iriValue());
             }
         };
     }
@@ -5,10 +5,12 @@ import at.ac.tuwien.finder.dto.Dto;
 import at.ac.tuwien.finder.dto.spatial.FloorDto;
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
 import at.ac.tuwien.finder.service.*;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 import at.ac.tuwien.finder.service.exception.ServiceException;
-import at.ac.tuwien.finder.vocabulary.GeoSPARQL;
+import at.ac.tuwien.finder.service.query.QueryTemplate;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
 import org.eclipse.rdf4j.model.Model;
 import org.outofbits.opinto.RDFMapper;
 import org.slf4j.Logger;
@@ -73,15 +75,28 @@ class FloorResourceServiceFactory extends InternalTreeNodeServiceFactory {
             return super.getService(newParent, pathScanner,
                 super.pushParameter(parameter, "id", parent.resolve(resourceId).rawIRI()));
         }
-        return new DescribeResourceService(tripleStoreManager,
-            parent.resolve(resourceId).rawIRI()) {
+        return describe(parent.resolve(resourceId));
+    }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        RouteBuilder resourceRoute = route.variable("id");
+        super.compile(resourceRoute);
+        resourceRoute.endpoint(match -> describe(match.resource("id")));
+    }
+
+    /**
+     * Creates the {@link IService} that describes the resource with the given IRI.
+     *
+     * @param resource {@link IResourceIdentifier} of the resource that shall be described.
+     * @return the {@link IService} that describes the resource with the given IRI.
+     */
+    private IService describe(IResourceIdentifier resource) {
+        return new DescribeResourceService(tripleStoreManager, resource.rawIRI()) {
 
             @Override
-            public String getQuery() {
-                return String
-                    .format("DESCRIBE <%s> ?geometry WHERE {OPTIONAL { <%s> <%s> ?geometry .}}",
-                        resourceIdentifier().rawIRI(), resourceIdentifier().rawIRI(),
-                        GeoSPARQL.hasGeometry);
+            protected QueryTemplate getQueryTemplate() {
+                return QueryTemplates.PROJECT_FLOOR;
             }
 
             @Override
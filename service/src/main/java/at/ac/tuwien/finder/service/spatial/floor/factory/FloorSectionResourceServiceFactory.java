@@ -6,6 +6,7 @@ import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
 import at.ac.tuwien.finder.service.InternalTreeNodeServiceFactory;
 import at.ac.tuwien.finder.service.SimpleDescribeResourceService;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 
@@ -47,8 +48,7 @@ class FloorSectionResourceServiceFactory extends InternalTreeNodeServiceFactory
             return super.getService(newParent, pathScanner,
                 super.pushParameter(parameterMap, "id", newParent.toString()));
         }
-        return new SimpleDescribeResourceService(tripleStoreManager,
-            parentIRI.resolve(resourceId).rawIRI());
+        return describe(parentIRI.resolve(resourceId));
     }
 
     /**
@@ -59,4 +59,21 @@ class FloorSectionResourceServiceFactory extends InternalTreeNodeServiceFactory
     public static String getManagedPathName() {
         return "id";
     }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        RouteBuilder resourceRoute = route.variable("id");
+        super.compile(resourceRoute);
+        resourceRoute.endpoint(match -> describe(match.resource("id")));
+    }
+
+    /**
+     * Creates the {@link IService} that describes the resource with the given IRI.
+     *
+     * @param resource {@link IResourceIdentifier} of the resource that shall be described.
+     * @return the {@link IService} that describes the resource with the given IRI.
+     */
+    private IService describe(IResourceIdentifier resource) {
+        return new SimpleDescribeResourceService(tripleStoreManager, resource.rawIRI());
+    }
 }
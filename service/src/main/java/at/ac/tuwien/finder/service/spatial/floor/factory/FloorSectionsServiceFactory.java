@@ -2,19 +2,26 @@ package at.ac.tuwien.finder.service.spatial.floor.factory;
 
 import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.dto.spatial.FloorSectionDto;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
 import at.ac.tuwien.finder.service.InternalTreeNodeServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
+import at.ac.tuwien.finder.service.paging.CollectionPageService;
+import at.ac.tuwien.finder.service.paging.PageRequest;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
 import at.ac.tuwien.finder.service.spatial.floor.service.AllFloorSectionsService;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Scanner;
 
 /**
  * This is an implementation of {@link IServiceFactory} that manages access to
- * {@link AllFloorSectionsService}.
+ * {@link AllFloorSectionsService} and the pages of the sections of a floor (see
+ * {@link PageRequest}).
  *
  * @author Kevin Haller
  */
@@ -41,17 +48,32 @@ class FloorSectionsServiceFactory extends InternalTreeNodeServiceFactory {
     @Override
     public IService getService(IResourceIdentifier parentIRI, Scanner pathScanner,
         Map<String, String> parameterMap) throws IRIInvalidException, IRIUnknownException {
-        if (pathScanner.hasNext()) {
-            throw new IRIUnknownException(String
-                .format("'%s' does not expect any further path segments. '%s' is not valid.",
-                    parentIRI.rawIRI(), parentIRI.resolve(pathScanner.next()).rawIRI()));
-        }
         if (!parameterMap.containsKey("id")) {
             throw new IRIInvalidException(String
                 .format("There must be a floor id set for the service '%s'.", parentIRI.rawIRI()));
         }
-        return new AllFloorSectionsService(tripleStoreManager,
-            new IResourceIdentifier(parameterMap.get("id")), parentIRI);
+        IResourceIdentifier floorResource = new IResourceIdentifier(parameterMap.get("id"));
+        if (pathScanner.hasNext()) {
+            return pageOf(floorResource, parentIRI, PageRequest.parse(parentIRI, pathScanner));
+        }
+        return new AllFloorSectionsService(tripleStoreManager, floorResource, parentIRI);
+    }
+
+    /**
+     * Creates the {@link CollectionPageService} for the given page of the sections of the given
+     * floor.
+     *
+     * @param floorResource {@link IResourceIdentifier} of the floor.
+     * @param sectionsIri   {@link IResourceIdentifier} of the collection of the sections.
+     * @param page          the {@link PageRequest} of the requested page.
+     * @return the {@link CollectionPageService} for the given page of the sections.
+     */
+    private IService pageOf(IResourceIdentifier floorResource, IResourceIdentifier sectionsIri,
+        PageRequest page) {
+        return new CollectionPageService(tripleStoreManager, sectionsIri,
+            "All known floor sections.", page, QueryTemplates.FLOOR_SECTIONS_PAGE,
+            Collections.singletonMap("floor", floorResource.iriValue()),
+            QueryTemplates.DESCRIBE_RESOURCES, FloorSectionDto.class);
     }
 
     /**
@@ -62,4 +84,12 @@ class FloorSectionsServiceFactory extends InternalTreeNodeServiceFactory {
     public static String getManagedPathName() {
         return "sections";
     }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        route.endpoint(match -> new AllFloorSectionsService(tripleStoreManager,
+            match.resource("id"), match.iri()));
+        PageRequest.route(route,
+            (match, sectionsIri, page) -> pageOf(match.resource("id"), sectionsIri, page));
+    }
 }
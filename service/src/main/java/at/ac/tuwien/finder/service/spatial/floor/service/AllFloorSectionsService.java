@@ -7,6 +7,7 @@ import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
 import at.ac.tuwien.finder.dto.spatial.FloorSectionDto;
 import at.ac.tuwien.finder.service.QueryService;
 import at.ac.tuwien.finder.service.exception.ServiceException;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
 import at.ac.tuwien.finder.vocabulary.TUVS;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
@@ -16,9 +17,6 @@ import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.util.RDFCollections;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
-import org.eclipse.rdf4j.query.QueryLanguage;
-import org.eclipse.rdf4j.query.QueryResults;
-import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.outofbits.opinto.RDFMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,22 +53,20 @@ public class AllFloorSectionsService implements QueryService {
 
     @Override
     public Dto execute() throws ServiceException {
-        try (RepositoryConnection connection = tripleStoreManager.getConnection()) {
-            Model floorSectionsModel = QueryResults.asModel(
-                connection.prepareGraphQuery(QueryLanguage.SPARQL, getQuery()).evaluate());
-            IRI head = valueFactory.createIRI(requestIRI.rawIRI());
-            floorSectionsModel.add(head, RDFS.LABEL,
-                valueFactory.createLiteral("All known floor sections.", "en"));
-            return RDFMapper.create().readValue(RDFCollections
-                    .asRDF(floorSectionsModel.filter(null, RDF.TYPE, TUVS.FloorSection).subjects(),
-                        head, floorSectionsModel), SimpleDtoCollectionDto.class, FloorSectionDto.class,
-                head);
-        }
+        Model floorSectionsModel = tripleStoreManager.read(floorResource.iriValue(),
+            connection -> QueryTemplates.FLOOR_SECTIONS
+                .evaluateGraph(connection, "floor", floorResource.iriValue()));
+        IRI head = valueFactory.createIRI(requestIRI.rawIRI());
+        floorSectionsModel.add(head, RDFS.LABEL,
+            valueFactory.createLiteral("All known floor sections.", "en"));
+        return RDFMapper.create().readValue(RDFCollections
+                .asRDF(floorSectionsModel.filter(null, RDF.TYPE, TUVS.FloorSection).subjects(),
+                    head, floorSectionsModel), SimpleDtoCollectionDto.class, FloorSectionDto.class,
+            head);
     }
 
     @Override
     public String getQuery() {
-        return String.format("DESCRIBE ?fSection WHERE { <%s> a <%s> ; <%s> ?fSection . }",
-            floorResource.rawIRI(), TUVS.Floor, TUVS.hasFloorSection);
+        return QueryTemplates.FLOOR_SECTIONS.getQuery();
     }
 }
@@ -10,6 +10,7 @@ import at.ac.tuwien.finder.service.DescribeResourceService;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
 import at.ac.tuwien.finder.service.InternalTreeNodeServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 import at.ac.tuwien.finder.service.exception.ServiceException;
@@ -67,8 +68,25 @@ class GeometryResourceServiceFactory extends InternalTreeNodeServiceFactory {
             return super.getService(newParent, pathScanner,
                 super.pushParameter(parameter, "id", newParent.rawIRI()));
         }
-        return new DescribeResourceService(tripleStoreManager,
-            parent.resolve(resourceId).rawIRI()) {
+        return describe(parent.resolve(resourceId), resourceId);
+    }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        RouteBuilder resourceRoute = route.variable("id");
+        super.compile(resourceRoute);
+        resourceRoute.endpoint(match -> describe(match.resource("id"), match.variable("id")));
+    }
+
+    /**
+     * Creates the {@link IService} that describes the geometry with the given IRI.
+     *
+     * @param resource   {@link IResourceIdentifier} of the geometry that shall be described.
+     * @param resourceId the id of the geometry, which determines the kind of geometry.
+     * @return the {@link IService} that describes the geometry with the given IRI.
+     */
+    private IService describe(IResourceIdentifier resource, String resourceId) {
+        return new DescribeResourceService(tripleStoreManager, resource.rawIRI()) {
             @Override
             public Dto wrapResult(Model model) throws ServiceException {
                 try {
@@ -81,8 +99,9 @@ class GeometryResourceServiceFactory extends InternalTreeNodeServiceFactory {
                     }
                 } catch (RDFMappingException r) {
                     throw new ServiceException(
-                        String.format("Resource <%s> could not be mapped.", parent.rawIRI()), r);
-                } return new SimpleResourceDto(resourceIdentifier(), model);
+                        String.format("Resource <%s> could not be mapped.", resource.rawIRI()), r);
+                }
+                return new SimpleResourceDto(resourceIdentifier(), model);
             }
         };
     }
@@ -0,0 +1,387 @@
+package at.ac.tuwien.finder.service.spatial.hierarchy;
+
+import at.ac.tuwien.finder.service.query.QueryTemplates;
+import at.ac.tuwien.finder.vocabulary.TUVS;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * This class is an immutable snapshot of the containment hierarchy of the spatial data, i.e. of
+ * the buildings, building tracts, floors, floor sections, rooms and other building units that are
+ * linked by {@code tuvs:containsBuildingUnit} or {@code tuvs:hasFloorSection}. The hierarchy is
+ * not a tree, because a room is contained in a floor section as well as in a building tract.
+ * <p>
+ * The nodes are encoded as integers in the order of their IRI. The children, the parents and the
+ * transitive ancestors of the nodes are held in compressed arrays, in which the entries of node
+ * {@code n} are stored between the offsets {@code n} and {@code n + 1}. The ancestors are
+ * precomputed, such that they are looked up in constant time regardless of the size of the
+ * hierarchy. The kinds of the nodes (see {@link #KINDS}) are encoded as bit masks.
+ *
+ * @author Kevin Haller
+ */
+public final class SpatialHierarchy {
+
+    /**
+     * The types of nodes that are distinguished by the hierarchy.
+     */
+    public static final List<IRI> KINDS = Collections.unmodifiableList(Arrays
+        .asList(TUVS.Building, TUVS.BuildingTract, TUVS.BuildingUnit, TUVS.Floor,
+            TUVS.FloorSection, TUVS.Room, TUVS.AccessUnit, TUVS.Elevator, TUVS.Stairway));
+
+    /**
+     * The empty hierarchy, which is used until the hierarchy has been loaded.
+     */
+    public static final SpatialHierarchy EMPTY =
+        new SpatialHierarchy(new IRI[0], new int[0], Collections.emptyList());
+
+    private final IRI[] nodes;
+    private final Map<IRI, Integer> ids;
+    private final int[] kinds;
+    private final int[] childOffsets;
+    private final int[] children;
+    private final int[] parentOffsets;
+    private final int[] parents;
+    private final int[] ancestorOffsets;
+    private final int[] ancestors;
+
+    /**
+     * Creates a new {@link SpatialHierarchy} of the given nodes and edges.
+     *
+     * @param nodes the IRIs of the nodes in ascending order.
+     * @param kinds the bit masks of the kinds of the nodes.
+     * @param edges the edges from the parent to the child, encoded as pairs of node ids.
+     */
+    private SpatialHierarchy(IRI[] nodes, int[] kinds, List<int[]> edges) {
+        this.nodes = nodes;
+        this.kinds = kinds;
+        this.ids = new HashMap<>(nodes.length * 2);
+        for (int n = 0; n < nodes.length; n++) {
+            ids.put(nodes[n], n);
+        }
+        this.childOffsets = new int[nodes.length + 1];
+        this.children = new int[edges.size()];
+        this.parentOffsets = new int[nodes.length + 1];
+        this.parents = new int[edges.size()];
+        compress(edges, 0, childOffsets, children);
+        compress(edges, 1, parentOffsets, parents);
+        this.ancestorOffsets = new int[nodes.length + 1];
+        this.ancestors = closeAncestors();
+    }
+
+    /**
+     * Loads the containment hierarchy from the spatial data that is accessible with the given
+     * connection.
+     *
+     * @param connection {@link RepositoryConnection} to the triple store that holds the spatial
+     *                   data.
+     * @return the loaded {@link SpatialHierarchy}.
+     * @throws RepositoryException      if the queries cannot be prepared.
+     * @throws QueryEvaluationException if the evaluation of the queries failed.
+     */
+    public static SpatialHierarchy load(RepositoryConnection connection)
+        throws RepositoryException, QueryEvaluationException {
+        List<BindingSet> containment = QueryTemplates.SPATIAL_CONTAINMENT
+            .evaluateTuple(connection, Collections.emptyMap());
+        List<BindingSet> nodeKinds =
+            QueryTemplates.SPATIAL_KINDS.evaluateTuple(connection, Collections.emptyMap());
+        TreeSet<IRI> nodeSet = new TreeSet<>(Comparator.comparing(IRI::stringValue));
+        for (BindingSet bindingSet : containment) {
+            Value parent = bindingSet.getValue("parent");
+            Value child = bindingSet.getValue("child");
+            if (parent instanceof IRI && child instanceof IRI) {
+                nodeSet.add((IRI) parent);
+                nodeSet.add((IRI) child);
+            }
+        }
+        for (BindingSet bindingSet : nodeKinds) {
+            if (bindingSet.getValue("node") instanceof IRI) {
+                nodeSet.add((IRI) bindingSet.getValue("node"));
+            }
+        }
+        IRI[] nodes = nodeSet.toArray(new IRI[nodeSet.size()]);
+        Map<IRI, Integer> ids = new HashMap<>(nodes.length * 2);
+        for (int n = 0; n < nodes.length; n++) {
+            ids.put(nodes[n], n);
+        }
+        int[] kinds = new int[nodes.length];
+        for (BindingSet bindingSet : nodeKinds) {
+            Integer id = ids.get(bindingSet.getValue("node"));
+            int kind = KINDS.indexOf(bindingSet.getValue("type"));
+            if (id != null && kind >= 0) {
+                kinds[id] |= 1 << kind;
+            }
+        }
+        TreeSet<int[]> edges = new TreeSet<>(
+            Comparator.<int[]>comparingInt(edge -> edge[0]).thenComparingInt(edge -> edge[1]));
+        for (BindingSet bindingSet : containment) {
+            Integer parent = ids.get(bindingSet.getValue("parent"));
+            Integer child = ids.get(bindingSet.getValue("child"));
+            if (parent != null && child != null && !parent.equals(child)) {
+                edges.add(new int[] {parent, child});
+            }
+        }
+        return new SpatialHierarchy(nodes, kinds, new ArrayList<>(edges));
+    }
+
+    /**
+     * Compresses the given edges into the given offsets and targets, such that the targets of node
+     * {@code n} are stored between {@code offsets[n]} and {@code offsets[n + 1]}.
+     *
+     * @param edges   the edges, encoded as pairs of node ids.
+     * @param source  the index of the source of an edge in its pair.
+     * @param offsets the array of offsets of size of the number of nodes plus one.
+     * @param targets the array of targets of size of the number of edges.
+     */
+    private static void compress(List<int[]> edges, int source, int[] offsets, int[] targets) {
+        for (int[] edge : edges) {
+            offsets[edge[source] + 1]++;
+        }
+        for (int n = 1; n < offsets.length; n++) {
+            offsets[n] += offsets[n - 1];
+        }
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int[] edge : edges) {
+            targets[next[edge[source]]++] = edge[1 - source];
+        }
+    }
+
+    /**
+     * Computes the transitive ancestors of all nodes and fills the offsets of the ancestors. The
+     * ancestors of a node are ordered by their distance to the node, and a node that is contained
+     * in itself by a cycle is not its own ancestor.
+     *
+     * @return the array of the ancestors of all nodes.
+     */
+    private int[] closeAncestors() {
+        int[] closure = new int[nodes.length];
+        int size = 0;
+        int[] visited = new int[nodes.length];
+        Arrays.fill(visited, -1);
+        int[] queue = new int[nodes.length];
+        for (int n = 0; n < nodes.length; n++) {
+            ancestorOffsets[n] = size;
+            visited[n] = n;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = n;
+            while (head < tail) {
+                int current = queue[head++];
+                for (int p = parentOffsets[current]; p < parentOffsets[current + 1]; p++) {
+                    int parent = parents[p];
+                    if (visited[parent] != n) {
+                        visited[parent] = n;
+                        queue[tail++] = parent;
+                        if (size == closure.length) {
+                            closure = Arrays.copyOf(closure, closure.length * 2);
+                        }
+                        closure[size++] = parent;
+                    }
+                }
+            }
+        }
+        ancestorOffsets[nodes.length] = size;
+        return Arrays.copyOf(closure, size);
+    }
+
+    /**
+     * Gets the number of nodes in this hierarchy.
+     *
+     * @return the number of nodes in this hierarchy.
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Checks whether the given resource is a node of this hierarchy.
+     *
+     * @param node {@link IRI} of the resource.
+     * @return true, if the given resource is a node of this hierarchy, otherwise false.
+     */
+    public boolean contains(IRI node) {
+        return ids.containsKey(node);
+    }
+
+    /**
+     * Checks whether the given node is of the given type.
+     *
+     * @param node {@link IRI} of the node.
+     * @param type {@link IRI} of one of the {@link #KINDS}.
+     * @return true, if the given node is of the given type, otherwise false.
+     * @throws IllegalArgumentException if the given type is not one of the {@link #KINDS}.
+     */
+    public boolean isA(IRI node, IRI type) {
+        Integer id = ids.get(node);
+        return id != null && (kinds[id] & mask(type)) != 0;
+    }
+
+    /**
+     * Gets the direct children of the given node that are of the given type.
+     *
+     * @param node {@link IRI} of the node.
+     * @param type {@link IRI} of one of the {@link #KINDS}, or null for all children.
+     * @return the children of the given node in the order of their IRI, which is empty, if the
+     * given resource is no node of this hierarchy.
+     * @throws IllegalArgumentException if the given type is not one of the {@link #KINDS}.
+     */
+    public List<IRI> children(IRI node, IRI type) {
+        Integer id = ids.get(node);
+        return id != null ? select(children, childOffsets[id], childOffsets[id + 1], type) :
+            Collections.emptyList();
+    }
+
+    /**
+     * Gets the direct parents of the given node that are of the given type.
+     *
+     * @param node {@link IRI} of the node.
+     * @param type {@link IRI} of one of the {@link #KINDS}, or null for all parents.
+     * @return the parents of the given node in the order of their IRI, which is empty, if the
+     * given resource is no node of this hierarchy.
+     * @throws IllegalArgumentException if the given type is not one of the {@link #KINDS}.
+     */
+    public List<IRI> parents(IRI node, IRI type) {
+        Integer id = ids.get(node);
+        return id != null ? select(parents, parentOffsets[id], parentOffsets[id + 1], type) :
+            Collections.emptyList();
+    }
+
+    /**
+     * Gets all the transitive ancestors of the given node that are of the given type.
+     *
+     * @param node {@link IRI} of the node.
+     * @param type {@link IRI} of one of the {@link #KINDS}, or null for all ancestors.
+     * @return the ancestors of the given node ordered by their distance to it, which is empty, if
+     * the given resource is no node of this hierarchy.
+     * @throws IllegalArgumentException if the given type is not one of the {@link #KINDS}.
+     */
+    public List<IRI> ancestors(IRI node, IRI type) {
+        Integer id = ids.get(node);
+        return id != null ? select(ancestors, ancestorOffsets[id], ancestorOffsets[id + 1], type) :
+            Collections.emptyList();
+    }
+
+    /**
+     * Gets the nearest transitive ancestor of the given node that is of the given type, e.g. the
+     * building of a room.
+     *
+     * @param node {@link IRI} of the node.
+     * @param type {@link IRI} of one of the {@link #KINDS}.
+     * @return the nearest ancestor of the given type, or an empty {@link Optional}, if there is
+     * none.
+     * @throws IllegalArgumentException if the given type is not one of the {@link #KINDS}.
+     */
+    public Optional<IRI> ancestor(IRI node, IRI type) {
+        int mask = mask(type);
+        Integer id = ids.get(node);
+        if (id != null) {
+            for (int a = ancestorOffsets[id]; a < ancestorOffsets[id + 1]; a++) {
+                if (matches(ancestors[a], mask)) {
+                    return Optional.of(nodes[ancestors[a]]);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gets all the transitive descendants of the given node that are of the given type.
+     *
+     * @param node {@link IRI} of the node.
+     * @param type {@link IRI} of one of the {@link #KINDS}, or null for all descendants.
+     * @return the descendants of the given node in the order of their IRI, which is empty, if the
+     * given resource is no node of this hierarchy.
+     * @throws IllegalArgumentException if the given type is not one of the {@link #KINDS}.
+     */
+    public List<IRI> descendants(IRI node, IRI type) {
+        int mask = type != null ? mask(type) : 0;
+        Integer id = ids.get(node);
+        if (id == null) {
+            return Collections.emptyList();
+        }
+        boolean[] visited = new boolean[nodes.length];
+        visited[id] = true;
+        int[] stack = new int[nodes.length];
+        int top = 0;
+        stack[top++] = id;
+        TreeSet<Integer> descendants = new TreeSet<>();
+        while (top > 0) {
+            int current = stack[--top];
+            for (int c = childOffsets[current]; c < childOffsets[current + 1]; c++) {
+                int child = children[c];
+                if (!visited[child]) {
+                    visited[child] = true;
+                    stack[top++] = child;
+                    if (matches(child, mask)) {
+                        descendants.add(child);
+                    }
+                }
+            }
+        }
+        List<IRI> descendantNodes = new ArrayList<>(descendants.size());
+        for (int descendant : descendants) {
+            descendantNodes.add(nodes[descendant]);
+        }
+        return descendantNodes;
+    }
+
+    /**
+     * Selects the nodes of the given type between the given offsets of the given array.
+     *
+     * @param targets the array of node ids.
+     * @param from    the offset of the first node id (inclusive).
+     * @param to      the offset of the last node id (exclusive).
+     * @param type    {@link IRI} of one of the {@link #KINDS}, or null for all nodes.
+     * @return the IRIs of the selected nodes.
+     */
+    private List<IRI> select(int[] targets, int from, int to, IRI type) {
+        int mask = type != null ? mask(type) : 0;
+        List<IRI> selection = new ArrayList<>(to - from);
+        for (int t = from; t < to; t++) {
+            if (matches(targets[t], mask)) {
+                selection.add(nodes[targets[t]]);
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * Checks whether the given node is of one of the kinds of the given bit mask.
+     *
+     * @param node the id of the node.
+     * @param mask the bit mask of the kinds, or zero for any kind.
+     * @return true, if the given node is of one of the given kinds, otherwise false.
+     */
+    private boolean matches(int node, int mask) {
+        return mask == 0 || (kinds[node] & mask) != 0;
+    }
+
+    /**
+     * Gets the bit mask of the given type.
+     *
+     * @param type {@link IRI} of one of the {@link #KINDS}.
+     * @return the bit mask of the given type.
+     * @throws IllegalArgumentException if the given type is not one of the {@link #KINDS}.
+     */
+    private static int mask(IRI type) {
+        int kind = KINDS.indexOf(type);
+        if (kind < 0) {
+            throw new IllegalArgumentException(
+                String.format("The type <%s> is not distinguished by the hierarchy.", type));
+        }
+        return 1 << kind;
+    }
+}
@@ -0,0 +1,201 @@
+package at.ac.tuwien.finder.service.spatial.hierarchy;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.catalog.DataSetModificationListener;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.SpatialDataSet;
+import at.ac.tuwien.finder.service.DataSetModificationTracker;
+import org.eclipse.rdf4j.model.IRI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class holds the {@link SpatialHierarchy} of the spatial data in memory together with the
+ * modification stamp of the spatial data set with which it has been built. The hierarchy is only
+ * handed out as long as this stamp is the current one (see {@link DataSetModificationTracker}),
+ * such that the services never answer from an outdated hierarchy. Modifications announced in this
+ * process discard the hierarchy immediately (see {@link DataSetModificationListener}). Without a
+ * current hierarchy or while the modification stamp is unknown, no hierarchy is handed out and
+ * the services fall back to their queries.
+ * <p>
+ * A missing or outdated hierarchy is built aside by a background thread and then replaced with
+ * the former one at once, such that requests never wait for a build. A failed build is retried
+ * after the retry interval.
+ *
+ * @author Kevin Haller
+ */
+public class SpatialHierarchyIndex implements DataSetModificationListener, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpatialHierarchyIndex.class);
+
+    private static final long RETRY_INTERVAL = 5000L;
+
+    private TripleStoreManager tripleStoreManager;
+    private DataSetModificationTracker modificationTracker;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ExecutorService rebuildExecutor;
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    private volatile Snapshot snapshot;
+    private volatile long nextRetry = 0L;
+
+    /**
+     * Creates a new {@link SpatialHierarchyIndex} for the spatial data set managed by the given
+     * {@link TripleStoreManager}. The hierarchy is built in the background after the first
+     * request or by calling {@link #rebuild()}.
+     *
+     * @param tripleStoreManager  {@link TripleStoreManager} that manages the spatial data set.
+     * @param modificationTracker {@link DataSetModificationTracker} that keeps track of the
+     *                            modification stamps of the data sets.
+     */
+    public SpatialHierarchyIndex(TripleStoreManager tripleStoreManager,
+        DataSetModificationTracker modificationTracker) {
+        assert tripleStoreManager != null;
+        assert modificationTracker != null;
+        this.tripleStoreManager = tripleStoreManager;
+        this.modificationTracker = modificationTracker;
+        ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "spatial-hierarchy-rebuild");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        this.rebuildExecutor = executor;
+    }
+
+    /**
+     * Gets the {@link SpatialHierarchy}, if it has been built with the current modification stamp
+     * of the spatial data set. Otherwise, a rebuild is triggered in the background. The returned
+     * hierarchy is immutable, such that it shall be used for all lookups of a request.
+     *
+     * @return the current {@link SpatialHierarchy}, or an empty {@link Optional}, if there is none
+     * or the modification stamp of the spatial data set is unknown.
+     */
+    public Optional<SpatialHierarchy> get() {
+        Optional<Date> modificationDate = currentModificationDate();
+        if (!modificationDate.isPresent()) {
+            return Optional.empty();
+        }
+        Snapshot currentSnapshot = snapshot;
+        if (currentSnapshot == null || !modificationDate.get()
+            .equals(currentSnapshot.modificationDate)) {
+            rebuildInBackground();
+            return Optional.empty();
+        }
+        return Optional.of(currentSnapshot.hierarchy);
+    }
+
+    /**
+     * Rebuilds the hierarchy from the spatial data set in the calling thread and replaces the
+     * former one with it.
+     *
+     * @return true, if the hierarchy has been rebuilt, otherwise false.
+     */
+    public boolean rebuild() {
+        rebuildLock.lock();
+        try {
+            return build();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Override
+    public void dataSetModified(IRI namespace, Date modificationDate) {
+        if (SpatialDataSet.NS.equals(namespace)) {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Triggers a rebuild of the hierarchy in the background, if no rebuild is in progress and the
+     * retry interval after a failed build has elapsed.
+     */
+    private void rebuildInBackground() {
+        if (System.currentTimeMillis() < nextRetry || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Builds the hierarchy and replaces the former one with it. The modification stamp is read
+     * before the hierarchy, such that a modification during the build outdates the built
+     * hierarchy. The lock for rebuilding must be held by the calling thread.
+     *
+     * @return true, if the hierarchy has been built, otherwise false.
+     */
+    private boolean build() {
+        Date modificationDate = currentModificationDate().orElse(null);
+        try {
+            long startTime = System.nanoTime();
+            SpatialHierarchy hierarchy =
+                tripleStoreManager.read(SpatialDataSet.NS, SpatialHierarchy::load);
+            logger.info("Spatial hierarchy of {} nodes built in {} ms.", hierarchy.size(),
+                (System.nanoTime() - startTime) / 1000000L);
+            snapshot = new Snapshot(hierarchy, modificationDate);
+            nextRetry = 0L;
+            return true;
+        } catch (RuntimeException e) {
+            nextRetry = System.currentTimeMillis() + RETRY_INTERVAL;
+            logger.warn("The spatial hierarchy cannot be built. {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Gets the modification stamp of the spatial data set from the
+     * {@link DataSetModificationTracker}.
+     *
+     * @return the modification stamp of the spatial data set, or an empty {@link Optional}, if it
+     * is unknown.
+     */
+    private Optional<Date> currentModificationDate() {
+        return modificationTracker.lastModified(Collections.singleton(SpatialDataSet.NS));
+    }
+
+    /**
+     * Stops the background rebuild of the hierarchy.
+     */
+    @Override
+    public void close() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * This class represents a built hierarchy together with the modification stamp of the spatial
+     * data set with which it has been built.
+     */
+    private static final class Snapshot {
+
+        private final SpatialHierarchy hierarchy;
+        private final Date modificationDate;
+
+        private Snapshot(SpatialHierarchy hierarchy, Date modificationDate) {
+            this.hierarchy = hierarchy;
+            this.modificationDate = modificationDate;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
 import at.ac.tuwien.finder.service.InternalTreeNodeServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 import at.ac.tuwien.finder.service.spatial.room.service.RoomAddressService;
@@ -54,4 +55,11 @@ public class AddressOfRoomServiceFactory extends InternalTreeNodeServiceFactory
             tripleStoreManager);
 
     }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        super.compile(route);
+        route.endpoint(
+            match -> new RoomAddressService(match.resource("id"), match.iri(), tripleStoreManager));
+    }
 }
@@ -2,20 +2,25 @@ package at.ac.tuwien.finder.service.spatial.room.factory;
 
 import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.dto.spatial.RoomDto;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
+import at.ac.tuwien.finder.service.paging.CollectionPageService;
+import at.ac.tuwien.finder.service.paging.PageRequest;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
 import at.ac.tuwien.finder.service.spatial.building.factory.BuildingServiceFactory;
-import at.ac.tuwien.finder.service.spatial.building.service.AllBuildingsService;
 import at.ac.tuwien.finder.service.spatial.room.service.AllRoomsService;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Scanner;
 
 /**
  * This is an implementation of {@link IServiceFactory} that manages
- * the access to {@link AllBuildingsService}.
+ * the access to {@link AllRoomsService} and the pages of all rooms (see {@link PageRequest}).
  *
  * @author Kevin Haller
  */
@@ -40,11 +45,21 @@ public class AllRoomsServiceFactory implements IServiceFactory {
         throws IRIInvalidException, IRIUnknownException {
         if (!pathScanner.hasNext()) {
             return new AllRoomsService(tripleStoreManager, parent.rawIRI());
-        } else {
-            throw new IRIUnknownException(String
-                .format("'%s' does not expect any further path segments. '%s' is not valid.",
-                    parent.rawIRI(), parent.resolve(pathScanner.next()).rawIRI()));
         }
+        return pageOf(parent, PageRequest.parse(parent, pathScanner));
+    }
+
+    /**
+     * Creates the {@link CollectionPageService} for the given page of all rooms.
+     *
+     * @param roomsIri {@link IResourceIdentifier} of the collection of all rooms.
+     * @param page     the {@link PageRequest} of the requested page.
+     * @return the {@link CollectionPageService} for the given page of all rooms.
+     */
+    private IService pageOf(IResourceIdentifier roomsIri, PageRequest page) {
+        return new CollectionPageService(tripleStoreManager, roomsIri, "All known rooms", page,
+            QueryTemplates.ROOMS_PAGE, Collections.emptyMap(), QueryTemplates.DESCRIBE_RESOURCES,
+            RoomDto.class);
     }
 
     /**
@@ -56,4 +71,9 @@ public class AllRoomsServiceFactory implements IServiceFactory {
         return "rooms";
     }
 
+    @Override
+    public void compile(RouteBuilder route) {
+        route.endpoint(match -> new AllRoomsService(tripleStoreManager, match.rawIRI()));
+        PageRequest.route(route, (match, roomsIri, page) -> pageOf(roomsIri, page));
+    }
 }
@@ -0,0 +1,107 @@
+package at.ac.tuwien.finder.service.spatial.room.factory;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.dto.Dto;
+import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.dto.spatial.RoomDto;
+import at.ac.tuwien.finder.service.IService;
+import at.ac.tuwien.finder.service.IServiceFactory;
+import at.ac.tuwien.finder.service.batch.service.BatchDescribeService;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
+import at.ac.tuwien.finder.service.exception.IRIInvalidException;
+import at.ac.tuwien.finder.service.exception.IRIUnknownException;
+import at.ac.tuwien.finder.vocabulary.TUVS;
+import org.eclipse.rdf4j.model.IRI;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+/**
+ * This class is an implementation of {@link IServiceFactory} that provides access to the
+ * {@link BatchDescribeService} for rooms. The rooms are given by their identifiers, which are
+ * separated by ',' (e.g. {@code spatial/room/batch/HA0318,HBEG02}).
+ *
+ * @author Kevin Haller
+ */
+public class RoomBatchServiceFactory implements IServiceFactory {
+
+    private static final Map<IRI, Class<? extends Dto>> DTO_CLASSES =
+        Collections.singletonMap(TUVS.Room, RoomDto.class);
+
+    private TripleStoreManager tripleStoreManager;
+
+    /**
+     * Creates a new instance of {@link RoomBatchServiceFactory}.
+     *
+     * @param tripleStoreManager the {@link TripleStoreManager} that manages the triple store that
+     *                           shall be used as knowledge base for this
+     *                           {@link RoomBatchServiceFactory}.
+     */
+    public RoomBatchServiceFactory(TripleStoreManager tripleStoreManager) {
+        assert tripleStoreManager != null;
+        this.tripleStoreManager = tripleStoreManager;
+    }
+
+    /**
+     * Gets the name of the path segment that is handled by this {@link IServiceFactory}.
+     *
+     * @return name of the path segment that is handled by this {@link IServiceFactory}.
+     */
+    public static String getManagedPathName() {
+        return "batch";
+    }
+
+    @Override
+    public IService getService(IResourceIdentifier parent, Scanner pathScanner,
+        Map<String, String> parameter) throws IRIInvalidException, IRIUnknownException {
+        if (!pathScanner.hasNext()) {
+            throw new IRIInvalidException(String
+                .format("The identifiers of the rooms separated by ',' must follow '%s'.",
+                    parent.rawIRI()));
+        }
+        String roomIds = pathScanner.next();
+        if (pathScanner.hasNext()) {
+            throw new IRIUnknownException(String
+                .format("There is no service assigned to '%s'.", parent.resolve(roomIds).rawIRI()));
+        }
+        return describe(parent.resolve(roomIds), roomIds);
+    }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        route.variable("ids").endpoint(match -> describe(match.iri(), match.variable("ids")));
+    }
+
+    /**
+     * Creates the {@link BatchDescribeService} for the rooms with the given identifiers.
+     *
+     * @param batchIri {@link IResourceIdentifier} of the requested batch.
+     * @param roomIds  the identifiers of the rooms separated by ','.
+     * @return the {@link BatchDescribeService} for the rooms with the given identifiers.
+     * @throws IRIInvalidException if no identifier or more than
+     *                             {@link BatchDescribeService#MAX_BATCH_SIZE} identifiers are
+     *                             given.
+     */
+    private IService describe(IResourceIdentifier batchIri, String roomIds)
+        throws IRIInvalidException {
+        IResourceIdentifier roomIdIri = new IResourceIdentifier(TripleStoreManager.BASE)
+            .resolve(String.join("/", "spatial", RoomServiceFactory.getManagedPathName(),
+                RoomResourceServiceFactory.getManagedPathName()));
+        List<IRI> rooms = new ArrayList<>();
+        for (String roomId : roomIds.split(",")) {
+            if (!roomId.isEmpty()) {
+                rooms.add(roomIdIri.resolve(roomId).iriValue());
+            }
+        }
+        if (rooms.isEmpty() || rooms.size() > BatchDescribeService.MAX_BATCH_SIZE) {
+            throw new IRIInvalidException(String
+                .format("Between 1 and %d room identifiers separated by ',' must be given by '%s'.",
+                    BatchDescribeService.MAX_BATCH_SIZE, batchIri.rawIRI()));
+        }
+        return new BatchDescribeService(tripleStoreManager, batchIri.rawIRI(), rooms,
+            DTO_CLASSES);
+    }
+}
@@ -31,6 +31,8 @@ public class RoomServiceFactory extends InternalTreeNodeServiceFactory {
         assert tripleStoreManager != null;
         serviceFactoryMap.put(RoomResourceServiceFactory.getManagedPathName(),
             new RoomResourceServiceFactory(tripleStoreManager));
+        serviceFactoryMap.put(RoomBatchServiceFactory.getManagedPathName(),
+            new RoomBatchServiceFactory(tripleStoreManager));
         logger.debug("Factory map of room services ({}): ../{}.", getManagedPathName(),
             String.join(", ../", serviceFactoryMap.keySet()));
     }
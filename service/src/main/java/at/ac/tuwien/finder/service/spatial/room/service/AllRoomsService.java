@@ -5,7 +5,10 @@ import at.ac.tuwien.finder.dto.Dto;
 import at.ac.tuwien.finder.dto.SimpleDtoCollectionDto;
 import at.ac.tuwien.finder.dto.spatial.RoomDto;
 import at.ac.tuwien.finder.service.IService;
+import at.ac.tuwien.finder.service.RDFCollectionHandler;
+import at.ac.tuwien.finder.service.StreamingService;
 import at.ac.tuwien.finder.service.exception.ServiceException;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
 import at.ac.tuwien.finder.vocabulary.TUVS;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
@@ -16,23 +19,22 @@ import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
-import org.eclipse.rdf4j.query.QueryLanguage;
-import org.eclipse.rdf4j.query.QueryResults;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.rio.RDFHandler;
 import org.eclipse.rdf4j.rio.RDFHandlerException;
 import org.outofbits.opinto.RDFMapper;
 
+import java.util.Collections;
+
 /**
  * This class is an implementation of {@link IService} that returns a description of all known
- * rooms.
+ * rooms. The description can also be streamed (see {@link StreamingService}), where the collection
+ * of rooms is built while the result of the query is written.
  *
  * @author Kevin Haller
  */
-public class AllRoomsService implements IService {
-
-    private final static String ALL_ROOMS_QUERY =
-        String.format("DESCRIBE ?room WHERE { ?room a <%s> . }", TUVS.Room.stringValue());
+public class AllRoomsService implements StreamingService {
 
     private TripleStoreManager tripleStoreManager;
     private IRI roomsIri;
@@ -52,9 +54,10 @@ public class AllRoomsService implements IService {
 
     @Override
     public Dto execute() throws ServiceException {
-        try (RepositoryConnection connection = tripleStoreManager.getConnection()) {
-            Model responseModel = QueryResults.asModel(
-                connection.prepareGraphQuery(QueryLanguage.SPARQL, ALL_ROOMS_QUERY).evaluate());
+        try {
+            Model responseModel = tripleStoreManager.read(roomsIri,
+                connection -> QueryTemplates.ALL_ROOMS
+                    .evaluateGraph(connection, Collections.emptyMap()));
             responseModel
                 .add(roomsIri, RDFS.LABEL, valueFactory.createLiteral("All known rooms", "en"));
             responseModel = RDFCollections
@@ -67,4 +70,16 @@ public class AllRoomsService implements IService {
         }
     }
 
+    @Override
+    public void stream(RDFHandler rdfHandler) throws ServiceException {
+        try (RepositoryConnection connection = tripleStoreManager.getConnection(roomsIri)) {
+            QueryTemplates.ALL_ROOMS.evaluateGraph(connection, Collections.emptyMap(),
+                new RDFCollectionHandler(rdfHandler, roomsIri, TUVS.Room, Collections.singleton(
+                    valueFactory.createStatement(roomsIri, RDFS.LABEL,
+                        valueFactory.createLiteral("All known rooms", "en")))));
+        } catch (RepositoryException | QueryEvaluationException | MalformedQueryException | RDFHandlerException e) {
+            throw new ServiceException(e);
+        }
+    }
+
 }
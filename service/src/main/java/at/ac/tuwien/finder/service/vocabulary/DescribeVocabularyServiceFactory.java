@@ -3,6 +3,7 @@ package at.ac.tuwien.finder.service.vocabulary;
 import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 
@@ -33,4 +34,9 @@ class DescribeVocabularyServiceFactory implements IServiceFactory {
         }
         return new DescribeVocabularyService(localVocabName);
     }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        route.endpoint(match -> new DescribeVocabularyService(localVocabName));
+    }
 }
@@ -4,6 +4,7 @@ import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
 import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.IServiceFactory;
 import at.ac.tuwien.finder.service.InternalTreeNodeServiceFactory;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 import at.ac.tuwien.finder.service.spatial.SpatialServiceFactory;
@@ -59,4 +60,13 @@ public class VocabularyServiceFactory extends InternalTreeNodeServiceFactory {
     public static String getManagedPathName() {
         return "vocab";
     }
+
+    @Override
+    public void compile(RouteBuilder route) {
+        super.compile(route);
+        route.endpoint(match -> {
+            throw new IRIUnknownException(
+                String.format("Not implemented yet ! (%s)", match.rawIRI()));
+        });
+    }
 }
@@ -1,8 +1,15 @@
 package at.ac.tuwien.finder.service;
 
 import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.catalog.DataCatalog;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.EventDataSet;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.OrganizationalDataSet;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.SpatialDataSet;
+import at.ac.tuwien.finder.datamanagement.replication.ReadOperation;
+import at.ac.tuwien.finder.datamanagement.staging.ActiveGraphs;
 import at.ac.tuwien.finder.service.unittest.SpatialServicesTest;
 import org.apache.commons.csv.CSVFormat;
+import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.vocabulary.FOAF;
@@ -18,9 +25,13 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import java.io.*;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -50,6 +61,7 @@ public class TestTripleStore extends ExternalResource {
 
     private TripleStoreManager tripleStoreManager;
     private Repository repository;
+    private ActiveGraphs activeGraphs;
 
     @Override
     public void before() {
@@ -66,6 +78,35 @@ public class TestTripleStore extends ExternalResource {
                 return repository.getConnection();
             }
         });
+        when(tripleStoreManager.getPrimaryConnection())
+            .thenAnswer(invocation -> repository.getConnection());
+        when(tripleStoreManager.read(any())).thenAnswer(invocation -> {
+            try (RepositoryConnection connection = repository.getConnection()) {
+                return ((ReadOperation<?>) invocation.getArguments()[0]).read(connection);
+            }
+        });
+        when(tripleStoreManager.getConnection(any(IRI.class)))
+            .thenAnswer(invocation -> repository.getConnection());
+        when(tripleStoreManager.getConnection(anyCollectionOf(IRI.class)))
+            .thenAnswer(invocation -> repository.getConnection());
+        when(tripleStoreManager.getFederatedConnection())
+            .thenAnswer(invocation -> repository.getConnection());
+        when(tripleStoreManager.getPrimaryConnection(any(IRI.class)))
+            .thenAnswer(invocation -> repository.getConnection());
+        when(tripleStoreManager.read(any(IRI.class), any())).thenAnswer(invocation -> {
+            try (RepositoryConnection connection = repository.getConnection()) {
+                return ((ReadOperation<?>) invocation.getArguments()[1]).read(connection);
+            }
+        });
+        when(tripleStoreManager.read(anyCollectionOf(IRI.class), any())).thenAnswer(invocation -> {
+            try (RepositoryConnection connection = repository.getConnection()) {
+                return ((ReadOperation<?>) invocation.getArguments()[1]).read(connection);
+            }
+        });
+        activeGraphs = new ActiveGraphs(tripleStoreManager,
+            Arrays.asList(SpatialDataSet.NS, OrganizationalDataSet.NS, EventDataSet.NS),
+            Collections.singletonList(SpatialDataSet.DERIVED_GRAPH), DataCatalog.NS, 0);
+        when(tripleStoreManager.getActiveGraphs()).thenReturn(activeGraphs);
     }
 
     /**
@@ -79,6 +120,9 @@ public class TestTripleStore extends ExternalResource {
 
     @Override
     public void after() {
+        if (activeGraphs != null) {
+            activeGraphs.close();
+        }
         if (repository != null) {
             repository.shutDown();
         }
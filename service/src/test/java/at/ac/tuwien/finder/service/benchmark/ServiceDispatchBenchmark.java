@@ -0,0 +1,81 @@
+package at.ac.tuwien.finder.service.benchmark;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.service.IService;
+import at.ac.tuwien.finder.service.ServiceFactory;
+import at.ac.tuwien.finder.service.exception.IRIInvalidException;
+import at.ac.tuwien.finder.service.exception.IRIUnknownException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * This class is a JMH benchmark that compares the dispatching of a path by the compiled
+ * {@link at.ac.tuwien.finder.service.dispatch.DispatchTrie} with the traversal of the tree of
+ * factories by a path {@link Scanner}. The services are only created, but not executed, such that
+ * a mocked {@link TripleStoreManager} is sufficient.
+ * <p>
+ * The benchmark can be started with the main method of this class from the test classpath.
+ *
+ * @author Kevin Haller
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ServiceDispatchBenchmark {
+
+    @Param({"spatial", "spatial/building/id/A", "spatial/floor/id/H-EG/section/id/HAEG",
+        "spatial/room/id/HS1/address", "organizational/person/id/OID17043309",
+        "search/freerooms/startDate/2016-10-06T13:00:00+01:00/endDate/2016-10-06T14:00:00+01:00"})
+    public String path;
+
+    private ServiceFactory serviceFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serviceFactory = new ServiceFactory(mock(TripleStoreManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        serviceFactory.close();
+    }
+
+    @Benchmark
+    public IService scannerTraversal() throws IRIInvalidException, IRIUnknownException {
+        Scanner pathScanner = new Scanner(path);
+        pathScanner.useDelimiter("/");
+        return serviceFactory.getService(pathScanner);
+    }
+
+    @Benchmark
+    public IService trieDispatch() throws IRIInvalidException, IRIUnknownException {
+        return serviceFactory.getService(path);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ServiceDispatchBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,172 @@
+package at.ac.tuwien.finder.service.unittest;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.service.DescribeBatcher;
+import at.ac.tuwien.finder.service.TestTripleStore;
+import at.ac.tuwien.finder.service.query.DtoProjections;
+import at.ac.tuwien.finder.service.query.QueryTemplate;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class tests the {@link DescribeBatcher} and the evaluation of projections for several
+ * resources ({@link DtoProjections#evaluateBatch}).
+ *
+ * @author Kevin Haller
+ */
+public class DescribeBatcherTest {
+
+    private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+    private static final String BASE = TripleStoreManager.BASE.stringValue();
+
+    private static final List<IRI> BUILDINGS = Arrays
+        .asList(valueFactory.createIRI(BASE, "spatial/building/id/H"),
+            valueFactory.createIRI(BASE, "spatial/building/id/A"),
+            valueFactory.createIRI(BASE, "spatial/building/id/DABC"));
+    private static final List<IRI> ROOMS = Arrays
+        .asList(valueFactory.createIRI(BASE, "spatial/room/id/HA0318"),
+            valueFactory.createIRI(BASE, "spatial/room/id/HGEG15"),
+            valueFactory.createIRI(BASE, "spatial/room/id/HBEG10"));
+
+    @Rule
+    public TestTripleStore testTripleStore = new TestTripleStore();
+
+    @Test
+    public void evaluateBatchOfBuildings_splitsIntoSingleProjections() {
+        assertBatchSplitsIntoSingleProjections(QueryTemplates.PROJECT_BUILDING, BUILDINGS);
+    }
+
+    @Test
+    public void evaluateBatchOfRooms_splitsIntoSingleProjections() {
+        assertBatchSplitsIntoSingleProjections(QueryTemplates.PROJECT_ROOM, ROOMS);
+    }
+
+    @Test
+    public void evaluateBatchWithUnknownResource_emptyProjection() {
+        IRI unknownRoom = valueFactory.createIRI(BASE, "spatial/room/id/unknown");
+        try (RepositoryConnection connection = testTripleStore.getTripleStoreManager()
+            .getConnection()) {
+            Map<IRI, Model> projections = DtoProjections
+                .evaluateBatch(connection, QueryTemplates.PROJECT_ROOM,
+                    Arrays.asList(ROOMS.get(0), unknownRoom));
+            assertTrue(projections.get(unknownRoom).isEmpty());
+            assertFalse(projections.get(ROOMS.get(0)).isEmpty());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void evaluateBatchOfDescription_throwsIllegalArgumentException() {
+        assertFalse(DtoProjections.isProjection(QueryTemplates.DESCRIBE_RESOURCE));
+        try (RepositoryConnection connection = testTripleStore.getTripleStoreManager()
+            .getConnection()) {
+            DtoProjections.evaluateBatch(connection, QueryTemplates.DESCRIBE_RESOURCE, ROOMS);
+        }
+    }
+
+    @Test
+    public void describeWithoutConcurrentLoad_bypassesBatching() {
+        DescribeBatcher describeBatcher =
+            new DescribeBatcher(50, TimeUnit.MILLISECONDS, DescribeBatcher.DEFAULT_MAX_BATCH_SIZE);
+        Model description = describeBatcher.describe(testTripleStore.getTripleStoreManager(),
+            QueryTemplates.PROJECT_ROOM, ROOMS.get(0));
+        assertTrue(Models.isomorphic(description,
+            singleProjection(QueryTemplates.PROJECT_ROOM, ROOMS.get(0))));
+        assertThat(describeBatcher.bypassedRequestCount(), is(1L));
+        assertThat(describeBatcher.batchCount(), is(0L));
+    }
+
+    @Test
+    public void describeConcurrently_sameDescriptionsAsSingleProjections() throws Exception {
+        DescribeBatcher describeBatcher = new DescribeBatcher(50, TimeUnit.MILLISECONDS, 4);
+        List<IRI> resources = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            resources.addAll(BUILDINGS);
+        }
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<AtomicReference<Model>> descriptions = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (IRI resource : resources) {
+            AtomicReference<Model> description = new AtomicReference<>();
+            descriptions.add(description);
+            Thread thread = new Thread(() -> {
+                try {
+                    startGate.await();
+                    description.set(describeBatcher
+                        .describe(testTripleStore.getTripleStoreManager(),
+                            QueryTemplates.PROJECT_BUILDING, resource));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        startGate.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int i = 0; i < resources.size(); i++) {
+            assertTrue(Models.isomorphic(descriptions.get(i).get(),
+                singleProjection(QueryTemplates.PROJECT_BUILDING, resources.get(i))));
+        }
+        assertThat(describeBatcher.batchedRequestCount() + describeBatcher.bypassedRequestCount(),
+            is((long) resources.size()));
+    }
+
+    /**
+     * Asserts that the evaluation of the given projection for all the given resources in one
+     * query is split into the projections of the single resources.
+     *
+     * @param projection the projection of a {@link at.ac.tuwien.finder.dto.Dto} class.
+     * @param resources  the resources for which the projection shall be evaluated.
+     */
+    private void assertBatchSplitsIntoSingleProjections(QueryTemplate projection,
+        List<IRI> resources) {
+        assertTrue(DtoProjections.isProjection(projection));
+        Map<IRI, Model> projections;
+        try (RepositoryConnection connection = testTripleStore.getTripleStoreManager()
+            .getConnection()) {
+            projections = DtoProjections.evaluateBatch(connection, projection, resources);
+        }
+        assertThat(projections.keySet(), contains(resources.toArray()));
+        for (IRI resource : resources) {
+            Model singleProjection = singleProjection(projection, resource);
+            assertFalse(singleProjection.isEmpty());
+            assertTrue(Models.isomorphic(projections.get(resource), singleProjection));
+        }
+    }
+
+    /**
+     * Evaluates the given projection for the given resource alone.
+     *
+     * @param projection the projection of a {@link at.ac.tuwien.finder.dto.Dto} class.
+     * @param resource   the resource for which the projection shall be evaluated.
+     * @return the projection of the given resource.
+     */
+    private Model singleProjection(QueryTemplate projection, IRI resource) {
+        try (RepositoryConnection connection = testTripleStore.getTripleStoreManager()
+            .getConnection()) {
+            return projection.evaluateGraph(connection, QueryTemplates.RESOURCE, resource);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package at.ac.tuwien.finder.service.unittest;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.service.DescribeResourceService;
+import at.ac.tuwien.finder.service.IService;
+import at.ac.tuwien.finder.service.IServiceFactory;
+import at.ac.tuwien.finder.service.InternalTreeNodeServiceFactory;
+import at.ac.tuwien.finder.service.ServiceFactory;
+import at.ac.tuwien.finder.service.SimpleDescribeResourceService;
+import at.ac.tuwien.finder.service.TestTripleStore;
+import at.ac.tuwien.finder.service.dispatch.DispatchTrie;
+import at.ac.tuwien.finder.service.dispatch.PathMatch;
+import at.ac.tuwien.finder.service.dispatch.RouteBuilder;
+import at.ac.tuwien.finder.service.exception.IRIInvalidException;
+import at.ac.tuwien.finder.service.exception.IRIUnknownException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.Callable;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * This class tests the {@link DispatchTrie}.
+ *
+ * @author Kevin Haller
+ */
+public class DispatchTrieTest {
+
+    private static final String BASE = "http://finder.tuwien.ac.at/";
+
+    @Rule
+    public TestTripleStore testTripleStore = new TestTripleStore();
+
+    private PathMatch lastMatch;
+    private DispatchTrie dispatchTrie;
+
+    @Before
+    public void setUp() {
+        Map<String, IServiceFactory> roomFactoryMap = new HashMap<>();
+        roomFactoryMap.put("id", new InternalTreeNodeServiceFactory() {
+
+            private Map<String, IServiceFactory> resourceFactoryMap = new HashMap<>();
+
+            {
+                resourceFactoryMap.put("address", new IServiceFactory() {
+                    @Override
+                    public IService getService(IResourceIdentifier parent, Scanner pathScanner,
+                        Map<String, String> parameterMap) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public void compile(RouteBuilder route) {
+                        route.endpoint(match -> record(match));
+                    }
+                });
+            }
+
+            @Override
+            public Map<String, IServiceFactory> getServiceFactoryMap() {
+                return resourceFactoryMap;
+            }
+
+            @Override
+            public void compile(RouteBuilder route) {
+                RouteBuilder resourceRoute = route.variable("id");
+                super.compile(resourceRoute);
+                resourceRoute.endpoint(match -> record(match));
+            }
+        });
+        Map<String, IServiceFactory> rootFactoryMap = new HashMap<>();
+        rootFactoryMap.put("room", new InternalTreeNodeServiceFactory() {
+            @Override
+            public Map<String, IServiceFactory> getServiceFactoryMap() {
+                return roomFactoryMap;
+            }
+        });
+        rootFactoryMap.put("search", (parent, pathScanner, parameterMap) -> {
+            StringBuilder segments = new StringBuilder(parent.rawIRI());
+            while (pathScanner.hasNext()) {
+                segments.append('|').append(pathScanner.next());
+            }
+            return new SimpleDescribeResourceService(testTripleStore.getTripleStoreManager(),
+                segments.toString());
+        });
+        dispatchTrie = DispatchTrie.compile(BASE, new InternalTreeNodeServiceFactory() {
+            @Override
+            public Map<String, IServiceFactory> getServiceFactoryMap() {
+                return rootFactoryMap;
+            }
+        });
+    }
+
+    private IService record(PathMatch match) {
+        lastMatch = match;
+        return () -> null;
+    }
+
+    @Test
+    public void dispatchResourcePath_capturesResourceIRI() throws Exception {
+        dispatchTrie.dispatch("room/id/HS1");
+        assertThat(lastMatch.rawIRI(), is(BASE + "room/id/HS1"));
+        assertThat(lastMatch.variable("id"), is("HS1"));
+        assertThat(lastMatch.parameter("id"), is(BASE + "room/id/HS1"));
+    }
+
+    @Test
+    public void dispatchSubresourcePath_passesResourceParameter() throws Exception {
+        dispatchTrie.dispatch("/room//id/HS1/address/");
+        assertThat(lastMatch.rawIRI(), is(BASE + "room/id/HS1/address"));
+        assertThat(lastMatch.parameters().get("id"), is(BASE + "room/id/HS1"));
+        assertThat(lastMatch.variable("na"), nullValue());
+    }
+
+    @Test
+    public void dispatchResourceNamedLikeSegment_capturesVariable() throws Exception {
+        dispatchTrie.dispatch("room/id/address");
+        assertThat(lastMatch.variable("id"), is("address"));
+        dispatchTrie.dispatch("room/id/address/address");
+        assertThat(lastMatch.rawIRI(), is(BASE + "room/id/address/address"));
+    }
+
+    @Test
+    public void dispatchToLegacyFactory_handsOverRemainder() throws Exception {
+        IService service = dispatchTrie.dispatch("search/freerooms/startDate/2016");
+        assertThat(service, instanceOf(DescribeResourceService.class));
+        assertThat(((DescribeResourceService) service).resourceIdentifier().rawIRI(),
+            is(BASE + "search|freerooms|startDate|2016"));
+    }
+
+    @Test
+    public void templateOfPath_replacesVariables() {
+        assertThat(dispatchTrie.template("room/id/HS1"), is("room/id/{id}"));
+        assertThat(dispatchTrie.template("/room/id/HS1/address"), is("room/id/{id}/address"));
+        assertThat(dispatchTrie.template("search/freerooms/startDate/2016"), is("search/**"));
+        assertThat(dispatchTrie.template("room/id"), nullValue());
+        assertThat(dispatchTrie.template("room/na"), nullValue());
+    }
+
+    @Test
+    public void dispatchUnknownSegment_listsContinuations() throws Exception {
+        assertUnknown("room/na", String.format(
+            "The given IRI '%sroom/na' is not valid. Possible continuations of '%sroom' are ../id.",
+            BASE, BASE));
+    }
+
+    @Test
+    public void dispatchFurtherSegmentOfLeaf_mustThrowIRIUnknownException() throws Exception {
+        assertUnknown("room/id/HS1/address/na", String
+            .format("'%s' does not expect any further path segments. '%s' is not valid.",
+                BASE + "room/id/HS1/address", BASE + "room/id/HS1/address/na"));
+    }
+
+    @Test
+    public void dispatchPathWithoutService_mustThrowIRIUnknownException() throws Exception {
+        assertUnknown("room/id",
+            String.format("There is no service assigned to '%s'.", BASE + "room/id"));
+    }
+
+    @Test
+    public void dispatchOfServiceFactory_equalsLegacyTraversal() throws Exception {
+        ServiceFactory serviceFactory =
+            new ServiceFactory(testTripleStore.getTripleStoreManager());
+        DispatchTrie serviceTrie =
+            DispatchTrie.compile(TripleStoreManager.BASE.stringValue(), serviceFactory);
+        for (String path : Arrays
+            .asList("spatial/building/id/A", "spatial/floor/id/H-EG/section/id/HAEG",
+                "organizational/person/id/OID17043309", "event/id/E1")) {
+            IService service = serviceTrie.dispatch(path);
+            IService legacyService = getLegacyService(serviceFactory, path);
+            assertThat(service.getClass(), is(legacyService.getClass()));
+            assertThat(((DescribeResourceService) service).resourceIdentifier().rawIRI(),
+                is(((DescribeResourceService) legacyService).resourceIdentifier().rawIRI()));
+        }
+        for (String path : Arrays.asList("na", "spatial/na", "spatial/room/na")) {
+            try {
+                serviceFactory.getService(getPathScanner(path));
+                fail(String.format("'%s' must not be dispatched.", path));
+            } catch (IRIUnknownException legacyException) {
+                assertUnknown(serviceFactory, path, legacyException.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void dispatchOfEveryRoute_equalsLegacyTraversal() throws Exception {
+        ServiceFactory serviceFactory =
+            new ServiceFactory(testTripleStore.getTripleStoreManager());
+        DispatchTrie serviceTrie =
+            DispatchTrie.compile(TripleStoreManager.BASE.stringValue(), serviceFactory);
+        Map<String, String> sampleSegments = new HashMap<>();
+        sampleSegments.put("**", "A");
+        sampleSegments.put("{id}", "A");
+        sampleSegments.put("{ids}", "A,B");
+        sampleSegments.put("{limit}", "2");
+        sampleSegments.put("{cursor}", Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((BASE + "spatial/room/id/A").getBytes(StandardCharsets.UTF_8)));
+        assertThat(serviceTrie.templates().isEmpty(), is(false));
+        for (String template : serviceTrie.templates()) {
+            StringBuilder path = new StringBuilder();
+            for (String segment : template.split("/")) {
+                path.append(path.length() > 0 ? "/" : "")
+                    .append(sampleSegments.getOrDefault(segment, segment));
+            }
+            String samplePath = path.toString();
+            assertThat(template, serviceTrie.template(samplePath), is(template));
+            assertThat(samplePath, outcome(() -> serviceTrie.dispatch(samplePath)),
+                is(outcome(() -> getLegacyService(serviceFactory, samplePath))));
+        }
+    }
+
+    private void assertUnknown(String path, String message) throws IRIInvalidException {
+        try {
+            dispatchTrie.dispatch(path);
+            fail(String.format("'%s' must not be dispatched.", path));
+        } catch (IRIUnknownException e) {
+            assertThat(e.getMessage(), is(message));
+        }
+    }
+
+    private void assertUnknown(ServiceFactory serviceFactory, String path, String message)
+        throws IRIInvalidException {
+        try {
+            serviceFactory.getService(path);
+            fail(String.format("'%s' must not be dispatched.", path));
+        } catch (IRIUnknownException e) {
+            assertThat(e.getMessage(), is(message));
+        }
+    }
+
+    /**
+     * Describes the outcome of the given dispatch by the class of the dispatched service and the
+     * IRI of the described resource, or by the class and message of the thrown exception.
+     */
+    private static String outcome(Callable<IService> dispatch) {
+        try {
+            IService service = dispatch.call();
+            if (service instanceof DescribeResourceService) {
+                return service.getClass().getName() + " " + ((DescribeResourceService) service)
+                    .resourceIdentifier().rawIRI();
+            }
+            return service.getClass().getName();
+        } catch (Exception e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    /**
+     * Dispatches the given path by the {@link Scanner} based traversal of the factories of the
+     * given {@link ServiceFactory}, without filtering unknown resources.
+     */
+    private static IService getLegacyService(ServiceFactory serviceFactory, String path)
+        throws IRIInvalidException, IRIUnknownException {
+        return new InternalTreeNodeServiceFactory() {
+            @Override
+            public Map<String, IServiceFactory> getServiceFactoryMap() {
+                return serviceFactory.getServiceFactoryMap();
+            }
+        }.getService(new IResourceIdentifier(TripleStoreManager.BASE.stringValue()),
+            getPathScanner(path), null);
+    }
+
+    private static Scanner getPathScanner(String path) {
+        Scanner pathScanner = new Scanner(path);
+        pathScanner.useDelimiter("/");
+        return pathScanner;
+    }
+}
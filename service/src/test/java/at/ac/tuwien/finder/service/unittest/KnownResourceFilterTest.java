@@ -0,0 +1,238 @@
+package at.ac.tuwien.finder.service.unittest;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.OrganizationalDataSet;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.SpatialDataSet;
+import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.service.DataSetModificationTracker;
+import at.ac.tuwien.finder.service.ServiceFactory;
+import at.ac.tuwien.finder.service.TestTripleStore;
+import at.ac.tuwien.finder.service.cache.BloomFilter;
+import at.ac.tuwien.finder.service.cache.KnownResourceFilter;
+import at.ac.tuwien.finder.service.exception.IRIInvalidException;
+import at.ac.tuwien.finder.service.exception.IRIUnknownException;
+import at.ac.tuwien.finder.service.exception.ResourceNotFoundException;
+import at.ac.tuwien.finder.service.exception.ServiceException;
+import at.ac.tuwien.finder.vocabulary.TUVS;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Optional;
+import java.util.Scanner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests the {@link KnownResourceFilter} and its {@link BloomFilter}.
+ *
+ * @author Kevin Haller
+ */
+public class KnownResourceFilterTest {
+
+    private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+    private static final String BASE = TripleStoreManager.BASE.stringValue();
+
+    private static final IRI BUILDING_H = valueFactory.createIRI(BASE, "spatial/building/id/H");
+    private static final IRI ROOM_HGEG15 = valueFactory.createIRI(BASE, "spatial/room/id/HGEG15");
+
+    @Rule
+    public TestTripleStore testTripleStore = new TestTripleStore();
+
+    private DataSetModificationTracker modificationTracker;
+    private KnownResourceFilter knownResourceFilter;
+
+    @Before
+    public void setUp() throws Exception {
+        TripleStoreManager tripleStoreManager = testTripleStore.getTripleStoreManager();
+        modificationTracker = new DataSetModificationTracker(tripleStoreManager,
+            DataSetModificationTracker.DEFAULT_REFRESH_INTERVAL);
+        assertTrue(modificationTracker.refresh());
+        knownResourceFilter = new KnownResourceFilter(tripleStoreManager, modificationTracker,
+            Arrays.asList(SpatialDataSet.NS, OrganizationalDataSet.NS),
+            KnownResourceFilter.DEFAULT_FALSE_POSITIVE_PROBABILITY);
+        knownResourceFilter.rebuild();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        knownResourceFilter.close();
+        modificationTracker.close();
+    }
+
+    @Test
+    public void bloomFilterWithAddedStrings_noFalseNegatives() {
+        BloomFilter bloomFilter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            bloomFilter.put("http://finder.tuwien.ac.at/spatial/room/id/" + i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(bloomFilter.mightContain("http://finder.tuwien.ac.at/spatial/room/id/" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 10000; i < 20000; i++) {
+            if (bloomFilter.mightContain("http://finder.tuwien.ac.at/spatial/room/id/" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat("The rate of false positives must be close to the requested one.",
+            falsePositives, lessThan(300));
+    }
+
+    @Test
+    public void checkKnownResources_mightExist() {
+        assertTrue(knownResourceFilter.mightExist(BUILDING_H));
+        assertTrue(knownResourceFilter.mightExist(ROOM_HGEG15));
+    }
+
+    @Test
+    public void checkUnknownResources_mostAreRejected() {
+        int rejections = 0;
+        for (int i = 0; i < 100; i++) {
+            if (!knownResourceFilter
+                .mightExist(valueFactory.createIRI(BASE, "spatial/room/id/unknown" + i))) {
+                rejections++;
+            }
+        }
+        assertThat(rejections, greaterThan(90));
+        assertThat(knownResourceFilter.rejectionCount(), is((long) rejections));
+    }
+
+    @Test
+    public void checkResourceOutsideOfDataSets_mightExist() {
+        assertTrue(knownResourceFilter
+            .mightExist(valueFactory.createIRI(BASE, "event/id/unknown")));
+        assertTrue(knownResourceFilter
+            .mightExist(valueFactory.createIRI("http://example.org/spatial/room/id/unknown")));
+    }
+
+    @Test
+    public void checkResourceAddedAfterModification_mightExist() {
+        IRI newRoom = valueFactory.createIRI(BASE, "spatial/room/id/HGEG99");
+        try (RepositoryConnection connection = testTripleStore.getTripleStoreManager()
+            .getPrimaryConnection()) {
+            connection.add(newRoom, RDF.TYPE, TUVS.Room);
+        }
+        knownResourceFilter.dataSetModified(SpatialDataSet.NS, new Date());
+        assertTrue(knownResourceFilter.mightExist(newRoom));
+        assertTrue(knownResourceFilter.mightExist(ROOM_HGEG15));
+    }
+
+    @Test
+    public void checkResourceWithoutBuiltFilter_builtInBackground() throws Exception {
+        try (KnownResourceFilter lazyFilter = new KnownResourceFilter(
+            testTripleStore.getTripleStoreManager(), modificationTracker,
+            Arrays.asList(SpatialDataSet.NS, OrganizationalDataSet.NS),
+            KnownResourceFilter.DEFAULT_FALSE_POSITIVE_PROBABILITY)) {
+            IRI unknownRoom = valueFactory.createIRI(BASE, "spatial/room/id/" + unknownRoomId());
+            assertTrue(lazyFilter.mightExist(unknownRoom));
+            long deadline = System.currentTimeMillis() + 10000L;
+            while (lazyFilter.mightExist(unknownRoom) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+            assertFalse(lazyFilter.mightExist(unknownRoom));
+            assertTrue(lazyFilter.mightExist(ROOM_HGEG15));
+        }
+    }
+
+    @Test
+    public void checkResourceWithUnavailableStore_mightExist() throws Exception {
+        TripleStoreManager tripleStoreManager = mock(TripleStoreManager.class);
+        try (DataSetModificationTracker unavailableTracker = new DataSetModificationTracker(
+            tripleStoreManager, DataSetModificationTracker.DEFAULT_REFRESH_INTERVAL);
+            KnownResourceFilter unavailableFilter = new KnownResourceFilter(tripleStoreManager,
+                unavailableTracker, Arrays.asList(SpatialDataSet.NS, OrganizationalDataSet.NS),
+                KnownResourceFilter.DEFAULT_FALSE_POSITIVE_PROBABILITY)) {
+            unavailableFilter.rebuild();
+            assertTrue(unavailableFilter
+                .mightExist(valueFactory.createIRI(BASE, "spatial/room/id/unknown")));
+        }
+    }
+
+    @Test
+    public void checkResourceAddedWithNewStampWhileRebuildPending_mightExist() throws Exception {
+        TripleStoreManager tripleStoreManager = testTripleStore.getTripleStoreManager();
+        DataSetModificationTracker stampedTracker = mock(DataSetModificationTracker.class);
+        Date modificationDate = new Date(1480000000000L);
+        when(stampedTracker.lastModified(anyCollectionOf(IRI.class)))
+            .thenReturn(Optional.of(modificationDate));
+        try (KnownResourceFilter stampedFilter = new KnownResourceFilter(tripleStoreManager,
+            stampedTracker, Collections.singleton(SpatialDataSet.NS),
+            KnownResourceFilter.DEFAULT_FALSE_POSITIVE_PROBABILITY)) {
+            stampedFilter.rebuild();
+            String newRoomId = unknownRoomId();
+            IRI newRoom = valueFactory.createIRI(BASE, "spatial/room/id/" + newRoomId);
+            IRI unknownRoom =
+                valueFactory.createIRI(BASE, "spatial/room/id/" + unknownRoomId(newRoomId));
+            assertFalse(stampedFilter.mightExist(newRoom));
+            assertFalse(stampedFilter.mightExist(unknownRoom));
+            try (RepositoryConnection connection = tripleStoreManager.getPrimaryConnection()) {
+                connection.add(newRoom, RDF.TYPE, TUVS.Room);
+            }
+            when(stampedTracker.lastModified(anyCollectionOf(IRI.class)))
+                .thenReturn(Optional.of(new Date(modificationDate.getTime() + 1000L)));
+            assertTrue(stampedFilter.mightExist(newRoom));
+            long deadline = System.currentTimeMillis() + 10000L;
+            while (stampedFilter.mightExist(unknownRoom)
+                && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+            assertFalse(stampedFilter.mightExist(unknownRoom));
+            assertTrue(stampedFilter.mightExist(newRoom));
+        }
+    }
+
+    @Test
+    public void checkResourceOfOtherDataSetAfterModification_filterKept() {
+        knownResourceFilter.dataSetModified(OrganizationalDataSet.NS, new Date());
+        assertFalse(knownResourceFilter.mightExist(
+            valueFactory.createIRI(BASE, "spatial/room/id/" + unknownRoomId())));
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void getUnknownRoom_throwsResourceNotFoundException()
+        throws ServiceException, IRIInvalidException, IRIUnknownException {
+        ServiceFactory serviceFactory = new ServiceFactory(testTripleStore.getTripleStoreManager());
+        serviceFactory.getService(new IResourceIdentifier(BASE),
+            new Scanner("spatial/room/id/" + unknownRoomId()).useDelimiter("/"), null).execute();
+    }
+
+    /**
+     * Gets the id of a room that is rejected by the filter.
+     *
+     * @return the id of a room that is rejected by the filter.
+     */
+    private String unknownRoomId() {
+        return unknownRoomId(null);
+    }
+
+    /**
+     * Gets the id of a room that is rejected by the filter and differs from the given id.
+     *
+     * @param excludedId the id that shall not be returned, or null.
+     * @return the id of a room that is rejected by the filter.
+     */
+    private String unknownRoomId(String excludedId) {
+        for (int i = 0; ; i++) {
+            if (!("unknown" + i).equals(excludedId) && !knownResourceFilter
+                .mightExist(valueFactory.createIRI(BASE, "spatial/room/id/unknown" + i))) {
+                return "unknown" + i;
+            }
+        }
+    }
+}
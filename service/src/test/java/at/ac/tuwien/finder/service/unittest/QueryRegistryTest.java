@@ -0,0 +1,169 @@
+package at.ac.tuwien.finder.service.unittest;
+
+import at.ac.tuwien.finder.dto.spatial.BuildingDto;
+import at.ac.tuwien.finder.service.TestTripleStore;
+import at.ac.tuwien.finder.service.query.DtoProjections;
+import at.ac.tuwien.finder.service.query.QueryRegistry;
+import at.ac.tuwien.finder.service.query.QueryTemplate;
+import at.ac.tuwien.finder.service.query.QueryTemplates;
+import at.ac.tuwien.finder.vocabulary.GeoSPARQL;
+import at.ac.tuwien.finder.vocabulary.LOCN;
+import at.ac.tuwien.finder.vocabulary.TUVS;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.outofbits.opinto.RDFMapper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class tests the {@link QueryRegistry} and its {@link QueryTemplate}s.
+ *
+ * @author Kevin Haller
+ */
+public class QueryRegistryTest {
+
+    private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+    private static final IRI BUILDING_A =
+        valueFactory.createIRI("http://finder.tuwien.ac.at/spatial/building/id/A");
+    private static final IRI BUILDING_H =
+        valueFactory.createIRI("http://finder.tuwien.ac.at/spatial/building/id/H");
+
+    @Rule
+    public TestTripleStore testTripleStore = new TestTripleStore();
+
+    private QueryRegistry queryRegistry;
+
+    @Before
+    public void setUp() {
+        queryRegistry = new QueryRegistry();
+    }
+
+    @Test(expected = MalformedQueryException.class)
+    public void registerMalformedQuery_mustThrowMalformedQueryException() {
+        queryRegistry.register("malformed", "DESCRIBE ?resource WHERE {", "resource");
+    }
+
+    @Test(expected = MalformedQueryException.class)
+    public void registerUnknownParameter_mustThrowMalformedQueryException() {
+        queryRegistry.register("unknown", "DESCRIBE ?resource", "building");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void registerSameNameTwice_mustThrowIllegalArgumentException() {
+        queryRegistry.register("describe", "DESCRIBE ?resource", "resource");
+        queryRegistry.register("describe", "DESCRIBE ?resource", "resource");
+    }
+
+    @Test
+    public void loadTemplatesOfServices_allRegistered() {
+        assertThat(QueryTemplates.load().stream().map(QueryTemplate::getName)
+                .collect(Collectors.toList()),
+            hasItems("describe-resource", "describe-building", "floor-sections", "room-address",
+                "free-rooms"));
+        assertTrue(QueryRegistry.getInstance().get("describe-building").isPresent());
+    }
+
+    @Test
+    public void evaluateTemplate_describesBoundResource() {
+        QueryTemplate template = queryRegistry
+            .register("building", QueryTemplates.DESCRIBE_BUILDING.getQuery(), "resource");
+        try (RepositoryConnection connection = testTripleStore.getTripleStoreManager()
+            .getConnection()) {
+            Model model = template.evaluateGraph(connection, "resource", BUILDING_A);
+            assertTrue(model.contains(BUILDING_A, RDF.TYPE, TUVS.Building));
+        }
+        assertThat(template.getLatencies().count(), is(1L));
+        assertThat(template.getFailureCount(), is(0L));
+    }
+
+    @Test
+    public void evaluateTemplateWithSplicingIRI_queryUnchanged() {
+        QueryTemplate template =
+            queryRegistry.register("describe", "DESCRIBE ?resource", "resource");
+        try (RepositoryConnection connection = testTripleStore.getTripleStoreManager()
+            .getConnection()) {
+            Model model = template.evaluateGraph(connection, "resource", valueFactory
+                .createIRI("http://finder.tuwien.ac.at/na> ?p ?o . <" + BUILDING_A.stringValue()));
+            assertTrue(model.filter(BUILDING_A, null, null).isEmpty());
+        }
+    }
+
+    @Test
+    public void evaluateTemplateWithoutParameter_mustThrowIllegalArgumentException() {
+        QueryTemplate template =
+            queryRegistry.register("describe", "DESCRIBE ?resource", "resource");
+        try (RepositoryConnection connection = testTripleStore.getTripleStoreManager()
+            .getConnection()) {
+            template.evaluateGraph(connection, Collections.emptyMap());
+            throw new AssertionError("An unbound parameter must not be accepted.");
+        } catch (IllegalArgumentException e) {
+            assertThat(template.getFailureCount(), is(1L));
+        }
+    }
+
+    @Test
+    public void evaluateTemplateForValues_describesAllResources() {
+        try (RepositoryConnection connection = testTripleStore.getTripleStoreManager()
+            .getConnection()) {
+            Model model = QueryTemplates.DESCRIBE_RESOURCES
+                .evaluateGraph(connection, QueryTemplates.RESOURCE,
+                    Arrays.asList(BUILDING_A, BUILDING_H));
+            assertTrue(model.contains(BUILDING_A, RDF.TYPE, TUVS.Building));
+            assertTrue(model.contains(BUILDING_H, RDF.TYPE, TUVS.Building));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void evaluateTemplateWithoutValuesBlockForValues_mustThrowIllegalStateException() {
+        QueryTemplate template =
+            queryRegistry.register("describe", "DESCRIBE ?resource", "resource");
+        try (RepositoryConnection connection = testTripleStore.getTripleStoreManager()
+            .getConnection()) {
+            template.evaluateGraph(connection, "resource", Collections.singleton(BUILDING_A));
+        }
+    }
+
+    @Test
+    public void deriveProjectionOfBuilding_containsAnnotatedPropertiesOfLinkedResources() {
+        String query = DtoProjections.constructQuery(BuildingDto.class);
+        assertThat(query, containsString(TUVS.containsBuildingUnit.stringValue()));
+        assertThat(query, containsString(LOCN.address.stringValue()));
+        assertThat(query, containsString(GeoSPARQL.asWKT.stringValue()));
+        assertThat(query, containsString(TUVS.roomCode.stringValue()));
+        assertThat(DtoProjections.of(BuildingDto.class), is(QueryTemplates.PROJECT_BUILDING));
+    }
+
+    @Test
+    public void evaluateProjectionOfBuilding_subsetOfDescription() {
+        try (RepositoryConnection connection = testTripleStore.getTripleStoreManager()
+            .getConnection()) {
+            Model projection = QueryTemplates.PROJECT_BUILDING
+                .evaluateGraph(connection, QueryTemplates.RESOURCE, BUILDING_H);
+            Model description = QueryTemplates.DESCRIBE_BUILDING
+                .evaluateGraph(connection, QueryTemplates.RESOURCE, BUILDING_H);
+            assertTrue(projection.contains(BUILDING_H, RDF.TYPE, TUVS.Building));
+            assertTrue(description.containsAll(projection));
+            assertTrue(projection.size() <= description.size());
+            BuildingDto buildingDto =
+                RDFMapper.create().readValue(projection, BuildingDto.class, BUILDING_H);
+            assertThat(buildingDto.getBuildingUnits().size(),
+                is(projection.filter(BUILDING_H, TUVS.containsBuildingUnit, null).size()));
+        }
+    }
+}
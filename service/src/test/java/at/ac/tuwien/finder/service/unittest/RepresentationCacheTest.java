@@ -0,0 +1,83 @@
+package at.ac.tuwien.finder.service.unittest;
+
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.EventDataSet;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.SpatialDataSet;
+import at.ac.tuwien.finder.service.cache.RepresentationCache;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Date;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * This class tests the {@link RepresentationCache}.
+ *
+ * @author Kevin Haller
+ */
+public class RepresentationCacheTest {
+
+    private static final String TURTLE = "text/turtle";
+    private static final Date STAMP = new Date(1000L);
+
+    private RepresentationCache representationCache;
+
+    @Before
+    public void setUp() {
+        representationCache = new RepresentationCache(800);
+    }
+
+    @Test
+    public void getCachedRepresentation_ok() {
+        representationCache.put("spatial/room/id/A", TURTLE, null, STAMP,
+            Collections.singleton(SpatialDataSet.NS), new byte[10]);
+        assertThat(representationCache.get("spatial/room/id/A", TURTLE, null, STAMP),
+            notNullValue());
+        assertThat(representationCache.get("spatial/room/id/A", "text/html", "en", STAMP),
+            nullValue());
+        assertThat(representationCache.hitCount(), is(1L));
+        assertThat(representationCache.missCount(), is(1L));
+    }
+
+    @Test
+    public void getRepresentationWithOutdatedStamp_returnsNull() {
+        representationCache.put("spatial/room/id/A", TURTLE, null, STAMP,
+            Collections.singleton(SpatialDataSet.NS), new byte[10]);
+        assertThat(representationCache.get("spatial/room/id/A", TURTLE, null, new Date(2000L)),
+            nullValue());
+        assertThat(representationCache.size(), is(0));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedRepresentation_ok() {
+        for (int i = 0; i < 8; i++) {
+            representationCache
+                .put("spatial/room/id/" + i, TURTLE, null, STAMP, null, new byte[100]);
+        }
+        representationCache.get("spatial/room/id/0", TURTLE, null, STAMP);
+        representationCache.put("spatial/room/id/8", TURTLE, null, STAMP, null, new byte[100]);
+        assertThat(representationCache.weight(), is(800L));
+        assertThat(representationCache.evictionCount(), is(1L));
+        assertThat(representationCache.get("spatial/room/id/0", TURTLE, null, STAMP),
+            notNullValue());
+        assertThat(representationCache.get("spatial/room/id/1", TURTLE, null, STAMP),
+            nullValue());
+    }
+
+    @Test
+    public void invalidateDataSet_removesDependentRepresentations() {
+        representationCache.put("spatial/room/id/A", TURTLE, null, STAMP,
+            Collections.singleton(SpatialDataSet.NS), new byte[10]);
+        representationCache.put("event/id/1", TURTLE, null, STAMP,
+            Collections.singleton(EventDataSet.NS), new byte[10]);
+        representationCache.dataSetModified(SpatialDataSet.NS, new Date());
+        assertThat(representationCache.get("spatial/room/id/A", TURTLE, null, STAMP),
+            nullValue());
+        assertThat(representationCache.get("event/id/1", TURTLE, null, STAMP), notNullValue());
+        assertThat(representationCache.invalidationCount(), is(1L));
+    }
+}
@@ -0,0 +1,179 @@
+package at.ac.tuwien.finder.service.unittest;
+
+import at.ac.tuwien.finder.dto.Dto;
+import at.ac.tuwien.finder.dto.ExceptionResourceDto;
+import at.ac.tuwien.finder.service.IService;
+import at.ac.tuwien.finder.service.RequestCoalescer;
+import at.ac.tuwien.finder.service.exception.ResourceNotFoundException;
+import at.ac.tuwien.finder.service.exception.ServiceException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * This class tests the {@link RequestCoalescer}.
+ *
+ * @author Kevin Haller
+ */
+public class RequestCoalescerTest {
+
+    private static final String PATH = "spatial/room/id/HS1";
+
+    private RequestCoalescer requestCoalescer;
+    private AtomicInteger executions;
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() {
+        requestCoalescer = new RequestCoalescer(RequestCoalescer.DEFAULT_TIMEOUT);
+        executions = new AtomicInteger();
+        release = new CountDownLatch(1);
+    }
+
+    @Test
+    public void executeConcurrentIdenticalServices_shareOneExecution() throws Exception {
+        Dto result = ExceptionResourceDto.getInstance(new Exception("result"));
+        IService service = blockingService(() -> result);
+        Thread leader = start(service, new AtomicReference<>(), 0);
+        awaitInFlight();
+        List<AtomicReference<Object>> followerResults = new ArrayList<>();
+        List<Thread> followers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            AtomicReference<Object> followerResult = new AtomicReference<>();
+            followerResults.add(followerResult);
+            followers.add(start(service, followerResult, RequestCoalescer.DEFAULT_TIMEOUT));
+        }
+        for (Thread follower : followers) {
+            awaitWaiting(follower);
+        }
+        release.countDown();
+        leader.join();
+        for (Thread follower : followers) {
+            follower.join();
+        }
+        for (AtomicReference<Object> followerResult : followerResults) {
+            assertThat(followerResult.get(), sameInstance(result));
+        }
+        assertThat(executions.get(), is(1));
+        assertThat(requestCoalescer.executionCount(), is(1L));
+        assertThat(requestCoalescer.sharedExecutionCount(), is(4L));
+        assertThat(requestCoalescer.inFlightCount(), is(0));
+    }
+
+    @Test
+    public void executeConcurrentIdenticalFailingServices_shareException() throws Exception {
+        ResourceNotFoundException exception =
+            new ResourceNotFoundException("The resource cannot be located.", PATH);
+        IService service = blockingService(() -> {
+            throw exception;
+        });
+        Thread leader = start(service, new AtomicReference<>(), 0);
+        awaitInFlight();
+        AtomicReference<Object> followerResult = new AtomicReference<>();
+        Thread follower = start(service, followerResult, RequestCoalescer.DEFAULT_TIMEOUT);
+        awaitWaiting(follower);
+        release.countDown();
+        leader.join();
+        follower.join();
+        assertThat(followerResult.get(), sameInstance(exception));
+        assertThat(executions.get(), is(1));
+    }
+
+    @Test
+    public void executeWhileIdenticalServiceExceedsTimeout_executesOwnService() throws Exception {
+        Dto result = ExceptionResourceDto.getInstance(new Exception("result"));
+        IService service = blockingService(() -> result);
+        Thread leader = start(service, new AtomicReference<>(), 0);
+        awaitInFlight();
+        Dto ownResult = requestCoalescer.execute(PATH, () -> {
+            executions.incrementAndGet();
+            return result;
+        }, 10);
+        release.countDown();
+        leader.join();
+        assertThat(ownResult, sameInstance(result));
+        assertThat(executions.get(), is(2));
+        assertThat(requestCoalescer.timeoutCount(), is(1L));
+        assertThat(requestCoalescer.sharedExecutionCount(), is(0L));
+    }
+
+    @Test
+    public void executeSequentialIdenticalServices_notCoalesced() throws Exception {
+        IService service = () -> {
+            executions.incrementAndGet();
+            return ExceptionResourceDto.getInstance(new Exception("result"));
+        };
+        Dto firstResult = requestCoalescer.execute(PATH, service);
+        Dto secondResult = requestCoalescer.execute(PATH, service);
+        assertThat(secondResult, not(sameInstance(firstResult)));
+        assertThat(executions.get(), is(2));
+        assertThat(requestCoalescer.sharedExecutionCount(), is(0L));
+    }
+
+    /**
+     * Creates a service that counts its executions and blocks until the test releases it.
+     *
+     * @param service the {@link IService} that computes the result after the release.
+     * @return the blocking {@link IService}.
+     */
+    private IService blockingService(IService service) {
+        return () -> {
+            executions.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new ServiceException(e);
+            }
+            return service.execute();
+        };
+    }
+
+    /**
+     * Starts a thread that executes the given service with the coalescer and stores its result or
+     * exception in the given reference.
+     *
+     * @param service the {@link IService} that shall be executed.
+     * @param result  the reference in which the result or exception shall be stored.
+     * @param timeout the timeout of the execution.
+     * @return the started thread.
+     */
+    private Thread start(IService service, AtomicReference<Object> result, long timeout) {
+        Thread thread = new Thread(() -> {
+            try {
+                result.set(requestCoalescer.execute(PATH, service, timeout));
+            } catch (ServiceException e) {
+                result.set(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Waits until a service is executed for the path.
+     */
+    private void awaitInFlight() throws InterruptedException {
+        while (requestCoalescer.inFlightCount() == 0) {
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Waits until the given thread waits for the result of a concurrent execution.
+     *
+     * @param thread the thread for which shall be waited.
+     */
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+    }
+}
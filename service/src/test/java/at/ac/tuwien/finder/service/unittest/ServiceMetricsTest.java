@@ -0,0 +1,69 @@
+package at.ac.tuwien.finder.service.unittest;
+
+import at.ac.tuwien.finder.service.metrics.LatencyHistogram;
+import at.ac.tuwien.finder.service.metrics.ServiceMetrics;
+import at.ac.tuwien.finder.service.metrics.ServiceMetrics.Phase;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * This class tests the {@link ServiceMetrics}.
+ *
+ * @author Kevin Haller
+ */
+public class ServiceMetricsTest {
+
+    private ServiceMetrics serviceMetrics;
+
+    @Before
+    public void setUp() {
+        serviceMetrics = new ServiceMetrics();
+    }
+
+    @Test
+    public void recordLatencies_cumulativeBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(500_000L);
+        histogram.record(20_000_000L);
+        histogram.record(20_000_000_000L);
+        long[] bucketCounts = histogram.cumulativeBucketCounts();
+        assertThat(histogram.count(), is(3L));
+        assertThat(bucketCounts[0], is(1L));
+        assertThat(bucketCounts[bucketCounts.length - 1], is(2L));
+    }
+
+    @Test
+    public void recordRequest_writtenInPrometheusFormat() {
+        serviceMetrics.recordRequest("spatial/room/id/{id}", "TURTLE", 200, System.nanoTime());
+        StringBuilder builder = new StringBuilder();
+        serviceMetrics.writePrometheus(builder);
+        String metrics = builder.toString();
+        assertThat(metrics, containsString("# TYPE finder_request_duration_seconds histogram"));
+        assertThat(metrics, containsString(
+            "finder_request_duration_seconds_count{route=\"spatial/room/id/{id}\",format=\"TURTLE\",status=\"200\"} 1"));
+        assertThat(metrics, containsString(
+            "finder_request_duration_seconds_bucket{route=\"spatial/room/id/{id}\",format=\"TURTLE\",status=\"200\",le=\"+Inf\"} 1"));
+    }
+
+    @Test
+    public void recordPhase_assignedToBoundRoute() {
+        serviceMetrics.bindRoute("spatial/building/id/{id}");
+        try {
+            serviceMetrics.recordPhase(Phase.QUERY, System.nanoTime());
+        } finally {
+            serviceMetrics.unbindRoute();
+        }
+        serviceMetrics.recordPhase(Phase.MAPPING, System.nanoTime());
+        StringBuilder builder = new StringBuilder();
+        serviceMetrics.writePrometheus(builder);
+        String metrics = builder.toString();
+        assertThat(metrics, containsString(
+            "finder_phase_duration_seconds_count{route=\"spatial/building/id/{id}\",phase=\"query\"} 1"));
+        assertThat(metrics, containsString(
+            "finder_phase_duration_seconds_count{route=\"unknown\",phase=\"mapping\"} 1"));
+    }
+}
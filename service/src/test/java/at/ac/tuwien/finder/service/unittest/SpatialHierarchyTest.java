@@ -0,0 +1,184 @@
+package at.ac.tuwien.finder.service.unittest;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.catalog.dataset.SpatialDataSet;
+import at.ac.tuwien.finder.service.DataSetModificationTracker;
+import at.ac.tuwien.finder.service.TestTripleStore;
+import at.ac.tuwien.finder.service.spatial.hierarchy.SpatialHierarchy;
+import at.ac.tuwien.finder.service.spatial.hierarchy.SpatialHierarchyIndex;
+import at.ac.tuwien.finder.vocabulary.TUVS;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * This class tests the {@link SpatialHierarchy} and the {@link SpatialHierarchyIndex} of the
+ * spatial data in the test dump.
+ *
+ * @author Kevin Haller
+ */
+public class SpatialHierarchyTest {
+
+    private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+    private static final String BASE = TripleStoreManager.BASE.stringValue();
+
+    private static final IRI BUILDING_DABC =
+        valueFactory.createIRI(BASE, "spatial/building/id/DABC");
+    private static final IRI TRACT_DA = valueFactory.createIRI(BASE, "spatial/buildingtract/id/DA");
+    private static final IRI TRACT_DB = valueFactory.createIRI(BASE, "spatial/buildingtract/id/DB");
+    private static final IRI TRACT_DC = valueFactory.createIRI(BASE, "spatial/buildingtract/id/DC");
+
+    private static final Date MODIFIED = new Date(1480000000000L);
+
+    @Rule
+    public TestTripleStore testTripleStore = new TestTripleStore();
+
+    private SpatialHierarchy hierarchy;
+
+    @Before
+    public void setUp() throws Exception {
+        try (RepositoryConnection connection = testTripleStore.getTripleStoreManager()
+            .getConnection()) {
+            hierarchy = SpatialHierarchy.load(connection);
+        }
+    }
+
+    @Test
+    public void getChildrenOfBuildingOfTypeTract_ok() {
+        assertTrue(hierarchy.contains(BUILDING_DABC));
+        assertTrue(hierarchy.isA(BUILDING_DABC, TUVS.Building));
+        assertThat(hierarchy.children(BUILDING_DABC, TUVS.BuildingTract),
+            containsInAnyOrder(TRACT_DA, TRACT_DB, TRACT_DC));
+    }
+
+    @Test
+    public void getAncestorOfTractOfTypeBuilding_ok() {
+        assertThat(hierarchy.parents(TRACT_DA, TUVS.Building), contains(BUILDING_DABC));
+        assertThat(hierarchy.ancestor(TRACT_DA, TUVS.Building), is(Optional.of(BUILDING_DABC)));
+        assertThat(hierarchy.ancestors(TRACT_DA, null), hasItem(BUILDING_DABC));
+        assertThat(hierarchy.ancestor(BUILDING_DABC, TUVS.Building), is(Optional.empty()));
+    }
+
+    @Test
+    public void getDescendantsOfBuilding_containsChildren() {
+        assertThat(hierarchy.descendants(BUILDING_DABC, null),
+            hasItems(TRACT_DA, TRACT_DB, TRACT_DC));
+        assertThat(hierarchy.descendants(BUILDING_DABC, TUVS.Building), is(empty()));
+    }
+
+    @Test
+    public void getChildrenOfUnknownNode_empty() {
+        IRI unknown = valueFactory.createIRI(BASE, "spatial/building/id/ABC");
+        assertFalse(hierarchy.contains(unknown));
+        assertThat(hierarchy.children(unknown, null), is(empty()));
+        assertThat(hierarchy.ancestor(unknown, TUVS.Building), is(Optional.empty()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getChildrenOfUnsupportedType_throwsIllegalArgumentException() {
+        hierarchy.children(BUILDING_DABC, FOAF.PERSON);
+    }
+
+    @Test
+    public void getHierarchyOfIndexAfterRebuild_present() throws Exception {
+        try (SpatialHierarchyIndex index = new SpatialHierarchyIndex(
+            testTripleStore.getTripleStoreManager(), trackerAt(MODIFIED))) {
+            assertTrue(index.rebuild());
+            Optional<SpatialHierarchy> indexedHierarchy = index.get();
+            assertTrue(indexedHierarchy.isPresent());
+            assertThat(indexedHierarchy.get().size(), is(hierarchy.size()));
+        }
+    }
+
+    @Test
+    public void getHierarchyOfIndexWithoutBuild_emptyUntilBuiltInBackground() throws Exception {
+        try (SpatialHierarchyIndex index = new SpatialHierarchyIndex(
+            testTripleStore.getTripleStoreManager(), trackerAt(MODIFIED))) {
+            assertThat(index.get(), is(Optional.empty()));
+            Optional<SpatialHierarchy> indexedHierarchy = awaitHierarchy(index);
+            assertTrue(indexedHierarchy.isPresent());
+            assertThat(indexedHierarchy.get().size(), is(hierarchy.size()));
+        }
+    }
+
+    @Test
+    public void getHierarchyOfIndexAfterStampChanged_emptyUntilRebuilt() throws Exception {
+        DataSetModificationTracker modificationTracker = trackerAt(MODIFIED);
+        try (SpatialHierarchyIndex index = new SpatialHierarchyIndex(
+            testTripleStore.getTripleStoreManager(), modificationTracker)) {
+            assertTrue(index.rebuild());
+            Date newModificationDate = new Date(MODIFIED.getTime() + 1000L);
+            when(modificationTracker.lastModified(anyCollectionOf(IRI.class)))
+                .thenReturn(Optional.of(newModificationDate));
+            assertThat(index.get(), is(Optional.empty()));
+            assertTrue(awaitHierarchy(index).isPresent());
+        }
+    }
+
+    @Test
+    public void getHierarchyOfIndexAfterModification_empty() throws Exception {
+        try (SpatialHierarchyIndex index = new SpatialHierarchyIndex(
+            testTripleStore.getTripleStoreManager(), trackerAt(MODIFIED))) {
+            assertTrue(index.rebuild());
+            index.dataSetModified(SpatialDataSet.NS, new Date());
+            assertThat(index.get(), is(Optional.empty()));
+        }
+    }
+
+    @Test
+    public void getHierarchyOfIndexWithUnavailableStore_empty() throws Exception {
+        try (SpatialHierarchyIndex index = new SpatialHierarchyIndex(
+            mock(TripleStoreManager.class), trackerAt(MODIFIED))) {
+            assertFalse(index.rebuild());
+            assertThat(index.get(), is(Optional.empty()));
+        }
+    }
+
+    /**
+     * Creates a mocked {@link DataSetModificationTracker} that reports the given modification
+     * stamp for every data set.
+     *
+     * @param modificationDate the modification stamp that shall be reported.
+     * @return the mocked {@link DataSetModificationTracker}.
+     */
+    private static DataSetModificationTracker trackerAt(Date modificationDate) {
+        DataSetModificationTracker modificationTracker = mock(DataSetModificationTracker.class);
+        when(modificationTracker.lastModified(anyCollectionOf(IRI.class)))
+            .thenReturn(Optional.of(modificationDate));
+        return modificationTracker;
+    }
+
+    /**
+     * Waits at most ten seconds until the given index hands out a hierarchy.
+     *
+     * @param index the {@link SpatialHierarchyIndex} of which the hierarchy shall be awaited.
+     * @return the hierarchy of the given index, or an empty {@link Optional}, if it has not been
+     * built in time.
+     */
+    private static Optional<SpatialHierarchy> awaitHierarchy(SpatialHierarchyIndex index)
+        throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000L;
+        Optional<SpatialHierarchy> indexedHierarchy = index.get();
+        while (!indexedHierarchy.isPresent() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+            indexedHierarchy = index.get();
+        }
+        return indexedHierarchy;
+    }
+}
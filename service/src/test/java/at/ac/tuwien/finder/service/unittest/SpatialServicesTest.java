@@ -11,11 +11,14 @@ import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 import at.ac.tuwien.finder.service.exception.ResourceNotFoundException;
 import at.ac.tuwien.finder.service.exception.ServiceException;
+import at.ac.tuwien.finder.vocabulary.HYDRA;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.Rio;
@@ -24,14 +27,22 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 /**
  * THis class shall test the service structure concerning spatial data.
@@ -298,6 +309,18 @@ public class SpatialServicesTest {
             .execute();
     }
 
+    @Test
+    public void getCollectionsAndResource_readThroughReadRouting()
+        throws IRIUnknownException, IRIInvalidException, ServiceException {
+        serviceFactory.getService(getPathScanner("spatial/buildings")).execute();
+        serviceFactory.getService(getPathScanner("spatial/rooms")).execute();
+        serviceFactory.getService(getPathScanner("spatial/room/id/HGEG15")).execute();
+        TripleStoreManager tripleStoreManager = testTripleStore.getTripleStoreManager();
+        verify(tripleStoreManager, never()).getConnection();
+        verify(tripleStoreManager, never()).getConnection(any(IRI.class));
+        verify(tripleStoreManager, never()).getConnection(anyCollectionOf(IRI.class));
+    }
+
     @Test
     public void getAllBuildings_ok()
         throws IRIUnknownException, IRIInvalidException, ServiceException {
@@ -431,6 +454,139 @@ public class SpatialServicesTest {
         serviceFactory.getService(getPathScanner("spatial/room/id/HGEG15/address/na")).execute();
     }
 
+    @Test
+    public void getBatchOfRooms_ok() throws Exception {
+        Dto responseDto =
+            serviceFactory.getService(getPathScanner("spatial/room/batch/HA0318,HBEG02,NA"))
+                .execute();
+        assertThat(responseDto, instanceOf(SimpleDtoCollectionDto.class));
+        SimpleDtoCollectionDto<Dto> batchDto = (SimpleDtoCollectionDto<Dto>) responseDto;
+        assertThat(batchDto.size(), is(2));
+        for (Dto roomDto : batchDto) {
+            assertThat(roomDto, instanceOf(RoomDto.class));
+        }
+        assertThat(batchDto.asResourceList().stream()
+                .map(resource -> ((IResourceIdentifier) resource).rawIRI())
+                .collect(Collectors.toList()),
+            contains(valueFactory.createIRI(BASE.stringValue(), "spatial/room/id/HA0318")
+                    .stringValue(),
+                valueFactory.createIRI(BASE.stringValue(), "spatial/room/id/HBEG02")
+                    .stringValue()));
+    }
+
+    @Test
+    public void getBatchOfRoomAndBuilding_mappedByType() throws Exception {
+        Dto responseDto =
+            serviceFactory.getService("batch/spatial/room/id/HA0318,spatial/building/id/H")
+                .execute();
+        SimpleDtoCollectionDto<Dto> batchDto = (SimpleDtoCollectionDto<Dto>) responseDto;
+        assertThat(batchDto.size(), is(2));
+        Dto[] dtos = batchDto.toArray(new Dto[0]);
+        assertThat(dtos[0], instanceOf(RoomDto.class));
+        assertThat(dtos[1], instanceOf(BuildingDto.class));
+        assertTrue(responseDto.getModel().contains(
+            valueFactory.createIRI(BASE.stringValue(), "spatial/building/id/H"), null, null));
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void getBatchOfUnknownRooms_throwsResourceNotFoundException() throws Exception {
+        serviceFactory.getService(getPathScanner("spatial/room/batch/NA,ABC")).execute();
+    }
+
+    @Test(expected = IRIInvalidException.class)
+    public void getEmptyBatch_throwsIRIInvalidException() throws Exception {
+        serviceFactory.getService("spatial/room/batch/,").execute();
+    }
+
+    @Test
+    public void getFirstPageOfRooms_ok() throws Exception {
+        Dto responseDto = serviceFactory.getService(getPathScanner("spatial/rooms/limit/2"))
+            .execute();
+        IRI pageIri = valueFactory.createIRI(BASE.stringValue(), "spatial/rooms/limit/2");
+        assertThat(responseDto.getIRI().rawIRI(), is(pageIri.stringValue()));
+        assertThat(responseDto, instanceOf(SimpleDtoCollectionDto.class));
+        List<String> rooms = memberIRIs(responseDto);
+        assertThat(rooms, hasSize(2));
+        assertThat(rooms.get(0), lessThan(rooms.get(1)));
+        Model model = responseDto.getModel();
+        assertTrue(model.contains(pageIri, RDF.TYPE, HYDRA.PartialCollectionView));
+        assertTrue(
+            model.contains(valueFactory.createIRI(BASE.stringValue(), "spatial/rooms"), HYDRA.view,
+                pageIri));
+        assertTrue(model.contains(pageIri, HYDRA.next, null));
+        assertFalse(model.contains(pageIri, HYDRA.previous, null));
+    }
+
+    @Test
+    public void pageThroughFloorSections_allSectionsInOrder() throws Exception {
+        List<String> sections = memberIRIs(
+            serviceFactory.getService(getPathScanner("spatial/floor/id/H-EG/sections")).execute());
+        Collections.sort(sections);
+        List<String> pagedSections = new ArrayList<>();
+        String pagePath = "spatial/floor/id/H-EG/sections/limit/4";
+        int pages = 0;
+        while (pagePath != null) {
+            Dto pageDto = serviceFactory.getService(pagePath).execute();
+            assertThat(memberIRIs(pageDto).size(), lessThanOrEqualTo(4));
+            pagedSections.addAll(memberIRIs(pageDto));
+            pagePath = link(pageDto, HYDRA.next);
+            pages++;
+        }
+        assertThat(pages, is(3));
+        assertThat(pagedSections, is(sections));
+    }
+
+    @Test
+    public void followPreviousLinkOfBuildings_returnsPrecedingPage() throws Exception {
+        Dto firstPageDto =
+            serviceFactory.getService(getPathScanner("spatial/buildings/limit/2")).execute();
+        Dto secondPageDto = serviceFactory.getService(link(firstPageDto, HYDRA.next)).execute();
+        assertThat(memberIRIs(secondPageDto), everyItem(
+            greaterThan(memberIRIs(firstPageDto).get(1))));
+        Dto previousPageDto =
+            serviceFactory.getService(link(secondPageDto, HYDRA.previous)).execute();
+        assertThat(memberIRIs(previousPageDto), is(memberIRIs(firstPageDto)));
+        for (Dto buildingDto : (SimpleDtoCollectionDto<Dto>) previousPageDto) {
+            assertThat(buildingDto, instanceOf(BuildingDto.class));
+        }
+    }
+
+    @Test(expected = IRIInvalidException.class)
+    public void getPageOfRoomsWithInvalidLimit_throwsIRIInvalidException() throws Exception {
+        serviceFactory.getService("spatial/rooms/limit/0").execute();
+    }
+
+    @Test(expected = IRIInvalidException.class)
+    public void getPageOfRoomsWithInvalidCursor_throwsIRIInvalidException() throws Exception {
+        serviceFactory.getService(getPathScanner("spatial/rooms/limit/10/after/%%%")).execute();
+    }
+
+    /**
+     * Gets the raw IRIs of the members of the given collection.
+     *
+     * @param collectionDto {@link SimpleDtoCollectionDto} of which the members shall be returned.
+     * @return the raw IRIs of the members of the given collection.
+     */
+    private static List<String> memberIRIs(Dto collectionDto) {
+        return ((SimpleDtoCollectionDto<?>) collectionDto).asResourceList().stream()
+            .map(resource -> ((IResourceIdentifier) resource).rawIRI())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the path of the page that is linked by the given page with the given Hydra property.
+     *
+     * @param pageDto  the page of which the link shall be returned.
+     * @param property the Hydra property of the link.
+     * @return the path of the linked page relative to the base IRI, or null, if there is no link.
+     */
+    private static String link(Dto pageDto, IRI property) {
+        return Models.objectIRI(
+            pageDto.getModel().filter(pageDto.getIRI().iriValue(), property, null))
+            .map(page -> page.stringValue().substring(BASE.stringValue().length()))
+            .orElse(null);
+    }
+
     private static Scanner getPathScanner(String path) {
         Scanner pathScanner = new Scanner(path);
         pathScanner.useDelimiter("/");
@@ -0,0 +1,131 @@
+package at.ac.tuwien.finder.service.unittest;
+
+import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.dto.rdf.IResourceIdentifier;
+import at.ac.tuwien.finder.service.RDFCollectionHandler;
+import at.ac.tuwien.finder.service.StreamingService;
+import at.ac.tuwien.finder.service.TestTripleStore;
+import at.ac.tuwien.finder.service.dump.service.DumpService;
+import at.ac.tuwien.finder.service.spatial.room.service.AllRoomsService;
+import at.ac.tuwien.finder.vocabulary.TUVS;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.RDFCollections;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class tests the {@link StreamingService}s and the {@link RDFCollectionHandler}.
+ *
+ * @author Kevin Haller
+ */
+public class StreamingServicesTest {
+
+    private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+    private static final String BASE = TripleStoreManager.BASE.stringValue();
+
+    private static final IRI HEAD = valueFactory.createIRI(BASE, "spatial/room");
+    private static final IRI ROOM_A = valueFactory.createIRI(BASE, "spatial/room/id/A");
+    private static final IRI ROOM_B = valueFactory.createIRI(BASE, "spatial/room/id/B");
+
+    @Rule
+    public TestTripleStore testTripleStore = new TestTripleStore();
+
+    @Test
+    public void handleStatementsOfMembers_collectionInOrderOfFirstOccurrence() {
+        Model model = new LinkedHashModel();
+        Statement label =
+            valueFactory.createStatement(HEAD, RDFS.LABEL, valueFactory.createLiteral("Rooms"));
+        RDFCollectionHandler handler = new RDFCollectionHandler(new StatementCollector(model),
+            HEAD, TUVS.Room, Collections.singleton(label));
+        handler.startRDF();
+        handler.handleStatement(valueFactory.createStatement(ROOM_B, RDF.TYPE, TUVS.Room));
+        handler.handleStatement(valueFactory.createStatement(ROOM_A, RDF.TYPE, TUVS.Room));
+        handler.handleStatement(valueFactory.createStatement(ROOM_B, RDF.TYPE, TUVS.Room));
+        handler.handleStatement(valueFactory.createStatement(ROOM_A, RDF.TYPE, TUVS.Building));
+        handler.endRDF();
+        assertTrue(model.contains(label));
+        assertThat(RDFCollections.asValues(model, HEAD, new ArrayList<>()),
+            contains((Value) ROOM_B, ROOM_A));
+    }
+
+    @Test
+    public void handleStatementsWithoutMembers_noCollection() {
+        Model model = new LinkedHashModel();
+        RDFCollectionHandler handler =
+            new RDFCollectionHandler(new StatementCollector(model), HEAD, TUVS.Room, null);
+        handler.startRDF();
+        handler.handleStatement(valueFactory.createStatement(ROOM_A, RDF.TYPE, TUVS.Building));
+        handler.endRDF();
+        assertThat(model.filter(null, RDF.FIRST, null), is(empty()));
+        assertThat(model.filter(null, RDF.REST, null), is(empty()));
+    }
+
+    @Test
+    public void streamAllRooms_sameRoomsAsExecution() throws Exception {
+        AllRoomsService allRoomsService =
+            new AllRoomsService(testTripleStore.getTripleStoreManager(), HEAD.stringValue());
+        Model streamedModel = stream(allRoomsService);
+        Model executedModel = allRoomsService.execute().getModel();
+        assertThat(streamedModel.filter(null, RDF.TYPE, TUVS.Room).subjects(),
+            is(executedModel.filter(null, RDF.TYPE, TUVS.Room).subjects()));
+        assertThat(new HashSet<>(RDFCollections.asValues(streamedModel, HEAD, new ArrayList<>())),
+            is(new HashSet<Value>(executedModel.filter(null, RDF.TYPE, TUVS.Room).subjects())));
+    }
+
+    @Test
+    public void streamDump_sameStatementsAsExecution() throws Exception {
+        DumpService dumpService = new DumpService(new IResourceIdentifier(BASE + "dump"),
+            testTripleStore.getTripleStoreManager());
+        Model streamedModel = stream(dumpService);
+        Model executedModel = dumpService.execute().getModel();
+        assertThat(streamedModel.size(), is(executedModel.size()));
+        assertThat(streamedModel.subjects(),
+            hasItems(executedModel.subjects().toArray(new Resource[0])));
+    }
+
+    /**
+     * Streams the result of the given {@link StreamingService} and checks that the handler is
+     * started and ended exactly once.
+     *
+     * @param streamingService {@link StreamingService} of which the result shall be streamed.
+     * @return the {@link Model} with the streamed statements.
+     */
+    private static Model stream(StreamingService streamingService) throws Exception {
+        Model model = new LinkedHashModel();
+        List<String> events = new ArrayList<>();
+        streamingService.stream(new StatementCollector(model) {
+            @Override
+            public void startRDF() throws RDFHandlerException {
+                events.add("start");
+            }
+
+            @Override
+            public void endRDF() throws RDFHandlerException {
+                events.add("end");
+            }
+        });
+        assertThat(events, is(Arrays.asList("start", "end")));
+        return model;
+    }
+}
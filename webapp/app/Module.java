@@ -1,9 +1,13 @@
+import at.ac.tuwien.finder.service.cache.RepresentationCache;
 import com.google.inject.AbstractModule;
 import java.time.Clock;
 
 import services.ApplicationTimer;
 import services.AtomicCounter;
 import services.Counter;
+import services.DescribeBatching;
+import services.RepresentationCacheProvider;
+import services.TripleStoreExecutor;
 
 /**
  * This class is a Guice module that tells Guice how to bind several
@@ -26,6 +30,12 @@ public class Module extends AbstractModule {
         bind(ApplicationTimer.class).asEagerSingleton();
         // Set AtomicCounter as the implementation for Counter.
         bind(Counter.class).to(AtomicCounter.class);
+        // Executor dedicated to the blocking access of the triple store.
+        bind(TripleStoreExecutor.class).asEagerSingleton();
+        // Cache of the serialized representations of the results of services.
+        bind(RepresentationCache.class).toProvider(RepresentationCacheProvider.class);
+        // Batching of concurrent descriptions of resources.
+        bind(DescribeBatching.class).asEagerSingleton();
     }
 
 }
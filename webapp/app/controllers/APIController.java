@@ -1,43 +1,109 @@
 package controllers;
 
+import akka.stream.javadsl.Source;
+import akka.stream.javadsl.StreamConverters;
+import akka.util.ByteString;
+import at.ac.tuwien.finder.dto.Dto;
 import at.ac.tuwien.finder.dto.ExceptionResourceDto;
 import at.ac.tuwien.finder.dto.SerializationFormat;
 import at.ac.tuwien.finder.dto.exception.FileExtensionUnknownException;
+import at.ac.tuwien.finder.service.IService;
 import at.ac.tuwien.finder.service.ServiceFactory;
+import at.ac.tuwien.finder.service.StreamingService;
+import at.ac.tuwien.finder.service.cache.KnownResourceFilter;
+import at.ac.tuwien.finder.service.cache.RepresentationCache;
 import at.ac.tuwien.finder.service.exception.IRIInvalidException;
 import at.ac.tuwien.finder.service.exception.IRIUnknownException;
 import at.ac.tuwien.finder.service.exception.ResourceNotFoundException;
 import at.ac.tuwien.finder.service.exception.ServiceException;
+import at.ac.tuwien.finder.service.exception.UnknownResourceException;
+import at.ac.tuwien.finder.service.metrics.ServiceMetrics;
+import at.ac.tuwien.finder.service.metrics.ServiceMetrics.Phase;
 import exception.SerializationMediaTypeException;
 import exception.ServerInternalException;
-import play.api.http.MediaRange;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.rio.Rio;
+import play.Logger;
+import play.http.HttpEntity;
+import play.libs.concurrent.HttpExecution;
 import play.mvc.Controller;
+import play.mvc.Http;
 import play.mvc.Result;
+import scala.concurrent.duration.FiniteDuration;
+import services.ConditionalRequests;
+import services.ContentNegotiator;
+import services.RepresentationCacheProvider;
+import services.TripleStoreExecutor;
 import views.html.dataPage;
 import views.html.resource;
 
+import javax.inject.Inject;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.List;
-import java.util.Scanner;
-import java.util.stream.Collectors;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
- * This controller handles the HTTP request of resources and services.
+ * This controller handles the HTTP request of resources and services. The services are executed
+ * asynchronously on the {@link TripleStoreExecutor}, which is dedicated to the blocking access of
+ * the triple store.
  *
  * @author Kevin Haller
  */
 public class APIController extends Controller {
 
+    private static final FiniteDuration STREAM_WRITE_TIMEOUT = FiniteDuration.create(30,
+        TimeUnit.SECONDS);
+
+    /**
+     * The formats whose writers emit the statements one after another. The writers of the other
+     * formats (e.g. JSON-LD, RDF/XML) keep the whole document in memory, such that the results of
+     * {@link StreamingService}s are computed and cached in them like any other result.
+     */
+    private static final Set<SerializationFormat> STREAMING_FORMATS = EnumSet
+        .of(SerializationFormat.NTRIPLES, SerializationFormat.NQUADS, SerializationFormat.TURTLE,
+            SerializationFormat.TRIG, SerializationFormat.BINARY);
+
+    private static final String HTML_MEDIA_TYPE = "text/html; charset=utf-8";
+    private static final String PAGE_FORMAT = "PAGE";
+
+    private static final Map<SerializationFormat, byte[]> unknownResourceRepresentations =
+        new ConcurrentHashMap<>();
+
     private ServiceFactory serviceFactory;
+    private Executor tripleStoreExecutor;
+    private RepresentationCache representationCache;
+    private ContentNegotiator contentNegotiator;
 
     /**
      * Creates a new instance of {@link APIController}.
      *
+     * @param tripleStoreExecutor {@link TripleStoreExecutor} on which the services shall be
+     *                            executed.
+     * @param representationCache {@link RepresentationCache} that shall be used for caching the
+     *                            serialized results of the services.
+     * @param contentNegotiator   {@link ContentNegotiator} that shall be used for negotiating the
+     *                            format of the results.
      * @throws ServiceException if the exception cannot be established.
      */
-    public APIController() throws ServiceException {
-        this.serviceFactory = new ServiceFactory();
+    @Inject
+    public APIController(TripleStoreExecutor tripleStoreExecutor,
+        RepresentationCache representationCache, ContentNegotiator contentNegotiator)
+        throws ServiceException {
+        this(new ServiceFactory(), tripleStoreExecutor, representationCache, contentNegotiator);
     }
 
     /**
@@ -46,43 +112,73 @@ public class APIController extends Controller {
      * @param serviceFactory {@link ServiceFactory} that shall be used for the API Controller.
      */
     public APIController(ServiceFactory serviceFactory) {
+        this(serviceFactory, new TripleStoreExecutor(TripleStoreExecutor.DEFAULT_POOL_SIZE,
+            TripleStoreExecutor.DEFAULT_QUEUE_SIZE));
+    }
+
+    /**
+     * Creates a new instance of {@link APIController} using the given {@link ServiceFactory} and
+     * {@link Executor}.
+     *
+     * @param serviceFactory      {@link ServiceFactory} that shall be used for the API Controller.
+     * @param tripleStoreExecutor {@link Executor} on which the services shall be executed.
+     */
+    public APIController(ServiceFactory serviceFactory, Executor tripleStoreExecutor) {
+        this(serviceFactory, tripleStoreExecutor,
+            new RepresentationCache(RepresentationCacheProvider.DEFAULT_MAXIMUM_WEIGHT),
+            new ContentNegotiator());
+    }
+
+    /**
+     * Creates a new instance of {@link APIController} using the given {@link ServiceFactory},
+     * {@link Executor}, {@link RepresentationCache} and {@link ContentNegotiator}.
+     *
+     * @param serviceFactory      {@link ServiceFactory} that shall be used for the API Controller.
+     * @param tripleStoreExecutor {@link Executor} on which the services shall be executed.
+     * @param representationCache {@link RepresentationCache} that shall be used for caching the
+     *                            serialized results of the services.
+     * @param contentNegotiator   {@link ContentNegotiator} that shall be used for negotiating the
+     *                            format of the results.
+     */
+    public APIController(ServiceFactory serviceFactory, Executor tripleStoreExecutor,
+        RepresentationCache representationCache, ContentNegotiator contentNegotiator) {
+        assert serviceFactory != null;
+        assert tripleStoreExecutor != null;
+        assert representationCache != null;
+        assert contentNegotiator != null;
         this.serviceFactory = serviceFactory;
+        this.tripleStoreExecutor = tripleStoreExecutor;
+        this.representationCache = representationCache;
+        this.contentNegotiator = contentNegotiator;
     }
 
     /**
      * Carries out the service represented by the given path and returns the result in the format
      * indicated by the given {@code ACCEPTED-CONTENT} header of the HTTP request (Content negotiations).
-     * If the given format is unknown, a error with status code <b>406</b> will be returned.
+     * If the given format is unknown, a error with status code <b>406</b> will be returned. Since
+     * the response depends on the {@code Accept} header, all responses name it in their
+     * {@code Vary} header, such that shared caches keep the representations apart.
      *
      * @param path path that represents the service that shall be executed.
      * @return the result of the carried out service or exception.
      */
-    public Result service(String path) {
+    public CompletionStage<Result> service(String path) {
         assert path != null;
-        List<MediaRange> acceptedMediaRanges = request().acceptedTypes();
-        if (acceptedMediaRanges.isEmpty()) {
-            return redirect(controllers.routes.APIController.page(path));
-        }
-        for (MediaRange acceptedMediaRange : acceptedMediaRanges) {
-            if (acceptedMediaRange.accepts("text/html") || acceptedMediaRange
-                .accepts("application/xhtml+xml")) {
-                return redirect(controllers.routes.APIController.page(path));
-            } else {
-                for (SerializationFormat format : SerializationFormat.values()) {
-                    if (format.mimeTypes().stream().map(acceptedMediaRange::accepts)
-                        .reduce(false, (a, b) -> a || b)) {
-                        return computeService(format, path);
-                    }
-                }
-            }
+        String acceptHeader = request().getHeader(ACCEPT);
+        ContentNegotiator.Decision decision = contentNegotiator.negotiate(acceptHeader);
+        if (decision.isPage()) {
+            return CompletableFuture.completedFuture(
+                redirect(controllers.routes.APIController.page(path)).withHeader(VARY, ACCEPT));
+        } else if (!decision.isNotAcceptable()) {
+            return computeService(decision.format(), path)
+                .thenApply(result -> result.withHeader(VARY, ACCEPT));
         }
         // Prepare the serialization format exception.
         SerializationMediaTypeException serializationMediaTypeException =
-            new SerializationMediaTypeException(String.join(", ",
-                acceptedMediaRanges.stream().map(MediaRange::toString)
-                    .collect(Collectors.toList())));
-        return status(406, resource
-            .render(path, ExceptionResourceDto.getInstance(serializationMediaTypeException)));
+            new SerializationMediaTypeException(acceptHeader);
+        return CompletableFuture.completedFuture(status(406, resource
+            .render(path, ExceptionResourceDto.getInstance(serializationMediaTypeException)))
+            .withHeader(VARY, ACCEPT));
     }
 
     /**
@@ -93,12 +189,12 @@ public class APIController extends Controller {
      * @param path path that represents the service that shall be executed.
      * @return the result of the carried out service or exception.
      */
-    public Result serviceData(String path) {
+    public CompletionStage<Result> serviceData(String path) {
         try {
             return computeService(SerializationFormat.getFormatOfFile(path.replaceAll(".*/", "")),
                 path.replaceAll("\\.\\w+$", ""));
         } catch (FileExtensionUnknownException e) {
-            return status(406, e.getMessage());
+            return CompletableFuture.completedFuture(status(406, e.getMessage()));
         }
     }
 
@@ -111,67 +207,196 @@ public class APIController extends Controller {
      * @param path   path that represents the service that shall be executed.
      * @return the result of the carried out service or exception.
      */
-    public Result serviceWithFormat(String format, String path) {
+    public CompletionStage<Result> serviceWithFormat(String format, String path) {
         try {
             return computeService(SerializationFormat.valueOf(format.toUpperCase()), path);
         } catch (IllegalArgumentException e) {
-            return status(406, String
+            return CompletableFuture.completedFuture(status(406, String
                 .format("The given format %s is not supported. Supported ones are %s.", format,
                     Arrays.stream(SerializationFormat.values()).map(SerializationFormat::name)
-                        .reduce((a, b) -> a + ", " + b).orElse("none")));
+                        .reduce((a, b) -> a + ", " + b).orElse("none"))));
         }
     }
 
     /**
      * Carries out the service represented by the given path and presents the result in a human
-     * readable format (XHTML).
+     * readable format (XHTML). The rendered page is cached per language, which is negotiated by
+     * the {@code Accept-Language} header and therefore named in the {@code Vary} header.
      *
      * @param path path that represents the service that shall be executed.
      * @return the page presenting the result of the given result of the requested service, or of
      * the exception that occurred.
      */
-    public Result page(String path) {
+    public CompletionStage<Result> page(String path) {
         assert path != null;
-        try {
-            return ok(
-                dataPage.render(path, serviceFactory.getService(getPathScanner(path)).execute()));
-        } catch (IRIUnknownException | IRIInvalidException i) {
-            return badRequest(dataPage.render(path, ExceptionResourceDto.getInstance(i)));
-        } catch (ResourceNotFoundException i) {
-            return notFound(dataPage.render(path, ExceptionResourceDto.getInstance(i)));
-        } catch (ServiceException e) {
-            return internalServerError(dataPage.render(path, ExceptionResourceDto.getInstance(e)));
-        }
+        Optional<Date> lastModified = serviceFactory.getLastModified(path);
+        String language = Http.Context.current.get() != null ? lang().code() : null;
+        String route = serviceFactory.getRouteTemplate(path).orElse(ServiceMetrics.UNKNOWN_ROUTE);
+        long startTime = System.nanoTime();
+        return recordRequest(route, PAGE_FORMAT, startTime, executeAsync(route, () -> {
+            try {
+                if (lastModified.isPresent()) {
+                    byte[] cachedPage = representationCache
+                        .get(path, HTML_MEDIA_TYPE, language, lastModified.get());
+                    if (cachedPage != null) {
+                        return ok(cachedPage).as(HTML_MEDIA_TYPE);
+                    }
+                }
+                long dispatchStartTime = System.nanoTime();
+                IService service = serviceFactory.getService(path);
+                ServiceMetrics.getInstance().recordPhase(Phase.DISPATCH, dispatchStartTime);
+                Dto result = service.execute();
+                long renderStartTime = System.nanoTime();
+                byte[] page = dataPage.render(path, result).body().getBytes(StandardCharsets.UTF_8);
+                ServiceMetrics.getInstance().recordPhase(Phase.SERIALIZATION, renderStartTime);
+                if (lastModified.isPresent()) {
+                    representationCache.put(path, HTML_MEDIA_TYPE, language, lastModified.get(),
+                        serviceFactory.getDataSetDependencies(path), page);
+                }
+                return ok(page).as(HTML_MEDIA_TYPE);
+            } catch (IRIUnknownException | IRIInvalidException i) {
+                return badRequest(dataPage.render(path, ExceptionResourceDto.getInstance(i)));
+            } catch (ResourceNotFoundException i) {
+                return notFound(dataPage.render(path, ExceptionResourceDto.getInstance(i)));
+            } catch (ServiceException e) {
+                return internalServerError(
+                    dataPage.render(path, ExceptionResourceDto.getInstance(e)));
+            }
+        }).thenApply(result -> result.withHeader(VARY, ACCEPT_LANGUAGE)));
     }
 
     /**
      * Computes the service given by the passed path and returns the result in the given format.
+     * The response is validated by the modification stamp of the data on which the service
+     * depends. If the stamp matches the conditional headers of the request and a current
+     * representation of the path might exist (see {@link #isNotModified(String, String, Date)}),
+     * a response with status code <b>304</b> is returned without executing the service.
      *
      * @param format {@link SerializationFormat} that shall be returned.
      * @param path   path that represents the service that shall be executed.
      * @return the result of the computation of the given service.
      */
-    private Result computeService(SerializationFormat format, String path) {
+    private CompletionStage<Result> computeService(SerializationFormat format, String path) {
         assert format != null;
         assert path != null;
+        Optional<Date> lastModified = serviceFactory.getLastModified(path);
+        String route = serviceFactory.getRouteTemplate(path).orElse(ServiceMetrics.UNKNOWN_ROUTE);
+        long startTime = System.nanoTime();
+        if (!lastModified.isPresent()) {
+            return recordRequest(route, format.name(), startTime,
+                executeAsync(route,
+                    () -> computeServiceBlocking(format, path, lastModified, startTime)));
+        }
+        String entityTag = ConditionalRequests.entityTag(lastModified.get(), format);
+        String httpLastModified = ConditionalRequests.httpDate(lastModified.get());
+        if (isNotModified(path, entityTag, lastModified.get())) {
+            return recordRequest(route, format.name(), startTime, CompletableFuture.completedFuture(
+                status(NOT_MODIFIED).withHeaders(ETAG, entityTag, LAST_MODIFIED, httpLastModified,
+                    CACHE_CONTROL, "no-cache")));
+        }
+        return recordRequest(route, format.name(), startTime, executeAsync(route, () -> {
+            Result result = computeServiceBlocking(format, path, lastModified, startTime);
+            return result.status() == OK ? result
+                .withHeaders(ETAG, entityTag, LAST_MODIFIED, httpLastModified, CACHE_CONTROL,
+                    "no-cache") : result;
+        }));
+    }
+
+    /**
+     * Checks whether the representation of the given path has not been modified in regard to the
+     * conditional headers of the request. The preconditions must only be evaluated for paths to
+     * which a service is assigned, because there is no current representation for the other ones.
+     * The same holds for a resource that is definitely unknown (see
+     * {@link KnownResourceFilter}). Since the existence of any other resource is not verified
+     * without executing the service, {@code If-None-Match: *} does not match a path that describes
+     * a resource.
+     *
+     * @param path         path that represents the service.
+     * @param entityTag    the entity tag of the current representation.
+     * @param lastModified the {@link Date} at which the representation has been modified.
+     * @return true, if the representation has not been modified, otherwise false.
+     */
+    private boolean isNotModified(String path, String entityTag, Date lastModified) {
+        if (!ConditionalRequests.isNotModified(request(), entityTag, lastModified)) {
+            return false;
+        }
+        Optional<IRI> describedResource;
+        try {
+            describedResource = serviceFactory.getDescribedResource(path);
+        } catch (IRIUnknownException | IRIInvalidException e) {
+            return false;
+        }
+        return !describedResource.isPresent() || (serviceFactory.getKnownResourceFilter()
+            .mightExist(describedResource.get()) && ConditionalRequests
+            .isNotModified(request(), entityTag, lastModified, false));
+    }
+
+    /**
+     * Computes the service given by the passed path and returns the result in the given format.
+     * This method blocks until the service has been executed and must therefore only be called on
+     * the triple store executor. The result of a {@link StreamingService} is not computed here, but
+     * streamed in a chunked response (see {@link #streamService(StreamingService,
+     * SerializationFormat, long)}), if it is requested in one of the {@link #STREAMING_FORMATS}.
+     * The serialized result is looked up in and stored into the {@link RepresentationCache}, if
+     * the modification stamp of the data is known.
+     *
+     * @param format       {@link SerializationFormat} that shall be returned.
+     * @param path         path that represents the service that shall be executed.
+     * @param lastModified the modification stamp of the data on which the service depends.
+     * @param startTime    the value of {@link System#nanoTime()} at the start of the request.
+     * @return the result of the computation of the given service.
+     */
+    private Result computeServiceBlocking(SerializationFormat format, String path,
+        Optional<Date> lastModified, long startTime) {
         try {
-            return ok(serviceFactory.getService(getPathScanner(path)).execute().transformTo(format))
-                .as(format.getDefaultMimeType());
+            String mediaType = format.getDefaultMimeType();
+            if (lastModified.isPresent()) {
+                byte[] cachedRepresentation =
+                    representationCache.get(path, mediaType, null, lastModified.get());
+                if (cachedRepresentation != null) {
+                    return ok(cachedRepresentation).as(mediaType);
+                }
+            }
+            long dispatchStartTime = System.nanoTime();
+            IService service = serviceFactory.getService(path);
+            ServiceMetrics.getInstance().recordPhase(Phase.DISPATCH, dispatchStartTime);
+            if (service instanceof StreamingService && STREAMING_FORMATS.contains(format)) {
+                return streamService((StreamingService) service, format, startTime);
+            }
+            Dto result = service.execute();
+            long serializationStartTime = System.nanoTime();
+            byte[] representationBytes = serialize(result, format);
+            ServiceMetrics.getInstance().recordPhase(Phase.SERIALIZATION, serializationStartTime);
+            if (lastModified.isPresent()) {
+                representationCache.put(path, mediaType, null, lastModified.get(),
+                    serviceFactory.getDataSetDependencies(path), representationBytes);
+            }
+            return ok(representationBytes).as(mediaType);
         } catch (IRIUnknownException | IRIInvalidException i) {
             try {
-                return badRequest(ExceptionResourceDto.getInstance(i).transformTo(format));
+                return badRequest(serialize(ExceptionResourceDto.getInstance(i), format))
+                    .as(format.getDefaultMimeType());
             } catch (IOException io) {
                 return badRequest(i.getMessage());
             }
+        } catch (UnknownResourceException e) {
+            try {
+                return notFound(unknownResourceRepresentation(format))
+                    .as(format.getDefaultMimeType());
+            } catch (IOException io) {
+                return notFound(e.getMessage());
+            }
         } catch (ResourceNotFoundException e) {
             try {
-                return notFound(ExceptionResourceDto.getInstance(e).transformTo(format));
+                return notFound(serialize(ExceptionResourceDto.getInstance(e), format))
+                    .as(format.getDefaultMimeType());
             } catch (IOException io) {
                 return notFound(e.getMessage());
             }
         } catch (ServiceException e) {
             try {
-                return internalServerError(ExceptionResourceDto.getInstance(e).transformTo(format));
+                return internalServerError(serialize(ExceptionResourceDto.getInstance(e), format))
+                    .as(format.getDefaultMimeType());
             } catch (IOException u) {
                 return internalServerError(e.getMessage());
             }
@@ -179,7 +404,8 @@ public class APIController extends Controller {
             ServerInternalException serverInternalException = new ServerInternalException();
             try {
                 return internalServerError(
-                    ExceptionResourceDto.getInstance(serverInternalException).transformTo(format));
+                    serialize(ExceptionResourceDto.getInstance(serverInternalException), format))
+                    .as(format.getDefaultMimeType());
             } catch (IOException e) {
                 return internalServerError(serverInternalException.getMessage());
             }
@@ -187,16 +413,201 @@ public class APIController extends Controller {
     }
 
     /**
-     * Returns a {@link Scanner} for the given path that has '/' as delimiter so that the path is
-     * split into path segments.
+     * Streams the result of the given {@link StreamingService} in the given format as chunked
+     * response. The statements are written by a {@link org.eclipse.rdf4j.rio.RDFWriter} on the
+     * triple store executor directly into the body of the response. The writing task is only
+     * submitted, when the body is materialized, i.e. the client starts to consume it, such that no
+     * thread of the executor waits for a slow or abandoned client. The writing thread blocks, if
+     * the client does not keep up with the reading (backpressure). A saturated executor is
+     * answered with status code <b>503</b> before the response is started. Errors that occur
+     * after the response has been started cannot be reported to the client anymore, the response
+     * is then ended. The request is recorded in the {@link ServiceMetrics}, when the body has
+     * been streamed completely, with status code <b>500</b>, if the writing failed or the
+     * response has been aborted.
+     *
+     * @param service   {@link StreamingService} of which the result shall be streamed.
+     * @param format    {@link SerializationFormat} in which the result shall be written, which
+     *                  must be one of {@link #STREAMING_FORMATS}.
+     * @param startTime the value of {@link System#nanoTime()} at the start of the request.
+     * @return the chunked response streaming the result of the given service.
+     */
+    private Result streamService(StreamingService service, SerializationFormat format,
+        long startTime) {
+        ServiceMetrics serviceMetrics = ServiceMetrics.getInstance();
+        String route = serviceMetrics.boundRoute().orElse(ServiceMetrics.UNKNOWN_ROUTE);
+        if (isSaturated()) {
+            Logger.warn("Streaming of the service result was rejected, the executor is saturated.");
+            return status(SERVICE_UNAVAILABLE, "The service is temporarily overloaded.")
+                .withHeader(RETRY_AFTER, "1");
+        }
+        CompletableFuture<Boolean> written = new CompletableFuture<>();
+        Source<ByteString, OutputStream> body = StreamConverters
+            .asOutputStream(STREAM_WRITE_TIMEOUT).mapMaterializedValue(outputStream -> {
+                try {
+                    tripleStoreExecutor.execute(
+                        () -> write(service, format, outputStream, route, written));
+                } catch (RejectedExecutionException e) {
+                    Logger.warn("Streaming of the service result was rejected.", e);
+                    written.complete(false);
+                    closeQuietly(outputStream);
+                }
+                return outputStream;
+            }).watchTermination((outputStream, termination) -> {
+                termination.whenComplete((done, failure) -> {
+                    if (failure != null) {
+                        serviceMetrics.recordRequest(route, format.name(), INTERNAL_SERVER_ERROR,
+                            startTime);
+                    } else {
+                        written.thenAccept(success -> serviceMetrics
+                            .recordRequest(route, format.name(),
+                                success ? OK : INTERNAL_SERVER_ERROR, startTime));
+                    }
+                });
+                return outputStream;
+            });
+        return ok().chunked(body).as(format.getDefaultMimeType());
+    }
+
+    /**
+     * Writes the result of the given {@link StreamingService} in the given format into the given
+     * body of a response and closes it afterwards. The given future is completed with the outcome
+     * before the body is closed.
+     *
+     * @param service      {@link StreamingService} of which the result shall be written.
+     * @param format       {@link SerializationFormat} in which the result shall be written.
+     * @param outputStream the body of the response.
+     * @param route        the template of the route of the request.
+     * @param written      the future that shall be completed with true, if the result has been
+     *                     written completely, otherwise with false.
+     */
+    private static void write(StreamingService service, SerializationFormat format,
+        OutputStream outputStream, String route, CompletableFuture<Boolean> written) {
+        long streamStartTime = System.nanoTime();
+        boolean success = false;
+        try {
+            service.stream(Rio.createWriter(format.getRDFFormat(), outputStream));
+            success = true;
+        } catch (ServiceException | RuntimeException e) {
+            Logger.error("Streaming of the service result failed.", e);
+        } finally {
+            ServiceMetrics.getInstance().recordPhase(route, Phase.SERIALIZATION, streamStartTime);
+            written.complete(success);
+            closeQuietly(outputStream);
+        }
+    }
+
+    /**
+     * Closes the given body of a response. A failure is only logged, since the response cannot
+     * be changed anymore.
      *
-     * @param path path for which the path scanner shall be created.
-     * @return a {@link Scanner} for the given path that has '/' as delimiter.
+     * @param outputStream the body of the response.
      */
-    private static Scanner getPathScanner(String path) {
-        Scanner pathScanner = new Scanner(path);
-        pathScanner.useDelimiter("/");
-        return pathScanner;
+    private static void closeQuietly(OutputStream outputStream) {
+        try {
+            outputStream.close();
+        } catch (IOException e) {
+            Logger.warn("The body of the streamed service result cannot be closed.", e);
+        }
+    }
+
+    /**
+     * Checks whether the queue of the triple store executor is full, such that a further task
+     * would be rejected.
+     *
+     * @return true, if the triple store executor is saturated, otherwise false.
+     */
+    private boolean isSaturated() {
+        if (tripleStoreExecutor instanceof TripleStoreExecutor) {
+            TripleStoreExecutor executor = (TripleStoreExecutor) tripleStoreExecutor;
+            return executor.queueDepth() >= executor.queueCapacity();
+        }
+        return false;
+    }
+
+    /**
+     * Serializes the given {@link Dto} in the given format. Other than
+     * {@link Dto#transformTo(SerializationFormat)}, this method supports binary formats.
+     *
+     * @param dto    {@link Dto} that shall be serialized.
+     * @param format {@link SerializationFormat} in which the given {@link Dto} shall be serialized.
+     * @return the bytes of the serialized {@link Dto}.
+     * @throws IOException if the serialization of the given {@link Dto} failed.
+     */
+    private static byte[] serialize(Dto dto, SerializationFormat format) throws IOException {
+        ByteArrayOutputStream representation = new ByteArrayOutputStream();
+        dto.transformTo(format, representation);
+        return representation.toByteArray();
+    }
+
+    /**
+     * Gets the representation of an {@link UnknownResourceException} in the given format, which
+     * is serialized once per format, because it is the same for all unknown resources.
+     *
+     * @param format {@link SerializationFormat} of the representation.
+     * @return the bytes of the representation of an {@link UnknownResourceException}.
+     * @throws IOException if the representation cannot be serialized.
+     */
+    private static byte[] unknownResourceRepresentation(SerializationFormat format)
+        throws IOException {
+        byte[] representation = unknownResourceRepresentations.get(format);
+        if (representation == null) {
+            representation =
+                serialize(ExceptionResourceDto.getInstance(new UnknownResourceException(null)),
+                    format);
+            unknownResourceRepresentations.put(format, representation);
+        }
+        return representation;
+    }
+
+    /**
+     * Records the latency, the format and the status code of the given {@link Result}, when it has
+     * been completed (see {@link ServiceMetrics#recordRequest(String, String, int, long)}). A
+     * chunked {@link Result} is recorded, when its body has been streamed (see
+     * {@link #streamService(StreamingService, SerializationFormat, long)}).
+     *
+     * @param route     the template of the route of the request.
+     * @param format    the format of the response.
+     * @param startTime the value of {@link System#nanoTime()} at the start of the request.
+     * @param result    {@link CompletionStage} of the {@link Result} that shall be recorded.
+     * @return {@link CompletionStage} of the given {@link Result}.
+     */
+    private static CompletionStage<Result> recordRequest(String route, String format,
+        long startTime, CompletionStage<Result> result) {
+        return result.thenApply(completedResult -> {
+            if (!(completedResult.body() instanceof HttpEntity.Chunked)) {
+                ServiceMetrics.getInstance()
+                    .recordRequest(route, format, completedResult.status(), startTime);
+            }
+            return completedResult;
+        });
+    }
+
+    /**
+     * Executes the given blocking computation of a {@link Result} on the triple store executor. The
+     * HTTP context of the current request is preserved and the given route is bound to the
+     * executing thread (see {@link ServiceMetrics#bindRoute(String)}). If the executor is
+     * saturated, a {@link Result} with status code <b>503</b> will be returned immediately.
+     *
+     * @param route               the template of the route of the request.
+     * @param blockingComputation the blocking computation of the {@link Result}.
+     * @return {@link CompletionStage} of the computed {@link Result}.
+     */
+    private CompletionStage<Result> executeAsync(String route,
+        Supplier<Result> blockingComputation) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                ServiceMetrics.getInstance().bindRoute(route);
+                try {
+                    return blockingComputation.get();
+                } finally {
+                    ServiceMetrics.getInstance().unbindRoute();
+                }
+            }, HttpExecution.fromThread(tripleStoreExecutor));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(
+                status(SERVICE_UNAVAILABLE, "The service is temporarily overloaded.")
+                    .withHeader(RETRY_AFTER, "1"));
+        }
     }
 
 }
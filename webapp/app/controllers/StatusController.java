@@ -0,0 +1,126 @@
+package controllers;
+
+import at.ac.tuwien.finder.service.DescribeBatcher;
+import at.ac.tuwien.finder.service.cache.RepresentationCache;
+import at.ac.tuwien.finder.service.metrics.ServiceMetrics;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import play.libs.Json;
+import play.mvc.Controller;
+import play.mvc.Result;
+import services.TripleStoreExecutor;
+
+import javax.inject.Inject;
+
+/**
+ * This controller exposes information about the state of the application, such as the
+ * utilization of the {@link TripleStoreExecutor}, the efficiency of the
+ * {@link RepresentationCache} or the latencies of the services ({@link ServiceMetrics}).
+ *
+ * @author Kevin Haller
+ */
+public class StatusController extends Controller {
+
+    private TripleStoreExecutor tripleStoreExecutor;
+    private RepresentationCache representationCache;
+
+    /**
+     * Creates a new instance of {@link StatusController}.
+     *
+     * @param tripleStoreExecutor {@link TripleStoreExecutor} of which the state shall be exposed.
+     * @param representationCache {@link RepresentationCache} of which the state shall be exposed.
+     */
+    @Inject
+    public StatusController(TripleStoreExecutor tripleStoreExecutor,
+        RepresentationCache representationCache) {
+        this.tripleStoreExecutor = tripleStoreExecutor;
+        this.representationCache = representationCache;
+    }
+
+    /**
+     * Returns the current utilization of the {@link TripleStoreExecutor} in form of a JSON
+     * object.
+     *
+     * @return the current utilization of the {@link TripleStoreExecutor}.
+     */
+    public Result tripleStoreExecutor() {
+        ObjectNode executorNode = Json.newObject();
+        executorNode.put("poolSize", tripleStoreExecutor.poolSize());
+        executorNode.put("activeThreads", tripleStoreExecutor.activeThreads());
+        executorNode.put("queueDepth", tripleStoreExecutor.queueDepth());
+        executorNode.put("queueCapacity", tripleStoreExecutor.queueCapacity());
+        executorNode.put("saturation", tripleStoreExecutor.saturation());
+        executorNode.put("rejectedTasks", tripleStoreExecutor.rejectedTasks());
+        executorNode.put("completedTasks", tripleStoreExecutor.completedTasks());
+        return ok(executorNode);
+    }
+
+    /**
+     * Returns the counters and the occupancy of the {@link RepresentationCache} in form of a JSON
+     * object.
+     *
+     * @return the counters and the occupancy of the {@link RepresentationCache}.
+     */
+    public Result representationCache() {
+        ObjectNode cacheNode = Json.newObject();
+        cacheNode.put("entries", representationCache.size());
+        cacheNode.put("weight", representationCache.weight());
+        cacheNode.put("maximumWeight", representationCache.maximumWeight());
+        cacheNode.put("hits", representationCache.hitCount());
+        cacheNode.put("misses", representationCache.missCount());
+        cacheNode.put("evictions", representationCache.evictionCount());
+        cacheNode.put("invalidations", representationCache.invalidationCount());
+        return ok(cacheNode);
+    }
+
+    /**
+     * Returns the latencies of the services recorded by {@link ServiceMetrics} as well as the
+     * state of the {@link TripleStoreExecutor}, the {@link RepresentationCache} and the
+     * {@link DescribeBatcher} in the Prometheus text format.
+     *
+     * @return the metrics of this application in the Prometheus text format.
+     */
+    public Result metrics() {
+        StringBuilder metricsBuilder = new StringBuilder();
+        ServiceMetrics.getInstance().writePrometheus(metricsBuilder);
+        appendMetric(metricsBuilder, "finder_executor_active_threads", "gauge",
+            "Number of threads that are executing a task.", tripleStoreExecutor.activeThreads());
+        appendMetric(metricsBuilder, "finder_executor_queue_depth", "gauge",
+            "Number of tasks that are waiting for execution.", tripleStoreExecutor.queueDepth());
+        appendMetric(metricsBuilder, "finder_executor_rejected_tasks_total", "counter",
+            "Number of tasks that have been rejected.", tripleStoreExecutor.rejectedTasks());
+        appendMetric(metricsBuilder, "finder_cache_hits_total", "counter",
+            "Number of hits in the representation cache.", representationCache.hitCount());
+        appendMetric(metricsBuilder, "finder_cache_misses_total", "counter",
+            "Number of misses in the representation cache.", representationCache.missCount());
+        appendMetric(metricsBuilder, "finder_cache_weight_bytes", "gauge",
+            "Number of bytes in the representation cache.", representationCache.weight());
+        DescribeBatcher describeBatcher = DescribeBatcher.getInstance();
+        appendMetric(metricsBuilder, "finder_describe_batches_total", "counter",
+            "Number of batches of descriptions that have been evaluated.",
+            describeBatcher.batchCount());
+        appendMetric(metricsBuilder, "finder_describe_batched_requests_total", "counter",
+            "Number of descriptions that have been answered by a batch.",
+            describeBatcher.batchedRequestCount());
+        appendMetric(metricsBuilder, "finder_describe_bypassed_requests_total", "counter",
+            "Number of descriptions that have been evaluated on their own.",
+            describeBatcher.bypassedRequestCount());
+        return ok(metricsBuilder.toString()).as("text/plain; version=0.0.4; charset=utf-8");
+    }
+
+    /**
+     * Appends the metric with the given name, type, description and value in the Prometheus text
+     * format to the given {@link StringBuilder}.
+     *
+     * @param builder {@link StringBuilder} to which the metric shall be appended.
+     * @param name    the name of the metric.
+     * @param type    the type of the metric (counter or gauge).
+     * @param help    the description of the metric.
+     * @param value   the value of the metric.
+     */
+    private static void appendMetric(StringBuilder builder, String name, String type,
+        String help, long value) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        builder.append(name).append(' ').append(value).append('\n');
+    }
+}
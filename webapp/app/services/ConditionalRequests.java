@@ -0,0 +1,146 @@
+package services;
+
+import at.ac.tuwien.finder.dto.SerializationFormat;
+import play.mvc.Http;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * This class provides the validators ({@code ETag} and {@code Last-Modified}) of representations
+ * and evaluates the conditional headers ({@code If-None-Match} and {@code If-Modified-Since}) of
+ * requests against them (RFC 7232). The validators are derived from the modification stamp of the
+ * data on which a representation depends. The entity tags are weak, because representations with
+ * the same stamp are semantically, but not necessarily byte-wise equivalent.
+ *
+ * @author Kevin Haller
+ */
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Gets the weak entity tag for the representation in the given format of data that has been
+     * modified at the given {@link Date}.
+     *
+     * @param lastModified the {@link Date} at which the data has been modified the last time.
+     * @param format       {@link SerializationFormat} of the representation.
+     * @return the weak entity tag of the representation.
+     */
+    public static String entityTag(Date lastModified, SerializationFormat format) {
+        assert lastModified != null;
+        assert format != null;
+        return String.format("W/\"%x-%s\"", lastModified.getTime(), format.name().toLowerCase());
+    }
+
+    /**
+     * Formats the given {@link Date} as HTTP date (RFC 1123 in UTC).
+     *
+     * @param date {@link Date} that shall be formatted.
+     * @return the given {@link Date} as HTTP date.
+     */
+    public static String httpDate(Date date) {
+        assert date != null;
+        return DateTimeFormatter.RFC_1123_DATE_TIME
+            .format(ZonedDateTime.ofInstant(date.toInstant(), ZoneOffset.UTC));
+    }
+
+    /**
+     * Checks whether the representation with the given validators has not been modified in regard
+     * to the conditional headers of the given request. {@code If-None-Match} takes precedence over
+     * {@code If-Modified-Since}.
+     *
+     * @param request      {@link Http.Request} of which the conditional headers shall be checked.
+     * @param entityTag    the entity tag of the current representation.
+     * @param lastModified the {@link Date} at which the representation has been modified.
+     * @return true, if the representation has not been modified, otherwise false.
+     */
+    public static boolean isNotModified(Http.Request request, String entityTag,
+        Date lastModified) {
+        return isNotModified(request, entityTag, lastModified, true);
+    }
+
+    /**
+     * Checks whether the representation with the given validators has not been modified in regard
+     * to the conditional headers of the given request. {@code If-None-Match} takes precedence over
+     * {@code If-Modified-Since}. The entity tag {@code *} only matches, if it is known that a
+     * current representation exists.
+     *
+     * @param request              {@link Http.Request} of which the conditional headers shall be
+     *                             checked.
+     * @param entityTag            the entity tag of the current representation.
+     * @param lastModified         the {@link Date} at which the representation has been modified.
+     * @param representationExists true, if it is known that a current representation exists,
+     *                             otherwise false.
+     * @return true, if the representation has not been modified, otherwise false.
+     */
+    public static boolean isNotModified(Http.Request request, String entityTag, Date lastModified,
+        boolean representationExists) {
+        Optional<String> ifNoneMatch =
+            Optional.ofNullable(request.getHeader(Http.HeaderNames.IF_NONE_MATCH));
+        if (ifNoneMatch.isPresent()) {
+            return matchesEntityTag(ifNoneMatch.get(), entityTag, representationExists);
+        }
+        String ifModifiedSince = request.getHeader(Http.HeaderNames.IF_MODIFIED_SINCE);
+        return ifModifiedSince != null && notModifiedSince(ifModifiedSince, lastModified);
+    }
+
+    /**
+     * Checks whether the given value of an {@code If-None-Match} header matches the given entity
+     * tag using the weak comparison.
+     *
+     * @param ifNoneMatch          value of the {@code If-None-Match} header.
+     * @param entityTag            the entity tag of the current representation.
+     * @param representationExists true, if {@code *} shall match, because it is known that a
+     *                             current representation exists, otherwise false.
+     * @return true, if the header matches the given entity tag, otherwise false.
+     */
+    static boolean matchesEntityTag(String ifNoneMatch, String entityTag,
+        boolean representationExists) {
+        String opaqueTag = opaqueTag(entityTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") ? representationExists :
+                opaqueTag.equals(opaqueTag(candidate))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the given data has not been modified since the given value of an
+     * {@code If-Modified-Since} header. HTTP dates have a precision of seconds, hence the
+     * milliseconds of the given {@link Date} are ignored. An invalid date is ignored as well.
+     *
+     * @param ifModifiedSince value of the {@code If-Modified-Since} header.
+     * @param lastModified    the {@link Date} at which the data has been modified.
+     * @return true, if the data has not been modified since the given date, otherwise false.
+     */
+    static boolean notModifiedSince(String ifModifiedSince, Date lastModified) {
+        try {
+            Instant since = ZonedDateTime
+                .parse(ifModifiedSince.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return lastModified.toInstant().getEpochSecond() <= since.getEpochSecond();
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the opaque tag of the given entity tag, which is the tag without the weakness
+     * indicator.
+     *
+     * @param entityTag the entity tag of which the opaque tag shall be returned.
+     * @return the opaque tag of the given entity tag.
+     */
+    private static String opaqueTag(String entityTag) {
+        return entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag;
+    }
+}
@@ -0,0 +1,274 @@
+package services;
+
+import at.ac.tuwien.finder.dto.SerializationFormat;
+
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class negotiates the representation of a response by the {@code Accept} header of the
+ * request (RFC 7231). The available representations are the human readable page and the
+ * {@link SerializationFormat}s. The media types of them are collected once at the creation of the
+ * negotiator. The quality values and wildcards of the media ranges are honoured; if several
+ * representations have the same quality, the page is preferred, then the formats in the order of
+ * {@link SerializationFormat#values()}.
+ * <p>
+ * The decisions are cached per raw {@code Accept} header in a small, bounded cache, because
+ * clients send the same few headers over and over again. Lookups in the cache take no lock; the
+ * cache is cleared, when it is full, since the headers that are actually in use are cached again
+ * by the next few requests.
+ *
+ * @author Kevin Haller
+ */
+@Singleton
+public class ContentNegotiator {
+
+    public static final int DEFAULT_CACHE_SIZE = 256;
+    private static final int MAX_CACHED_HEADER_LENGTH = 1024;
+
+    private static final String[] PAGE_MEDIA_TYPES = {"text/html", "application/xhtml+xml"};
+    /**
+     * {@code text/plain} is registered for N-Triples, but is not negotiated, such that a request
+     * for plain text is still not acceptable. N-Triples is offered as {@code application/n-triples}.
+     */
+    private static final List<String> UNNEGOTIATED_MEDIA_TYPES =
+        Collections.singletonList("text/plain");
+
+    private final List<Variant> variants = new ArrayList<>();
+    private final Map<String, Decision> decisionCache = new ConcurrentHashMap<>();
+    private final int cacheSize;
+
+    /**
+     * Creates a new {@link ContentNegotiator} with a decision cache of default size.
+     */
+    public ContentNegotiator() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a new {@link ContentNegotiator} with a decision cache of the given size.
+     *
+     * @param cacheSize the maximal number of {@code Accept} headers of which the decision shall be
+     *                  cached.
+     */
+    public ContentNegotiator(int cacheSize) {
+        assert cacheSize > 0;
+        this.cacheSize = cacheSize;
+        for (String pageMediaType : PAGE_MEDIA_TYPES) {
+            variants.add(new Variant(pageMediaType, Decision.PAGE));
+        }
+        for (SerializationFormat format : SerializationFormat.values()) {
+            Decision formatDecision = new Decision(format);
+            for (String mimeType : format.mimeTypes()) {
+                if (!UNNEGOTIATED_MEDIA_TYPES.contains(mimeType)) {
+                    variants.add(new Variant(mimeType, formatDecision));
+                }
+            }
+        }
+    }
+
+    /**
+     * Negotiates the representation for the given {@code Accept} header.
+     *
+     * @param acceptHeader the value of the {@code Accept} header, or null, if the request has no
+     *                     such header.
+     * @return the {@link Decision} of the negotiation.
+     */
+    public Decision negotiate(String acceptHeader) {
+        if (acceptHeader == null || acceptHeader.trim().isEmpty()) {
+            return Decision.PAGE;
+        }
+        if (acceptHeader.length() > MAX_CACHED_HEADER_LENGTH) {
+            return computeDecision(acceptHeader);
+        }
+        Decision decision = decisionCache.get(acceptHeader);
+        if (decision == null) {
+            decision = computeDecision(acceptHeader);
+            if (decisionCache.size() >= cacheSize) {
+                decisionCache.clear();
+            }
+            decisionCache.put(acceptHeader, decision);
+        }
+        return decision;
+    }
+
+    /**
+     * Computes the decision for the given {@code Accept} header. Every available representation
+     * gets the quality of the most specific media range that matches it, and the representation
+     * with the highest quality above zero is chosen.
+     *
+     * @param acceptHeader the value of the {@code Accept} header.
+     * @return the {@link Decision} of the negotiation.
+     */
+    private Decision computeDecision(String acceptHeader) {
+        List<MediaRange> mediaRanges = new ArrayList<>();
+        for (String mediaRange : acceptHeader.split(",")) {
+            MediaRange parsedMediaRange = MediaRange.parse(mediaRange);
+            if (parsedMediaRange != null) {
+                mediaRanges.add(parsedMediaRange);
+            }
+        }
+        Decision bestDecision = Decision.NOT_ACCEPTABLE;
+        double bestQuality = 0.0;
+        for (Variant variant : variants) {
+            int bestSpecificity = -1;
+            double quality = 0.0;
+            for (MediaRange mediaRange : mediaRanges) {
+                int specificity = mediaRange.specificity(variant.type, variant.subtype);
+                if (specificity > bestSpecificity) {
+                    bestSpecificity = specificity;
+                    quality = mediaRange.quality;
+                }
+            }
+            if (quality > bestQuality) {
+                bestQuality = quality;
+                bestDecision = variant.decision;
+            }
+        }
+        return bestDecision;
+    }
+
+    /**
+     * This class represents the decision of a content negotiation, which is either the human
+     * readable page, a {@link SerializationFormat} or that no representation is acceptable.
+     */
+    public static final class Decision {
+
+        public static final Decision PAGE = new Decision(null);
+        public static final Decision NOT_ACCEPTABLE = new Decision(null);
+
+        private final SerializationFormat format;
+
+        private Decision(SerializationFormat format) {
+            this.format = format;
+        }
+
+        /**
+         * Checks whether the human readable page has been chosen.
+         *
+         * @return true, if the human readable page has been chosen, otherwise false.
+         */
+        public boolean isPage() {
+            return this == PAGE;
+        }
+
+        /**
+         * Checks whether no representation is acceptable.
+         *
+         * @return true, if no representation is acceptable, otherwise false.
+         */
+        public boolean isNotAcceptable() {
+            return this == NOT_ACCEPTABLE;
+        }
+
+        /**
+         * Gets the chosen {@link SerializationFormat}.
+         *
+         * @return the chosen {@link SerializationFormat}, or null, if no format has been chosen.
+         */
+        public SerializationFormat format() {
+            return format;
+        }
+    }
+
+    /**
+     * This class represents an available representation with its media type.
+     */
+    private static final class Variant {
+
+        private final String type;
+        private final String subtype;
+        private final Decision decision;
+
+        private Variant(String mediaType, Decision decision) {
+            int slash = mediaType.indexOf('/');
+            this.type = mediaType.substring(0, slash).toLowerCase(Locale.ENGLISH);
+            this.subtype = mediaType.substring(slash + 1).toLowerCase(Locale.ENGLISH);
+            this.decision = decision;
+        }
+    }
+
+    /**
+     * This class represents a media range of an {@code Accept} header.
+     */
+    private static final class MediaRange {
+
+        private final String type;
+        private final String subtype;
+        private final double quality;
+
+        private MediaRange(String type, String subtype, double quality) {
+            this.type = type;
+            this.subtype = subtype;
+            this.quality = quality;
+        }
+
+        /**
+         * Parses the given media range. Parameters other than the quality are ignored.
+         *
+         * @param mediaRange the media range that shall be parsed.
+         * @return the parsed media range, or null, if it is invalid.
+         */
+        private static MediaRange parse(String mediaRange) {
+            String[] parts = mediaRange.split(";");
+            String mediaType = parts[0].trim().toLowerCase(Locale.ENGLISH);
+            int slash = mediaType.indexOf('/');
+            if (slash <= 0 || slash == mediaType.length() - 1) {
+                return mediaType.equals("*") ? new MediaRange("*", "*", quality(parts)) : null;
+            }
+            String type = mediaType.substring(0, slash);
+            String subtype = mediaType.substring(slash + 1);
+            if (type.equals("*") && !subtype.equals("*")) {
+                return null;
+            }
+            return new MediaRange(type, subtype, quality(parts));
+        }
+
+        /**
+         * Gets the quality of the given parameters of a media range.
+         *
+         * @param parts the parts of the media range, where the first one is the media type.
+         * @return the quality of the media range, or 1.0, if it is not given or invalid.
+         */
+        private static double quality(String[] parts) {
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        double quality = Double.parseDouble(parameter.substring(2).trim());
+                        return Math.max(0.0, Math.min(1.0, quality));
+                    } catch (NumberFormatException e) {
+                        return 1.0;
+                    }
+                }
+            }
+            return 1.0;
+        }
+
+        /**
+         * Gets the specificity with which this media range matches the given media type.
+         *
+         * @param type    the type of the media type.
+         * @param subtype the subtype of the media type.
+         * @return 2 for an exact match, 1 for a subtype wildcard, 0 for a full wildcard and -1, if
+         * this media range does not match.
+         */
+        private int specificity(String type, String subtype) {
+            if (this.type.equals("*")) {
+                return 0;
+            }
+            if (!this.type.equals(type)) {
+                return -1;
+            }
+            if (this.subtype.equals("*")) {
+                return 1;
+            }
+            return this.subtype.equals(subtype) ? 2 : -1;
+        }
+    }
+}
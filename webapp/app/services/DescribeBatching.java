@@ -0,0 +1,41 @@
+package services;
+
+import at.ac.tuwien.finder.service.DescribeBatcher;
+import play.Configuration;
+import play.Logger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class configures the {@link DescribeBatcher} of the application by
+ * {@code finder.batching.describe}. The batching of descriptions is disabled, unless a window is
+ * configured.
+ *
+ * @author Kevin Haller
+ */
+@Singleton
+public class DescribeBatching {
+
+    public static final long DEFAULT_WINDOW = 0L;
+
+    /**
+     * Creates a new {@link DescribeBatching} that configures the {@link DescribeBatcher} of the
+     * application.
+     *
+     * @param configuration {@link Configuration} of the application.
+     */
+    @Inject
+    public DescribeBatching(Configuration configuration) {
+        long window =
+            configuration.getMilliseconds("finder.batching.describe.window", DEFAULT_WINDOW);
+        int maxBatchSize = configuration.getInt("finder.batching.describe.max-size",
+            DescribeBatcher.DEFAULT_MAX_BATCH_SIZE);
+        DescribeBatcher.getInstance().configure(window, TimeUnit.MILLISECONDS, maxBatchSize);
+        if (window > 0) {
+            Logger.info("Descriptions are batched within {} ms up to {} resources.", window,
+                maxBatchSize);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package services;
+
+import at.ac.tuwien.finder.datamanagement.catalog.DataCatalog;
+import at.ac.tuwien.finder.service.cache.RepresentationCache;
+import play.Configuration;
+import play.inject.ApplicationLifecycle;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class provides the {@link RepresentationCache} of the application, which is configured by
+ * {@code finder.cache.representation} and registered for modification events of the data catalog.
+ *
+ * @author Kevin Haller
+ */
+@Singleton
+public class RepresentationCacheProvider implements Provider<RepresentationCache> {
+
+    public static final long DEFAULT_MAXIMUM_WEIGHT = 64L * 1024 * 1024;
+
+    private final RepresentationCache representationCache;
+
+    /**
+     * Creates a new {@link RepresentationCacheProvider}.
+     *
+     * @param configuration {@link Configuration} of the application.
+     * @param lifecycle     {@link ApplicationLifecycle} to which the deregistration of the cache
+     *                      shall be bound.
+     */
+    @Inject
+    public RepresentationCacheProvider(Configuration configuration,
+        ApplicationLifecycle lifecycle) {
+        representationCache = new RepresentationCache(configuration
+            .getBytes("finder.cache.representation.max-size", DEFAULT_MAXIMUM_WEIGHT));
+        DataCatalog.addModificationListener(representationCache);
+        lifecycle.addStopHook(() -> {
+            DataCatalog.removeModificationListener(representationCache);
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    @Override
+    public RepresentationCache get() {
+        return representationCache;
+    }
+}
@@ -0,0 +1,170 @@
+package services;
+
+import play.Configuration;
+import play.Logger;
+import play.inject.ApplicationLifecycle;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is an {@link Executor} that is dedicated to the blocking I/O against the triple
+ * store (execution of services and the serialization of their results). It has a fixed number of
+ * threads and a bounded queue, such that slow queries cannot stall the default dispatcher of Play.
+ * Tasks that exceed the capacity of the queue are rejected with a
+ * {@link RejectedExecutionException}.
+ *
+ * @author Kevin Haller
+ */
+@Singleton
+public class TripleStoreExecutor implements Executor {
+
+    public static final int DEFAULT_POOL_SIZE = 16;
+    public static final int DEFAULT_QUEUE_SIZE = 256;
+
+    private final ThreadPoolExecutor threadPool;
+    private final int queueCapacity;
+    private final LongAdder rejectedTasks = new LongAdder();
+
+    /**
+     * Creates a new {@link TripleStoreExecutor} that is configured by the given
+     * {@link Configuration} ({@code finder.triplestore.executor}).
+     *
+     * @param configuration {@link Configuration} of the application.
+     * @param lifecycle     {@link ApplicationLifecycle} to which the shutdown of this executor
+     *                      shall be bound.
+     */
+    @Inject
+    public TripleStoreExecutor(Configuration configuration, ApplicationLifecycle lifecycle) {
+        this(configuration.getInt("finder.triplestore.executor.pool-size", DEFAULT_POOL_SIZE),
+            configuration.getInt("finder.triplestore.executor.queue-size", DEFAULT_QUEUE_SIZE));
+        lifecycle.addStopHook(() -> {
+            shutdown();
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    /**
+     * Creates a new {@link TripleStoreExecutor} with the given pool size and queue capacity.
+     *
+     * @param poolSize      the number of threads that shall execute the tasks.
+     * @param queueCapacity the maximal number of tasks that are waiting for execution.
+     */
+    public TripleStoreExecutor(int poolSize, int queueCapacity) {
+        assert poolSize > 0;
+        assert queueCapacity > 0;
+        this.queueCapacity = queueCapacity;
+        this.threadPool = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new TripleStoreThreadFactory(),
+            (runnable, executor) -> {
+                rejectedTasks.increment();
+                throw new RejectedExecutionException(String
+                    .format("The triple store executor is saturated (%d queued tasks).",
+                        executor.getQueue().size()));
+            });
+        this.threadPool.allowCoreThreadTimeOut(true);
+        Logger.info("Triple store executor started with {} threads and a queue of {} tasks.",
+            poolSize, queueCapacity);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        threadPool.execute(command);
+    }
+
+    /**
+     * Gets the number of tasks that are waiting for execution.
+     *
+     * @return the number of tasks that are waiting for execution.
+     */
+    public int queueDepth() {
+        return threadPool.getQueue().size();
+    }
+
+    /**
+     * Gets the maximal number of tasks that can wait for execution.
+     *
+     * @return the maximal number of tasks that can wait for execution.
+     */
+    public int queueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Gets the number of threads that are currently executing a task.
+     *
+     * @return the number of threads that are currently executing a task.
+     */
+    public int activeThreads() {
+        return threadPool.getActiveCount();
+    }
+
+    /**
+     * Gets the maximal number of threads of this executor.
+     *
+     * @return the maximal number of threads of this executor.
+     */
+    public int poolSize() {
+        return threadPool.getMaximumPoolSize();
+    }
+
+    /**
+     * Gets the saturation of this executor, which is the ratio of running and waiting tasks to the
+     * total capacity (threads and queue). A saturation of 1.0 means that new tasks are rejected.
+     *
+     * @return the saturation of this executor in the range of 0.0 to 1.0.
+     */
+    public double saturation() {
+        return (double) (activeThreads() + queueDepth()) / (poolSize() + queueCapacity);
+    }
+
+    /**
+     * Gets the number of tasks that have been rejected, because this executor was saturated.
+     *
+     * @return the number of tasks that have been rejected.
+     */
+    public long rejectedTasks() {
+        return rejectedTasks.sum();
+    }
+
+    /**
+     * Gets the approximate number of tasks that have been completed.
+     *
+     * @return the approximate number of tasks that have been completed.
+     */
+    public long completedTasks() {
+        return threadPool.getCompletedTaskCount();
+    }
+
+    /**
+     * Shuts this executor down. Already submitted tasks will be executed.
+     */
+    public void shutdown() {
+        threadPool.shutdown();
+    }
+
+    /**
+     * This class is a {@link ThreadFactory} that names the threads of the triple store executor.
+     */
+    private static class TripleStoreThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread =
+                new Thread(runnable, "triple-store-executor-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
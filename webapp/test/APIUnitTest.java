@@ -1,10 +1,18 @@
+import akka.actor.ActorSystem;
+import akka.stream.ActorMaterializer;
+import akka.stream.Materializer;
+import akka.stream.javadsl.Sink;
+import akka.util.ByteString;
 import at.ac.tuwien.finder.datamanagement.TripleStoreManager;
+import at.ac.tuwien.finder.datamanagement.replication.ReadOperation;
 import at.ac.tuwien.finder.dto.spatial.BuildingDto;
 import at.ac.tuwien.finder.service.ServiceFactory;
 import controllers.APIController;
 import org.eclipse.rdf4j.common.iteration.Iterations;
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.BNode;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
@@ -14,19 +22,27 @@ import org.eclipse.rdf4j.repository.sail.SailRepository;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.Rio;
 import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import play.mvc.Http;
 import play.mvc.Result;
 import play.test.Helpers;
 import play.twirl.api.Content;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -41,8 +57,13 @@ public class APIUnitTest {
 
     private static Repository repository;
 
+    private static ActorSystem actorSystem;
+    private static Materializer materializer;
+
     @BeforeClass
     public static void setUpClass() throws IOException {
+        actorSystem = ActorSystem.create();
+        materializer = ActorMaterializer.create(actorSystem);
         tripleStoreManager = mock(TripleStoreManager.class);
         repository = new SailRepository(new MemoryStore());
         repository.initialize();
@@ -53,6 +74,11 @@ public class APIUnitTest {
         }
     }
 
+    @AfterClass
+    public static void tearDownClass() {
+        actorSystem.terminate();
+    }
+
     private ValueFactory valueFactory = SimpleValueFactory.getInstance();
     private APIController apiController;
 
@@ -70,7 +96,28 @@ public class APIUnitTest {
 
     @Before
     public void setUp() {
-        when(tripleStoreManager.getConnection()).thenReturn(repository.getConnection());
+        when(tripleStoreManager.getConnection())
+            .thenAnswer(invocation -> repository.getConnection());
+        when(tripleStoreManager.getPrimaryConnection())
+            .thenAnswer(invocation -> repository.getConnection());
+        when(tripleStoreManager.read(any())).thenAnswer(invocation -> {
+            try (RepositoryConnection connection = repository.getConnection()) {
+                return ((ReadOperation<?>) invocation.getArguments()[0]).read(connection);
+            }
+        });
+        when(tripleStoreManager.getConnection(any(IRI.class)))
+            .thenAnswer(invocation -> repository.getConnection());
+        when(tripleStoreManager.getConnection(anyCollectionOf(IRI.class)))
+            .thenAnswer(invocation -> repository.getConnection());
+        when(tripleStoreManager.getFederatedConnection())
+            .thenAnswer(invocation -> repository.getConnection());
+        when(tripleStoreManager.getPrimaryConnection(any(IRI.class)))
+            .thenAnswer(invocation -> repository.getConnection());
+        when(tripleStoreManager.read(any(IRI.class), any())).thenAnswer(invocation -> {
+            try (RepositoryConnection connection = repository.getConnection()) {
+                return ((ReadOperation<?>) invocation.getArguments()[1]).read(connection);
+            }
+        });
         apiController = new APIController(new ServiceFactory(tripleStoreManager));
     }
 
@@ -91,8 +138,9 @@ public class APIUnitTest {
     }
 
     @Test
-    public void renderDataPageTemplateOfBuildingResource_ok() {
-        Result buildingResult = apiController.page("spatial/building/id/A");
+    public void renderDataPageTemplateOfBuildingResource_ok() throws Exception {
+        Result buildingResult =
+            apiController.page("spatial/building/id/A").toCompletableFuture().get();
         String buildingResultString = Helpers.contentAsString(buildingResult);
         assertThat("The result must indicate a successful processed request. Status Code: 200",
             buildingResult.status(), is(200));
@@ -106,19 +154,46 @@ public class APIUnitTest {
     }
 
     @Test
-    public void renderDataPageTemplateOfUnknownBuildingResource_notFoundException() {
-        Result buildingResult = apiController.page("spatial/building/id/AB");
+    public void renderDataPageTemplateOfUnknownBuildingResource_notFoundException()
+        throws Exception {
+        Result buildingResult =
+            apiController.page("spatial/building/id/AB").toCompletableFuture().get();
         assertThat(
             "The result must indicate that the requested resource could not be found. Status Code: 404",
             buildingResult.status(), is(404));
     }
 
     @Test
-    public void renderDataPageTemplateOfUnknownBuildingResource_badRequestException() {
-        Result buildingResult = apiController.page("building/id/AB");
+    public void renderDataPageTemplateOfUnknownBuildingResource_badRequestException()
+        throws Exception {
+        Result buildingResult = apiController.page("building/id/AB").toCompletableFuture().get();
         assertThat(
             "The result must indicate that the IRI is not assigned to any service. Status Code: 400",
             buildingResult.status(), is(400));
     }
 
+    @Test
+    public void streamDumpAsNTriples_completeBodyInSeveralChunks() throws Exception {
+        Http.Context.current.set(new Http.Context(Helpers.fakeRequest()));
+        try {
+            Result dumpResult = apiController.serviceData("dump.nt").toCompletableFuture().get();
+            assertThat(dumpResult.status(), is(200));
+            List<ByteString> chunks = dumpResult.body().dataStream()
+                .runWith(Sink.seq(), materializer).toCompletableFuture().get(30, TimeUnit.SECONDS);
+            assertTrue("The dump must be streamed in several chunks.", chunks.size() > 1);
+            ByteString body = chunks.stream().reduce(ByteString.empty(), ByteString::concat);
+            Model dumpModel =
+                Rio.parse(new ByteArrayInputStream(body.toArray()), "", RDFFormat.NTRIPLES);
+            for (Statement statement : getModel()) {
+                if (!(statement.getSubject() instanceof BNode)
+                    && !(statement.getObject() instanceof BNode)) {
+                    assertTrue("The streamed dump must contain " + statement, dumpModel
+                        .contains(statement.getSubject(), statement.getPredicate(),
+                            statement.getObject()));
+                }
+            }
+        } finally {
+            Http.Context.current.remove();
+        }
+    }
 }
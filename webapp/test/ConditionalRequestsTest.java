@@ -0,0 +1,69 @@
+import at.ac.tuwien.finder.dto.SerializationFormat;
+import org.junit.Test;
+import play.mvc.Http;
+import play.test.Helpers;
+import services.ConditionalRequests;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the evaluation of conditional requests.
+ */
+public class ConditionalRequestsTest {
+
+    private static final Date LAST_MODIFIED = new Date(1480000000123L);
+
+    private static Http.Request request(String headerName, String value) {
+        return Helpers.fakeRequest().header(headerName, value).build();
+    }
+
+    @Test
+    public void matchingEntityTag_notModified() {
+        String entityTag = ConditionalRequests.entityTag(LAST_MODIFIED, SerializationFormat.TURTLE);
+        assertTrue(ConditionalRequests.isNotModified(
+            request(Http.HeaderNames.IF_NONE_MATCH, "\"other\", " + entityTag), entityTag,
+            LAST_MODIFIED));
+    }
+
+    @Test
+    public void entityTagOfOtherFormat_modified() {
+        String entityTag = ConditionalRequests.entityTag(LAST_MODIFIED, SerializationFormat.TURTLE);
+        assertFalse(ConditionalRequests.isNotModified(request(Http.HeaderNames.IF_NONE_MATCH,
+            ConditionalRequests.entityTag(LAST_MODIFIED, SerializationFormat.JSONLD)), entityTag,
+            LAST_MODIFIED));
+    }
+
+    @Test
+    public void anyEntityTag_notModifiedOnlyIfRepresentationExists() {
+        String entityTag = ConditionalRequests.entityTag(LAST_MODIFIED, SerializationFormat.TURTLE);
+        Http.Request request = request(Http.HeaderNames.IF_NONE_MATCH, "*");
+        assertTrue(ConditionalRequests.isNotModified(request, entityTag, LAST_MODIFIED, true));
+        assertFalse(ConditionalRequests.isNotModified(request, entityTag, LAST_MODIFIED, false));
+        assertTrue(ConditionalRequests
+            .isNotModified(request(Http.HeaderNames.IF_NONE_MATCH, "*, " + entityTag), entityTag,
+                LAST_MODIFIED, false));
+    }
+
+    @Test
+    public void ifModifiedSinceWithSecondPrecision_notModified() {
+        String entityTag = ConditionalRequests.entityTag(LAST_MODIFIED, SerializationFormat.TURTLE);
+        assertTrue(ConditionalRequests.isNotModified(
+            request(Http.HeaderNames.IF_MODIFIED_SINCE,
+                ConditionalRequests.httpDate(LAST_MODIFIED)), entityTag, LAST_MODIFIED));
+        assertFalse(ConditionalRequests.isNotModified(
+            request(Http.HeaderNames.IF_MODIFIED_SINCE,
+                ConditionalRequests.httpDate(new Date(LAST_MODIFIED.getTime() - 1000L))),
+            entityTag, LAST_MODIFIED));
+    }
+
+    @Test
+    public void invalidIfModifiedSince_modified() {
+        String entityTag = ConditionalRequests.entityTag(LAST_MODIFIED, SerializationFormat.TURTLE);
+        assertFalse(ConditionalRequests
+            .isNotModified(request(Http.HeaderNames.IF_MODIFIED_SINCE, "yesterday"), entityTag,
+                LAST_MODIFIED));
+    }
+}
@@ -0,0 +1,61 @@
+import at.ac.tuwien.finder.dto.SerializationFormat;
+import org.junit.Test;
+import services.ContentNegotiator;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the content negotiation by the {@code Accept} header.
+ */
+public class ContentNegotiatorTest {
+
+    private ContentNegotiator contentNegotiator = new ContentNegotiator();
+
+    @Test
+    public void missingAcceptHeader_page() {
+        assertTrue(contentNegotiator.negotiate(null).isPage());
+    }
+
+    @Test
+    public void browserAcceptHeader_page() {
+        assertTrue(contentNegotiator
+            .negotiate("text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
+            .isPage());
+    }
+
+    @Test
+    public void higherQualityValue_chosen() {
+        assertThat(contentNegotiator.negotiate("text/turtle;q=0.9, application/ld+json").format(),
+            is(SerializationFormat.JSONLD));
+    }
+
+    @Test
+    public void subtypeWildcard_matchesFormat() {
+        assertThat(contentNegotiator.negotiate("text/html;q=0, application/*;q=0.5").format(),
+            is(SerializationFormat.RDFXML));
+    }
+
+    @Test
+    public void machineClientAcceptHeader_linewiseAndBinaryFormats() {
+        assertThat(contentNegotiator.negotiate("application/n-triples").format(),
+            is(SerializationFormat.NTRIPLES));
+        assertThat(contentNegotiator.negotiate("application/n-quads").format(),
+            is(SerializationFormat.NQUADS));
+        assertThat(
+            contentNegotiator.negotiate("application/x-binary-rdf, text/turtle;q=0.5").format(),
+            is(SerializationFormat.BINARY));
+    }
+
+    @Test
+    public void plainTextAcceptHeader_notAcceptable() {
+        assertTrue(contentNegotiator.negotiate("text/plain").isNotAcceptable());
+        assertTrue(contentNegotiator.negotiate("text/plain, */*;q=0.1").isPage());
+    }
+
+    @Test
+    public void excludedByZeroQuality_notAcceptable() {
+        assertTrue(contentNegotiator.negotiate("image/png, text/turtle;q=0").isNotAcceptable());
+    }
+}